@@ -2,9 +2,11 @@ package com.hilltop.user;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 
-@SpringBootApplication
+// a ConnectionFactory bean would switch off the DataSource auto-configuration, R2DBC is set up by R2dbcConfiguration.
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableEurekaClient
 public class UserApplication {
 
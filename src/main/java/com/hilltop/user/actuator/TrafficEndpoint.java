@@ -0,0 +1,33 @@
+package com.hilltop.user.actuator;
+
+import com.hilltop.user.service.TrafficStatisticsService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Traffic endpoint
+ * Reports the approximate heavy hitters of the auth and user endpoints at /actuator/traffic.
+ */
+@Component
+@Endpoint(id = "traffic")
+public class TrafficEndpoint {
+
+    private final TrafficStatisticsService trafficStatisticsService;
+
+    public TrafficEndpoint(TrafficStatisticsService trafficStatisticsService) {
+        this.trafficStatisticsService = trafficStatisticsService;
+    }
+
+    /**
+     * This method is used to get the traffic statistics.
+     *
+     * @return statistics by dimension
+     */
+    @ReadOperation
+    public Map<String, Object> traffic() {
+        return trafficStatisticsService.getStatistics();
+    }
+}
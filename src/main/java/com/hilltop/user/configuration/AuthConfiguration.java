@@ -1,35 +1,83 @@
 package com.hilltop.user.configuration;
 
+import com.hilltop.user.filter.JwtAuthenticationFilter;
 import com.hilltop.user.service.CustomUserDetailsService;
+import com.hilltop.user.service.JwtTokenService;
+import com.hilltop.user.util.TimedPasswordEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.NullSecurityContextRepository;
+
+import java.util.Set;
 
 /**
  * Auth configuration
+ * Stateless: requests are authenticated by their bearer token only, no http session is created or looked up. User
+ * search and the actuator endpoints other than health are limited to the configured support staff.
  */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(SupportStaffProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthConfiguration {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, JwtTokenService jwtTokenService,
+                                                   SupportStaffProperties supportStaffProperties) throws Exception {
         return httpSecurity.csrf().disable()
+                .cors().and()
+                .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
+                .securityContext().securityContextRepository(new NullSecurityContextRepository()).and()
+                .requestCache().disable()
+                .anonymous().disable()
+                .formLogin().disable()
+                .httpBasic().disable()
+                .logout().disable()
+                .exceptionHandling().authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)).and()
+                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenService), UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests()
-                .antMatchers("/api/v1/user", "/api/v1/user/login", "/api/v1/user/validate-token").permitAll()
+                .antMatchers(HttpMethod.POST, "/api/v1/user", "/api/v1/auth/sign-in").permitAll()
+                .antMatchers(HttpMethod.GET, "/", "/api/v1/auth/validate-token", "/api/v1/user/registrations/*",
+                        "/actuator/health").permitAll()
+                .antMatchers("/api-docs/**", "/v2/api-docs", "/swagger-ui/**", "/swagger-resources/**", "/error")
+                .permitAll()
+                .antMatchers(HttpMethod.GET, "/api/v1/user/search").access(supportStaff(supportStaffProperties))
+                .antMatchers("/actuator/**").access(supportStaff(supportStaffProperties))
+                .anyRequest().authenticated()
                 .and()
                 .build();
     }
 
+    /**
+     * This method is used to allow requests of support staff only, unauthenticated requests still get 401.
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> supportStaff(
+            SupportStaffProperties supportStaffProperties) {
+        Set<String> mobileNos = Set.copyOf(supportStaffProperties.getMobileNos());
+        return (authentication, context) -> new AuthorizationDecision(
+                mobileNos.contains(authentication.get().getName()));
+    }
+
     @Bean
     public UserDetailsService userDetailsService() {
         return new CustomUserDetailsService();
@@ -51,6 +99,6 @@ public class AuthConfiguration {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder());
     }
 }
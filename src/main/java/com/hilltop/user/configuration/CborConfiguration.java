@@ -0,0 +1,84 @@
+package com.hilltop.user.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * CBOR configuration
+ * Request and response bodies can be CBOR (application/cbor) instead of JSON, for internal callers: the client sends
+ * Content-Type and Accept application/cbor. The CBOR mapper is built like the JSON one, so both encode the same
+ * fields. CBOR is registered after JSON, which stays the default for any other Accept header.
+ */
+@Configuration
+public class CborConfiguration {
+
+    /**
+     * Replaces the default CBOR converter of Spring MVC in place, after the JSON converter.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(createCborMapper(jackson2ObjectMapperBuilder));
+    }
+
+    /**
+     * WebFlux has no default CBOR codecs. Custom object codecs come before the default ones, so the JSON encoder is
+     * registered again ahead of the CBOR one to stay the default.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CodecCustomizer cborCodecCustomizer(ObjectMapper objectMapper,
+                                               Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        ObjectMapper cborMapper = createCborMapper(jackson2ObjectMapperBuilder);
+        return codecConfigurer -> {
+            codecConfigurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            codecConfigurer.customCodecs().register(new SingleValueCborEncoder(cborMapper));
+            codecConfigurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        };
+    }
+
+    private static ObjectMapper createCborMapper(Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        return jackson2ObjectMapperBuilder.createXmlMapper(false).factory(new CBORFactory()).build();
+    }
+
+    /**
+     * Jackson2CborEncoder only encodes single values, but the message writer always hands it a publisher, even for a
+     * Mono response body.
+     */
+    private static class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+        SingleValueCborEncoder(ObjectMapper cborMapper) {
+            super(cborMapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono)
+                return Mono.from(inputStream)
+                        .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                        .flux();
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+}
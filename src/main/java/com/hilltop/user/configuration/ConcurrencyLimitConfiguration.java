@@ -0,0 +1,34 @@
+package com.hilltop.user.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.filter.ConcurrencyLimitFilter;
+import com.hilltop.user.filter.ConcurrencyLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+
+/**
+ * Concurrency limit configuration
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "user.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfiguration {
+
+    /**
+     * Runs right after request timing and ahead of security, so shed requests cost as little as possible.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyLimitProperties concurrencyLimitProperties, ObjectMapper objectMapper) throws IOException {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(concurrencyLimitProperties, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,58 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.repository.UserRepository;
+import com.hilltop.user.repository.resilience.DatabaseResilienceProperties;
+import com.hilltop.user.repository.resilience.ResilientRepositoryInterceptor;
+import com.hilltop.user.repository.sharding.ShardingRepositoryInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Database resilience configuration
+ */
+@Configuration
+@EnableConfigurationProperties(DatabaseResilienceProperties.class)
+@ConditionalOnProperty(prefix = "user.database.resilience", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class DatabaseResilienceConfiguration {
+
+    @Bean
+    public ResilientRepositoryInterceptor resilientRepositoryInterceptor(
+            DatabaseResilienceProperties databaseResilienceProperties, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        return new ResilientRepositoryInterceptor(databaseResilienceProperties, transactionManager, meterRegistry);
+    }
+
+    /**
+     * Adds the interceptor to the user repository proxy, right after the sharding interceptor when there is one, so
+     * the shard is selected before the guarded transaction takes a connection.
+     */
+    @Bean
+    public static BeanPostProcessor resilientRepositoryPostProcessor(
+            ObjectProvider<ResilientRepositoryInterceptor> resilientRepositoryInterceptor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport
+                        && UserRepository.class.equals(((RepositoryFactoryBeanSupport<?, ?, ?>) bean).getObjectType())) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                                Advisor[] advisors = proxyFactory.getAdvisors();
+                                int position = advisors.length > 0
+                                        && advisors[0].getAdvice() instanceof ShardingRepositoryInterceptor ? 1 : 0;
+                                proxyFactory.addAdvice(position, resilientRepositoryInterceptor.getObject());
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+}
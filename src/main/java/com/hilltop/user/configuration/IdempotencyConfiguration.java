@@ -0,0 +1,38 @@
+package com.hilltop.user.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.filter.IdempotencyFilter;
+import com.hilltop.user.repository.idempotency.IdempotencyProperties;
+import com.hilltop.user.repository.idempotency.IdempotencyStore;
+import com.hilltop.user.repository.idempotency.InMemoryIdempotencyStore;
+import com.hilltop.user.repository.idempotency.JdbcIdempotencyStore;
+import com.hilltop.user.repository.idempotency.TieredIdempotencyStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Idempotency configuration
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "user.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfiguration {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties idempotencyProperties, JdbcTemplate jdbcTemplate) {
+        InMemoryIdempotencyStore inMemoryStore = new InMemoryIdempotencyStore(idempotencyProperties.getMaxEntries());
+        if (!idempotencyProperties.isPersistent())
+            return inMemoryStore;
+        return new TieredIdempotencyStore(inMemoryStore, new JdbcIdempotencyStore(jdbcTemplate));
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter(IdempotencyStore idempotencyStore,
+                                               IdempotencyProperties idempotencyProperties, ObjectMapper objectMapper) {
+        return new IdempotencyFilter(idempotencyStore, idempotencyProperties.getPaths(),
+                idempotencyProperties.getTtl(), idempotencyProperties.getMaxWaitMillis(), objectMapper);
+    }
+}
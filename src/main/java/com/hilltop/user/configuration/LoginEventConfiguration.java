@@ -0,0 +1,31 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.repository.login.LoginEventProperties;
+import com.hilltop.user.repository.login.LoginEventRecorder;
+import com.hilltop.user.repository.login.LoginEventWriter;
+import com.hilltop.user.repository.resilience.ResilientRepositoryInterceptor;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+/**
+ * Login event configuration
+ */
+@Configuration
+@EnableConfigurationProperties(LoginEventProperties.class)
+@ConditionalOnProperty(prefix = "user.login-events", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LoginEventConfiguration {
+
+    @Bean
+    public LoginEventRecorder loginEventRecorder(JdbcTemplate jdbcTemplate, ShardLayout shardLayout,
+                                                 LoginEventProperties loginEventProperties,
+                                                 Optional<ResilientRepositoryInterceptor> resilientInterceptor) {
+        return new LoginEventRecorder(new LoginEventWriter(jdbcTemplate, resilientInterceptor.orElse(null)),
+                shardLayout, loginEventProperties);
+    }
+}
@@ -0,0 +1,42 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.repository.reactive.R2dbcStorageProperties;
+import com.hilltop.user.repository.reactive.ReactiveUserRepository;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * R2dbc configuration
+ * The connection pool is owned by the repository and not exposed as a ConnectionFactory bean: that would switch off
+ * the DataSource used by JPA and flyway, which stay in place for everything but the reactive auth endpoints.
+ */
+@Configuration
+@EnableConfigurationProperties(R2dbcStorageProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class R2dbcConfiguration {
+
+    @Bean
+    public ReactiveUserRepository reactiveUserRepository(R2dbcStorageProperties r2dbcStorageProperties,
+                                                         ShardLayout shardLayout) {
+        if (shardLayout.isSharded())
+            throw new IllegalStateException("The reactive stack does not support sharded user storage.");
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbcStorageProperties.getUrl())
+                .mutate();
+        if (r2dbcStorageProperties.getUsername() != null)
+            options.option(ConnectionFactoryOptions.USER, r2dbcStorageProperties.getUsername());
+        if (r2dbcStorageProperties.getPassword() != null)
+            options.option(ConnectionFactoryOptions.PASSWORD, r2dbcStorageProperties.getPassword());
+        return new ReactiveUserRepository(new ConnectionPool(
+                ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                        .maxSize(r2dbcStorageProperties.getMaxPoolSize())
+                        .maxAcquireTime(r2dbcStorageProperties.getMaxAcquireTime())
+                        .build()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.filter.ReactiveJwtAuthenticationFilter;
+import com.hilltop.user.repository.reactive.ReactiveUserRepository;
+import com.hilltop.user.service.JwtTokenService;
+import com.hilltop.user.service.ReactiveCustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.savedrequest.NoOpServerRequestCache;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Set;
+
+/**
+ * Reactive auth configuration
+ * Reactive counterpart of {@link AuthConfiguration}, same public endpoints, support staff endpoints and bearer token
+ * authentication. Password hashes are checked on a bounded scheduler of their own, so BCrypt never runs on an event
+ * loop thread.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@EnableConfigurationProperties(SupportStaffProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthConfiguration {
+
+    private static final int PASSWORD_HASH_QUEUE_SIZE_PER_THREAD = 16;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity serverHttpSecurity,
+                                                         JwtTokenService jwtTokenService,
+                                                         SupportStaffProperties supportStaffProperties) {
+        return serverHttpSecurity.csrf().disable()
+                .cors().and()
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .requestCache().requestCache(NoOpServerRequestCache.getInstance()).and()
+                .formLogin().disable()
+                .httpBasic().disable()
+                .logout().disable()
+                .exceptionHandling().authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED))
+                .and()
+                .addFilterAt(new ReactiveJwtAuthenticationFilter(jwtTokenService), SecurityWebFiltersOrder.AUTHENTICATION)
+                .authorizeExchange()
+                .pathMatchers(HttpMethod.POST, "/api/v1/auth/sign-in").permitAll()
+                .pathMatchers(HttpMethod.GET, "/", "/api/v1/auth/validate-token", "/actuator/health").permitAll()
+                .pathMatchers("/actuator/**").access(supportStaff(supportStaffProperties))
+                .anyExchange().authenticated()
+                .and()
+                .build();
+    }
+
+    /**
+     * This method is used to allow requests of support staff only, unauthenticated requests still get 401.
+     */
+    private static ReactiveAuthorizationManager<AuthorizationContext> supportStaff(
+            SupportStaffProperties supportStaffProperties) {
+        Set<String> mobileNos = Set.copyOf(supportStaffProperties.getMobileNos());
+        return (authentication, context) -> authentication
+                .map(principal -> new AuthorizationDecision(mobileNos.contains(principal.getName())))
+                .defaultIfEmpty(new AuthorizationDecision(false));
+    }
+
+    /**
+     * BCrypt is CPU bound, more threads than cores only add queueing inside the scheduler. The queue holds a few
+     * hashes per thread (16 unless configured), so sign-ins are rejected within a fraction of a second of backlog
+     * rather than after minutes of queued work.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler passwordHashScheduler(
+            @Value("${user.reactive.password-hash-threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+            int passwordHashThreads,
+            @Value("${user.reactive.password-hash-queue-size:0}") int passwordHashQueueSize) {
+        int queueSize = passwordHashQueueSize > 0 ? passwordHashQueueSize
+                : passwordHashThreads * PASSWORD_HASH_QUEUE_SIZE_PER_THREAD;
+        return Schedulers.newBoundedElastic(passwordHashThreads, queueSize, "password-hash");
+    }
+
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserRepository reactiveUserRepository,
+                                                                       Scheduler passwordHashScheduler) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(
+                        new ReactiveCustomUserDetailsService(reactiveUserRepository));
+        authenticationManager.setPasswordEncoder(passwordEncoder());
+        authenticationManager.setScheduler(passwordHashScheduler);
+        return authenticationManager;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
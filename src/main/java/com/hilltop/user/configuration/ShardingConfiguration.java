@@ -0,0 +1,128 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.repository.UserRepository;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import com.hilltop.user.repository.sharding.ShardRebalancer;
+import com.hilltop.user.repository.sharding.ShardRoutingDataSource;
+import com.hilltop.user.repository.sharding.ShardingProperties;
+import com.hilltop.user.repository.sharding.ShardingRepositoryInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sharding configuration
+ * Without user.sharding.enabled the service uses spring.datasource as a single shard.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardLayout shardLayout(ShardingProperties shardingProperties) {
+        if (!shardingProperties.isEnabled())
+            return new ShardLayout(1, 0);
+        return new ShardLayout(shardingProperties.getShards().size(), shardingProperties.getPreviousShardCount());
+    }
+
+    /**
+     * Sharded user storage
+     */
+    @Slf4j
+    @Configuration
+    @ConditionalOnProperty(prefix = "user.sharding", name = "enabled", havingValue = "true")
+    static class ShardedStorageConfiguration {
+
+        @Bean
+        @Primary
+        public ShardRoutingDataSource dataSource(ShardingProperties shardingProperties) {
+            List<DataSource> shards = shardingProperties.getShards().stream()
+                    .map(shard -> DataSourceBuilder.create().type(HikariDataSource.class)
+                            .url(shard.getUrl()).username(shard.getUsername()).password(shard.getPassword())
+                            .build())
+                    .collect(Collectors.toList());
+            return new ShardRoutingDataSource(shards);
+        }
+
+        @Bean
+        public ShardingRepositoryInterceptor shardingRepositoryInterceptor(ShardLayout shardLayout) {
+            return new ShardingRepositoryInterceptor(shardLayout);
+        }
+
+        /**
+         * Makes the sharding interceptor the first advice of the user repository proxy.
+         */
+        @Bean
+        public static BeanPostProcessor shardingRepositoryPostProcessor(
+                ObjectProvider<ShardingRepositoryInterceptor> shardingRepositoryInterceptor) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (bean instanceof RepositoryFactoryBeanSupport
+                            && UserRepository.class.equals(((RepositoryFactoryBeanSupport<?, ?, ?>) bean).getObjectType())) {
+                        ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                                factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                                    ShardingRepositoryInterceptor interceptor =
+                                            shardingRepositoryInterceptor.getObject();
+                                    interceptor.checkSupported(repositoryInformation.getRepositoryInterface());
+                                    proxyFactory.addAdvice(0, interceptor);
+                                }));
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        @Bean
+        public FlywayMigrationStrategy shardedFlywayMigrationStrategy(ShardRoutingDataSource dataSource) {
+            return flyway -> {
+                for (DataSource shard : dataSource.getShards()) {
+                    Flyway.configure(flyway.getConfiguration().getClassLoader())
+                            .configuration(flyway.getConfiguration())
+                            .dataSource(shard)
+                            .load()
+                            .migrate();
+                }
+            };
+        }
+
+        @Bean
+        public ShardRebalancer shardRebalancer(ShardRoutingDataSource dataSource, ShardLayout shardLayout,
+                                               ShardingProperties shardingProperties) {
+            return new ShardRebalancer(dataSource.getShards(), shardLayout,
+                    shardingProperties.getRebalance().getBatchSize());
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "user.sharding.rebalance", name = "enabled", havingValue = "true")
+        public ApplicationListener<ApplicationReadyEvent> shardRebalancerStarter(ShardRebalancer shardRebalancer) {
+            return event -> {
+                Thread thread = new Thread(() -> {
+                    try {
+                        log.info("Rebalanced shards, moved {} users.", shardRebalancer.rebalance());
+                    } catch (RuntimeException e) {
+                        log.error("Failed to rebalance shards.", e);
+                    }
+                }, "shard-rebalancer");
+                thread.setDaemon(true);
+                thread.start();
+            };
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.hilltop.user.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Support staff properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.support")
+public class SupportStaffProperties {
+
+    /**
+     * Mobile numbers of the support staff accounts, the only ones allowed to search users and to read the actuator
+     * endpoints other than health. Anyone can register, so the user type of an account grants nothing. Empty by
+     * default: nobody can.
+     */
+    private List<String> mobileNos = new ArrayList<>();
+}
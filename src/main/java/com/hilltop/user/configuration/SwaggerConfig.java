@@ -1,5 +1,6 @@
 package com.hilltop.user.configuration;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.builders.PathSelectors;
@@ -17,9 +18,12 @@ import java.util.List;
 
 /**
  * Swagger configuration
+ * Runtime scanning is only used outside production. Production serves the static spec generated at build time
+ * under /api-docs (see OpenApiSpecGenerator).
  */
 @Configuration
 @EnableSwagger2
+@ConditionalOnProperty(value = "springfox.documentation.enabled", havingValue = "true", matchIfMissing = true)
 public class SwaggerConfig {
 
     @Bean
@@ -0,0 +1,20 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.service.TokenKeyProperties;
+import com.hilltop.user.service.TokenKeyRing;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Token key configuration
+ */
+@Configuration
+@EnableConfigurationProperties(TokenKeyProperties.class)
+public class TokenKeyConfiguration {
+
+    @Bean
+    public TokenKeyRing tokenKeyRing(TokenKeyProperties tokenKeyProperties) {
+        return new TokenKeyRing(tokenKeyProperties);
+    }
+}
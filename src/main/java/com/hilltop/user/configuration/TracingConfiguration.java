@@ -0,0 +1,99 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.filter.TracingFilter;
+import com.hilltop.user.repository.tracing.TracingDataSourceInterceptor;
+import com.hilltop.user.util.FileSpanExporter;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Tracing configuration
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfiguration {
+
+    private static final String INSTRUMENTATION_NAME = "com.hilltop.user";
+
+    /**
+     * No-op when tracing is disabled, so instrumented code does not need to check.
+     */
+    @Bean
+    public OpenTelemetry openTelemetry(TracingProperties tracingProperties,
+                                       @Value("${spring.application.name}") String serviceName) throws IOException {
+        if (!tracingProperties.isEnabled())
+            return OpenTelemetry.noop();
+        SdkTracerProviderBuilder tracerProviderBuilder = SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(Resource.create(
+                        Attributes.of(AttributeKey.stringKey("service.name"), serviceName))))
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(tracingProperties.getSamplingRatio())));
+        if (tracingProperties.getExporter() == TracingProperties.Exporter.FILE)
+            tracerProviderBuilder.addSpanProcessor(BatchSpanProcessor.builder(
+                    new FileSpanExporter(Paths.get(tracingProperties.getFile()))).build());
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProviderBuilder.build())
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+    }
+
+    @Bean
+    public Tracer tracer(OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+
+    /**
+     * Runs ahead of every other filter, so the server span covers the whole request.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "user.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer, OpenTelemetry openTelemetry) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(
+                new TracingFilter(tracer, openTelemetry.getPropagators().getTextMapPropagator()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Wraps data sources in a class based proxy, so beans that inject the concrete type (e.g. the shard routing
+     * data source) keep working.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "user.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor tracingDataSourcePostProcessor(ObjectProvider<Tracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource))
+                    return bean;
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setProxyTargetClass(true);
+                proxyFactory.addAdvice(new TracingDataSourceInterceptor(tracer.getObject()));
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
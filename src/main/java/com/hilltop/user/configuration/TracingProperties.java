@@ -0,0 +1,39 @@
+package com.hilltop.user.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tracing properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.tracing")
+public class TracingProperties {
+
+    /**
+     * Record OpenTelemetry spans for requests, services and JDBC statements.
+     */
+    private boolean enabled = true;
+    /**
+     * Share of new traces that are recorded. Requests that carry a W3C traceparent follow the decision of the caller.
+     */
+    private double samplingRatio = 1.0;
+    /**
+     * Where finished spans go.
+     */
+    private Exporter exporter = Exporter.NONE;
+    /**
+     * File spans are appended to with the file exporter, one JSON object per line.
+     */
+    private String file = "spans.jsonl";
+
+    /**
+     * Span exporters.
+     */
+    public enum Exporter {
+        NONE,
+        FILE
+    }
+}
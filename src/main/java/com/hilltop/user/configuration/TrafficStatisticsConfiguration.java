@@ -0,0 +1,13 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.service.TrafficStatisticsProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Traffic statistics configuration
+ */
+@Configuration
+@EnableConfigurationProperties(TrafficStatisticsProperties.class)
+public class TrafficStatisticsConfiguration {
+}
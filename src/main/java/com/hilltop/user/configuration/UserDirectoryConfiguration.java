@@ -0,0 +1,35 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.repository.directory.UserDirectory;
+import com.hilltop.user.repository.directory.UserDirectoryProperties;
+import com.hilltop.user.repository.directory.UserDirectoryScanner;
+import com.hilltop.user.repository.directory.UserDirectoryWarmer;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * User directory configuration
+ */
+@Configuration
+@EnableConfigurationProperties(UserDirectoryProperties.class)
+@ConditionalOnProperty(prefix = "user.directory", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserDirectoryConfiguration {
+
+    @Bean
+    public UserDirectory userDirectory(UserDirectoryProperties userDirectoryProperties) {
+        return new UserDirectory(userDirectoryProperties.getInitialCapacity());
+    }
+
+    @Bean
+    public UserDirectoryWarmer userDirectoryWarmer(UserDirectory userDirectory, JdbcTemplate jdbcTemplate,
+                                                   ShardLayout shardLayout,
+                                                   UserDirectoryProperties userDirectoryProperties) {
+        return new UserDirectoryWarmer(userDirectory,
+                new UserDirectoryScanner(jdbcTemplate, shardLayout, userDirectoryProperties.getScanBatchSize()),
+                userDirectoryProperties);
+    }
+}
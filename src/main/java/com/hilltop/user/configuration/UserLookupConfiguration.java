@@ -0,0 +1,25 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.util.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+/**
+ * User lookup configuration
+ */
+@Configuration
+public class UserLookupConfiguration {
+
+    /**
+     * Shared by sign-in and registration, so bursts of retries for one mobile number run a single query.
+     */
+    @Bean
+    public SingleFlight<String, Optional<User>> userLookupSingleFlight(
+            @Value("${user.lookup.single-flight.max-wait-millis:3000}") long maxWaitMillis) {
+        return new SingleFlight<>(maxWaitMillis);
+    }
+}
@@ -0,0 +1,19 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.repository.search.UserSearchRepository;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * User search configuration
+ */
+@Configuration
+public class UserSearchConfiguration {
+
+    @Bean
+    public UserSearchRepository userSearchRepository(JdbcTemplate jdbcTemplate, ShardLayout shardLayout) {
+        return new UserSearchRepository(jdbcTemplate, shardLayout);
+    }
+}
@@ -0,0 +1,31 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.repository.registration.UserBatchInserter;
+import com.hilltop.user.repository.registration.WriteBehindProperties;
+import com.hilltop.user.repository.registration.WriteBehindUserQueue;
+import com.hilltop.user.repository.resilience.ResilientRepositoryInterceptor;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+/**
+ * Write-behind configuration
+ */
+@Configuration
+@EnableConfigurationProperties(WriteBehindProperties.class)
+@ConditionalOnProperty(prefix = "user.registration.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindConfiguration {
+
+    @Bean
+    public WriteBehindUserQueue writeBehindUserQueue(JdbcTemplate jdbcTemplate, ShardLayout shardLayout,
+                                                     WriteBehindProperties writeBehindProperties,
+                                                     Optional<ResilientRepositoryInterceptor> resilientInterceptor) {
+        return new WriteBehindUserQueue(new UserBatchInserter(jdbcTemplate, resilientInterceptor.orElse(null)),
+                shardLayout, writeBehindProperties);
+    }
+}
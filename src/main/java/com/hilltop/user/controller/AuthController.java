@@ -7,38 +7,60 @@ import com.hilltop.user.enumeration.ErrorMessage;
 import com.hilltop.user.enumeration.SuccessMessage;
 import com.hilltop.user.exception.HillTopUserApplicationException;
 import com.hilltop.user.exception.TokenException;
+import com.hilltop.user.repository.login.LoginEventRecorder;
 import com.hilltop.user.service.JwtTokenService;
+import com.hilltop.user.service.TrafficStatisticsService;
+import com.hilltop.user.util.LogRateLimiter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import java.util.Optional;
+
 /**
  * Auth controller
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/auth")
 @Slf4j
 public class AuthController extends BaseController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenService jwtTokenService;
+    private final TrafficStatisticsService trafficStatisticsService;
+    // null unless login events are recorded
+    private final LoginEventRecorder loginEventRecorder;
+    private final LogRateLimiter invalidTokenLogLimiter = new LogRateLimiter(10, 1000);
 
-    public AuthController(AuthenticationManager authenticationManager, JwtTokenService jwtTokenService) {
+    public AuthController(AuthenticationManager authenticationManager, JwtTokenService jwtTokenService,
+                          TrafficStatisticsService trafficStatisticsService,
+                          Optional<LoginEventRecorder> loginEventRecorder) {
         this.authenticationManager = authenticationManager;
         this.jwtTokenService = jwtTokenService;
+        this.trafficStatisticsService = trafficStatisticsService;
+        this.loginEventRecorder = loginEventRecorder.orElse(null);
     }
 
     /**
      * This method is used to log in user.
      *
      * @param loginRequestDto loginRequestDto
+     * @param request         request
      * @return success/ error response.
      */
     @PostMapping("/sign-in")
-    public ResponseEntity<ResponseWrapper> loginUser(@RequestBody LoginRequestDto loginRequestDto) {
+    public ResponseEntity<ResponseWrapper> loginUser(@RequestBody LoginRequestDto loginRequestDto,
+                                                     HttpServletRequest request) {
+        trafficStatisticsService.record(TrafficStatisticsService.Dimension.SIGN_IN_MOBILE_NO,
+                loginRequestDto.getMobileNo());
+        trafficStatisticsService.record(TrafficStatisticsService.Dimension.SIGN_IN_CLIENT, request.getRemoteAddr());
         try {
             if (!loginRequestDto.isRequiredFieldsAvailable()) {
                 log.debug("Required fields missing. data: {}", loginRequestDto.toLogJson());
@@ -46,8 +68,14 @@ public class AuthController extends BaseController {
             }
             authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
                     loginRequestDto.getMobileNo(), loginRequestDto.getPassword()));
+            if (loginEventRecorder != null)
+                loginEventRecorder.record(loginRequestDto.getMobileNo(), request.getRemoteAddr());
             String token = jwtTokenService.generateToken(loginRequestDto.getMobileNo());
             return getSuccessResponse(SuccessMessage.SUCCESSFULLY_LOGGED_IN, new LoginResponseDto(token), HttpStatus.OK);
+        } catch (InternalAuthenticationServiceException e) {
+            // the user could not be loaded, e.g. the database is unavailable
+            log.error("Failed to log in.", e);
+            return getInternalServerError();
         } catch (HillTopUserApplicationException e) {
             log.error("Failed to log in.", e);
             return getInternalServerError();
@@ -57,16 +85,22 @@ public class AuthController extends BaseController {
     /**
      * This method is used to validate token.
      *
-     * @param token token
+     * @param token   token
+     * @param request request
      * @return success/ error response.
      */
     @GetMapping("/validate-token")
-    public ResponseEntity<ResponseWrapper> validateToken(@RequestParam String token) {
+    public ResponseEntity<ResponseWrapper> validateToken(@RequestParam String token, HttpServletRequest request) {
+        trafficStatisticsService.recordToken(TrafficStatisticsService.Dimension.VALIDATE_TOKEN_TOKEN, token);
+        trafficStatisticsService.record(TrafficStatisticsService.Dimension.VALIDATE_TOKEN_CLIENT,
+                request.getRemoteAddr());
         try {
             jwtTokenService.validateToken(token);
             return getSuccessResponse(SuccessMessage.VALID_TOKEN, null, HttpStatus.OK);
         } catch (TokenException e) {
-            log.error("Invalid token: {}", token);
+            long suppressed = invalidTokenLogLimiter.tryAcquire();
+            if (suppressed != LogRateLimiter.SUPPRESSED)
+                log.warn("Rejected token: {}. {} similar rejections not logged.", e.getMessage(), suppressed);
             return getBadRequestErrorResponse(ErrorMessage.INVALID_TOKEN, HttpStatus.UNAUTHORIZED);
         } catch (HillTopUserApplicationException e) {
             log.error("Failed to validate token.", e);
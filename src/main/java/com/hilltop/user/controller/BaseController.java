@@ -4,6 +4,8 @@ import com.hilltop.user.domain.response.ResponseDto;
 import com.hilltop.user.domain.response.ResponseWrapper;
 import com.hilltop.user.enumeration.ErrorMessage;
 import com.hilltop.user.enumeration.SuccessMessage;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -28,6 +30,20 @@ public class BaseController {
         return new ResponseEntity<>(responseWrapper, httpStatus);
     }
 
+    /**
+     * This method is used to get cacheable success response.
+     *
+     * @param successMessage success message
+     * @param responseDto    response data
+     * @param cacheControl   cache control
+     * @return success response.
+     */
+    protected ResponseEntity<ResponseWrapper> getSuccessResponse(SuccessMessage successMessage,
+                                                                 ResponseDto responseDto, CacheControl cacheControl) {
+        ResponseWrapper responseWrapper = new ResponseWrapper(successMessage.getMessage(), responseDto);
+        return ResponseEntity.ok().cacheControl(cacheControl).body(responseWrapper);
+    }
+
     /**
      * This method is used to send bad request error response.
      *
@@ -51,4 +67,15 @@ public class BaseController {
         return new ResponseEntity<>(responseWrapper, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * This method sends service overloaded error response, asking the client to retry after a second.
+     *
+     * @return service unavailable error response.
+     */
+    protected ResponseEntity<ResponseWrapper> getServiceOverloadedResponse() {
+        ResponseWrapper responseWrapper = new ResponseWrapper(ErrorMessage.SERVICE_OVERLOADED.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                .body(responseWrapper);
+    }
+
 }
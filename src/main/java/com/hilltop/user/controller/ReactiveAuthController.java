@@ -0,0 +1,129 @@
+package com.hilltop.user.controller;
+
+import com.hilltop.user.domain.request.LoginRequestDto;
+import com.hilltop.user.domain.response.LoginResponseDto;
+import com.hilltop.user.domain.response.ResponseWrapper;
+import com.hilltop.user.enumeration.ErrorMessage;
+import com.hilltop.user.enumeration.SuccessMessage;
+import com.hilltop.user.exception.HillTopUserApplicationException;
+import com.hilltop.user.exception.TokenException;
+import com.hilltop.user.repository.login.LoginEventRecorder;
+import com.hilltop.user.service.JwtTokenService;
+import com.hilltop.user.service.TrafficStatisticsService;
+import com.hilltop.user.util.LogRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Reactive auth controller
+ * Reactive counterpart of {@link AuthController} with the same request and response contracts. Sign-in looks the
+ * user up over R2DBC and checks the password on the password hash scheduler; validate-token is pure CPU and runs on
+ * the event loop.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/auth")
+@Slf4j
+public class ReactiveAuthController extends BaseController {
+
+    private final ReactiveAuthenticationManager reactiveAuthenticationManager;
+    private final JwtTokenService jwtTokenService;
+    private final TrafficStatisticsService trafficStatisticsService;
+    // null unless login events are recorded
+    private final LoginEventRecorder loginEventRecorder;
+    private final LogRateLimiter invalidTokenLogLimiter = new LogRateLimiter(10, 1000);
+
+    public ReactiveAuthController(ReactiveAuthenticationManager reactiveAuthenticationManager,
+                                  JwtTokenService jwtTokenService, TrafficStatisticsService trafficStatisticsService,
+                                  Optional<LoginEventRecorder> loginEventRecorder) {
+        this.reactiveAuthenticationManager = reactiveAuthenticationManager;
+        this.jwtTokenService = jwtTokenService;
+        this.trafficStatisticsService = trafficStatisticsService;
+        this.loginEventRecorder = loginEventRecorder.orElse(null);
+    }
+
+    /**
+     * This method is used to log in user.
+     *
+     * @param loginRequestDto loginRequestDto
+     * @param request         request
+     * @return success/ error response.
+     */
+    @PostMapping("/sign-in")
+    public Mono<ResponseEntity<ResponseWrapper>> loginUser(@RequestBody LoginRequestDto loginRequestDto,
+                                                           ServerHttpRequest request) {
+        trafficStatisticsService.record(TrafficStatisticsService.Dimension.SIGN_IN_MOBILE_NO,
+                loginRequestDto.getMobileNo());
+        String clientAddress = getRemoteAddress(request);
+        trafficStatisticsService.record(TrafficStatisticsService.Dimension.SIGN_IN_CLIENT, clientAddress);
+        if (!loginRequestDto.isRequiredFieldsAvailable()) {
+            log.debug("Required fields missing. data: {}", loginRequestDto.toLogJson());
+            return Mono.just(getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS, HttpStatus.BAD_REQUEST));
+        }
+        return reactiveAuthenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                        loginRequestDto.getMobileNo(), loginRequestDto.getPassword()))
+                .map(authentication -> {
+                    if (loginEventRecorder != null)
+                        loginEventRecorder.record(loginRequestDto.getMobileNo(), clientAddress);
+                    return getSuccessResponse(SuccessMessage.SUCCESSFULLY_LOGGED_IN,
+                            new LoginResponseDto(jwtTokenService.generateToken(loginRequestDto.getMobileNo())),
+                            HttpStatus.OK);
+                })
+                .onErrorResume(AuthenticationException.class, e -> {
+                    log.debug("Invalid login for mobileNo: {}.", loginRequestDto.getMobileNo());
+                    return Mono.just(getBadRequestErrorResponse(ErrorMessage.INVALID_LOGIN, HttpStatus.UNAUTHORIZED));
+                })
+                .onErrorResume(RejectedExecutionException.class, e -> {
+                    log.warn("Password hash queue is full, rejected sign-in.");
+                    return Mono.just(getServiceOverloadedResponse());
+                })
+                .onErrorResume(HillTopUserApplicationException.class, e -> {
+                    log.error("Failed to log in.", e);
+                    return Mono.just(getInternalServerError());
+                });
+    }
+
+    /**
+     * This method is used to validate token.
+     *
+     * @param token   token
+     * @param request request
+     * @return success/ error response.
+     */
+    @GetMapping("/validate-token")
+    public ResponseEntity<ResponseWrapper> validateToken(@RequestParam String token, ServerHttpRequest request) {
+        trafficStatisticsService.recordToken(TrafficStatisticsService.Dimension.VALIDATE_TOKEN_TOKEN, token);
+        trafficStatisticsService.record(TrafficStatisticsService.Dimension.VALIDATE_TOKEN_CLIENT,
+                getRemoteAddress(request));
+        try {
+            jwtTokenService.validateToken(token);
+            return getSuccessResponse(SuccessMessage.VALID_TOKEN, null, HttpStatus.OK);
+        } catch (TokenException e) {
+            long suppressed = invalidTokenLogLimiter.tryAcquire();
+            if (suppressed != LogRateLimiter.SUPPRESSED)
+                log.warn("Rejected token: {}. {} similar rejections not logged.", e.getMessage(), suppressed);
+            return getBadRequestErrorResponse(ErrorMessage.INVALID_TOKEN, HttpStatus.UNAUTHORIZED);
+        } catch (HillTopUserApplicationException e) {
+            log.error("Failed to validate token.", e);
+            return getInternalServerError();
+        }
+    }
+
+    private static String getRemoteAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress == null || remoteAddress.getAddress() == null ? null
+                : remoteAddress.getAddress().getHostAddress();
+    }
+}
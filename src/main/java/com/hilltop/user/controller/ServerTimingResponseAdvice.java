@@ -0,0 +1,37 @@
+package com.hilltop.user.controller;
+
+import com.hilltop.user.util.RequestTimings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Server timing response advice
+ * Adds the stages recorded so far as a Server-Timing header, while the response can still take headers.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "user.timing", name = "enabled", havingValue = "true")
+public class ServerTimingResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        String serverTiming = RequestTimings.toServerTiming();
+        if (serverTiming != null)
+            response.getHeaders().add(SERVER_TIMING, serverTiming);
+        return body;
+    }
+}
@@ -1,42 +1,74 @@
 package com.hilltop.user.controller;
 
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.domain.request.MobileNoBatchRequestDto;
 import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.domain.request.UserSearchRequestDto;
+import com.hilltop.user.domain.response.MobileNoBatchResponseDto;
+import com.hilltop.user.domain.response.RegistrationResponseDto;
 import com.hilltop.user.domain.response.ResponseWrapper;
+import com.hilltop.user.domain.response.UserResponseDto;
+import com.hilltop.user.domain.response.UserSearchResponseDto;
 import com.hilltop.user.enumeration.ErrorMessage;
+import com.hilltop.user.enumeration.RegistrationStatus;
 import com.hilltop.user.enumeration.SuccessMessage;
 import com.hilltop.user.exception.HillTopUserApplicationException;
+import com.hilltop.user.exception.RegistrationQueueFullException;
 import com.hilltop.user.exception.UserExistException;
+import com.hilltop.user.exception.UserNotFoundException;
+import com.hilltop.user.repository.search.UserSearchCursor;
+import com.hilltop.user.service.TrafficStatisticsService;
 import com.hilltop.user.service.UserService;
+import com.hilltop.user.util.UserIdGenerator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.UUID;
 
 /**
  * User controller
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 @RequestMapping("/api/v1/user")
 public class UserController extends BaseController {
 
     private final UserService userService;
+    private final TrafficStatisticsService trafficStatisticsService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, TrafficStatisticsService trafficStatisticsService) {
         this.userService = userService;
+        this.trafficStatisticsService = trafficStatisticsService;
     }
 
     /**
-     * This method is used to register user.
+     * This method is used to register user. With write-behind registration the user is accepted with 202 and written
+     * in the background, see getRegistrationStatus().
      *
      * @param userRequestDto userRequestDto
+     * @param request        request
      * @return success/ error response.
      */
     @PostMapping("")
-    public ResponseEntity<ResponseWrapper> registerUser(@RequestBody UserRequestDto userRequestDto) {
+    public ResponseEntity<ResponseWrapper> registerUser(@RequestBody UserRequestDto userRequestDto,
+                                                        HttpServletRequest request) {
+        trafficStatisticsService.record(TrafficStatisticsService.Dimension.REGISTER_MOBILE_NO,
+                userRequestDto.getMobileNo());
+        trafficStatisticsService.record(TrafficStatisticsService.Dimension.REGISTER_CLIENT, request.getRemoteAddr());
         try {
             if (!userRequestDto.isRequiredFieldsAvailable()) {
                 log.debug("Required fields missing. data: {}", userRequestDto.toLogJson());
@@ -44,14 +76,132 @@ public class UserController extends BaseController {
             }
             if (!userRequestDto.isValidMobileNo())
                 return getBadRequestErrorResponse(ErrorMessage.INVALID_MOBILE_NO, HttpStatus.BAD_REQUEST);
+            if (userService.isWriteBehind()) {
+                UUID id = userService.acceptUser(userRequestDto);
+                return getSuccessResponse(SuccessMessage.SUCCESSFULLY_ACCEPTED,
+                        new RegistrationResponseDto(id, RegistrationStatus.PENDING), HttpStatus.ACCEPTED);
+            }
             userService.addUser(userRequestDto);
             return getSuccessResponse(SuccessMessage.SUCCESSFULLY_ADDED, null, HttpStatus.CREATED);
         } catch (UserExistException e) {
             log.debug("User already exist for mobileNo: {}.", userRequestDto.getMobileNo(), e);
             return getBadRequestErrorResponse(ErrorMessage.MOBILE_NO_EXIST, HttpStatus.BAD_REQUEST);
+        } catch (RegistrationQueueFullException e) {
+            log.debug("Registration queue is full, rejected mobileNo: {}.", userRequestDto.getMobileNo());
+            return getServiceOverloadedResponse();
         } catch (HillTopUserApplicationException e) {
             log.error("Failed to add user. ", e);
             return getInternalServerError();
         }
     }
+
+    /**
+     * This method is used to get the status of a registration: PENDING until the user is written, then COMPLETED,
+     * REJECTED when the mobile number turned out to be registered, or FAILED.
+     *
+     * @param id user id returned by registerUser()
+     * @return success/ error response.
+     */
+    @GetMapping("/registrations/{id}")
+    public ResponseEntity<ResponseWrapper> getRegistrationStatus(@PathVariable String id) {
+        try {
+            UUID userId = UserIdGenerator.fromExternalId(id);
+            return getSuccessResponse(SuccessMessage.REGISTRATION_STATUS,
+                    new RegistrationResponseDto(userId, userService.getRegistrationStatus(userId)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid user id: {}.", id);
+            return getBadRequestErrorResponse(ErrorMessage.INVALID_USER_ID, HttpStatus.BAD_REQUEST);
+        } catch (UserNotFoundException e) {
+            log.debug("Registration not found for id: {}.", id);
+            return getBadRequestErrorResponse(ErrorMessage.REGISTRATION_NOT_FOUND, HttpStatus.NOT_FOUND);
+        } catch (HillTopUserApplicationException e) {
+            log.error("Failed to get registration status. ", e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method is used to check which of the given mobile numbers are registered.
+     *
+     * @param mobileNoBatchRequestDto mobileNoBatchRequestDto
+     * @return success/ error response.
+     */
+    @PostMapping("/registered-mobile-nos")
+    public ResponseEntity<ResponseWrapper> getRegisteredMobileNos(
+            @RequestBody MobileNoBatchRequestDto mobileNoBatchRequestDto) {
+        try {
+            if (!mobileNoBatchRequestDto.isRequiredFieldsAvailable())
+                return getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS, HttpStatus.BAD_REQUEST);
+            if (!mobileNoBatchRequestDto.isWithinBatchLimit())
+                return getBadRequestErrorResponse(ErrorMessage.TOO_MANY_MOBILE_NOS, HttpStatus.BAD_REQUEST);
+            if (!mobileNoBatchRequestDto.isValidMobileNos())
+                return getBadRequestErrorResponse(ErrorMessage.INVALID_MOBILE_NO, HttpStatus.BAD_REQUEST);
+            return getSuccessResponse(SuccessMessage.REGISTERED_MOBILE_NOS, new MobileNoBatchResponseDto(
+                    userService.getRegisteredMobileNos(mobileNoBatchRequestDto.getMobileNos())), HttpStatus.OK);
+        } catch (HillTopUserApplicationException e) {
+            log.error("Failed to get registered mobile numbers.", e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method is used to find users by name prefix, for support staff only (see
+     * {@link com.hilltop.user.configuration.SupportStaffProperties}). Pages are in name order; the nextCursor of
+     * a page is passed as cursor to get the next one.
+     *
+     * @param userSearchRequestDto name, size (default 20, at most 100) and cursor
+     * @return success/ error response.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ResponseWrapper> searchUsers(UserSearchRequestDto userSearchRequestDto) {
+        try {
+            if (!userSearchRequestDto.isRequiredFieldsAvailable())
+                return getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS, HttpStatus.BAD_REQUEST);
+            if (!userSearchRequestDto.isValidPageSize())
+                return getBadRequestErrorResponse(ErrorMessage.INVALID_PAGE_SIZE, HttpStatus.BAD_REQUEST);
+            UserSearchCursor cursor = userSearchRequestDto.getCursor() == null ? null
+                    : UserSearchCursor.decode(userSearchRequestDto.getCursor());
+            return getSuccessResponse(SuccessMessage.USERS_FOUND, new UserSearchResponseDto(userService.searchUsers(
+                    userSearchRequestDto.getName(), userSearchRequestDto.getSize(), cursor)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid search cursor: {}.", userSearchRequestDto.getCursor());
+            return getBadRequestErrorResponse(ErrorMessage.INVALID_SEARCH_CURSOR, HttpStatus.BAD_REQUEST);
+        } catch (HillTopUserApplicationException e) {
+            log.error("Failed to search users.", e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method is used to get user by id. Responses carry the entity version as a strong ETag and the last change
+     * time as Last-Modified, so revalidations of an unchanged user return 304 without a body. The body is JSON or CBOR
+     * depending on Accept, so both responses vary by Accept and caches keep the representations apart.
+     *
+     * @param id         user id
+     * @param webRequest webRequest
+     * @param response   response
+     * @return success/ not modified/ error response.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ResponseWrapper> getUser(@PathVariable String id, WebRequest webRequest,
+                                                   HttpServletResponse response) {
+        try {
+            UUID userId = UserIdGenerator.fromExternalId(id);
+            User user = userService.getUser(userId);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            String eTag = "\"" + user.getVersion() + "\"";
+            if (webRequest.checkNotModified(eTag, user.getUpdatedAt().toEpochMilli()))
+                return null;
+            return getSuccessResponse(SuccessMessage.USER_FOUND, new UserResponseDto(user), CacheControl.noCache());
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid user id: {}.", id);
+            return getBadRequestErrorResponse(ErrorMessage.INVALID_USER_ID, HttpStatus.BAD_REQUEST);
+        } catch (UserNotFoundException e) {
+            log.debug("User not found for id: {}.", id);
+            return getBadRequestErrorResponse(ErrorMessage.USER_NOT_FOUND, HttpStatus.NOT_FOUND);
+        } catch (HillTopUserApplicationException e) {
+            log.error("Failed to get user. ", e);
+            return getInternalServerError();
+        }
+    }
 }
@@ -2,42 +2,82 @@ package com.hilltop.user.domain.entity;
 
 import com.hilltop.user.domain.request.UserRequestDto;
 import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.repository.search.NameKeys;
+import com.hilltop.user.repository.sharding.ShardKeys;
+import com.hilltop.user.util.TimedPasswordEncoder;
+import com.hilltop.user.util.UserIdGenerator;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import javax.persistence.*;
+import java.time.Instant;
 import java.util.UUID;
 
 /**
  * User entity
  */
 @Entity
-@Table
+@Table(name = "user")
 @Getter
 @Setter
 @NoArgsConstructor
 public class User {
 
     @Transient
-    private static final String USER_ID_PREFIX = "uid-";
-    @Transient
-    private static final BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder();
+    private static final PasswordEncoder bCryptPasswordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder());
 
     @Id
-    private String id;
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID id;
+    @Column(nullable = false, length = 100)
     private String name;
+    @Column(nullable = false, length = 15, unique = true)
     private String mobileNo;
+    @Column(nullable = false, length = 60)
     private String password;
     @Enumerated(EnumType.STRING)
+    @Column(length = 10)
     private UserType userType;
+    // null until persisted, so save() persists new users instead of merging them (and selecting them first)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    @Column(nullable = false, columnDefinition = "DATETIME(3)")
+    private Instant updatedAt;
+    // derived from name, see NameKeys
+    @Setter(AccessLevel.NONE)
+    @Column(length = NameKeys.MAX_LENGTH)
+    private String nameKey;
 
     public User(UserRequestDto userRequestDto) {
-        this.id = USER_ID_PREFIX + UUID.randomUUID();
+        this.id = UserIdGenerator.generate(ShardKeys.bucketOf(userRequestDto.getMobileNo()));
         this.name = userRequestDto.getName();
+        this.nameKey = NameKeys.of(name);
         this.mobileNo = userRequestDto.getMobileNo();
         this.password = bCryptPasswordEncoder.encode(userRequestDto.getPassword());
         this.userType = userRequestDto.getUserType();
     }
+
+    /**
+     * This method is used to record the time of the last change and to derive the name key.
+     */
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+        nameKey = name == null ? null : NameKeys.of(name);
+    }
+
+    /**
+     * This method is used to get the id in the format shared with clients.
+     *
+     * @return external id
+     */
+    public String getExternalId() {
+        return UserIdGenerator.toExternalId(id);
+    }
 }
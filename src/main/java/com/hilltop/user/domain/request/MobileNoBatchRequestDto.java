@@ -0,0 +1,46 @@
+package com.hilltop.user.domain.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Mobile number batch requestDto
+ */
+@Getter
+@Setter
+public class MobileNoBatchRequestDto implements RequestDto {
+
+    public static final int MAX_MOBILE_NOS = 1000;
+    private static final String MOBILE_NO_PATTERN = "^\\d{10}$";
+    private List<String> mobileNos;
+
+    /**
+     * Used to validate required fields.
+     *
+     * @return true/false
+     */
+    @Override
+    public boolean isRequiredFieldsAvailable() {
+        return mobileNos != null && !mobileNos.isEmpty();
+    }
+
+    /**
+     * This method is used to validate the batch size.
+     *
+     * @return true/false
+     */
+    public boolean isWithinBatchLimit() {
+        return mobileNos.size() <= MAX_MOBILE_NOS;
+    }
+
+    /**
+     * This method is used to validate mobile number patterns.
+     *
+     * @return true/false
+     */
+    public boolean isValidMobileNos() {
+        return mobileNos.stream().allMatch(mobileNo -> mobileNo != null && mobileNo.matches(MOBILE_NO_PATTERN));
+    }
+}
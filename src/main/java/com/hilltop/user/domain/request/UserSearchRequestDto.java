@@ -0,0 +1,39 @@
+package com.hilltop.user.domain.request;
+
+import com.hilltop.user.repository.search.NameKeys;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * User search requestDto
+ */
+@Getter
+@Setter
+public class UserSearchRequestDto implements RequestDto {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private String name;
+    private int size = DEFAULT_PAGE_SIZE;
+    private String cursor;
+
+    /**
+     * Used to validate required fields. A name that is empty once normalised, e.g. only accents, would match every
+     * user.
+     *
+     * @return true/false
+     */
+    @Override
+    public boolean isRequiredFieldsAvailable() {
+        return isNonEmpty(name) && !NameKeys.of(name).isEmpty();
+    }
+
+    /**
+     * This method is used to validate the page size.
+     *
+     * @return true/false
+     */
+    public boolean isValidPageSize() {
+        return size > 0 && size <= MAX_PAGE_SIZE;
+    }
+}
@@ -0,0 +1,16 @@
+package com.hilltop.user.domain.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Mobile number batch responseDto
+ */
+@Getter
+@AllArgsConstructor
+public class MobileNoBatchResponseDto implements ResponseDto {
+
+    private List<String> registeredMobileNos;
+}
@@ -0,0 +1,22 @@
+package com.hilltop.user.domain.response;
+
+import com.hilltop.user.enumeration.RegistrationStatus;
+import com.hilltop.user.util.UserIdGenerator;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Registration responseDto
+ */
+@Getter
+public class RegistrationResponseDto implements ResponseDto {
+
+    private final String id;
+    private final RegistrationStatus status;
+
+    public RegistrationResponseDto(UUID id, RegistrationStatus status) {
+        this.id = UserIdGenerator.toExternalId(id);
+        this.status = status;
+    }
+}
@@ -0,0 +1,24 @@
+package com.hilltop.user.domain.response;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.enumeration.UserType;
+import lombok.Getter;
+
+/**
+ * User responseDto
+ */
+@Getter
+public class UserResponseDto implements ResponseDto {
+
+    private final String id;
+    private final String name;
+    private final String mobileNo;
+    private final UserType userType;
+
+    public UserResponseDto(User user) {
+        this.id = user.getExternalId();
+        this.name = user.getName();
+        this.mobileNo = user.getMobileNo();
+        this.userType = user.getUserType();
+    }
+}
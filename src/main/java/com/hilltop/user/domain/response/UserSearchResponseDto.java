@@ -0,0 +1,23 @@
+package com.hilltop.user.domain.response;
+
+import com.hilltop.user.repository.search.UserSearchPage;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * User search responseDto
+ */
+@Getter
+public class UserSearchResponseDto implements ResponseDto {
+
+    private final List<UserResponseDto> users;
+    // pass as cursor to get the next page, null on the last page
+    private final String nextCursor;
+
+    public UserSearchResponseDto(UserSearchPage page) {
+        this.users = page.getUsers().stream().map(UserResponseDto::new).collect(Collectors.toList());
+        this.nextCursor = page.getNextCursor() == null ? null : page.getNextCursor().encode();
+    }
+}
@@ -13,7 +13,16 @@ public enum ErrorMessage {
     INVALID_LOGIN("Invalid login."),
     INVALID_MOBILE_NO("Invalid mobile number"),
     INVALID_TOKEN("Invalid token"),
-    MOBILE_NO_EXIST("Mobile number already exist.");
+    INVALID_IDEMPOTENCY_KEY("Invalid idempotency key."),
+    IDEMPOTENCY_KEY_REUSED("Idempotency key was used for a different request."),
+    INVALID_USER_ID("Invalid user id."),
+    USER_NOT_FOUND("User not found."),
+    REGISTRATION_NOT_FOUND("Registration not found."),
+    TOO_MANY_MOBILE_NOS("Too many mobile numbers."),
+    INVALID_PAGE_SIZE("Invalid page size."),
+    INVALID_SEARCH_CURSOR("Invalid search cursor."),
+    MOBILE_NO_EXIST("Mobile number already exist."),
+    SERVICE_OVERLOADED("Service is overloaded, please retry.");
 
     private final String message;
 
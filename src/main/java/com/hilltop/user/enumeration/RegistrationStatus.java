@@ -0,0 +1,11 @@
+package com.hilltop.user.enumeration;
+
+/**
+ * Registration status
+ */
+public enum RegistrationStatus {
+    PENDING,
+    COMPLETED,
+    REJECTED,
+    FAILED
+}
@@ -9,8 +9,13 @@ import lombok.Getter;
 public enum SuccessMessage {
 
     SUCCESSFULLY_ADDED("Successfully added."),
+    SUCCESSFULLY_ACCEPTED("Successfully accepted, registration is pending."),
     SUCCESSFULLY_LOGGED_IN("Successfully logged in."),
-    VALID_TOKEN("Valid token");
+    VALID_TOKEN("Valid token"),
+    USER_FOUND("User found."),
+    USERS_FOUND("Users found."),
+    REGISTERED_MOBILE_NOS("Registered mobile numbers."),
+    REGISTRATION_STATUS("Registration status.");
 
     private final String message;
 
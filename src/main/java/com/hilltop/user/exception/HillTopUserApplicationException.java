@@ -23,4 +23,15 @@ public class HillTopUserApplicationException extends RuntimeException {
     public HillTopUserApplicationException(String errorMessage) {
         super(errorMessage);
     }
+
+    /**
+     * Hill Top application exception with error message, throwable error and stack trace control.
+     *
+     * @param errorMessage       error message
+     * @param error              error
+     * @param writableStackTrace false for exceptions used on hot rejection paths, which skip filling the stack trace
+     */
+    protected HillTopUserApplicationException(String errorMessage, Throwable error, boolean writableStackTrace) {
+        super(errorMessage, error, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,17 @@
+package com.hilltop.user.exception;
+
+/**
+ * Registration queue full exception
+ * Stackless: thrown for every registration while the write-behind queue is full.
+ */
+public class RegistrationQueueFullException extends HillTopUserApplicationException {
+
+    /**
+     * Registration queue full exception with error message.
+     *
+     * @param errorMessage error message
+     */
+    public RegistrationQueueFullException(String errorMessage) {
+        super(errorMessage, null, false);
+    }
+}
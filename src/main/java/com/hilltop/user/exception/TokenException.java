@@ -2,9 +2,12 @@ package com.hilltop.user.exception;
 
 /**
  * Token exception
+ * Stackless: tokens are rejected far more often than the trace would be useful, the cause keeps the jjwt details.
  */
 public class TokenException extends HillTopUserApplicationException {
 
+    private static final TokenException MALFORMED_TOKEN = new TokenException("Malformed token", null);
+
     /**
      * Token exception with error message and throwable error.
      *
@@ -12,6 +15,15 @@ public class TokenException extends HillTopUserApplicationException {
      * @param error        error
      */
     public TokenException(String errorMessage, Throwable error) {
-        super(errorMessage, error);
+        super(errorMessage, error, false);
+    }
+
+    /**
+     * This method is used to get the shared exception for tokens rejected before parsing.
+     *
+     * @return malformed token exception
+     */
+    public static TokenException malformedToken() {
+        return MALFORMED_TOKEN;
     }
 }
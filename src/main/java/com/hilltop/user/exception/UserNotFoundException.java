@@ -0,0 +1,16 @@
+package com.hilltop.user.exception;
+
+/**
+ * User not found exception
+ * Thrown when no user or pending registration exists for the requested id, answered with 404 by the controller.
+ */
+public class UserNotFoundException extends HillTopUserApplicationException {
+    /**
+     * User not found exception with error message.
+     *
+     * @param errorMessage error message
+     */
+    public UserNotFoundException(String errorMessage) {
+        super(errorMessage);
+    }
+}
@@ -0,0 +1,107 @@
+package com.hilltop.user.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.domain.response.ResponseWrapper;
+import com.hilltop.user.enumeration.ErrorMessage;
+import com.hilltop.user.filter.ConcurrencyLimitProperties.EndpointClass;
+import com.hilltop.user.util.AimdLimiter;
+import com.hilltop.user.util.LogRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Concurrency limit filter
+ * Applies an {@link AimdLimiter} per endpoint class to /api requests and sheds requests above the limit with 503
+ * before they take a database connection. The health check and other non api paths are never limited.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH_PREFIX = "/api/";
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final LogRateLimiter shedLogLimiter = new LogRateLimiter(1, 1000);
+    private final Map<EndpointClass, AimdLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final byte[] overloadedBody;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper) throws IOException {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            Long latencyThresholdMillis = properties.getLatencyThresholdMillis().get(endpointClass);
+            if (latencyThresholdMillis == null)
+                throw new IllegalArgumentException("Missing latency threshold for " + endpointClass);
+            limiters.put(endpointClass, new AimdLimiter(properties.getInitialLimit(), properties.getMinLimit(),
+                    properties.getMaxLimit(), properties.getBackoffRatio(), latencyThresholdMillis));
+        }
+        this.overloadedBody = objectMapper.writeValueAsBytes(
+                new ResponseWrapper(ErrorMessage.SERVICE_OVERLOADED.getMessage()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !urlPathHelper.getPathWithinApplication(request).startsWith(API_PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request.getMethod(), urlPathHelper.getPathWithinApplication(request));
+        AimdLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            shed(endpointClass, limiter, response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * This method is used to get the limiter of an endpoint class.
+     *
+     * @param endpointClass endpoint class
+     * @return limiter
+     */
+    public AimdLimiter getLimiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+
+    static EndpointClass classify(String method, String path) {
+        if (HttpMethod.POST.matches(method) && "/api/v1/auth/sign-in".equals(path))
+            return EndpointClass.SIGN_IN;
+        if (HttpMethod.POST.matches(method) && "/api/v1/user".equals(path))
+            return EndpointClass.REGISTER;
+        if (HttpMethod.GET.matches(method) && "/api/v1/auth/validate-token".equals(path))
+            return EndpointClass.VALIDATE_TOKEN;
+        return EndpointClass.OTHER;
+    }
+
+    private void shed(EndpointClass endpointClass, AimdLimiter limiter, HttpServletResponse response)
+            throws IOException {
+        long suppressed = shedLogLimiter.tryAcquire();
+        if (suppressed != LogRateLimiter.SUPPRESSED)
+            log.warn("Shedding {} requests above concurrency limit {}. {} similar rejections not logged.",
+                    endpointClass, limiter.getLimit(), suppressed);
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(overloadedBody.length);
+        response.getOutputStream().write(overloadedBody);
+    }
+}
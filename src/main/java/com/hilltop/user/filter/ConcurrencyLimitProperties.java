@@ -0,0 +1,47 @@
+package com.hilltop.user.filter;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Concurrency limit properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Shed api requests above the adaptive concurrency limit of their endpoint class with 503.
+     */
+    private boolean enabled;
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    /**
+     * Factor the limit is multiplied with after a slow or failed request.
+     */
+    private double backoffRatio = 0.9;
+    /**
+     * Latency above which a request counts as slow, per endpoint class.
+     */
+    private Map<EndpointClass, Long> latencyThresholdMillis = new EnumMap<>(Map.of(
+            EndpointClass.SIGN_IN, 1000L,
+            EndpointClass.REGISTER, 1000L,
+            EndpointClass.VALIDATE_TOKEN, 100L,
+            EndpointClass.OTHER, 500L));
+
+    /**
+     * Endpoint classes with a limit of their own.
+     */
+    public enum EndpointClass {
+        SIGN_IN,
+        REGISTER,
+        VALIDATE_TOKEN,
+        OTHER
+    }
+}
@@ -0,0 +1,255 @@
+package com.hilltop.user.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.domain.response.ResponseWrapper;
+import com.hilltop.user.enumeration.ErrorMessage;
+import com.hilltop.user.repository.idempotency.IdempotencyStore;
+import com.hilltop.user.repository.idempotency.StoredResponse;
+import com.hilltop.user.util.SingleFlight;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Idempotency filter
+ * POST requests to the configured paths may carry an Idempotency-Key header. The status, content type and body of
+ * the first request with a key are stored for the ttl and replayed for later requests with the same key, without
+ * running the request again. Retries that arrive while the first request is still running on this node wait for its
+ * outcome. Server errors are not stored, so those requests can be retried. A key reused with another body or by another
+ * caller answers 422 instead of replaying the outcome of a different request. When the store fails, requests run as if
+ * they had no key.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 100;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final IdempotencyStore idempotencyStore;
+    private final SingleFlight<String, StoredResponse> inFlightRequests;
+    private final List<String> paths;
+    private final Duration ttl;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore, List<String> paths, Duration ttl, long maxWaitMillis,
+                             ObjectMapper objectMapper) {
+        this(idempotencyStore, paths, ttl, maxWaitMillis, objectMapper, Clock.systemUTC());
+    }
+
+    IdempotencyFilter(IdempotencyStore idempotencyStore, List<String> paths, Duration ttl, long maxWaitMillis,
+                      ObjectMapper objectMapper, Clock clock) {
+        this.idempotencyStore = idempotencyStore;
+        this.inFlightRequests = new SingleFlight<>(maxWaitMillis);
+        this.paths = List.copyOf(paths);
+        this.ttl = ttl;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null
+                || !paths.contains(urlPathHelper.getPathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, ErrorMessage.INVALID_IDEMPOTENCY_KEY);
+            return;
+        }
+        String key = request.getMethod() + " " + urlPathHelper.getPathWithinApplication(request) + " " + idempotencyKey;
+        CachedBodyRequest cachedBodyRequest = new CachedBodyRequest(request);
+        String requestHash = hash(request.getUserPrincipal(), cachedBodyRequest.body);
+        Optional<StoredResponse> storedResponse = find(key);
+        if (storedResponse.isPresent()) {
+            replay(storedResponse.get(), requestHash, response);
+            return;
+        }
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean[] executed = new boolean[1];
+        StoredResponse outcome;
+        try {
+            outcome = inFlightRequests.execute(key, () -> {
+                executed[0] = true;
+                return execute(key, requestHash, cachedBodyRequest, responseWrapper, filterChain);
+            });
+        } catch (FilterChainException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw (ServletException) e.getCause();
+        }
+        if (executed[0])
+            responseWrapper.copyBodyToResponse();
+        else
+            replay(outcome, requestHash, response);
+    }
+
+    private StoredResponse execute(String key, String requestHash, HttpServletRequest request,
+                                   ContentCachingResponseWrapper response, FilterChain filterChain) {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException e) {
+            throw new FilterChainException(e);
+        }
+        StoredResponse outcome = new StoredResponse(response.getStatus(), response.getContentType(),
+                response.getContentAsByteArray(), clock.instant().plus(ttl), requestHash);
+        if (outcome.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR)
+            save(key, outcome);
+        return outcome;
+    }
+
+    private Optional<StoredResponse> find(String key) {
+        try {
+            return idempotencyStore.find(key);
+        } catch (DataAccessException e) {
+            log.warn("Failed to find stored response, running request without it. ", e);
+            return Optional.empty();
+        }
+    }
+
+    private void save(String key, StoredResponse outcome) {
+        try {
+            idempotencyStore.save(key, outcome);
+        } catch (DataAccessException e) {
+            // the request already ran, its response must still reach the client
+            log.warn("Failed to store response, a retry with the same key runs the request again. ", e);
+        }
+    }
+
+    private void replay(StoredResponse storedResponse, String requestHash, HttpServletResponse response)
+            throws IOException {
+        if (!storedResponse.isOutcomeOf(requestHash)) {
+            log.debug("Idempotency key reused for a different request.");
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY.value(), ErrorMessage.IDEMPOTENCY_KEY_REUSED);
+            return;
+        }
+        log.debug("Replaying stored response with status {}.", storedResponse.getStatus());
+        response.setStatus(storedResponse.getStatus());
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        if (storedResponse.getContentType() != null)
+            response.setContentType(storedResponse.getContentType());
+        response.setContentLength(storedResponse.getBody().length);
+        response.getOutputStream().write(storedResponse.getBody());
+    }
+
+    private void writeError(HttpServletResponse response, int status, ErrorMessage errorMessage) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ResponseWrapper(errorMessage.getMessage()));
+    }
+
+    /**
+     * This method is used to hash the caller and the body of a request.
+     *
+     * @param principal caller, null for public endpoints
+     * @param body      request body
+     * @return SHA-256 in hex
+     */
+    static String hash(Principal principal, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (principal != null)
+                digest.update(principal.getName().getBytes(StandardCharsets.UTF_8));
+            // separates the caller from the body, the name of a caller can't contain it
+            digest.update((byte) 0);
+            digest.update(body);
+            return String.format("%064x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    /**
+     * Request with its body read up front, so it can be hashed before the chain reads it.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Non-blocking reads are not supported.");
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) {
+                    return inputStream.read(bytes, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    /**
+     * Carries checked filter chain exceptions through the in-flight request coalescing.
+     */
+    private static class FilterChainException extends RuntimeException {
+
+        FilterChainException(Exception cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+    }
+}
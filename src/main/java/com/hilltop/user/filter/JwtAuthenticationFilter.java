@@ -0,0 +1,55 @@
+package com.hilltop.user.filter;
+
+import com.hilltop.user.exception.TokenException;
+import com.hilltop.user.service.JwtTokenService;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Jwt authentication filter
+ * Authenticates requests carrying an "Authorization: Bearer" token, with the token subject (mobile number) as
+ * principal. The security context only lives for the request, nothing is read from or written to a session. Requests
+ * without a valid token continue unauthenticated and are rejected by the authorization rules where needed.
+ */
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private final JwtTokenService jwtTokenService;
+
+    public JwtAuthenticationFilter(JwtTokenService jwtTokenService) {
+        this.jwtTokenService = jwtTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            Claims claims = jwtTokenService.parseToken(authorization.substring(BEARER_PREFIX.length()).trim());
+            SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+            securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(claims.getSubject(), null,
+                    Collections.emptyList()));
+            SecurityContextHolder.setContext(securityContext);
+        } catch (TokenException e) {
+            log.debug("Ignoring invalid bearer token: {}", e.getMessage());
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,47 @@
+package com.hilltop.user.filter;
+
+import com.hilltop.user.exception.TokenException;
+import com.hilltop.user.service.JwtTokenService;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+/**
+ * Reactive jwt authentication filter
+ * Reactive counterpart of {@link JwtAuthenticationFilter}: authenticates exchanges carrying an "Authorization: Bearer"
+ * token, with the token subject (mobile number) as principal, for the rest of the filter chain only. Exchanges without
+ * a valid token continue unauthenticated.
+ */
+@Slf4j
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private final JwtTokenService jwtTokenService;
+
+    public ReactiveJwtAuthenticationFilter(JwtTokenService jwtTokenService) {
+        this.jwtTokenService = jwtTokenService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length()))
+            return chain.filter(exchange);
+        try {
+            Claims claims = jwtTokenService.parseToken(authorization.substring(BEARER_PREFIX.length()).trim());
+            return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                    new UsernamePasswordAuthenticationToken(claims.getSubject(), null, Collections.emptyList())));
+        } catch (TokenException e) {
+            log.debug("Ignoring invalid bearer token: {}", e.getMessage());
+            return chain.filter(exchange);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.hilltop.user.filter;
+
+import com.hilltop.user.util.RequestTimings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server timing filter
+ * Records the stages of each request (see {@link RequestTimings}) and logs requests slower than
+ * user.timing.slow-request-threshold-millis. The Server-Timing header is added by the controller advice, before the
+ * body is written.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "user.timing", name = "enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final long slowRequestThresholdNanos;
+
+    public ServerTimingFilter(@Value("${user.timing.slow-request-threshold-millis:1000}") long slowRequestThresholdMillis) {
+        this.slowRequestThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestThresholdMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (RequestTimings.getTotalNanos() >= slowRequestThresholdNanos)
+                log.warn("Slow request. method={} uri={} status={} {}", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), RequestTimings.toLogFields());
+            RequestTimings.end();
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.hilltop.user.repository;
 
 import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.repository.sharding.ShardKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * User repository
+ * With sharding enabled, calls are routed by the {@link ShardKey} parameter, see ShardingRepositoryInterceptor.
  */
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, UUID> {
 
     /**
      * Used to find user by mobile number.
@@ -16,5 +23,14 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @param mobileNo mobileNo
      * @return user.
      */
-    Optional<User> findByMobileNo(String mobileNo);
+    Optional<User> findByMobileNo(@ShardKey String mobileNo);
+
+    /**
+     * Used to find which of the given mobile numbers are registered, with one IN query on the mobile number index.
+     *
+     * @param mobileNos mobileNos
+     * @return registered mobileNos.
+     */
+    @Query("SELECT u.mobileNo FROM User u WHERE u.mobileNo IN :mobileNos")
+    List<String> findRegisteredMobileNos(@ShardKey @Param("mobileNos") Collection<String> mobileNos);
 }
@@ -0,0 +1,228 @@
+package com.hilltop.user.repository.directory;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * User directory
+ * In-memory index of registered mobile numbers and the id of their user row. Mobile numbers are packed into a long
+ * (digits and length) and kept with the id in flat arrays of an open-addressing table, about 24 - 48 bytes per user
+ * instead of a few hundred for a map of strings. The directory only ever says that a user exists: users are never
+ * deleted, so an entry stays true, while a missing entry means "ask the database" (e.g. registered on another node).
+ * An entry can be known to exist without its id, see {@link #put(String, UUID)}.
+ */
+public class UserDirectory {
+
+    static final int MAX_MOBILE_NO_LENGTH = 15;
+    private static final int LENGTH_BITS = 5;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // 0 marks a free slot, packed mobile numbers are never 0
+    private long[] keys;
+    private long[] idMostSigBits;
+    private long[] idLeastSigBits;
+    private int size;
+
+    public UserDirectory(int initialCapacity) {
+        allocate(tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * This method is used to add a registered user. An existing id is kept when the given id is unknown.
+     *
+     * @param mobileNo mobileNo
+     * @param id       user id, null when only the registration is known
+     */
+    public void put(String mobileNo, UUID id) {
+        long key = pack(mobileNo);
+        if (key == 0)
+            return;
+        lock.writeLock().lock();
+        try {
+            putPacked(key, id == null ? 0 : id.getMostSignificantBits(), id == null ? 0 : id.getLeastSignificantBits());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is used to check if a mobile number is known to be registered.
+     *
+     * @param mobileNo mobileNo
+     * @return true when registered, false when unknown
+     */
+    public boolean contains(String mobileNo) {
+        long key = pack(mobileNo);
+        if (key == 0)
+            return false;
+        lock.readLock().lock();
+        try {
+            return keys[indexOf(key)] == key;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is used to get the id of the user row of a mobile number.
+     *
+     * @param mobileNo mobileNo
+     * @return user id, null when unknown
+     */
+    public UUID getId(String mobileNo) {
+        long key = pack(mobileNo);
+        if (key == 0)
+            return null;
+        lock.readLock().lock();
+        try {
+            int index = indexOf(key);
+            if (keys[index] != key || (idMostSigBits[index] == 0 && idLeastSigBits[index] == 0))
+                return null;
+            return new UUID(idMostSigBits[index], idLeastSigBits[index]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is used to visit every entry, e.g. to write a snapshot. Entries are copied first, so lookups and
+     * writers don't wait for the visitor.
+     *
+     * @param visitor visitor
+     */
+    void forEach(EntryVisitor visitor) {
+        long[] copiedKeys;
+        long[] copiedMostSigBits;
+        long[] copiedLeastSigBits;
+        lock.readLock().lock();
+        try {
+            copiedKeys = keys.clone();
+            copiedMostSigBits = idMostSigBits.clone();
+            copiedLeastSigBits = idLeastSigBits.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int i = 0; i < copiedKeys.length; i++) {
+            if (copiedKeys[i] != 0)
+                visitor.visit(copiedKeys[i], copiedMostSigBits[i], copiedLeastSigBits[i]);
+        }
+    }
+
+    /**
+     * This method is used to add an entry read from a snapshot.
+     */
+    void putPacked(long key, long mostSigBits, long leastSigBits, int expectedSize) {
+        lock.writeLock().lock();
+        try {
+            if (expectedSize > keys.length * MAX_LOAD_FACTOR)
+                resize(tableSizeFor(expectedSize));
+            putPacked(key, mostSigBits, leastSigBits);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is used to pack a mobile number: its digits, times 32, plus its length, so leading zeros count.
+     *
+     * @param mobileNo mobileNo
+     * @return packed mobile number, 0 when it has more than 15 chars or a char other than a digit
+     */
+    static long pack(String mobileNo) {
+        if (mobileNo == null || mobileNo.isEmpty() || mobileNo.length() > MAX_MOBILE_NO_LENGTH)
+            return 0;
+        long digits = 0;
+        for (int i = 0; i < mobileNo.length(); i++) {
+            char c = mobileNo.charAt(i);
+            if (c < '0' || c > '9')
+                return 0;
+            digits = digits * 10 + (c - '0');
+        }
+        return (digits << LENGTH_BITS) | mobileNo.length();
+    }
+
+    private void putPacked(long key, long mostSigBits, long leastSigBits) {
+        int index = indexOf(key);
+        if (keys[index] == key) {
+            if (mostSigBits != 0 || leastSigBits != 0) {
+                idMostSigBits[index] = mostSigBits;
+                idLeastSigBits[index] = leastSigBits;
+            }
+            return;
+        }
+        keys[index] = key;
+        idMostSigBits[index] = mostSigBits;
+        idLeastSigBits[index] = leastSigBits;
+        if (++size > keys.length * MAX_LOAD_FACTOR)
+            resize(keys.length * 2);
+    }
+
+    /**
+     * @return slot of the key, or the free slot it would be stored in
+     */
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != 0 && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize(int tableSize) {
+        long[] oldKeys = keys;
+        long[] oldMostSigBits = idMostSigBits;
+        long[] oldLeastSigBits = idLeastSigBits;
+        allocate(tableSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                idMostSigBits[index] = oldMostSigBits[i];
+                idLeastSigBits[index] = oldLeastSigBits[i];
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        idMostSigBits = new long[tableSize];
+        idLeastSigBits = new long[tableSize];
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int tableSize = 16;
+        while (tableSize * MAX_LOAD_FACTOR < capacity + 1 && tableSize < 1 << 30) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    private static int mix(long key) {
+        // murmur3 finalizer, consecutive mobile numbers would otherwise fill runs of slots
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB9FE1A85EC53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * Entry visitor
+     */
+    interface EntryVisitor {
+
+        void visit(long key, long idMostSigBits, long idLeastSigBits);
+    }
+}
@@ -0,0 +1,40 @@
+package com.hilltop.user.repository.directory;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * User directory properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.directory")
+public class UserDirectoryProperties {
+
+    /**
+     * Keep registered mobile numbers and their user ids in memory, and persist them in a snapshot file.
+     */
+    private boolean enabled = true;
+    /**
+     * Snapshot file, read at startup and written every snapshot interval and on shutdown.
+     */
+    private String snapshotFile = "user-directory.snapshot";
+    /**
+     * How often rows created meanwhile (e.g. on other nodes) are added and the snapshot is written.
+     */
+    private long snapshotIntervalMillis = 300_000;
+    /**
+     * How far before the last scan the next one starts. Covers ids generated before their row was committed, e.g. by
+     * write-behind registration, and clock differences between nodes.
+     */
+    private long catchUpMarginMillis = 300_000;
+    /**
+     * Rows per scan query.
+     */
+    private int scanBatchSize = 5_000;
+    /**
+     * Users the directory is sized for at startup, it grows beyond.
+     */
+    private int initialCapacity = 1 << 16;
+}
@@ -0,0 +1,147 @@
+package com.hilltop.user.repository.directory;
+
+import com.hilltop.user.repository.sharding.ShardContext;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import com.hilltop.user.util.UserIdGenerator;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * User directory scanner
+ * Adds user rows to a directory, shard by shard in primary key batches. User ids are time-ordered, so the rows created
+ * since a given time are a range at the end of the primary key: a catch-up after a snapshot reads only that range.
+ * Ids issued before time-ordered ids are random, the few that happen to fall in a catch-up range are read again.
+ * With sharding disabled the shard is ignored.
+ */
+public class UserDirectoryScanner {
+
+    private static final String SELECT_FIRST_BATCH = "SELECT id, mobile_no FROM user WHERE id >= ? AND id < ? "
+            + "ORDER BY id LIMIT ?";
+    private static final String SELECT_NEXT_BATCH = "SELECT id, mobile_no FROM user WHERE id > ? AND id < ? "
+            + "ORDER BY id LIMIT ?";
+    private static final String COUNT_BY_ID = "SELECT COUNT(*) FROM user WHERE id = ?";
+    // larger than any id, every id starts with 48 bits of unix millis
+    private static final byte[] NO_UPPER_BOUND = toBytes(new UUID(-1L, -1L));
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardLayout shardLayout;
+    private final int batchSize;
+
+    public UserDirectoryScanner(JdbcTemplate jdbcTemplate, ShardLayout shardLayout, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardLayout = shardLayout;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * This method is used to add every user row to a directory.
+     *
+     * @param userDirectory directory
+     * @return number of rows read
+     */
+    public long scanAll(UserDirectory userDirectory) {
+        return scan(userDirectory, new byte[16], NO_UPPER_BOUND);
+    }
+
+    /**
+     * This method is used to add the user rows created in a time range to a directory.
+     *
+     * @param userDirectory directory
+     * @param fromMillis    unix millis, inclusive
+     * @param toMillis      unix millis, exclusive
+     * @return number of rows read
+     */
+    public long scanCreated(UserDirectory userDirectory, long fromMillis, long toMillis) {
+        return scan(userDirectory, toBytes(UserIdGenerator.lowerBound(fromMillis)),
+                toBytes(UserIdGenerator.lowerBound(toMillis)));
+    }
+
+    /**
+     * This method is used to identify the database by the JDBC url, catalog and schema of every shard.
+     *
+     * @return first 8 bytes of their SHA-256
+     */
+    public long getDatabaseId() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (int shard = 0; shard < shardLayout.getShardCount(); shard++) {
+            String identity = ShardContext.callOn(shard, () -> jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getURL() + "|"
+                            + connection.getCatalog() + "|" + connection.getSchema()));
+            digest.update(String.valueOf(identity).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    /**
+     * This method is used to check whether a user row exists on any shard.
+     *
+     * @param id user id
+     * @return true when it exists
+     */
+    public boolean exists(UUID id) {
+        byte[] bytes = toBytes(id);
+        for (int shard = 0; shard < shardLayout.getShardCount(); shard++) {
+            Integer count = ShardContext.callOn(shard,
+                    () -> jdbcTemplate.queryForObject(COUNT_BY_ID, Integer.class, (Object) bytes));
+            if (count != null && count > 0)
+                return true;
+        }
+        return false;
+    }
+
+    private long scan(UserDirectory userDirectory, byte[] from, byte[] to) {
+        long rows = 0;
+        for (int shard = 0; shard < shardLayout.getShardCount(); shard++) {
+            rows += ShardContext.callOn(shard, () -> scanShard(userDirectory, from, to));
+        }
+        return rows;
+    }
+
+    private long scanShard(UserDirectory userDirectory, byte[] from, byte[] to) {
+        long rows = 0;
+        byte[] lastId = null;
+        while (true) {
+            List<Row> batch = jdbcTemplate.query(lastId == null ? SELECT_FIRST_BATCH : SELECT_NEXT_BATCH,
+                    (resultSet, rowNum) -> new Row(resultSet.getBytes(1), resultSet.getString(2)),
+                    lastId == null ? from : lastId, to, batchSize);
+            for (Row row : batch) {
+                ByteBuffer id = ByteBuffer.wrap(row.id);
+                userDirectory.put(row.mobileNo, new UUID(id.getLong(), id.getLong()));
+            }
+            rows += batch.size();
+            if (batch.size() < batchSize)
+                return rows;
+            lastId = batch.get(batch.size() - 1).id;
+        }
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static class Row {
+
+        private final byte[] id;
+        private final String mobileNo;
+
+        Row(byte[] id, String mobileNo) {
+            this.id = id;
+            this.mobileNo = mobileNo;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.hilltop.user.repository.directory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * User directory snapshot
+ * Binary file with the entries of a user directory: a header (magic, format version, scanned-until time, database
+ * id, largest user id, entry count), 24 bytes per entry (packed mobile number, id) and a CRC32 of everything before
+ * it. Snapshots are written to a temporary file and moved over the previous one, and read through a memory mapping, so
+ * loading a million users costs one sequential read of 24 MB and no parsing. The snapshot file may be shared by
+ * services of other databases, a snapshot of another database or one ahead of the database is not loaded.
+ */
+public final class UserDirectorySnapshot {
+
+    private static final int MAGIC = 0x48545544;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 16 + 4;
+    private static final int ENTRY_BYTES = 24;
+    private static final int CRC_BYTES = 8;
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private UserDirectorySnapshot() {
+    }
+
+    /**
+     * This method is used to write the entries of a directory.
+     *
+     * @param file               snapshot file
+     * @param userDirectory      directory
+     * @param scannedUntilMillis time until which every user row was added to the directory
+     * @param databaseId         id of the database the directory was scanned from
+     * @throws IOException when the file can't be written, the previous snapshot is left as it was
+     */
+    public static void write(Path file, UserDirectory userDirectory, long scannedUntilMillis, long databaseId)
+            throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the entry count is only known after the visit, the header is written last
+            channel.position(HEADER_BYTES);
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+            int[] count = new int[1];
+            long[] maxId = new long[2];
+            try {
+                userDirectory.forEach((key, idMostSigBits, idLeastSigBits) -> {
+                    if (buffer.remaining() < ENTRY_BYTES)
+                        flush(channel, buffer);
+                    buffer.putLong(key).putLong(idMostSigBits).putLong(idLeastSigBits);
+                    count[0]++;
+                    if (compareUnsigned(idMostSigBits, idLeastSigBits, maxId[0], maxId[1]) > 0) {
+                        maxId[0] = idMostSigBits;
+                        maxId[1] = idLeastSigBits;
+                    }
+                });
+                flush(channel, buffer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            long entriesEnd = HEADER_BYTES + (long) count[0] * ENTRY_BYTES;
+            write(channel, ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(FORMAT_VERSION).putLong(scannedUntilMillis).putLong(databaseId)
+                    .putLong(maxId[0]).putLong(maxId[1]).putInt(count[0]), 0);
+            CRC32 crc = new CRC32();
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, entriesEnd));
+            write(channel, ByteBuffer.allocate(CRC_BYTES).putLong(crc.getValue()), entriesEnd);
+            channel.force(true);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * This method is used to add the entries of a snapshot to a directory.
+     *
+     * @param file          snapshot file
+     * @param userDirectory directory
+     * @param databaseId    id of the database the directory is for
+     * @param isStored      tells whether a user id is stored in that database
+     * @return time until which every user row is in the snapshot, or -1 when there is no snapshot
+     * @throws IOException when the file can't be read, is not a complete snapshot or is not one of the database
+     */
+    public static long read(Path file, UserDirectory userDirectory, long databaseId, Predicate<UUID> isStored)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES + CRC_BYTES || fileSize > Integer.MAX_VALUE)
+                throw new IOException("Invalid user directory snapshot size " + fileSize + ": " + file);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+                throw new IOException("Not a user directory snapshot of format " + FORMAT_VERSION + ": " + file);
+            long scannedUntilMillis = buffer.getLong();
+            long snapshotDatabaseId = buffer.getLong();
+            UUID maxId = new UUID(buffer.getLong(), buffer.getLong());
+            int count = buffer.getInt();
+            if (count < 0 || fileSize != HEADER_BYTES + (long) count * ENTRY_BYTES + CRC_BYTES)
+                throw new IOException("Truncated user directory snapshot: " + file);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit((int) fileSize - CRC_BYTES));
+            if (crc.getValue() != buffer.getLong((int) fileSize - CRC_BYTES))
+                throw new IOException("Corrupt user directory snapshot: " + file);
+            if (snapshotDatabaseId != databaseId)
+                throw new IOException("User directory snapshot of another database: " + file);
+            // e.g. the database was restored from a backup taken before the snapshot
+            if ((maxId.getMostSignificantBits() != 0 || maxId.getLeastSignificantBits() != 0)
+                    && !isStored.test(maxId))
+                throw new IOException("User directory snapshot has user " + maxId + " the database doesn't: " + file);
+            for (int i = 0; i < count; i++) {
+                userDirectory.putPacked(buffer.getLong(), buffer.getLong(), buffer.getLong(), count);
+            }
+            return scannedUntilMillis;
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Compares ids as unsigned bytes, like the BINARY(16) primary key.
+     */
+    private static int compareUnsigned(long mostSigBits, long leastSigBits, long otherMostSigBits,
+                                       long otherLeastSigBits) {
+        int result = Long.compareUnsigned(mostSigBits, otherMostSigBits);
+        return result != 0 ? result : Long.compareUnsigned(leastSigBits, otherLeastSigBits);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
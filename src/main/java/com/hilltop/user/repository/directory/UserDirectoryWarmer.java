@@ -0,0 +1,126 @@
+package com.hilltop.user.repository.directory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * User directory warmer
+ * Loads the user directory from its snapshot before the service takes requests, then a background refresher adds the
+ * rows created since the snapshot was scanned (or every row when there is no snapshot) and writes a new snapshot,
+ * once and then every interval. A restarted node thus reads the database for the last few minutes of registrations
+ * only. The directory is an accelerator: until the first scan completes it just knows fewer users. A snapshot of
+ * another database, or one holding users the database doesn't, is ignored and the user table is scanned.
+ */
+@Slf4j
+public class UserDirectoryWarmer implements InitializingBean, DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private final UserDirectory userDirectory;
+    private final UserDirectoryScanner userDirectoryScanner;
+    private final UserDirectoryProperties properties;
+    private final Path snapshotFile;
+    // every row created before it (minus the catch-up margin) is in the directory, -1 until the first full scan
+    private volatile long scannedUntilMillis = -1;
+    // null until read from the database
+    private volatile Long databaseId;
+    private volatile boolean running;
+    private Thread refresher;
+
+    public UserDirectoryWarmer(UserDirectory userDirectory, UserDirectoryScanner userDirectoryScanner,
+                               UserDirectoryProperties properties) {
+        this.userDirectory = userDirectory;
+        this.userDirectoryScanner = userDirectoryScanner;
+        this.properties = properties;
+        this.snapshotFile = Paths.get(properties.getSnapshotFile());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        load();
+        running = true;
+        refresher = new Thread(this::refreshPeriodically, "user-directory-refresher");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    /**
+     * This method is used to stop the refresher and write a last snapshot.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(refresher);
+        refresher.join(SHUTDOWN_TIMEOUT_MILLIS);
+        writeSnapshot();
+        log.info("User directory refresher stopped.");
+    }
+
+    /**
+     * This method is used to load the snapshot, a missing, unreadable or foreign one leaves the directory empty.
+     */
+    void load() {
+        long start = System.nanoTime();
+        try {
+            databaseId = userDirectoryScanner.getDatabaseId();
+            scannedUntilMillis = UserDirectorySnapshot.read(snapshotFile, userDirectory, databaseId,
+                    userDirectoryScanner::exists);
+            if (scannedUntilMillis < 0)
+                log.info("No user directory snapshot at {}, the user table is scanned.", snapshotFile);
+            else
+                log.info("Loaded {} users from {} in {} ms.", userDirectory.size(), snapshotFile,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            log.warn("Failed to load user directory snapshot {}, the user table is scanned.", snapshotFile, e);
+        } catch (DataAccessException e) {
+            log.warn("Failed to check user directory snapshot {} against the database, the user table is scanned.",
+                    snapshotFile, e);
+        }
+    }
+
+    private void refreshPeriodically() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSnapshotIntervalMillis());
+        while (running) {
+            try {
+                refresh();
+            } catch (DataAccessException e) {
+                log.error("Failed to scan users for the user directory.", e);
+            }
+            LockSupport.parkNanos(this, intervalNanos);
+        }
+    }
+
+    /**
+     * This method is used to add the rows created since the last scan and to write a snapshot.
+     */
+    void refresh() {
+        long start = System.currentTimeMillis();
+        long margin = properties.getCatchUpMarginMillis();
+        if (databaseId == null)
+            databaseId = userDirectoryScanner.getDatabaseId();
+        long rows = scannedUntilMillis < 0 ? userDirectoryScanner.scanAll(userDirectory)
+                : userDirectoryScanner.scanCreated(userDirectory, scannedUntilMillis - margin, start + margin);
+        scannedUntilMillis = start;
+        log.debug("Scanned {} users for the user directory in {} ms.", rows, System.currentTimeMillis() - start);
+        writeSnapshot();
+    }
+
+    private void writeSnapshot() {
+        long scannedUntil = scannedUntilMillis;
+        Long scannedDatabaseId = databaseId;
+        if (scannedUntil < 0 || scannedDatabaseId == null)
+            return;
+        try {
+            UserDirectorySnapshot.write(snapshotFile, userDirectory, scannedUntil, scannedDatabaseId);
+        } catch (IOException e) {
+            log.error("Failed to write user directory snapshot {}.", snapshotFile, e);
+        }
+    }
+}
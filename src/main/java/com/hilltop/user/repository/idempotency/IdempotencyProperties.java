@@ -0,0 +1,43 @@
+package com.hilltop.user.repository.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Idempotency properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Replay stored responses for POST requests that repeat an Idempotency-Key header.
+     */
+    private boolean enabled = true;
+    /**
+     * Paths, relative to the context path, whose POST requests accept an Idempotency-Key header.
+     */
+    private List<String> paths = new ArrayList<>(List.of("/api/v1/user"));
+    /**
+     * How long a response is replayed for.
+     */
+    private Duration ttl = Duration.ofHours(24);
+    /**
+     * Responses kept in memory per node.
+     */
+    private int maxEntries = 10_000;
+    /**
+     * Also store responses in the idempotency_key table, so retries that reach another node are replayed.
+     */
+    private boolean persistent;
+    /**
+     * How long a retry waits for the same request still in flight on this node.
+     */
+    private long maxWaitMillis = 10_000;
+}
@@ -0,0 +1,25 @@
+package com.hilltop.user.repository.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Idempotency store
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Used to find the unexpired response stored for a key.
+     *
+     * @param key idempotency key
+     * @return stored response.
+     */
+    Optional<StoredResponse> find(String key);
+
+    /**
+     * Used to store the response of a key. A response already stored for the key is kept.
+     *
+     * @param key      idempotency key
+     * @param response response
+     */
+    void save(String key, StoredResponse response);
+}
@@ -0,0 +1,58 @@
+package com.hilltop.user.repository.idempotency;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In memory idempotency store
+ * Bounded, least recently used keys are evicted first once maxEntries is reached.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, StoredResponse> responses;
+    private final Clock clock;
+
+    public InMemoryIdempotencyStore(int maxEntries) {
+        this(maxEntries, Clock.systemUTC());
+    }
+
+    InMemoryIdempotencyStore(int maxEntries, Clock clock) {
+        this.clock = clock;
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> find(String key) {
+        StoredResponse response = responses.get(key);
+        if (response == null)
+            return Optional.empty();
+        if (response.isExpired(clock.instant())) {
+            responses.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(response);
+    }
+
+    @Override
+    public synchronized void save(String key, StoredResponse response) {
+        StoredResponse existing = responses.get(key);
+        if (existing == null || existing.isExpired(clock.instant()))
+            responses.put(key, response);
+    }
+
+    /**
+     * This method is used to get the number of stored responses, expired ones included.
+     *
+     * @return stored responses
+     */
+    public synchronized int size() {
+        return responses.size();
+    }
+}
@@ -0,0 +1,72 @@
+package com.hilltop.user.repository.idempotency;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Jdbc idempotency store
+ * Shares stored responses between nodes through the idempotency_key table. Expired rows are purged in small batches
+ * every PURGE_INTERVAL saves. With sharding enabled the table lives on the default shard.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final int PURGE_INTERVAL = 1000;
+    private static final int PURGE_BATCH_SIZE = 1000;
+    private static final String SELECT = "SELECT status, content_type, body, expires_at, request_hash "
+            + "FROM idempotency_key WHERE idempotency_key = ? AND expires_at > ?";
+    private static final String DELETE_EXPIRED_KEY = "DELETE FROM idempotency_key "
+            + "WHERE idempotency_key = ? AND expires_at <= ?";
+    private static final String INSERT = "INSERT INTO idempotency_key "
+            + "(idempotency_key, status, content_type, body, expires_at, request_hash) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String PURGE = "DELETE FROM idempotency_key WHERE expires_at <= ? LIMIT " + PURGE_BATCH_SIZE;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final AtomicLong saves = new AtomicLong();
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Clock.systemUTC());
+    }
+
+    JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        List<StoredResponse> responses = jdbcTemplate.query(SELECT, (resultSet, rowNum) -> new StoredResponse(
+                resultSet.getInt("status"), resultSet.getString("content_type"), resultSet.getBytes("body"),
+                resultSet.getTimestamp("expires_at").toInstant(), resultSet.getString("request_hash")),
+                key, Timestamp.from(clock.instant()));
+        return responses.stream().findFirst();
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        Timestamp now = Timestamp.from(clock.instant());
+        jdbcTemplate.update(DELETE_EXPIRED_KEY, key, now);
+        try {
+            jdbcTemplate.update(INSERT, key, response.getStatus(), response.getContentType(), response.getBody(),
+                    Timestamp.from(response.getExpiresAt()), response.getRequestHash());
+        } catch (DuplicateKeyException e) {
+            // another node stored the outcome of the same request first, keep that one.
+        }
+        if (saves.incrementAndGet() % PURGE_INTERVAL == 0)
+            purgeExpired();
+    }
+
+    /**
+     * This method is used to delete a batch of expired rows.
+     *
+     * @return deleted rows
+     */
+    public int purgeExpired() {
+        return jdbcTemplate.update(PURGE, Timestamp.from(clock.instant()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.hilltop.user.repository.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Stored response
+ * Outcome of a request made with an idempotency key, replayed for retries of the same request.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredResponse {
+
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+    private final Instant expiresAt;
+    // SHA-256 of the caller and the request body, null for responses stored before it was recorded
+    private final String requestHash;
+
+    /**
+     * This method is used to check if the response can still be replayed.
+     *
+     * @param now current time
+     * @return true/false
+     */
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    /**
+     * This method is used to check if the response is the outcome of a request, rather than of another request that
+     * reused its idempotency key.
+     *
+     * @param requestHash hash of the request
+     * @return true/false, true when the response was stored without a hash
+     */
+    public boolean isOutcomeOf(String requestHash) {
+        return this.requestHash == null || this.requestHash.equals(requestHash);
+    }
+}
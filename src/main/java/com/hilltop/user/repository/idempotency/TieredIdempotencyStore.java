@@ -0,0 +1,34 @@
+package com.hilltop.user.repository.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Tiered idempotency store
+ * Answers from the near (in-memory) store first and fills it from the far (shared) store on a miss.
+ */
+public class TieredIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyStore near;
+    private final IdempotencyStore far;
+
+    public TieredIdempotencyStore(IdempotencyStore near, IdempotencyStore far) {
+        this.near = near;
+        this.far = far;
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        Optional<StoredResponse> response = near.find(key);
+        if (response.isPresent())
+            return response;
+        response = far.find(key);
+        response.ifPresent(storedResponse -> near.save(key, storedResponse));
+        return response;
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        far.save(key, response);
+        near.save(key, response);
+    }
+}
@@ -0,0 +1,18 @@
+package com.hilltop.user.repository.login;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Login event
+ */
+@Getter
+@AllArgsConstructor
+public class LoginEvent {
+
+    private final String mobileNo;
+    private final String clientAddress;
+    private final Instant loggedInAt;
+}
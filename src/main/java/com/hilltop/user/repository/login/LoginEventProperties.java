@@ -0,0 +1,35 @@
+package com.hilltop.user.repository.login;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Login event properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.login-events")
+public class LoginEventProperties {
+
+    /**
+     * Record the last login of every user and a login audit trail.
+     */
+    private boolean enabled = true;
+    /**
+     * How often buffered events are written.
+     */
+    private long flushIntervalMillis = 1000;
+    /**
+     * Events buffered between flushes. Events above it are dropped, sign-in never waits for the database.
+     */
+    private int bufferCapacity = 100_000;
+    /**
+     * Audit rows per multi-row insert.
+     */
+    private int batchSize = 500;
+    /**
+     * How long shutdown waits for the flusher to write buffered events.
+     */
+    private long shutdownTimeoutMillis = 10_000;
+}
@@ -0,0 +1,168 @@
+package com.hilltop.user.repository.login;
+
+import com.hilltop.user.repository.resilience.DatabaseUnavailableException;
+import com.hilltop.user.repository.sharding.ShardKeys;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import com.hilltop.user.util.LogRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Login event recorder
+ * Sign-in only appends an event to a lock-free queue. A background flusher drains the queue every interval and
+ * coalesces it: one last-login UPDATE per user (the latest login wins) and the audit rows as multi-row inserts, per
+ * shard. Events are best effort: when the buffer is full or a write fails they are dropped and logged, sign-in is
+ * never delayed or failed by them. While the database circuit is open (or the write bulkhead is full) the remaining
+ * writes of a shard are skipped. Buffered events are written before shutdown completes.
+ */
+@Slf4j
+public class LoginEventRecorder implements InitializingBean, DisposableBean {
+
+    private final LoginEventWriter loginEventWriter;
+    private final ShardLayout shardLayout;
+    private final LoginEventProperties properties;
+    private final Queue<LoginEvent> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferSize = new AtomicInteger();
+    private final LogRateLimiter droppedLogLimiter = new LogRateLimiter(1, 10_000);
+    private volatile boolean running;
+    private Thread flusher;
+
+    public LoginEventRecorder(LoginEventWriter loginEventWriter, ShardLayout shardLayout,
+                              LoginEventProperties properties) {
+        this.loginEventWriter = loginEventWriter;
+        this.shardLayout = shardLayout;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        flusher = new Thread(this::flushPeriodically, "login-event-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * This method is used to stop the flusher and write the buffered events.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(properties.getShutdownTimeoutMillis());
+        // events recorded while the flusher was finishing
+        flush();
+        log.info("Login event flusher stopped.");
+    }
+
+    /**
+     * This method is used to record a successful login.
+     *
+     * @param mobileNo      mobileNo
+     * @param clientAddress client address, may be null
+     */
+    public void record(String mobileNo, String clientAddress) {
+        if (bufferSize.incrementAndGet() > properties.getBufferCapacity()) {
+            bufferSize.decrementAndGet();
+            long suppressed = droppedLogLimiter.tryAcquire();
+            if (suppressed != LogRateLimiter.SUPPRESSED)
+                log.warn("Login event buffer is full, dropped login of {}. {} similar drops not logged.", mobileNo,
+                        suppressed);
+            return;
+        }
+        buffer.offer(new LoginEvent(mobileNo, clientAddress, Instant.now()));
+    }
+
+    private void flushPeriodically() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Failed to write login events.", e);
+            }
+        }
+    }
+
+    /**
+     * This method is used to write the buffered events, grouped by shard.
+     */
+    void flush() {
+        Map<Integer, ShardEvents> eventsByShard = new TreeMap<>();
+        LoginEvent event;
+        while ((event = buffer.poll()) != null) {
+            bufferSize.decrementAndGet();
+            int shard = shardLayout.shardOf(event.getMobileNo());
+            ShardEvents shardEvents = eventsByShard.computeIfAbsent(shard, key -> new ShardEvents());
+            shardEvents.addLastLogin(event);
+            shardEvents.audits.add(event);
+            if (shardLayout.isResharding()) {
+                // the user row may not have been moved to its new shard yet
+                int previousShard = shardLayout.previousShardOfBucket(ShardKeys.bucketOf(event.getMobileNo()));
+                if (previousShard != shard)
+                    eventsByShard.computeIfAbsent(previousShard, key -> new ShardEvents()).addLastLogin(event);
+            }
+        }
+        eventsByShard.forEach(this::write);
+    }
+
+    private void write(int shard, ShardEvents shardEvents) {
+        if (!shardEvents.lastLogins.isEmpty()) {
+            try {
+                loginEventWriter.updateLastLogins(shard, shardEvents.lastLogins);
+            } catch (DatabaseUnavailableException e) {
+                logUnavailable(shard, shardEvents, e);
+                return;
+            } catch (DataAccessException e) {
+                log.error("Failed to update the last login of {} users on shard {}.", shardEvents.lastLogins.size(),
+                        shard, e);
+            }
+        }
+        List<LoginEvent> audits = shardEvents.audits;
+        for (int from = 0; from < audits.size(); from += properties.getBatchSize()) {
+            List<LoginEvent> batch = audits.subList(from, Math.min(from + properties.getBatchSize(), audits.size()));
+            try {
+                loginEventWriter.insertAudits(shard, batch);
+            } catch (DatabaseUnavailableException e) {
+                logUnavailable(shard, shardEvents, e);
+                return;
+            } catch (DataAccessException e) {
+                log.error("Failed to write {} login audit rows on shard {}.", batch.size(), shard, e);
+            }
+        }
+    }
+
+    /**
+     * This method is used to log the events of a shard dropped without trying their remaining writes.
+     */
+    private void logUnavailable(int shard, ShardEvents shardEvents, DatabaseUnavailableException e) {
+        log.warn("Database unavailable, dropped the login events of {} users on shard {}: {}",
+                shardEvents.lastLogins.size(), shard, e.getMessage());
+    }
+
+    private static class ShardEvents {
+
+        private final Map<String, Instant> lastLogins = new HashMap<>();
+        private final List<LoginEvent> audits = new ArrayList<>();
+
+        private void addLastLogin(LoginEvent event) {
+            lastLogins.merge(event.getMobileNo(), event.getLoggedInAt(),
+                    (current, loggedInAt) -> loggedInAt.isAfter(current) ? loggedInAt : current);
+        }
+    }
+}
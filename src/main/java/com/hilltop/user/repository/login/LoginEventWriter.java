@@ -0,0 +1,89 @@
+package com.hilltop.user.repository.login;
+
+import com.hilltop.user.repository.resilience.DatabaseUnavailableException;
+import com.hilltop.user.repository.resilience.ResilientRepositoryInterceptor;
+import com.hilltop.user.repository.sharding.ShardContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Login event writer
+ * Writes the events of one shard: one batched UPDATE for the last logins, and one multi-row INSERT for the audit rows.
+ * With sharding disabled the shard is ignored. Statements take the write bulkhead, timeout and circuit breaker of the
+ * user repository when database resilience is enabled.
+ */
+public class LoginEventWriter {
+
+    // never moves last_login_at back, e.g. when two nodes flush the same user
+    private static final String UPDATE_LAST_LOGIN = "UPDATE user SET last_login_at = ? "
+            + "WHERE mobile_no = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+    private static final String INSERT_AUDIT = "INSERT INTO login_audit (mobile_no, client_address, logged_in_at) "
+            + "VALUES ";
+    private static final String ROW = "(?, ?, ?)";
+    private static final int COLUMN_COUNT = 3;
+    private final JdbcTemplate jdbcTemplate;
+    // null unless database resilience is enabled
+    private final ResilientRepositoryInterceptor resilientRepositoryInterceptor;
+
+    public LoginEventWriter(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, null);
+    }
+
+    public LoginEventWriter(JdbcTemplate jdbcTemplate, ResilientRepositoryInterceptor resilientRepositoryInterceptor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.resilientRepositoryInterceptor = resilientRepositoryInterceptor;
+    }
+
+    /**
+     * This method is used to update the last login of users.
+     *
+     * @param shard      shard of the users
+     * @param lastLogins last login per mobile number
+     * @throws DatabaseUnavailableException when the write bulkhead is full or the database circuit is open
+     */
+    public void updateLastLogins(int shard, Map<String, Instant> lastLogins) {
+        List<Object[]> args = new ArrayList<>(lastLogins.size());
+        lastLogins.forEach((mobileNo, loggedInAt) -> {
+            Timestamp timestamp = Timestamp.from(loggedInAt);
+            args.add(new Object[]{timestamp, mobileNo, timestamp});
+        });
+        ShardContext.runOn(shard, () -> guarded(() -> jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, args)));
+    }
+
+    /**
+     * This method is used to insert audit rows in a single statement.
+     *
+     * @param shard  shard of the users
+     * @param events login events
+     * @throws DatabaseUnavailableException when the write bulkhead is full or the database circuit is open
+     */
+    public void insertAudits(int shard, List<LoginEvent> events) {
+        StringBuilder sql = new StringBuilder(INSERT_AUDIT.length() + events.size() * (ROW.length() + 2))
+                .append(INSERT_AUDIT);
+        Object[] args = new Object[events.size() * COLUMN_COUNT];
+        int arg = 0;
+        for (int i = 0; i < events.size(); i++) {
+            LoginEvent event = events.get(i);
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+            args[arg++] = event.getMobileNo();
+            args[arg++] = event.getClientAddress();
+            args[arg++] = Timestamp.from(event.getLoggedInAt());
+        }
+        ShardContext.runOn(shard, () -> guarded(() -> jdbcTemplate.update(sql.toString(), args)));
+    }
+
+    /**
+     * The shard is selected first, so the guarded transaction takes a connection of the shard.
+     */
+    private <T> T guarded(Supplier<T> call) {
+        if (resilientRepositoryInterceptor == null)
+            return call.get();
+        return resilientRepositoryInterceptor.execute(true, call);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hilltop.user.repository.reactive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * R2dbc storage properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.reactive.r2dbc")
+public class R2dbcStorageProperties {
+
+    /**
+     * R2DBC url of the user database, e.g. r2dbc:mysql://host:3306/hilltop
+     */
+    private String url;
+    /**
+     * Database user, may be part of the url instead.
+     */
+    private String username;
+    /**
+     * Database password, may be part of the url instead.
+     */
+    private String password;
+    /**
+     * Connections kept open. Non-blocking connections are only held while a query runs, so few are needed.
+     */
+    private int maxPoolSize = 20;
+    /**
+     * How long a lookup waits for a free connection before it fails.
+     */
+    private Duration maxAcquireTime = Duration.ofSeconds(3);
+}
@@ -0,0 +1,55 @@
+package com.hilltop.user.repository.reactive;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.exception.HillTopUserApplicationException;
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive user repository
+ * Non-blocking user lookups over R2DBC, for the reactive auth endpoints. Uses the same user table as the JPA
+ * repository; sharded storage is not supported.
+ */
+public class ReactiveUserRepository implements DisposableBean {
+
+    private static final String SELECT_BY_MOBILE_NO = "SELECT mobile_no, password, user_type FROM user "
+            + "WHERE mobile_no = :mobileNo";
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * Used to find the credentials of a user by mobile number.
+     *
+     * @param mobileNo mobileNo
+     * @return user with mobileNo, password and userType, empty when not registered.
+     */
+    public Mono<User> findByMobileNo(String mobileNo) {
+        return databaseClient.sql(SELECT_BY_MOBILE_NO)
+                .bind("mobileNo", mobileNo)
+                .map((row, rowMetadata) -> {
+                    User user = new User();
+                    user.setMobileNo(row.get("mobile_no", String.class));
+                    user.setPassword(row.get("password", String.class));
+                    String userType = row.get("user_type", String.class);
+                    user.setUserType(userType == null ? null : UserType.valueOf(userType));
+                    return user;
+                })
+                .first()
+                .onErrorMap(DataAccessException.class, e ->
+                        new HillTopUserApplicationException("Failed to get user by mobileNo from database.", e));
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
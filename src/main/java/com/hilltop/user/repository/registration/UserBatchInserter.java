@@ -0,0 +1,96 @@
+package com.hilltop.user.repository.registration;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.repository.resilience.DatabaseUnavailableException;
+import com.hilltop.user.repository.resilience.ResilientRepositoryInterceptor;
+import com.hilltop.user.repository.sharding.ShardContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * User batch inserter
+ * Writes users with one multi-row INSERT per batch, so a batch costs one round trip and one commit. All users of a
+ * batch must belong to the given shard; with sharding disabled the shard is ignored. Statements take the bulkheads,
+ * timeouts and circuit breaker of the user repository when database resilience is enabled.
+ */
+public class UserBatchInserter {
+
+    private static final String INSERT = "INSERT INTO user "
+            + "(id, name, name_key, mobile_no, password, user_type, version, updated_at) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMN_COUNT = 8;
+    private static final String COUNT_BY_ID = "SELECT COUNT(*) FROM user WHERE id = ?";
+    private final JdbcTemplate jdbcTemplate;
+    // null unless database resilience is enabled
+    private final ResilientRepositoryInterceptor resilientRepositoryInterceptor;
+
+    public UserBatchInserter(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, null);
+    }
+
+    public UserBatchInserter(JdbcTemplate jdbcTemplate, ResilientRepositoryInterceptor resilientRepositoryInterceptor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.resilientRepositoryInterceptor = resilientRepositoryInterceptor;
+    }
+
+    /**
+     * This method is used to insert users in a single statement.
+     *
+     * @param shard shard of the users
+     * @param users users
+     * @throws DatabaseUnavailableException when the write bulkhead is full or the database circuit is open
+     */
+    public void insert(int shard, List<User> users) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + users.size() * (ROW.length() + 2)).append(INSERT);
+        Object[] args = new Object[users.size() * COLUMN_COUNT];
+        int arg = 0;
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+            args[arg++] = toBytes(user.getId());
+            args[arg++] = user.getName();
+            args[arg++] = user.getNameKey();
+            args[arg++] = user.getMobileNo();
+            args[arg++] = user.getPassword();
+            args[arg++] = user.getUserType() == null ? null : user.getUserType().name();
+            // queued users were never persisted, so they have no version yet
+            args[arg++] = user.getVersion() == null ? 0L : user.getVersion();
+            args[arg++] = Timestamp.from(user.getUpdatedAt());
+        }
+        ShardContext.runOn(shard, () -> guarded(true, () -> jdbcTemplate.update(sql.toString(), args)));
+    }
+
+    /**
+     * This method is used to check if a user was written, e.g. by an attempt that timed out after committing.
+     *
+     * @param shard shard of the user
+     * @param id    user id
+     * @return true when the row exists
+     */
+    public boolean exists(int shard, UUID id) {
+        Integer count = ShardContext.callOn(shard, () -> guarded(false,
+                () -> jdbcTemplate.queryForObject(COUNT_BY_ID, Integer.class, (Object) toBytes(id))));
+        return count != null && count > 0;
+    }
+
+    /**
+     * The shard is selected first, so the guarded transaction takes a connection of the shard.
+     */
+    private <T> T guarded(boolean write, Supplier<T> call) {
+        if (resilientRepositoryInterceptor == null)
+            return call.get();
+        return resilientRepositoryInterceptor.execute(write, call);
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
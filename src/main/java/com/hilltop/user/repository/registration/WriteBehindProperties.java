@@ -0,0 +1,51 @@
+package com.hilltop.user.repository.registration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Write-behind properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.registration.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * Answer registrations with 202 once validated and hashed, and persist them in batches in the background.
+     */
+    private boolean enabled;
+    /**
+     * Registrations waiting to be written. Registrations above it are rejected with 503.
+     */
+    private int queueCapacity = 10_000;
+    /**
+     * Rows per multi-row insert.
+     */
+    private int batchSize = 500;
+    /**
+     * How long a registration waits for room in a full queue before it is rejected.
+     */
+    private long offerTimeoutMillis = 50;
+    /**
+     * Attempts per batch, and per row once a failed batch is split up, before a row is dead-lettered.
+     */
+    private int maxAttempts = 3;
+    /**
+     * Pause before the second attempt, doubled for every further attempt.
+     */
+    private long retryBackoffMillis = 100;
+    /**
+     * Outcomes of written registrations kept for the status endpoint.
+     */
+    private int maxTrackedOutcomes = 100_000;
+    /**
+     * File rows that could not be written are appended to, one JSON object per line.
+     */
+    private String deadLetterFile = "registration-dead-letters.jsonl";
+    /**
+     * How long shutdown waits for queued registrations to be written, and again for the writer once interrupted.
+     */
+    private long shutdownTimeoutMillis = 30_000;
+}
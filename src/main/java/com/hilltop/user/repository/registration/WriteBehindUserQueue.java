@@ -0,0 +1,330 @@
+package com.hilltop.user.repository.registration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.enumeration.RegistrationStatus;
+import com.hilltop.user.exception.RegistrationQueueFullException;
+import com.hilltop.user.repository.resilience.DatabaseUnavailableException;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind user queue
+ * Holds validated and hashed users until a background writer persists them. The writer takes whatever is queued, up
+ * to the batch size, so batches grow with the registration rate and each costs a single multi-row insert per shard.
+ * Mobile numbers stay reserved in memory until their row is committed, so a repeated registration is rejected before
+ * it reaches the database.
+ * A failed batch is retried with backoff and then split into single rows: a row that violates a constraint is
+ * REJECTED (e.g. registered on another node meanwhile), a row that keeps failing is appended to the dead letter file
+ * and FAILED, so no accepted registration is lost silently. While the database circuit is open (or the write
+ * bulkhead is full) the batch is dead-lettered at once, rather than retried row by row for the length of the outage.
+ * A batch left pending by an unexpected error is dead-lettered as well. Queued users are written before shutdown
+ * completes, or dead-lettered when the writer does not stop in time.
+ */
+@Slf4j
+public class WriteBehindUserQueue implements InitializingBean, DisposableBean {
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+    private final UserBatchInserter userBatchInserter;
+    private final ShardLayout shardLayout;
+    private final WriteBehindProperties properties;
+    private final BlockingQueue<User> queue;
+    private final Set<String> reservedMobileNos = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pendingIds = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, RegistrationStatus> outcomes;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile boolean running;
+    private Thread writer;
+
+    public WriteBehindUserQueue(UserBatchInserter userBatchInserter, ShardLayout shardLayout,
+                                WriteBehindProperties properties) {
+        this.userBatchInserter = userBatchInserter;
+        this.shardLayout = shardLayout;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        int maxTrackedOutcomes = properties.getMaxTrackedOutcomes();
+        this.outcomes = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, RegistrationStatus> eldest) {
+                return size() > maxTrackedOutcomes;
+            }
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        writer = new Thread(this::write, "registration-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * This method is used to stop accepting users and write the queued ones.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.join(properties.getShutdownTimeoutMillis());
+        if (writer.isAlive()) {
+            log.warn("Registration writer did not stop within {} ms, interrupting it.",
+                    properties.getShutdownTimeoutMillis());
+            writer.interrupt();
+            writer.join(properties.getShutdownTimeoutMillis());
+        }
+        // users offered while the writer was finishing
+        List<User> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (remaining.isEmpty())
+            log.info("Registration writer stopped.");
+        else if (writer.isAlive())
+            fail(remaining, "registration writer is still running");
+        else
+            flushOrFail(remaining);
+    }
+
+    /**
+     * This method is used to reserve a mobile number for a registration.
+     *
+     * @param mobileNo mobileNo
+     * @return false when the mobile number is reserved by a registration that has not been written yet
+     */
+    public boolean reserve(String mobileNo) {
+        return reservedMobileNos.add(mobileNo);
+    }
+
+    /**
+     * This method is used to release a reservation of a registration that was not queued.
+     *
+     * @param mobileNo mobileNo
+     */
+    public void release(String mobileNo) {
+        reservedMobileNos.remove(mobileNo);
+    }
+
+    /**
+     * This method is used to queue a user whose mobile number is reserved.
+     *
+     * @param user user
+     * @throws RegistrationQueueFullException when the queue stays full for the offer timeout or is shut down
+     */
+    public void enqueue(User user) {
+        user.setUpdatedAt(Instant.now());
+        pendingIds.add(user.getId());
+        boolean queued = false;
+        try {
+            queued = running && queue.offer(user, properties.getOfferTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!queued)
+                pendingIds.remove(user.getId());
+        }
+        if (!queued)
+            throw new RegistrationQueueFullException("Registration queue is full.");
+    }
+
+    /**
+     * This method is used to get the status of a queued registration.
+     *
+     * @param id user id
+     * @return status, empty when the registration is unknown to this node
+     */
+    public Optional<RegistrationStatus> getStatus(UUID id) {
+        if (pendingIds.contains(id))
+            return Optional.of(RegistrationStatus.PENDING);
+        return Optional.ofNullable(outcomes.get(id));
+    }
+
+    private void write() {
+        List<User> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                User first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                flushOrFail(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * This method is used to write a batch and to dead-letter the users left pending by an unexpected error, so their
+     * mobile numbers are released.
+     *
+     * @param batch users
+     */
+    private void flushOrFail(List<User> batch) {
+        try {
+            flush(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} registrations.", batch.size(), e);
+            fail(batch.stream().filter(user -> pendingIds.contains(user.getId())).collect(Collectors.toList()),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * This method is used to write a batch, one insert per shard.
+     *
+     * @param batch users
+     */
+    void flush(List<User> batch) {
+        Map<Integer, List<User>> batchByShard = new TreeMap<>();
+        for (User user : batch) {
+            batchByShard.computeIfAbsent(shardLayout.shardOf(user.getMobileNo()), shard -> new ArrayList<>())
+                    .add(user);
+        }
+        batchByShard.forEach(this::flushShard);
+    }
+
+    private void flushShard(int shard, List<User> users) {
+        int next = 0;
+        try {
+            if (users.size() > 1 && insert(shard, users) == RegistrationStatus.COMPLETED) {
+                complete(users, RegistrationStatus.COMPLETED);
+                return;
+            }
+            // isolate the rows that make the batch fail
+            for (; next < users.size(); next++) {
+                User user = users.get(next);
+                RegistrationStatus status = insert(shard, List.of(user));
+                if (status != RegistrationStatus.COMPLETED && exists(shard, user))
+                    status = RegistrationStatus.COMPLETED;
+                if (status == RegistrationStatus.REJECTED)
+                    log.info("Rejected registration {}, mobile number already registered.", user.getExternalId());
+                if (status == RegistrationStatus.FAILED)
+                    deadLetter(user);
+                complete(List.of(user), status);
+            }
+        } catch (DatabaseUnavailableException e) {
+            fail(users.subList(next, users.size()), e.getMessage());
+        }
+    }
+
+    /**
+     * This method is used to dead-letter users without trying to write them.
+     *
+     * @param users  users
+     * @param reason why the users are not written
+     */
+    private void fail(List<User> users, String reason) {
+        log.warn("Dead-lettering {} registrations: {}", users.size(), reason);
+        users.forEach(this::deadLetter);
+        complete(users, RegistrationStatus.FAILED);
+    }
+
+    /**
+     * @return COMPLETED when the users were written, REJECTED when a constraint was violated and FAILED when all
+     * attempts failed.
+     * @throws DatabaseUnavailableException when the database circuit is open or the write bulkhead is full
+     */
+    private RegistrationStatus insert(int shard, List<User> users) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                userBatchInserter.insert(shard, users);
+                return RegistrationStatus.COMPLETED;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Constraint violated by a batch of {} registrations.", users.size(), e);
+                return RegistrationStatus.REJECTED;
+            } catch (DatabaseUnavailableException e) {
+                throw e;
+            } catch (DataAccessException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    log.warn("Failed to write {} registrations after {} attempts.", users.size(), attempt, e);
+                    return RegistrationStatus.FAILED;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * This method is used to check if a row was written by an attempt that failed after committing.
+     */
+    private boolean exists(int shard, User user) {
+        try {
+            return userBatchInserter.exists(shard, user.getId());
+        } catch (DatabaseUnavailableException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(properties.getRetryBackoffMillis() << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method is used to append a user that could not be written to the dead letter file.
+     *
+     * @param user user
+     */
+    private void deadLetter(User user) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", user.getExternalId());
+        row.put("name", user.getName());
+        row.put("mobileNo", user.getMobileNo());
+        row.put("password", user.getPassword());
+        row.put("userType", user.getUserType());
+        row.put("acceptedAt", user.getUpdatedAt().toString());
+        Path file = Paths.get(properties.getDeadLetterFile());
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null)
+                Files.createDirectories(parent);
+            Files.write(file, (objectMapper.writeValueAsString(row) + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            log.error("Failed to write registration {}, appended it to {}.", user.getExternalId(), file);
+        } catch (IOException e) {
+            log.error("Failed to write registration {} for mobileNo {} and to dead-letter it.",
+                    user.getExternalId(), user.getMobileNo(), e);
+        }
+    }
+
+    private void complete(List<User> users, RegistrationStatus status) {
+        for (User user : users) {
+            outcomes.put(user.getId(), status);
+            pendingIds.remove(user.getId());
+            reservedMobileNos.remove(user.getMobileNo());
+        }
+    }
+}
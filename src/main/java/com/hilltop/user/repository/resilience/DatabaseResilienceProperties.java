@@ -0,0 +1,79 @@
+package com.hilltop.user.repository.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Database resilience properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.database.resilience")
+public class DatabaseResilienceProperties {
+
+    /**
+     * Guard user repository calls with bulkheads, timeouts and a circuit breaker.
+     */
+    private boolean enabled = true;
+    /**
+     * Lookups: sign-in, registration checks and profile reads. Keep read and write concurrency within the connection
+     * pool size (10 by default), so neither path can take all connections.
+     */
+    private Access read = new Access(7, Duration.ofMillis(100), Duration.ofSeconds(2));
+    /**
+     * Inserts and deletes.
+     */
+    private Access write = new Access(3, Duration.ofMillis(200), Duration.ofSeconds(5));
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Getter
+    @Setter
+    public static class Access {
+
+        /**
+         * Calls running at the same time. Calls above it wait for max-wait and are then rejected.
+         */
+        private int maxConcurrentCalls;
+        private Duration maxWait;
+        /**
+         * Transaction timeout of a call, rounded up to whole seconds. Every statement of the call gets the remaining
+         * time as its query timeout.
+         */
+        private Duration timeout;
+
+        public Access() {
+        }
+
+        Access(int maxConcurrentCalls, Duration maxWait, Duration timeout) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            this.maxWait = maxWait;
+            this.timeout = timeout;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        /**
+         * Failed calls, in percent of the sliding window, that open the circuit.
+         */
+        private int failureRateThreshold = 50;
+        private int slidingWindowSize = 20;
+        /**
+         * Calls recorded before the failure rate is evaluated.
+         */
+        private int minimumNumberOfCalls = 10;
+        /**
+         * How long calls fail fast before trial calls are let through.
+         */
+        private Duration openDuration = Duration.ofSeconds(5);
+        /**
+         * Trial calls that must succeed to close the circuit again.
+         */
+        private int permittedCallsInHalfOpenState = 3;
+    }
+}
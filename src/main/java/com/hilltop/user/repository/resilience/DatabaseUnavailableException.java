@@ -0,0 +1,21 @@
+package com.hilltop.user.repository.resilience;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * Database unavailable exception
+ * Thrown instead of calling the database while its circuit is open or the bulkhead of the call is full. It is a
+ * DataAccessException, so callers handle it like any other database failure. Stackless: thrown for every call while
+ * the database is unhealthy.
+ */
+public class DatabaseUnavailableException extends DataAccessResourceFailureException {
+
+    public DatabaseUnavailableException(String msg) {
+        super(msg);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
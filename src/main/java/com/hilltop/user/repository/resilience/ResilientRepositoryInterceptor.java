@@ -0,0 +1,172 @@
+package com.hilltop.user.repository.resilience;
+
+import com.hilltop.user.util.Bulkhead;
+import com.hilltop.user.util.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Resilient repository interceptor
+ * Guards user repository calls, after the shard is selected and before the repository transaction starts:
+ * <ul>
+ *     <li>reads and writes (save, delete) take a slot of separate bulkheads, so slow inserts can't starve sign-in
+ *     lookups of connections and the other way round,</li>
+ *     <li>every call runs in a transaction with the read or write timeout, which the JPA provider applies to each
+ *     statement as its query timeout,</li>
+ *     <li>a circuit breaker fails calls fast while too many of the recent ones failed because of the database.</li>
+ * </ul>
+ * Rejected calls throw {@link DatabaseUnavailableException}. Errors caused by the call itself (constraint
+ * violations, optimistic locking, ...) don't count as database failures. User table calls made without the
+ * repository, like the batch inserts of write-behind registration, are guarded the same way with
+ * {@link #execute(boolean, Supplier)}.
+ */
+@Slf4j
+public class ResilientRepositoryInterceptor implements MethodInterceptor {
+
+    private static final String METRIC_PREFIX = "user.database.";
+    private final Bulkhead readBulkhead;
+    private final Bulkhead writeBulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final TransactionTemplate readTransactionTemplate;
+    private final TransactionTemplate writeTransactionTemplate;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+    private final Counter circuitRejections;
+
+    public ResilientRepositoryInterceptor(DatabaseResilienceProperties properties,
+                                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.readBulkhead = getBulkhead(properties.getRead());
+        this.writeBulkhead = getBulkhead(properties.getWrite());
+        DatabaseResilienceProperties.CircuitBreaker circuitBreakerProperties = properties.getCircuitBreaker();
+        this.circuitBreaker = new CircuitBreaker(circuitBreakerProperties.getFailureRateThreshold(),
+                circuitBreakerProperties.getSlidingWindowSize(), circuitBreakerProperties.getMinimumNumberOfCalls(),
+                circuitBreakerProperties.getOpenDuration().toMillis(),
+                circuitBreakerProperties.getPermittedCallsInHalfOpenState(),
+                (from, to) -> onTransition(meterRegistry, from, to));
+        this.readTransactionTemplate = getTransactionTemplate(transactionManager, properties.getRead(), true);
+        this.writeTransactionTemplate = getTransactionTemplate(transactionManager, properties.getWrite(), false);
+
+        this.readRejections = Counter.builder(METRIC_PREFIX + "bulkhead.rejections").tag("bulkhead", "read")
+                .description("User repository calls rejected by a full bulkhead").register(meterRegistry);
+        this.writeRejections = Counter.builder(METRIC_PREFIX + "bulkhead.rejections").tag("bulkhead", "write")
+                .description("User repository calls rejected by a full bulkhead").register(meterRegistry);
+        this.circuitRejections = Counter.builder(METRIC_PREFIX + "circuit-breaker.rejections")
+                .description("User repository calls failed fast by the open circuit").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "bulkhead.concurrent-calls", readBulkhead, Bulkhead::getConcurrentCalls)
+                .tag("bulkhead", "read").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "bulkhead.concurrent-calls", writeBulkhead, Bulkhead::getConcurrentCalls)
+                .tag("bulkhead", "write").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "circuit-breaker.state", circuitBreaker,
+                        breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 open, 2 half open").register(meterRegistry);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        return execute(isWrite(invocation.getMethod().getName()), () -> proceed(invocation));
+    }
+
+    /**
+     * This method is used to run a database call with the bulkhead, timeout and circuit breaker of its kind.
+     *
+     * @param write true for inserts, updates and deletes
+     * @param call  database call
+     * @param <T>   result type
+     * @return result of the call
+     * @throws DatabaseUnavailableException when the bulkhead is full or the circuit is open
+     */
+    public <T> T execute(boolean write, Supplier<T> call) {
+        Bulkhead bulkhead = write ? writeBulkhead : readBulkhead;
+        if (!bulkhead.tryAcquire()) {
+            (write ? writeRejections : readRejections).increment();
+            throw new DatabaseUnavailableException("Too many concurrent " + (write ? "writes" : "reads") + ".");
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitRejections.increment();
+                throw new DatabaseUnavailableException("Database circuit is open.");
+            }
+            try {
+                T result = (write ? writeTransactionTemplate : readTransactionTemplate)
+                        .execute(status -> call.get());
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (RuntimeException | Error e) {
+                if (isDatabaseFailure(e))
+                    circuitBreaker.onFailure();
+                else
+                    circuitBreaker.onSuccess();
+                throw e;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private static Object proceed(MethodInvocation invocation) {
+        try {
+            return invocation.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    private static boolean isWrite(String methodName) {
+        return methodName.startsWith("save") || methodName.startsWith("delete");
+    }
+
+    /**
+     * @return true when the call failed because the database is slow or unreachable rather than because of the call.
+     */
+    private static boolean isDatabaseFailure(Throwable e) {
+        if (e instanceof TransactionException)
+            return true;
+        return e instanceof DataAccessException && !(e instanceof DataIntegrityViolationException
+                || e instanceof OptimisticLockingFailureException || e instanceof InvalidDataAccessApiUsageException
+                || e instanceof IncorrectResultSizeDataAccessException);
+    }
+
+    private static void onTransition(MeterRegistry meterRegistry, CircuitBreaker.State from,
+                                     CircuitBreaker.State to) {
+        if (to == CircuitBreaker.State.OPEN)
+            log.error("Database circuit opened, failing user repository calls fast.");
+        else
+            log.info("Database circuit changed from {} to {}.", from, to);
+        meterRegistry.counter(METRIC_PREFIX + "circuit-breaker.transitions", "from", from.name(), "to", to.name())
+                .increment();
+    }
+
+    private static Bulkhead getBulkhead(DatabaseResilienceProperties.Access access) {
+        return new Bulkhead(access.getMaxConcurrentCalls(), access.getMaxWait().toMillis());
+    }
+
+    private static TransactionTemplate getTransactionTemplate(PlatformTransactionManager transactionManager,
+                                                              DatabaseResilienceProperties.Access access,
+                                                              boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        transactionTemplate.setReadOnly(readOnly);
+        Duration timeout = access.getTimeout();
+        transactionTemplate.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        return transactionTemplate;
+    }
+}
@@ -0,0 +1,59 @@
+package com.hilltop.user.repository.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Name keys
+ * Normalised form of user names that name searches run against: compatibility decomposed, without accents, lower
+ * case and with single spaces, so "  ÉMILE  Zola" and "emile zola" share a key. The key is stored in user.name_key,
+ * the normalisation must stay the same as long as keys written with it are in the database.
+ */
+public final class NameKeys {
+
+    public static final int MAX_LENGTH = 100;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private NameKeys() {
+    }
+
+    /**
+     * This method is used to get the key of a name, or of a name prefix.
+     *
+     * @param name name
+     * @return key, at most 100 chars
+     */
+    public static String of(String name) {
+        String key = Normalizer.normalize(name, Normalizer.Form.NFKD);
+        key = COMBINING_MARKS.matcher(key).replaceAll("");
+        key = WHITESPACE.matcher(key.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        if (key.length() <= MAX_LENGTH)
+            return key;
+        // decomposition can make a key longer than the name, never split a surrogate pair
+        int end = Character.isHighSurrogate(key.charAt(MAX_LENGTH - 1)) ? MAX_LENGTH - 1 : MAX_LENGTH;
+        return key.substring(0, end);
+    }
+
+    /**
+     * This method is used to compare keys in the order of the name_key column (utf8mb4_bin), by code point.
+     *
+     * @param key   key
+     * @param other other key
+     * @return negative, zero or positive
+     */
+    public static int compare(String key, String other) {
+        int i = 0;
+        int j = 0;
+        while (i < key.length() && j < other.length()) {
+            int codePoint = key.codePointAt(i);
+            int otherCodePoint = other.codePointAt(j);
+            if (codePoint != otherCodePoint)
+                return Integer.compare(codePoint, otherCodePoint);
+            i += Character.charCount(codePoint);
+            j += Character.charCount(otherCodePoint);
+        }
+        return Integer.compare(key.length() - i, other.length() - j);
+    }
+}
@@ -0,0 +1,53 @@
+package com.hilltop.user.repository.search;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * User search cursor
+ * Position after the last user of a page, as name key and id, the sort order of name searches. Clients get it as an
+ * opaque url safe string: the UTF-8 key followed by the 16 id bytes.
+ */
+@Getter
+public class UserSearchCursor {
+
+    private static final int ID_LENGTH = 16;
+    private final String nameKey;
+    private final byte[] id;
+
+    public UserSearchCursor(String nameKey, byte[] id) {
+        this.nameKey = nameKey;
+        this.id = id;
+    }
+
+    /**
+     * This method is used to decode a cursor returned with a previous page.
+     *
+     * @param cursor cursor
+     * @return cursor
+     * @throws IllegalArgumentException when the cursor is malformed
+     */
+    public static UserSearchCursor decode(String cursor) {
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length <= ID_LENGTH)
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+        int keyLength = bytes.length - ID_LENGTH;
+        return new UserSearchCursor(new String(bytes, 0, keyLength, StandardCharsets.UTF_8),
+                Arrays.copyOfRange(bytes, keyLength, bytes.length));
+    }
+
+    /**
+     * This method is used to encode the cursor for clients.
+     *
+     * @return cursor
+     */
+    public String encode() {
+        byte[] key = nameKey.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = Arrays.copyOf(key, key.length + ID_LENGTH);
+        System.arraycopy(id, 0, bytes, key.length, ID_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
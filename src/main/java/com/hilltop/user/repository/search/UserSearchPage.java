@@ -0,0 +1,19 @@
+package com.hilltop.user.repository.search;
+
+import com.hilltop.user.domain.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * User search page
+ */
+@Getter
+@AllArgsConstructor
+public class UserSearchPage {
+
+    private final List<User> users;
+    // null on the last page
+    private final UserSearchCursor nextCursor;
+}
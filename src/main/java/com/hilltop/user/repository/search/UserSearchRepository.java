@@ -0,0 +1,113 @@
+package com.hilltop.user.repository.search;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.repository.sharding.ShardContext;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * User search repository
+ * Finds users whose name key starts with the key of the searched name, in (name_key, id) order. Every query is a
+ * range scan on idx_user_name_key that stops after one page, whatever the number of users, and pages continue after
+ * a cursor instead of an offset. Names are spread over all shards, so each shard is asked for a page and the pages are
+ * merged; while rows are moved between shards a user can be found on two of them and is returned once.
+ */
+public class UserSearchRepository {
+
+    private static final String SELECT = "SELECT id, name, name_key, mobile_no, user_type FROM user "
+            + "WHERE name_key LIKE ? ESCAPE '!' ";
+    private static final String AFTER_CURSOR = "AND (name_key > ? OR (name_key = ? AND id > ?)) ";
+    private static final String ORDER_AND_LIMIT = "ORDER BY name_key, id LIMIT ?";
+    private static final Comparator<Match> ORDER = Comparator.<Match, String>comparing(match -> match.nameKey,
+            NameKeys::compare).thenComparing(match -> match.id, Arrays::compareUnsigned);
+    private static final RowMapper<Match> MATCH_MAPPER = (resultSet, rowNum) -> {
+        byte[] id = resultSet.getBytes("id");
+        ByteBuffer buffer = ByteBuffer.wrap(id);
+        User user = new User();
+        user.setId(new UUID(buffer.getLong(), buffer.getLong()));
+        user.setName(resultSet.getString("name"));
+        user.setMobileNo(resultSet.getString("mobile_no"));
+        String userType = resultSet.getString("user_type");
+        user.setUserType(userType == null ? null : UserType.valueOf(userType));
+        return new Match(user, resultSet.getString("name_key"), id);
+    };
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardLayout shardLayout;
+
+    public UserSearchRepository(JdbcTemplate jdbcTemplate, ShardLayout shardLayout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardLayout = shardLayout;
+    }
+
+    /**
+     * This method is used to find a page of users by name prefix.
+     *
+     * @param name   name prefix as entered, normalised here
+     * @param size   page size
+     * @param cursor cursor of the previous page, null for the first page
+     * @return page
+     */
+    public UserSearchPage findByNamePrefix(String name, int size, UserSearchCursor cursor) {
+        String sql = SELECT + (cursor == null ? "" : AFTER_CURSOR) + ORDER_AND_LIMIT;
+        Object[] args = cursor == null
+                ? new Object[]{toLikePattern(NameKeys.of(name)), size + 1}
+                : new Object[]{toLikePattern(NameKeys.of(name)), cursor.getNameKey(), cursor.getNameKey(),
+                cursor.getId(), size + 1};
+        List<Match> matches = new ArrayList<>();
+        boolean more = false;
+        for (int shard = 0; shard < shardLayout.getShardCount(); shard++) {
+            List<Match> shardMatches = ShardContext.callOn(shard, () -> jdbcTemplate.query(sql, MATCH_MAPPER, args));
+            more |= shardMatches.size() > size;
+            matches.addAll(shardMatches);
+        }
+        matches.sort(ORDER);
+        List<User> users = new ArrayList<>(Math.min(size, matches.size()));
+        Set<UUID> ids = new HashSet<>();
+        Match last = null;
+        for (Match match : matches) {
+            if (!ids.add(match.user.getId()))
+                continue;
+            if (users.size() == size)
+                return new UserSearchPage(users, new UserSearchCursor(last.nameKey, last.id));
+            users.add(match.user);
+            last = match;
+        }
+        // a shard had more, but its rows were duplicates of users moved to another shard
+        return new UserSearchPage(users, more && last != null ? new UserSearchCursor(last.nameKey, last.id) : null);
+    }
+
+    private static String toLikePattern(String key) {
+        StringBuilder pattern = new StringBuilder(key.length() + 1);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '!' || c == '%' || c == '_')
+                pattern.append('!');
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private static class Match {
+
+        private final User user;
+        private final String nameKey;
+        private final byte[] id;
+
+        Match(User user, String nameKey, byte[] id) {
+            this.user = user;
+            this.nameKey = nameKey;
+            this.id = id;
+        }
+    }
+}
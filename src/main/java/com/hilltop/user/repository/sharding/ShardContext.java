@@ -0,0 +1,67 @@
+package com.hilltop.user.repository.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard context
+ * Holds the shard that connections of the current thread are taken from. Without a shard the routing data source
+ * uses shard 0, and when sharding is disabled the context is ignored.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * This method is used to get the shard of the current thread.
+     *
+     * @return shard, or null when none is selected.
+     */
+    public static Integer current() {
+        return currentShard.get();
+    }
+
+    /**
+     * This method is used to run a task against the given shard.
+     *
+     * @param shard shard
+     * @param task  task
+     * @return task result
+     */
+    public static <T> T callOn(int shard, Supplier<T> task) {
+        Integer previous = enter(shard);
+        try {
+            return task.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * This method is used to run a task against the given shard.
+     *
+     * @param shard shard
+     * @param task  task
+     */
+    public static void runOn(int shard, Runnable task) {
+        callOn(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    static Integer enter(int shard) {
+        Integer previous = currentShard.get();
+        currentShard.set(shard);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null)
+            currentShard.remove();
+        else
+            currentShard.set(previous);
+    }
+}
@@ -0,0 +1,51 @@
+package com.hilltop.user.repository.sharding;
+
+import com.hilltop.user.util.UserIdGenerator;
+
+import java.util.UUID;
+
+/**
+ * Shard keys
+ * Maps mobile numbers to one of 4096 stable buckets. Buckets are independent of the number of shards, so they can
+ * be embedded in user ids and survive resharding.
+ */
+public final class ShardKeys {
+
+    public static final int BUCKET_COUNT = 1 << UserIdGenerator.SHARD_BUCKET_BITS;
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private ShardKeys() {
+    }
+
+    /**
+     * This method is used to get the bucket of a mobile number.
+     *
+     * @param mobileNo mobileNo
+     * @return bucket, 0 - 4095
+     */
+    public static int bucketOf(String mobileNo) {
+        // FNV-1a followed by the murmur3 finalizer, stable across JVMs and releases.
+        int hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < mobileNo.length(); i++) {
+            hash ^= mobileNo.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash & (BUCKET_COUNT - 1);
+    }
+
+    /**
+     * This method is used to get the bucket embedded in a user id.
+     *
+     * @param id user id
+     * @return bucket, or -1 when the id carries none.
+     */
+    public static int bucketOf(UUID id) {
+        return UserIdGenerator.getShardBucket(id);
+    }
+}
@@ -0,0 +1,48 @@
+package com.hilltop.user.repository.sharding;
+
+import lombok.Getter;
+
+/**
+ * Shard layout
+ * Buckets are assigned to shards by modulo. While rows are being moved to a new layout, the previous shard count is
+ * kept so that reads can fall back to the shard a row lived on before.
+ */
+@Getter
+public class ShardLayout {
+
+    private final int shardCount;
+    private final int previousShardCount;
+
+    /**
+     * @param shardCount         number of shards
+     * @param previousShardCount number of shards before resharding, 0 when no resharding is in progress
+     */
+    public ShardLayout(int shardCount, int previousShardCount) {
+        if (shardCount < 1)
+            throw new IllegalArgumentException("At least one shard is required.");
+        if (previousShardCount > shardCount)
+            throw new IllegalArgumentException("Shrinking the number of shards is not supported.");
+        this.shardCount = shardCount;
+        this.previousShardCount = previousShardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public boolean isResharding() {
+        return previousShardCount > 0 && previousShardCount != shardCount;
+    }
+
+    public int shardOf(String mobileNo) {
+        return shardOfBucket(ShardKeys.bucketOf(mobileNo));
+    }
+
+    public int shardOfBucket(int bucket) {
+        return bucket % shardCount;
+    }
+
+    public int previousShardOfBucket(int bucket) {
+        return bucket % previousShardCount;
+    }
+}
@@ -0,0 +1,121 @@
+package com.hilltop.user.repository.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Shard rebalancer
+ * Moves user rows to the shard their mobile number belongs to under the current layout, e.g. after shards were
+ * added. Each shard is scanned in primary key order; a row is copied to its target shard (unless it is already
+ * there) and then deleted from the source, so the move is idempotent and can be restarted at any time. Reads fall
+ * back to the previous layout while user.sharding.previous-shard-count is set, which keeps the service online.
+ * The source row is only deleted while its version is still the copied one. A row updated on the source shard during
+ * its move is copied again, so the update is not lost.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final String SELECT_BATCH = "SELECT * FROM user WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_BY_ID = "SELECT * FROM user WHERE id = ?";
+    private static final String VERSION_BY_ID = "SELECT version FROM user WHERE id = ?";
+    private static final String DELETE_BY_ID_AND_VERSION = "DELETE FROM user WHERE id = ? AND version = ?";
+    private static final String ID = "id";
+    private static final String MOBILE_NO = "mobile_no";
+    private static final String VERSION = "version";
+
+    private final List<DataSource> shards;
+    private final ShardLayout shardLayout;
+    private final int batchSize;
+
+    public ShardRebalancer(List<DataSource> shards, ShardLayout shardLayout, int batchSize) {
+        this.shards = shards;
+        this.shardLayout = shardLayout;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * This method is used to move every misplaced row to its shard.
+     *
+     * @return number of moved rows
+     */
+    public long rebalance() {
+        long moved = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            long movedFromShard = rebalanceShard(shard);
+            log.info("Moved {} users from shard {}.", movedFromShard, shard);
+            moved += movedFromShard;
+        }
+        return moved;
+    }
+
+    private long rebalanceShard(int shard) {
+        JdbcTemplate source = new JdbcTemplate(shards.get(shard));
+        byte[] lastId = new byte[16];
+        long moved = 0;
+        while (true) {
+            List<Map<String, Object>> rows = source.queryForList(SELECT_BATCH, lastId, batchSize);
+            if (rows.isEmpty())
+                return moved;
+            // rows are case-insensitive maps, MySQL and H2 report column names in different cases
+            for (Map<String, Object> row : rows) {
+                int targetShard = shardLayout.shardOf((String) row.get(MOBILE_NO));
+                if (targetShard != shard) {
+                    move(row, source, new JdbcTemplate(shards.get(targetShard)));
+                    moved++;
+                }
+            }
+            lastId = (byte[]) rows.get(rows.size() - 1).get(ID);
+        }
+    }
+
+    /**
+     * This method is used to move a row. When the delete finds another version on the source shard, the row was
+     * updated after it was read, so the current row is copied again before the next delete.
+     *
+     * @param row    row read from the source shard
+     * @param source source shard
+     * @param target target shard
+     */
+    void move(Map<String, Object> row, JdbcTemplate source, JdbcTemplate target) {
+        Object id = row.get(ID);
+        while (true) {
+            copy(row, target);
+            if (source.update(DELETE_BY_ID_AND_VERSION, id, row.get(VERSION)) > 0)
+                return;
+            List<Map<String, Object>> current = source.queryForList(SELECT_BY_ID, id);
+            if (current.isEmpty())
+                return;
+            log.debug("User {} changed while it was moved, copying it again.", id);
+            row = current.get(0);
+        }
+    }
+
+    /**
+     * This method is used to write a row to the target shard, unless the target already has that version or a later
+     * one.
+     */
+    private void copy(Map<String, Object> row, JdbcTemplate target) {
+        Object id = row.get(ID);
+        List<Long> targetVersions = target.queryForList(VERSION_BY_ID, Long.class, id);
+        List<String> columns = new ArrayList<>(row.keySet());
+        if (targetVersions.isEmpty()) {
+            String insert = "INSERT INTO user (" + String.join(", ", columns) + ") VALUES ("
+                    + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+            target.update(insert, row.values().toArray());
+        } else if (targetVersions.get(0) < ((Number) row.get(VERSION)).longValue()) {
+            columns.removeIf(ID::equalsIgnoreCase);
+            String update = "UPDATE user SET " + columns.stream().map(column -> column + " = ?")
+                    .collect(Collectors.joining(", ")) + " WHERE id = ?";
+            List<Object> args = new ArrayList<>();
+            columns.forEach(column -> args.add(row.get(column)));
+            args.add(id);
+            target.update(update, args.toArray());
+        }
+    }
+}
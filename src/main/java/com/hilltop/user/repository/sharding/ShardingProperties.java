@@ -0,0 +1,52 @@
+package com.hilltop.user.repository.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharding properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.sharding")
+public class ShardingProperties {
+
+    /**
+     * Route user storage to the configured shards instead of spring.datasource.
+     */
+    private boolean enabled;
+    /**
+     * Shard data sources. The position in the list is the shard number and must never change.
+     */
+    private List<Shard> shards = new ArrayList<>();
+    /**
+     * Number of shards before the last shards were added. Set while rows are rebalanced, reads that miss on the new
+     * shard fall back to the previous one. Remove it once rebalancing has completed.
+     */
+    private int previousShardCount;
+    private Rebalance rebalance = new Rebalance();
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    @Getter
+    @Setter
+    public static class Rebalance {
+
+        /**
+         * Move rows that do not belong to their shard in the background after startup. Enable on a single node.
+         */
+        private boolean enabled;
+        private int batchSize = 500;
+    }
+}
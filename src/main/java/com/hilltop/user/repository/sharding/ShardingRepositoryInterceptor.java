@@ -0,0 +1,394 @@
+package com.hilltop.user.repository.sharding;
+
+import com.hilltop.user.domain.entity.User;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Sharding repository interceptor
+ * First advice of the user repository proxy, so the shard is selected before the repository transaction takes a
+ * connection. Calls are routed by
+ * <ul>
+ *     <li>the parameter annotated with {@link ShardKey} (mobile number or collection of mobile numbers),</li>
+ *     <li>the mobile number of a {@link User} argument (save, delete),</li>
+ *     <li>the bucket embedded in a {@link UUID} id argument (findById, existsById, deleteById),</li>
+ *     <li>the elements of a collection of users or ids, grouped per shard.</li>
+ * </ul>
+ * Any other call (findAll, count, ...) fans out to every shard in parallel and the results are merged. Results of
+ * sorted calls (a {@link Sort} or {@link Pageable} argument) are merged in sort order; a page at offset o of size n
+ * reads the first o + n rows of every shard, so deep pages get expensive. Streamed queries would need a transaction
+ * per shard held open by the caller, they are rejected at startup by {@link #checkSupported(Class)}.
+ */
+public class ShardingRepositoryInterceptor implements MethodInterceptor, DisposableBean {
+
+    private static final int NO_SHARD_KEY = -1;
+    private final ShardLayout shardLayout;
+    private final ExecutorService fanOutExecutor;
+    private final Map<Method, Integer> shardKeyIndexes = new ConcurrentHashMap<>();
+
+    public ShardingRepositoryInterceptor(ShardLayout shardLayout) {
+        this.shardLayout = shardLayout;
+        this.fanOutExecutor = Executors.newFixedThreadPool(shardLayout.getShardCount(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ShardContext.current() != null)
+            return invocation.proceed();
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            throw new IllegalStateException("Sharded repository call " + invocation.getMethod().getName()
+                    + " inside a surrounding transaction, select the shard with ShardContext before it starts.");
+        Method method = invocation.getMethod();
+        Object[] arguments = invocation.getArguments();
+        int shardKeyIndex = shardKeyIndexes.computeIfAbsent(method, this::findShardKeyIndex);
+        int routingIndex = shardKeyIndex == NO_SHARD_KEY ? 0 : shardKeyIndex;
+        Object routingArgument = arguments.length > 0 ? arguments[routingIndex] : null;
+        if (routingArgument instanceof Iterable)
+            return invokeGrouped(invocation, routingIndex, (Iterable<?>) routingArgument, shardKeyIndex >= 0);
+        int bucket = bucketOf(routingArgument, shardKeyIndex >= 0);
+        if (bucket >= 0)
+            return invokeOnBucket(invocation, bucket);
+        return fanOut(invocation);
+    }
+
+    /**
+     * This method is used to fail at startup for repository methods whose results can't be merged across shards.
+     *
+     * @param repositoryInterface repository interface
+     */
+    public void checkSupported(Class<?> repositoryInterface) {
+        for (Method method : repositoryInterface.getMethods()) {
+            Class<?> returnType = method.getReturnType();
+            if (Stream.class.isAssignableFrom(returnType))
+                throw new IllegalStateException("Streamed query " + method.getName() + " of "
+                        + repositoryInterface.getSimpleName() + " can't be merged across shards, return a Slice.");
+            if (Slice.class.isAssignableFrom(returnType) && pageableIndex(method) < 0)
+                throw new IllegalStateException("Paged query " + method.getName() + " of "
+                        + repositoryInterface.getSimpleName() + " needs a Pageable to be merged across shards.");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    /**
+     * Single shard call. While resharding, a call that finds nothing is repeated on the shard the row lived on
+     * before, which also makes deletes remove rows that were not moved yet.
+     */
+    private Object invokeOnBucket(MethodInvocation invocation, int bucket) throws Throwable {
+        int shard = shardLayout.shardOfBucket(bucket);
+        Object result = invokeOn(invocation, shard, invocation.getArguments());
+        if (shardLayout.isResharding() && isEmpty(result)) {
+            int previousShard = shardLayout.previousShardOfBucket(bucket);
+            if (previousShard != shard)
+                return invokeOn(invocation, previousShard, invocation.getArguments());
+        }
+        return result;
+    }
+
+    private Object invokeGrouped(MethodInvocation invocation, int index, Iterable<?> elements, boolean mobileNos)
+            throws Throwable {
+        Map<Integer, List<Object>> groups = new LinkedHashMap<>();
+        Map<Integer, List<Object>> previousGroups = new LinkedHashMap<>();
+        boolean readFromPreviousShards = shardLayout.isResharding()
+                && !invocation.getMethod().getName().startsWith("save");
+        for (Object element : elements) {
+            int bucket = bucketOf(element, mobileNos);
+            if (bucket < 0)
+                return fanOut(invocation);
+            int shard = shardLayout.shardOfBucket(bucket);
+            groups.computeIfAbsent(shard, key -> new ArrayList<>()).add(element);
+            int previousShard = readFromPreviousShards ? shardLayout.previousShardOfBucket(bucket) : shard;
+            if (previousShard != shard)
+                previousGroups.computeIfAbsent(previousShard, key -> new ArrayList<>()).add(element);
+        }
+        if (groups.isEmpty())
+            return invocation.proceed();
+        List<Future<Object>> futures = new ArrayList<>();
+        submitGroups(invocation, index, groups, futures);
+        submitGroups(invocation, index, previousGroups, futures);
+        return merge(invocation, collect(futures));
+    }
+
+    private void submitGroups(MethodInvocation invocation, int index, Map<Integer, List<Object>> groups,
+                              List<Future<Object>> futures) {
+        Class<?> parameterType = invocation.getMethod().getParameterTypes()[index];
+        Object[] shardArguments = shardArguments(invocation);
+        for (Map.Entry<Integer, List<Object>> group : groups.entrySet()) {
+            Object[] arguments = shardArguments.clone();
+            arguments[index] = Set.class.isAssignableFrom(parameterType)
+                    ? new LinkedHashSet<>(group.getValue()) : group.getValue();
+            futures.add(fanOutExecutor.submit(() -> invokeOnChecked(invocation, group.getKey(), arguments)));
+        }
+    }
+
+    private Object fanOut(MethodInvocation invocation) throws Throwable {
+        Object[] arguments = shardArguments(invocation);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shardLayout.getShardCount(); shard++) {
+            int target = shard;
+            futures.add(fanOutExecutor.submit(() -> invokeOnChecked(invocation, target, arguments)));
+        }
+        return merge(invocation, collect(futures));
+    }
+
+    /**
+     * Page n of the merged result is made of rows from the first n pages of any shard, so every shard is asked for
+     * all rows up to the end of the page.
+     */
+    private Object[] shardArguments(MethodInvocation invocation) {
+        int index = pageableIndex(invocation.getMethod());
+        Object[] arguments = invocation.getArguments();
+        if (index < 0 || arguments[index] == null || ((Pageable) arguments[index]).isUnpaged())
+            return arguments;
+        Pageable pageable = (Pageable) arguments[index];
+        Object[] shardArguments = arguments.clone();
+        shardArguments[index] = PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()),
+                pageable.getSort());
+        return shardArguments;
+    }
+
+    private Object invokeOn(MethodInvocation invocation, int shard, Object[] arguments) throws Throwable {
+        Integer previous = ShardContext.enter(shard);
+        try {
+            return ((ProxyMethodInvocation) invocation).invocableClone(arguments).proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    private Object invokeOnChecked(MethodInvocation invocation, int shard, Object[] arguments) throws Exception {
+        try {
+            return invokeOn(invocation, shard, arguments);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private List<Object> collect(List<Future<Object>> futures) throws Throwable {
+        List<Object> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<Object> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object merge(MethodInvocation invocation, List<Object> results) {
+        Method method = invocation.getMethod();
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class)
+            return null;
+        if (Slice.class.isAssignableFrom(returnType))
+            return mergeSlices(invocation, (List<Slice<Object>>) (List<?>) results);
+        if (returnType == Optional.class)
+            return results.stream().map(result -> (Optional<Object>) result)
+                    .filter(Optional::isPresent).findFirst().orElse(Optional.empty());
+        if (returnType == long.class || returnType == Long.class)
+            return results.stream().mapToLong(result -> (Long) result).sum();
+        if (returnType == int.class || returnType == Integer.class)
+            return results.stream().mapToInt(result -> (Integer) result).sum();
+        if (returnType == boolean.class || returnType == Boolean.class)
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        Sort sort = sortOf(invocation.getArguments());
+        if (returnType.isAssignableFrom(ArrayList.class) && sort.isSorted()) {
+            List<Iterable<Object>> sortedResults = new ArrayList<>();
+            results.forEach(result -> sortedResults.add((Iterable<Object>) result));
+            return mergeSorted(sortedResults, comparatorOf(sort), Integer.MAX_VALUE);
+        }
+        if (returnType.isAssignableFrom(ArrayList.class) || returnType.isAssignableFrom(LinkedHashSet.class)) {
+            Collection<Object> merged = returnType.isAssignableFrom(ArrayList.class)
+                    ? new ArrayList<>() : new LinkedHashSet<>();
+            for (Object result : results) {
+                ((Iterable<Object>) result).forEach(merged::add);
+            }
+            return merged;
+        }
+        return results.stream().filter(result -> result != null).findFirst().orElse(null);
+    }
+
+    private Slice<Object> mergeSlices(MethodInvocation invocation, List<Slice<Object>> slices) {
+        Pageable pageable = (Pageable) invocation.getArguments()[pageableIndex(invocation.getMethod())];
+        if (pageable == null)
+            pageable = Pageable.unpaged();
+        long end = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : Integer.MAX_VALUE;
+        List<Iterable<Object>> contents = new ArrayList<>(slices);
+        // one row past the page tells whether there is a next one
+        List<Object> merged = mergeSorted(contents, comparatorOf(pageable.getSort()),
+                Math.toIntExact(Math.min(end + 1, Integer.MAX_VALUE)));
+        List<Object> content = pageable.isPaged()
+                ? new ArrayList<>(merged.subList((int) Math.min(pageable.getOffset(), merged.size()),
+                (int) Math.min(end, merged.size())))
+                : merged;
+        if (Page.class.isAssignableFrom(invocation.getMethod().getReturnType())) {
+            long total = slices.stream().mapToLong(slice -> ((Page<Object>) slice).getTotalElements()).sum();
+            return pageable.isPaged() ? new PageImpl<>(content, pageable, total) : new PageImpl<>(content);
+        }
+        boolean hasNext = merged.size() > end || slices.stream().anyMatch(Slice::hasNext);
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * k-way merge of results that are each sorted by the comparator, ties in shard order.
+     */
+    private static List<Object> mergeSorted(List<Iterable<Object>> results, Comparator<Object> comparator,
+                                            int limit) {
+        PriorityQueue<MergeCursor> cursors = new PriorityQueue<>(Math.max(1, results.size()),
+                Comparator.<MergeCursor, Object>comparing(cursor -> cursor.current, comparator)
+                        .thenComparingInt(cursor -> cursor.shard));
+        for (int shard = 0; shard < results.size(); shard++) {
+            Iterator<Object> iterator = results.get(shard).iterator();
+            if (iterator.hasNext())
+                cursors.add(new MergeCursor(shard, iterator));
+        }
+        List<Object> merged = new ArrayList<>();
+        while (!cursors.isEmpty() && merged.size() < limit) {
+            MergeCursor cursor = cursors.poll();
+            merged.add(cursor.current);
+            if (cursor.advance())
+                cursors.add(cursor);
+        }
+        return merged;
+    }
+
+    /**
+     * Compares like the database: nulls lowest unless the order says otherwise, ids as unsigned bytes like the
+     * BINARY(16) column. Strings are compared case sensitively unless the order ignores case.
+     */
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> comparatorOf(Sort sort) {
+        Comparator<Object> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Object> values = (left, right) -> {
+                if (left instanceof UUID && right instanceof UUID)
+                    return compareUnsigned((UUID) left, (UUID) right);
+                if (order.isIgnoreCase() && left instanceof String && right instanceof String)
+                    return String.CASE_INSENSITIVE_ORDER.compare((String) left, (String) right);
+                return ((Comparable<Object>) left).compareTo(right);
+            };
+            Comparator<Object> directed = order.isAscending() ? values : values.reversed();
+            boolean nullsFirst = order.getNullHandling() == Sort.NullHandling.NATIVE
+                    ? order.isAscending() : order.getNullHandling() == Sort.NullHandling.NULLS_FIRST;
+            comparator = comparator.thenComparing(result -> PropertyAccessorFactory.forBeanPropertyAccess(result)
+                            .getPropertyValue(order.getProperty()),
+                    nullsFirst ? Comparator.nullsFirst(directed) : Comparator.nullsLast(directed));
+        }
+        return comparator;
+    }
+
+    private static int compareUnsigned(UUID left, UUID right) {
+        int result = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return result != 0 ? result
+                : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    private static Sort sortOf(Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument instanceof Sort)
+                return (Sort) argument;
+            if (argument instanceof Pageable)
+                return ((Pageable) argument).getSort();
+        }
+        return Sort.unsorted();
+    }
+
+    private static int pageableIndex(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int index = 0; index < parameterTypes.length; index++) {
+            if (Pageable.class.isAssignableFrom(parameterTypes[index]))
+                return index;
+        }
+        return -1;
+    }
+
+    private int bucketOf(Object argument, boolean mobileNo) {
+        if (mobileNo && argument instanceof String)
+            return ShardKeys.bucketOf((String) argument);
+        if (argument instanceof User)
+            return ShardKeys.bucketOf(((User) argument).getMobileNo());
+        if (argument instanceof UUID)
+            return ShardKeys.bucketOf((UUID) argument);
+        return -1;
+    }
+
+    private boolean isEmpty(Object result) {
+        return result == null || Boolean.FALSE.equals(result)
+                || (result instanceof Optional && ((Optional<?>) result).isEmpty())
+                || (result instanceof Collection && ((Collection<?>) result).isEmpty());
+    }
+
+    private int findShardKeyIndex(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int index = 0; index < parameterAnnotations.length; index++) {
+            for (Annotation annotation : parameterAnnotations[index]) {
+                if (annotation instanceof ShardKey)
+                    return index;
+            }
+        }
+        return NO_SHARD_KEY;
+    }
+
+    private static final class MergeCursor {
+
+        private final int shard;
+        private final Iterator<Object> iterator;
+        private Object current;
+
+        private MergeCursor(int shard, Iterator<Object> iterator) {
+            this.shard = shard;
+            this.iterator = iterator;
+            this.current = iterator.next();
+        }
+
+        private boolean advance() {
+            if (!iterator.hasNext())
+                return false;
+            current = iterator.next();
+            return true;
+        }
+    }
+}
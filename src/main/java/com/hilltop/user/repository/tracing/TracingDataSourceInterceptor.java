@@ -0,0 +1,135 @@
+package com.hilltop.user.repository.tracing;
+
+import com.hilltop.user.util.Spans;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Tracing data source interceptor
+ * Advice for a data source proxy: connections it hands out open a client span around every statement execution,
+ * named after the SQL operation and carrying the (parameterised) statement. Statements run outside of a trace, e.g.
+ * migrations at startup, are not traced.
+ */
+public class TracingDataSourceInterceptor implements MethodInterceptor {
+
+    static final AttributeKey<String> DB_STATEMENT = AttributeKey.stringKey("db.statement");
+    static final AttributeKey<String> DB_OPERATION = AttributeKey.stringKey("db.operation");
+    private final Tracer tracer;
+
+    public TracingDataSourceInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (result instanceof Connection && "getConnection".equals(invocation.getMethod().getName()))
+            return proxy(Connection.class, new ConnectionHandler((Connection) result));
+        return result;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TracingDataSourceInterceptor.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invokeDelegate(Object delegate, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * This method is used to get the operation of a statement, e.g. SELECT.
+     *
+     * @param sql sql
+     * @return first keyword in upper case, JDBC when unknown
+     */
+    static String getOperation(String sql) {
+        if (sql == null)
+            return "JDBC";
+        int start = 0;
+        while (start < sql.length() && !Character.isLetter(sql.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        return end > start ? sql.substring(start, end).toUpperCase() : "JDBC";
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection delegate;
+
+        private ConnectionHandler(Connection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("equals".equals(method.getName()) && args != null && args.length == 1)
+                return proxy == args[0];
+            if ("hashCode".equals(method.getName()) && args == null)
+                return System.identityHashCode(proxy);
+            Object result = invokeDelegate(delegate, method, args);
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return Proxy.newProxyInstance(TracingDataSourceInterceptor.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement delegate;
+        private final String preparedSql;
+
+        private StatementHandler(Statement delegate, String preparedSql) {
+            this.delegate = delegate;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("equals".equals(method.getName()) && args != null && args.length == 1)
+                return proxy == args[0];
+            if ("hashCode".equals(method.getName()) && args == null)
+                return System.identityHashCode(proxy);
+            if (!method.getName().startsWith("execute") || !Span.current().getSpanContext().isValid())
+                return invokeDelegate(delegate, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            String operation = getOperation(sql);
+            Span span = tracer.spanBuilder(operation)
+                    .setSpanKind(SpanKind.CLIENT)
+                    .setAttribute(DB_OPERATION, operation)
+                    .setAttribute(DB_STATEMENT, sql)
+                    .startSpan();
+            try (Scope ignored = span.makeCurrent()) {
+                return invokeDelegate(delegate, method, args);
+            } catch (Throwable e) {
+                Spans.fail(span, e);
+                throw e;
+            } finally {
+                span.end();
+            }
+        }
+    }
+}
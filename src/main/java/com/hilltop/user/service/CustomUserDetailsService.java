@@ -2,8 +2,13 @@ package com.hilltop.user.service;
 
 import com.hilltop.user.configuration.CustomUserDetails;
 import com.hilltop.user.domain.entity.User;
-import com.hilltop.user.exception.InvalidLoginException;
 import com.hilltop.user.repository.UserRepository;
+import com.hilltop.user.repository.directory.UserDirectory;
+import com.hilltop.user.util.RequestTimings;
+import com.hilltop.user.util.SingleFlight;
+import com.hilltop.user.util.Spans;
+import com.hilltop.user.util.UserIdGenerator;
+import io.opentelemetry.api.trace.Tracer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -11,6 +16,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Custom user detail service
@@ -20,17 +26,48 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private SingleFlight<String, Optional<User>> userLookupSingleFlight;
+    @Autowired
+    private Tracer tracer;
+    @Autowired
+    private Optional<UserDirectory> userDirectory;
 
     /**
      * This method is used to map DB user to spring security user.
      *
      * @param username username
      * @return spring security user
+     * @throws UsernameNotFoundException when no user has the mobile number, answered like a wrong password
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<User> optionalUser = userRepository.findByMobileNo(username);
-        return optionalUser.map(CustomUserDetails::new)
-                .orElseThrow(() -> new InvalidLoginException("User not found for username: " + username));
+        return Spans.call(tracer, "CustomUserDetailsService.loadUserByUsername", () -> {
+            long start = RequestTimings.start();
+            Optional<User> optionalUser;
+            try {
+                optionalUser = userLookupSingleFlight.execute(username, () -> findUser(username));
+            } finally {
+                RequestTimings.stop(RequestTimings.Stage.USER_LOOKUP, start);
+            }
+            return optionalUser.map(CustomUserDetails::new)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found for username: " + username));
+        });
+    }
+
+    /**
+     * This method is used to find a user by primary key when the directory knows its id, by mobile number otherwise.
+     */
+    private Optional<User> findUser(String mobileNo) {
+        UUID id = userDirectory.map(directory -> directory.getId(mobileNo)).orElse(null);
+        // legacy ids carry no shard bucket and would be looked up on every shard
+        if (id != null && UserIdGenerator.getShardBucket(id) >= 0) {
+            Optional<User> optionalUser = userRepository.findById(id);
+            if (optionalUser.isPresent() && mobileNo.equals(optionalUser.get().getMobileNo()))
+                return optionalUser;
+        }
+        Optional<User> optionalUser = userRepository.findByMobileNo(mobileNo);
+        optionalUser.ifPresent(user -> userDirectory.ifPresent(directory -> directory.put(mobileNo, user.getId())));
+        return optionalUser;
     }
 }
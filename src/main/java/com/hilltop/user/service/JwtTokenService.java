@@ -1,27 +1,57 @@
 package com.hilltop.user.service;
 
 import com.hilltop.user.exception.TokenException;
+import com.hilltop.user.util.RequestTimings;
+import com.hilltop.user.util.Spans;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import io.opentelemetry.api.trace.Tracer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Jwt token service
+ * Tokens are signed with the active key of the token key ring and carry its id in the kid header, so they are
+ * verified with the key they were signed with while the active key changes.
  */
 @Service
 public class JwtTokenService {
 
-    @Value("${token.key}")
-    public String tokenKey;
+    public static final long TOKEN_VALIDITY_MILLIS = 1000 * 60 * 30;
+    // HS256 signatures are 32 bytes, 43 characters in unpadded base64url.
+    private static final int SIGNATURE_LENGTH = 43;
+    private static final int MAX_HEADER_LENGTH = 256;
+    private static final int MAX_TOKEN_LENGTH = 2048;
+    private static final String HS256_ALGORITHM = "\"alg\":\"HS256\"";
+    private final TokenKeyRing tokenKeyRing;
+    private final JwtParser jwtParser;
+    private final Tracer tracer;
+
+    public JwtTokenService(TokenKeyRing tokenKeyRing, Tracer tracer) {
+        this.tokenKeyRing = tokenKeyRing;
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                Key key = tokenKeyRing.getKey(header.getKeyId());
+                if (key == null)
+                    throw new SignatureException("Unknown token key id: " + header.getKeyId());
+                return key;
+            }
+        }).build();
+        this.tracer = tracer;
+    }
 
     /**
      * This method is used to validate jwt token.
@@ -29,11 +59,28 @@ public class JwtTokenService {
      * @param token jwt token
      */
     public void validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token);
-        } catch (JwtException e) {
-            throw new TokenException("Invalid token", e);
-        }
+        parseToken(token);
+    }
+
+    /**
+     * This method is used to verify jwt token and get its claims.
+     *
+     * @param token jwt token
+     * @return claims
+     */
+    public Claims parseToken(String token) {
+        if (!isWellFormed(token))
+            throw TokenException.malformedToken();
+        return Spans.call(tracer, "JwtTokenService.parseToken", () -> {
+            long start = RequestTimings.start();
+            try {
+                return jwtParser.parseClaimsJws(token).getBody();
+            } catch (JwtException e) {
+                throw new TokenException("Invalid token", e);
+            } finally {
+                RequestTimings.stop(RequestTimings.Stage.TOKEN, start);
+            }
+        });
     }
 
     /**
@@ -43,23 +90,59 @@ public class JwtTokenService {
      * @return jwt token
      */
     public String generateToken(String mobileNo) {
-        Map<String, Object> claims = new HashMap<>();
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(mobileNo)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 30))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256).compact();
+        return Spans.call(tracer, "JwtTokenService.generateToken", () -> {
+            long start = RequestTimings.start();
+            try {
+                Map<String, Object> claims = new HashMap<>();
+                TokenKey tokenKey = tokenKeyRing.getActiveKey();
+                return Jwts.builder()
+                        .setHeaderParam(JwsHeader.KEY_ID, tokenKey.getId())
+                        .setClaims(claims)
+                        .setSubject(mobileNo)
+                        .setIssuedAt(new Date(System.currentTimeMillis()))
+                        .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY_MILLIS))
+                        .signWith(tokenKey.getKey(), SignatureAlgorithm.HS256).compact();
+            } finally {
+                RequestTimings.stop(RequestTimings.Stage.TOKEN, start);
+            }
+        });
     }
 
     /**
-     * This method is used to create key to encrypt & decrypt jwt token.
+     * This method is used to reject tokens that can't be one of ours before any parsing or crypto: three base64url
+     * segments within length bounds, an HS256 sized signature and an HS256 header.
      *
-     * @return key
+     * @param token jwt token
+     * @return true when the token is worth verifying
      */
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(tokenKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    static boolean isWellFormed(String token) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH)
+            return false;
+        int headerEnd = -1;
+        int payloadEnd = -1;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (headerEnd < 0)
+                    headerEnd = i;
+                else if (payloadEnd < 0)
+                    payloadEnd = i;
+                else
+                    return false;
+            } else if (!isBase64UrlCharacter(c)) {
+                return false;
+            }
+        }
+        if (payloadEnd < 0 || headerEnd == 0 || headerEnd > MAX_HEADER_LENGTH || headerEnd % 4 == 1
+                || payloadEnd == headerEnd + 1 || token.length() - payloadEnd - 1 != SIGNATURE_LENGTH)
+            return false;
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, headerEnd)),
+                StandardCharsets.ISO_8859_1);
+        return header.contains(HS256_ALGORITHM);
+    }
+
+    private static boolean isBase64UrlCharacter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
     }
 
 }
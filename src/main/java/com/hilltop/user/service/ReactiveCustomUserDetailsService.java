@@ -0,0 +1,32 @@
+package com.hilltop.user.service;
+
+import com.hilltop.user.configuration.CustomUserDetails;
+import com.hilltop.user.repository.reactive.ReactiveUserRepository;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive custom user details service
+ * Non-blocking counterpart of {@link CustomUserDetailsService}. An unknown mobile number completes empty, which the
+ * authentication manager reports as bad credentials.
+ */
+public class ReactiveCustomUserDetailsService implements ReactiveUserDetailsService {
+
+    private final ReactiveUserRepository reactiveUserRepository;
+
+    public ReactiveCustomUserDetailsService(ReactiveUserRepository reactiveUserRepository) {
+        this.reactiveUserRepository = reactiveUserRepository;
+    }
+
+    /**
+     * This method is used to map DB user to spring security user.
+     *
+     * @param username mobile number
+     * @return user details, empty when not registered.
+     */
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return reactiveUserRepository.findByMobileNo(username).map(CustomUserDetails::new);
+    }
+}
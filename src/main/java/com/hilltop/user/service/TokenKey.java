@@ -0,0 +1,17 @@
+package com.hilltop.user.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Token key
+ */
+@Getter
+@AllArgsConstructor
+public class TokenKey {
+
+    private final String id;
+    private final SecretKey key;
+}
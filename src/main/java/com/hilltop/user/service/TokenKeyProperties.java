@@ -0,0 +1,29 @@
+package com.hilltop.user.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Token key properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "token")
+public class TokenKeyProperties {
+
+    /**
+     * Base64 HMAC-SHA key, at least 256 bits, with key id "default". Signs tokens when no key file is set, and
+     * verifies tokens without a key id, i.e. issued before keys were rotated.
+     */
+    private String key;
+    /**
+     * Properties file with the key ring: "keys.(key id)=(base64 key)" per key and "active-key-id=(key id)" for the key
+     * new tokens are signed with. Changes are picked up without a restart.
+     */
+    private String keyFile;
+    /**
+     * How often the key file is checked for changes.
+     */
+    private long reloadIntervalMillis = 10_000;
+}
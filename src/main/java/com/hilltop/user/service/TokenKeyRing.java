@@ -0,0 +1,214 @@
+package com.hilltop.user.service;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Token key ring
+ * HMAC keys identified by key id (the kid header of our tokens). Keys are decoded once per load into immutable
+ * SecretKeys, and every load replaces the whole ring at once, so a token is always signed and verified against a
+ * consistent set of keys. New tokens are signed with the active key; tokens signed with any other key of the ring stay
+ * valid. A key removed from the key file keeps verifying tokens for the token validity, so removing a key never logs
+ * users out. When the key file can't be loaded, the ring keeps the keys it has.
+ */
+@Slf4j
+public class TokenKeyRing implements InitializingBean, DisposableBean {
+
+    public static final String DEFAULT_KEY_ID = "default";
+    private static final String ACTIVE_KEY_ID = "active-key-id";
+    private static final String KEY_PREFIX = "keys.";
+    // keeps the kid header of our tokens short, see JwtTokenService.isWellFormed()
+    private static final Pattern KEY_ID_PATTERN = Pattern.compile("[A-Za-z0-9_.-]{1,32}");
+    private final TokenKeyProperties properties;
+    private final long retiredKeyRetentionMillis;
+    private final LongSupplier clock;
+    private volatile KeySet keySet;
+    private long keyFileModifiedMillis;
+    private volatile boolean running;
+    private Thread reloader;
+
+    public TokenKeyRing(TokenKeyProperties properties) {
+        this(properties, JwtTokenService.TOKEN_VALIDITY_MILLIS, System::currentTimeMillis);
+    }
+
+    TokenKeyRing(TokenKeyProperties properties, long retiredKeyRetentionMillis, LongSupplier clock) {
+        this.properties = properties;
+        this.retiredKeyRetentionMillis = retiredKeyRetentionMillis;
+        this.clock = clock;
+        try {
+            this.keyFileModifiedMillis = getKeyFileModifiedMillis();
+            this.keySet = load(null);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Failed to load token keys.", e);
+        }
+        log.info("Loaded token keys {}, signing with {}.", new TreeSet<>(keySet.keys.keySet()), keySet.activeKey.getId());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (properties.getKeyFile() == null)
+            return;
+        running = true;
+        reloader = new Thread(this::reloadPeriodically, "token-key-reloader");
+        reloader.setDaemon(true);
+        reloader.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (reloader == null)
+            return;
+        running = false;
+        LockSupport.unpark(reloader);
+        reloader.join();
+    }
+
+    /**
+     * This method is used to get the key new tokens are signed with.
+     *
+     * @return active key
+     */
+    public TokenKey getActiveKey() {
+        return keySet.activeKey;
+    }
+
+    /**
+     * This method is used to get the key a token was signed with.
+     *
+     * @param keyId kid header of the token, null for tokens issued before keys were rotated
+     * @return key, null when the ring has no such key
+     */
+    public SecretKey getKey(String keyId) {
+        return keySet.keys.get(keyId == null ? DEFAULT_KEY_ID : keyId);
+    }
+
+    private void reloadPeriodically() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getReloadIntervalMillis());
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            reload();
+        }
+    }
+
+    /**
+     * This method is used to load the key file when it changed, and to drop retired keys whose tokens expired.
+     *
+     * @return true when the ring changed
+     */
+    synchronized boolean reload() {
+        KeySet current = keySet;
+        try {
+            long modifiedMillis = getKeyFileModifiedMillis();
+            if (modifiedMillis == keyFileModifiedMillis && !current.hasExpiredKeys(clock.getAsLong()))
+                return false;
+            KeySet loaded = load(current);
+            keySet = loaded;
+            keyFileModifiedMillis = modifiedMillis;
+            log.info("Reloaded token keys {}, signing with {}, retired {}.", new TreeSet<>(loaded.keys.keySet()),
+                    loaded.activeKey.getId(), new TreeSet<>(loaded.retiredAtMillis.keySet()));
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Failed to reload token keys from {}, keeping keys {}.", properties.getKeyFile(),
+                    new TreeSet<>(current.keys.keySet()), e);
+            return false;
+        }
+    }
+
+    private long getKeyFileModifiedMillis() throws IOException {
+        return properties.getKeyFile() == null ? 0 : Files.getLastModifiedTime(getKeyFile()).toMillis();
+    }
+
+    private Path getKeyFile() {
+        return Paths.get(properties.getKeyFile());
+    }
+
+    /**
+     * This method is used to build a ring from the configured keys, keeping the keys of the current ring that were
+     * removed less than the token validity ago.
+     */
+    private KeySet load(KeySet current) throws IOException {
+        Map<String, SecretKey> keys = new HashMap<>();
+        if (properties.getKey() != null)
+            keys.put(DEFAULT_KEY_ID, decode(DEFAULT_KEY_ID, properties.getKey()));
+        String activeKeyId = DEFAULT_KEY_ID;
+        if (properties.getKeyFile() != null) {
+            Properties keyFile = new Properties();
+            try (Reader reader = Files.newBufferedReader(getKeyFile(), StandardCharsets.UTF_8)) {
+                keyFile.load(reader);
+            }
+            for (String name : keyFile.stringPropertyNames()) {
+                if (name.startsWith(KEY_PREFIX)) {
+                    String keyId = name.substring(KEY_PREFIX.length());
+                    keys.put(keyId, decode(keyId, keyFile.getProperty(name)));
+                }
+            }
+            activeKeyId = keyFile.getProperty(ACTIVE_KEY_ID, "").trim();
+        }
+        SecretKey activeKey = keys.get(activeKeyId);
+        if (activeKey == null)
+            throw new IllegalArgumentException("Active token key " + activeKeyId + " is not configured.");
+        Map<String, Long> retiredAtMillis = new HashMap<>();
+        if (current != null) {
+            long now = clock.getAsLong();
+            current.keys.forEach((keyId, key) -> {
+                long retiredAt = current.retiredAtMillis.getOrDefault(keyId, now);
+                if (!keys.containsKey(keyId) && now - retiredAt < retiredKeyRetentionMillis) {
+                    keys.put(keyId, key);
+                    retiredAtMillis.put(keyId, retiredAt);
+                }
+            });
+        }
+        return new KeySet(keys, new TokenKey(activeKeyId, activeKey), retiredAtMillis, retiredKeyRetentionMillis);
+    }
+
+    private static SecretKey decode(String keyId, String key) {
+        if (!KEY_ID_PATTERN.matcher(keyId).matches())
+            throw new IllegalArgumentException("Invalid token key id: " + keyId);
+        try {
+            return Keys.hmacShaKeyFor(Decoders.BASE64.decode(key.trim()));
+        } catch (RuntimeException e) {
+            // never log the key itself
+            throw new IllegalArgumentException("Invalid token key " + keyId + ": " + e.getClass().getSimpleName());
+        }
+    }
+
+    private static class KeySet {
+
+        private final Map<String, SecretKey> keys;
+        private final TokenKey activeKey;
+        private final Map<String, Long> retiredAtMillis;
+        private final long retiredKeyRetentionMillis;
+
+        KeySet(Map<String, SecretKey> keys, TokenKey activeKey, Map<String, Long> retiredAtMillis,
+               long retiredKeyRetentionMillis) {
+            this.keys = Collections.unmodifiableMap(keys);
+            this.activeKey = activeKey;
+            this.retiredAtMillis = Collections.unmodifiableMap(retiredAtMillis);
+            this.retiredKeyRetentionMillis = retiredKeyRetentionMillis;
+        }
+
+        boolean hasExpiredKeys(long now) {
+            return retiredAtMillis.values().stream().anyMatch(retiredAt -> now - retiredAt >= retiredKeyRetentionMillis);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.hilltop.user.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Traffic statistics properties
+ * Memory per dimension is slots * (depth * width * 8 bytes + top-k candidates), whatever the traffic.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.traffic-statistics")
+public class TrafficStatisticsProperties {
+
+    /**
+     * Count mobile numbers, client addresses and tokens seen by the auth and user endpoints.
+     */
+    private boolean enabled = true;
+    /**
+     * Rolling window the heavy hitters are reported for.
+     */
+    private Duration window = Duration.ofMinutes(1);
+    /**
+     * Slots the window is split into, the window moves on by one slot at a time.
+     */
+    private int slots = 6;
+    /**
+     * Count-min sketch rows.
+     */
+    private int depth = 4;
+    /**
+     * Count-min sketch counters per row.
+     */
+    private int width = 2048;
+    /**
+     * Keys reported per dimension.
+     */
+    private int topK = 20;
+}
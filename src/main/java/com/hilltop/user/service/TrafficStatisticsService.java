@@ -0,0 +1,151 @@
+package com.hilltop.user.service;
+
+import com.hilltop.user.util.HeavyHitters;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Traffic statistics service
+ * Keeps approximate heavy hitters per traffic dimension over a rolling window, see {@link HeavyHitters}.
+ */
+@Service
+public class TrafficStatisticsService {
+
+    private static final int TOKEN_FINGERPRINT_BYTES = 8;
+    // the HS256 signature (43 chars) ends the token, so the tail tells tokens apart at a cost independent of length
+    private static final int MAX_FINGERPRINTED_CHARS = 64;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private final Map<Dimension, HeavyHitters> heavyHitters = new EnumMap<>(Dimension.class);
+    private final boolean enabled;
+
+    public TrafficStatisticsService(TrafficStatisticsProperties trafficStatisticsProperties) {
+        this.enabled = trafficStatisticsProperties.isEnabled();
+        if (!enabled)
+            return;
+        for (Dimension dimension : Dimension.values()) {
+            heavyHitters.put(dimension, new HeavyHitters(trafficStatisticsProperties.getWindow().toMillis(),
+                    trafficStatisticsProperties.getSlots(), trafficStatisticsProperties.getDepth(),
+                    trafficStatisticsProperties.getWidth(), trafficStatisticsProperties.getTopK()));
+        }
+    }
+
+    /**
+     * Traffic dimensions, named as they appear in the traffic endpoint.
+     */
+    public enum Dimension {
+        SIGN_IN_MOBILE_NO("signInMobileNos"),
+        SIGN_IN_CLIENT("signInClients"),
+        VALIDATE_TOKEN_TOKEN("validateTokenTokens"),
+        VALIDATE_TOKEN_CLIENT("validateTokenClients"),
+        REGISTER_MOBILE_NO("registerMobileNos"),
+        REGISTER_CLIENT("registerClients");
+
+        private final String statisticName;
+
+        Dimension(String statisticName) {
+            this.statisticName = statisticName;
+        }
+
+        public String getStatisticName() {
+            return statisticName;
+        }
+    }
+
+    /**
+     * This method is used to count one occurrence of a key. Null keys are ignored.
+     *
+     * @param dimension dimension
+     * @param key       key
+     */
+    public void record(Dimension dimension, String key) {
+        if (enabled && key != null)
+            heavyHitters.get(dimension).record(key);
+    }
+
+    /**
+     * This method is used to count one occurrence of a token. Tokens are counted by fingerprint, so the
+     * statistics never hold a usable token. Only the end of the token is fingerprinted, so arbitrarily long invalid
+     * tokens cost no more than ours.
+     *
+     * @param dimension dimension
+     * @param token     token
+     */
+    public void recordToken(Dimension dimension, String token) {
+        if (enabled && token != null)
+            heavyHitters.get(dimension).record(fingerprint(token));
+    }
+
+    /**
+     * This method is used to check if traffic is counted.
+     *
+     * @return true when enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method is used to get the heavy hitters of a dimension.
+     *
+     * @param dimension dimension
+     * @return keys with the highest estimated counts, empty when disabled
+     */
+    public List<HeavyHitters.KeyCount> getTop(Dimension dimension) {
+        return enabled ? heavyHitters.get(dimension).getTop() : List.of();
+    }
+
+    /**
+     * This method is used to get the number of keys counted for a dimension in the window.
+     *
+     * @param dimension dimension
+     * @return count, 0 when disabled
+     */
+    public long getTotal(Dimension dimension) {
+        return enabled ? heavyHitters.get(dimension).getTotal() : 0;
+    }
+
+    /**
+     * This method is used to get the total and the heavy hitters of every dimension.
+     *
+     * @return statistics by dimension name
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        for (Dimension dimension : Dimension.values()) {
+            Map<String, Object> dimensionStatistics = new LinkedHashMap<>();
+            dimensionStatistics.put("total", getTotal(dimension));
+            dimensionStatistics.put("top", getTop(dimension));
+            statistics.put(dimension.getStatisticName(), dimensionStatistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * This method is used to get the fingerprint a token is counted by.
+     *
+     * @param token token
+     * @return first bytes of the SHA-256 digest of the last 64 chars of the token, hex encoded
+     */
+    static String fingerprint(String token) {
+        String tail = token.substring(Math.max(0, token.length() - MAX_FINGERPRINTED_CHARS));
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(tail.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+        char[] hex = new char[TOKEN_FINGERPRINT_BYTES * 2];
+        for (int i = 0; i < TOKEN_FINGERPRINT_BYTES; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
@@ -2,14 +2,34 @@ package com.hilltop.user.service;
 
 import com.hilltop.user.domain.entity.User;
 import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.RegistrationStatus;
 import com.hilltop.user.exception.HillTopUserApplicationException;
 import com.hilltop.user.exception.UserExistException;
+import com.hilltop.user.exception.UserNotFoundException;
 import com.hilltop.user.repository.UserRepository;
+import com.hilltop.user.repository.directory.UserDirectory;
+import com.hilltop.user.repository.registration.WriteBehindUserQueue;
+import com.hilltop.user.repository.search.UserSearchCursor;
+import com.hilltop.user.repository.search.UserSearchPage;
+import com.hilltop.user.repository.search.UserSearchRepository;
+import com.hilltop.user.util.RequestTimings;
+import com.hilltop.user.util.SingleFlight;
+import com.hilltop.user.util.Spans;
+import io.opentelemetry.api.trace.Tracer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * User service
@@ -18,10 +38,35 @@ import java.util.Optional;
 @Slf4j
 public class UserService {
 
+    // keeps IN lists well below the statement and plan cache limits of the database.
+    private static final int IN_QUERY_CHUNK_SIZE = 500;
     private final UserRepository userRepository;
+    private final UserSearchRepository userSearchRepository;
+    private final SingleFlight<String, Optional<User>> userLookupSingleFlight;
+    private final Tracer tracer;
+    // null unless registrations are written behind
+    private final WriteBehindUserQueue writeBehindUserQueue;
+    // null unless the user directory is enabled
+    private final UserDirectory userDirectory;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserSearchRepository userSearchRepository,
+                       SingleFlight<String, Optional<User>> userLookupSingleFlight, Tracer tracer,
+                       Optional<WriteBehindUserQueue> writeBehindUserQueue, Optional<UserDirectory> userDirectory) {
         this.userRepository = userRepository;
+        this.userSearchRepository = userSearchRepository;
+        this.userLookupSingleFlight = userLookupSingleFlight;
+        this.tracer = tracer;
+        this.writeBehindUserQueue = writeBehindUserQueue.orElse(null);
+        this.userDirectory = userDirectory.orElse(null);
+    }
+
+    /**
+     * This method is used to check if registrations are accepted and written in the background.
+     *
+     * @return true when write-behind registration is enabled
+     */
+    public boolean isWriteBehind() {
+        return writeBehindUserQueue != null;
     }
 
     /**
@@ -30,13 +75,71 @@ public class UserService {
      * @param userRequestDto userRequestDto
      */
     public void addUser(UserRequestDto userRequestDto) {
+        Spans.run(tracer, "UserService.addUser", () -> {
+            try {
+                checkMobileNoExist(userRequestDto.getMobileNo());
+                User user = new User(userRequestDto);
+                long start = RequestTimings.start();
+                try {
+                    userRepository.save(user);
+                } catch (DataIntegrityViolationException e) {
+                    // a concurrent registration of the mobile number was saved first
+                    throw new UserExistException("Mobile number already registered.");
+                } finally {
+                    RequestTimings.stop(RequestTimings.Stage.USER_SAVE, start);
+                }
+                if (userDirectory != null)
+                    userDirectory.put(user.getMobileNo(), user.getId());
+                log.debug("Successfully added user data.");
+            } catch (DataAccessException e) {
+                throw new HillTopUserApplicationException("Failed to save user info in database.", e);
+            }
+        });
+    }
+
+    /**
+     * This method is used to accept a user that is written to the database in the background. The mobile number is
+     * reserved and the password hashed before this returns.
+     *
+     * @param userRequestDto userRequestDto
+     * @return id of the accepted user
+     */
+    public UUID acceptUser(UserRequestDto userRequestDto) {
+        return Spans.call(tracer, "UserService.acceptUser", () -> {
+            String mobileNo = userRequestDto.getMobileNo();
+            if (!writeBehindUserQueue.reserve(mobileNo))
+                throw new UserExistException("Mobile number already registered.");
+            try {
+                checkMobileNoExist(mobileNo);
+                User user = new User(userRequestDto);
+                writeBehindUserQueue.enqueue(user);
+                return user.getId();
+            } catch (RuntimeException e) {
+                writeBehindUserQueue.release(mobileNo);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * This method is used to get the status of a registration.
+     *
+     * @param id user id
+     * @return status
+     */
+    public RegistrationStatus getRegistrationStatus(UUID id) {
+        if (writeBehindUserQueue != null) {
+            Optional<RegistrationStatus> status = writeBehindUserQueue.getStatus(id);
+            if (status.isPresent())
+                return status.get();
+        }
         try {
-            checkMobileNoExist(userRequestDto.getMobileNo());
-            userRepository.save(new User(userRequestDto));
-            log.debug("Successfully added user data.");
+            if (userRepository.existsById(id))
+                return RegistrationStatus.COMPLETED;
         } catch (DataAccessException e) {
-            throw new HillTopUserApplicationException("Failed to save user info in database.", e);
+            throw new HillTopUserApplicationException("Failed to check user by id in database.", e);
         }
+        throw new UserNotFoundException("Registration not found for id: " + id);
     }
 
     /**
@@ -45,12 +148,113 @@ public class UserService {
      * @param mobileNo mobileNo
      */
     public void checkMobileNoExist(String mobileNo) {
-        try {
-            Optional<User> optionalUser = userRepository.findByMobileNo(mobileNo);
-            if (optionalUser.isPresent())
+        Spans.run(tracer, "UserService.checkMobileNoExist", () -> {
+            // users are never deleted, a known mobile number needs no query
+            if (userDirectory != null && userDirectory.contains(mobileNo))
                 throw new UserExistException("Mobile number already registered.");
-        } catch (DataAccessException e) {
-            throw new HillTopUserApplicationException("Failed to get user by mobileNo from database.", e);
+            try {
+                long start = RequestTimings.start();
+                Optional<User> optionalUser;
+                try {
+                    optionalUser = userLookupSingleFlight.execute(mobileNo,
+                            () -> userRepository.findByMobileNo(mobileNo));
+                } finally {
+                    RequestTimings.stop(RequestTimings.Stage.USER_LOOKUP, start);
+                }
+                if (optionalUser.isPresent()) {
+                    if (userDirectory != null)
+                        userDirectory.put(mobileNo, optionalUser.get().getId());
+                    throw new UserExistException("Mobile number already registered.");
+                }
+            } catch (DataAccessException e) {
+                throw new HillTopUserApplicationException("Failed to get user by mobileNo from database.", e);
+            }
+        });
+    }
+
+    /**
+     * This method is used to get user by id.
+     *
+     * @param id user id
+     * @return user
+     */
+    public User getUser(UUID id) {
+        return Spans.call(tracer, "UserService.getUser", () -> {
+            long start = RequestTimings.start();
+            try {
+                return userRepository.findById(id)
+                        .orElseThrow(() -> new UserNotFoundException("User not found for id: " + id));
+            } catch (DataAccessException e) {
+                throw new HillTopUserApplicationException("Failed to get user by id from database.", e);
+            } finally {
+                RequestTimings.stop(RequestTimings.Stage.USER_LOOKUP, start);
+            }
+        });
+    }
+
+    /**
+     * This method is used to find users by name prefix, ignoring case, accents and repeated spaces.
+     *
+     * @param name   name prefix
+     * @param size   page size
+     * @param cursor cursor of the previous page, null for the first page
+     * @return page of users, in name order
+     */
+    public UserSearchPage searchUsers(String name, int size, UserSearchCursor cursor) {
+        return Spans.call(tracer, "UserService.searchUsers", () -> {
+            long start = RequestTimings.start();
+            try {
+                return userSearchRepository.findByNamePrefix(name, size, cursor);
+            } catch (DataAccessException e) {
+                throw new HillTopUserApplicationException("Failed to search users by name in database.", e);
+            } finally {
+                RequestTimings.stop(RequestTimings.Stage.USER_LOOKUP, start);
+            }
+        });
+    }
+
+    /**
+     * This method is used to get the registered mobile numbers out of the given ones.
+     *
+     * @param mobileNos mobileNos
+     * @return registered mobileNos, in request order without duplicates
+     */
+    public List<String> getRegisteredMobileNos(Collection<String> mobileNos) {
+        return Spans.call(tracer, "UserService.getRegisteredMobileNos", () -> {
+            try {
+                Set<String> distinctMobileNos = new LinkedHashSet<>(mobileNos);
+                Set<String> registeredMobileNos = new HashSet<>();
+                List<String> chunk = new ArrayList<>(Math.min(IN_QUERY_CHUNK_SIZE, distinctMobileNos.size()));
+                for (String mobileNo : distinctMobileNos) {
+                    if (userDirectory != null && userDirectory.contains(mobileNo)) {
+                        registeredMobileNos.add(mobileNo);
+                        continue;
+                    }
+                    chunk.add(mobileNo);
+                    if (chunk.size() == IN_QUERY_CHUNK_SIZE) {
+                        registeredMobileNos.addAll(findRegisteredMobileNos(chunk));
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty())
+                    registeredMobileNos.addAll(findRegisteredMobileNos(chunk));
+                return distinctMobileNos.stream().filter(registeredMobileNos::contains).collect(Collectors.toList());
+            } catch (DataAccessException e) {
+                throw new HillTopUserApplicationException(
+                        "Failed to get registered mobile numbers from database.", e);
+            }
+        });
+    }
+
+    private List<String> findRegisteredMobileNos(List<String> mobileNos) {
+        long start = RequestTimings.start();
+        try {
+            List<String> registeredMobileNos = userRepository.findRegisteredMobileNos(mobileNos);
+            if (userDirectory != null)
+                registeredMobileNos.forEach(mobileNo -> userDirectory.put(mobileNo, null));
+            return registeredMobileNos;
+        } finally {
+            RequestTimings.stop(RequestTimings.Stage.USER_LOOKUP, start);
         }
     }
 }
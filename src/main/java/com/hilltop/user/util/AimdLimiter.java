@@ -0,0 +1,69 @@
+package com.hilltop.user.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Aimd limiter
+ * Adaptive concurrency limit using additive increase, multiplicative decrease on measured latency. A request slower
+ * than the latency threshold (or failed) shrinks the limit by the backoff ratio. A fast request grows it by one once
+ * at least half of it is in use, so an idle endpoint does not inflate its limit.
+ */
+public class AimdLimiter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private volatile int limit;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdMillis) {
+        if (minLimit < 1 || minLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1)
+            throw new IllegalArgumentException("Invalid limiter settings.");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * This method is used to take a slot for a request.
+     *
+     * @return true when the request may run, false when it should be shed
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit)
+                return false;
+            if (inFlight.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    /**
+     * This method is used to give back the slot of a request and adapt the limit to its outcome.
+     *
+     * @param latencyNanos request latency
+     * @param failed       true when the request failed with a server error
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos)
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+            else if (current * 2 >= limit)
+                limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.hilltop.user.util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead
+ * Caps the concurrent calls of one path, so a slow dependency can tie up at most that many threads (and connections)
+ * of it. A call that finds the bulkhead full waits up to the max wait for a slot and is rejected after that.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+
+    public Bulkhead(int maxConcurrentCalls, long maxWaitMillis) {
+        if (maxConcurrentCalls < 1 || maxWaitMillis < 0)
+            throw new IllegalArgumentException("Invalid bulkhead settings.");
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * This method is used to take a slot for a call.
+     *
+     * @return true when the call may run, false when it should be rejected
+     */
+    public boolean tryAcquire() {
+        if (permits.tryAcquire())
+            return true;
+        if (maxWaitNanos == 0)
+            return false;
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * This method is used to give back the slot of a call.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * This method is used to get the calls running in the bulkhead.
+     *
+     * @return concurrent calls
+     */
+    public int getConcurrentCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+}
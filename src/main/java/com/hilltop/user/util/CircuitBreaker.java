@@ -0,0 +1,138 @@
+package com.hilltop.user.util;
+
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker
+ * Count based: CLOSED while the failure rate of the last slidingWindowSize calls stays below the threshold (checked
+ * once minimumNumberOfCalls are recorded). OPEN rejects every call for the open duration, then HALF_OPEN lets a few
+ * trial calls through: one failure opens it again, all of them succeeding closes it.
+ */
+public class CircuitBreaker {
+
+    private final int failureRateThreshold;
+    private final int minimumNumberOfCalls;
+    private final long openDurationMillis;
+    private final int permittedCallsInHalfOpenState;
+    private final LongSupplier clock;
+    private final BiConsumer<State, State> transitionListener;
+    // outcomes of the last calls while closed, true for a failure
+    private final boolean[] window;
+    private int windowPosition;
+    private int recordedCalls;
+    private int failedCalls;
+    private State state = State.CLOSED;
+    private long openUntil;
+    private int halfOpenPermitsUsed;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumNumberOfCalls,
+                          long openDurationMillis, int permittedCallsInHalfOpenState,
+                          BiConsumer<State, State> transitionListener) {
+        this(failureRateThreshold, slidingWindowSize, minimumNumberOfCalls, openDurationMillis,
+                permittedCallsInHalfOpenState, transitionListener, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumNumberOfCalls,
+                   long openDurationMillis, int permittedCallsInHalfOpenState,
+                   BiConsumer<State, State> transitionListener, LongSupplier clock) {
+        if (failureRateThreshold < 1 || failureRateThreshold > 100 || slidingWindowSize < 1
+                || minimumNumberOfCalls < 1 || minimumNumberOfCalls > slidingWindowSize || openDurationMillis < 0
+                || permittedCallsInHalfOpenState < 1)
+            throw new IllegalArgumentException("Invalid circuit breaker settings.");
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[slidingWindowSize];
+        this.minimumNumberOfCalls = minimumNumberOfCalls;
+        this.openDurationMillis = openDurationMillis;
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+        this.transitionListener = transitionListener;
+        this.clock = clock;
+    }
+
+    /**
+     * This method is used to check if a call may run. A permitted call must report its outcome.
+     *
+     * @return false when the call should fail fast
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() < openUntil)
+                return false;
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitsUsed >= permittedCallsInHalfOpenState)
+                return false;
+            halfOpenPermitsUsed++;
+        }
+        return true;
+    }
+
+    /**
+     * This method is used to record a call that reached the dependency and got an answer.
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= permittedCallsInHalfOpenState)
+                transitionTo(State.CLOSED);
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * This method is used to record a call that failed because of the dependency.
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumNumberOfCalls && failedCalls * 100 >= failureRateThreshold * recordedCalls)
+                transitionTo(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == window.length) {
+            if (window[windowPosition])
+                failedCalls--;
+        } else {
+            recordedCalls++;
+        }
+        window[windowPosition] = failed;
+        if (failed)
+            failedCalls++;
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private void transitionTo(State next) {
+        State previous = state;
+        state = next;
+        if (next == State.OPEN) {
+            openUntil = clock.getAsLong() + openDurationMillis;
+        } else if (next == State.HALF_OPEN) {
+            halfOpenPermitsUsed = 0;
+            halfOpenSuccesses = 0;
+        } else {
+            windowPosition = 0;
+            recordedCalls = 0;
+            failedCalls = 0;
+        }
+        transitionListener.accept(previous, next);
+    }
+
+    /**
+     * Circuit breaker state
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
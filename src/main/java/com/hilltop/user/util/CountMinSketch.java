@@ -0,0 +1,114 @@
+package com.hilltop.user.util;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count min sketch
+ * Fixed size frequency estimator: every key increments one counter per row, the estimate is the smallest of its
+ * counters. Estimates never undercount, they overcount by at most total / width with high probability. Each row hashes
+ * the key with its own random seed, so keys chosen to collide in one row (e.g. with equal String hash codes) don't
+ * collide in the others. Counters are atomic, so adding and estimating take no lock.
+ */
+public class CountMinSketch {
+
+    private static final SecureRandom SEEDS = new SecureRandom();
+    private final AtomicLongArray counters;
+    private final long[] seeds;
+    private final int depth;
+    private final int width;
+
+    /**
+     * @param depth number of rows (independently seeded hashes)
+     * @param width counters per row
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1)
+            throw new IllegalArgumentException("Invalid sketch size.");
+        this.depth = depth;
+        this.width = width;
+        this.counters = new AtomicLongArray(depth * width);
+        this.seeds = new long[depth];
+        for (int row = 0; row < depth; row++) {
+            seeds[row] = SEEDS.nextLong();
+        }
+    }
+
+    /**
+     * This method is used to count one occurrence of a key.
+     *
+     * @param key key
+     * @return estimated count of the key after adding it
+     */
+    public long add(String key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * This method is used to get the estimated count of a key.
+     *
+     * @param key key
+     * @return estimated count
+     */
+    public long estimate(String key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * This method is used to reset all counters.
+     */
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    private int index(int row, String key) {
+        return row * width + (int) Long.remainderUnsigned(hash(key, seeds[row]), width);
+    }
+
+    /**
+     * This method is used to hash a key with a seed, murmur3 (x64) over the chars of the key, four per block.
+     *
+     * @param key  key
+     * @param seed seed
+     * @return 64-bit hash
+     */
+    static long hash(String key, long seed) {
+        int length = key.length();
+        long h = seed;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            long block = key.charAt(i) | (long) key.charAt(i + 1) << 16 | (long) key.charAt(i + 2) << 32
+                    | (long) key.charAt(i + 3) << 48;
+            h ^= mixBlock(block);
+            h = Long.rotateLeft(h, 27) * 5 + 0x52DCE729;
+        }
+        long tail = 0;
+        for (int shift = 0; i < length; i++, shift += 16) {
+            tail |= (long) key.charAt(i) << shift;
+        }
+        h ^= mixBlock(tail);
+        h ^= length;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long mixBlock(long block) {
+        block *= 0x87C37B91114253D5L;
+        block = Long.rotateLeft(block, 31);
+        return block * 0x4CF5AD432745937FL;
+    }
+}
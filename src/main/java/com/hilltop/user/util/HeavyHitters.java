@@ -0,0 +1,182 @@
+package com.hilltop.user.util;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Heavy hitters
+ * Approximate top-k keys over a rolling time window. The window is a ring of slots, each with its own
+ * {@link CountMinSketch} and at most k candidate keys, and a slot is reset when the ring comes back to it. Memory is
+ * fixed at slots * (depth * width counters + k candidates) whatever the number of distinct keys.
+ * <p>
+ * Recording a key is lock free: the sketch counters are atomic and a key already in the candidates is updated in
+ * place. The slot lock is only taken to admit a new candidate, which happens when its estimate beats the smallest
+ * candidate, or to reset the slot when the window moves on.
+ */
+public class HeavyHitters {
+
+    private final Slot[] slots;
+    private final long slotMillis;
+    private final int topK;
+    private final LongSupplier clock;
+
+    /**
+     * @param windowMillis window length
+     * @param slotCount    number of slots the window is split into, the window moves on by one slot at a time
+     * @param depth        sketch rows
+     * @param width        sketch counters per row
+     * @param topK         number of keys to track
+     */
+    public HeavyHitters(long windowMillis, int slotCount, int depth, int width, int topK) {
+        this(windowMillis, slotCount, depth, width, topK, System::currentTimeMillis);
+    }
+
+    HeavyHitters(long windowMillis, int slotCount, int depth, int width, int topK, LongSupplier clock) {
+        if (slotCount < 1 || topK < 1 || windowMillis < slotCount)
+            throw new IllegalArgumentException("Invalid heavy hitters settings.");
+        this.slotMillis = windowMillis / slotCount;
+        this.topK = topK;
+        this.clock = clock;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot(depth, width);
+        }
+    }
+
+    /**
+     * Key with its estimated count.
+     */
+    @Getter
+    public static final class KeyCount {
+
+        private final String key;
+        private final long count;
+
+        public KeyCount(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+
+    /**
+     * This method is used to count one occurrence of a key.
+     *
+     * @param key key
+     */
+    public void record(String key) {
+        long epoch = clock.getAsLong() / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        if (slot.epoch < epoch)
+            slot.reset(epoch);
+        slot.total.increment();
+        long estimate = slot.sketch.add(key);
+        if (slot.candidates.computeIfPresent(key, (k, count) -> Math.max(count, estimate)) == null
+                && estimate > slot.threshold)
+            slot.admit(key, estimate, topK);
+    }
+
+    /**
+     * This method is used to get the keys with the highest estimated counts in the window.
+     *
+     * @return at most k keys, highest count first
+     */
+    public List<KeyCount> getTop() {
+        List<Slot> live = getLiveSlots();
+        Set<String> keys = new HashSet<>();
+        for (Slot slot : live) {
+            keys.addAll(slot.candidates.keySet());
+        }
+        List<KeyCount> top = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            long count = 0;
+            for (Slot slot : live) {
+                count += slot.sketch.estimate(key);
+            }
+            top.add(new KeyCount(key, count));
+        }
+        top.sort(Comparator.comparingLong(KeyCount::getCount).reversed().thenComparing(KeyCount::getKey));
+        return top.size() > topK ? new ArrayList<>(top.subList(0, topK)) : top;
+    }
+
+    /**
+     * This method is used to get the number of keys recorded in the window.
+     *
+     * @return recorded keys
+     */
+    public long getTotal() {
+        long total = 0;
+        for (Slot slot : getLiveSlots()) {
+            total += slot.total.sum();
+        }
+        return total;
+    }
+
+    private List<Slot> getLiveSlots() {
+        long oldestEpoch = clock.getAsLong() / slotMillis - slots.length + 1;
+        List<Slot> live = new ArrayList<>(slots.length);
+        for (Slot slot : slots) {
+            if (slot.epoch >= oldestEpoch)
+                live.add(slot);
+        }
+        return live;
+    }
+
+    private static final class Slot {
+
+        private final CountMinSketch sketch;
+        private final ConcurrentMap<String, Long> candidates = new ConcurrentHashMap<>();
+        private final LongAdder total = new LongAdder();
+        private volatile long epoch = Long.MIN_VALUE;
+        // smallest candidate count once k candidates are tracked, a key needs to beat it to be admitted.
+        private volatile long threshold;
+
+        private Slot(int depth, int width) {
+            this.sketch = new CountMinSketch(depth, width);
+        }
+
+        private synchronized void reset(long newEpoch) {
+            if (epoch >= newEpoch)
+                return;
+            sketch.clear();
+            candidates.clear();
+            total.reset();
+            threshold = 0;
+            epoch = newEpoch;
+        }
+
+        private synchronized void admit(String key, long estimate, int topK) {
+            if (candidates.size() >= topK) {
+                Map.Entry<String, Long> smallest = null;
+                for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+                    if (smallest == null || candidate.getValue() < smallest.getValue())
+                        smallest = candidate;
+                }
+                if (smallest == null || smallest.getValue() >= estimate) {
+                    threshold = smallest == null ? 0 : smallest.getValue();
+                    return;
+                }
+                candidates.remove(smallest.getKey());
+            }
+            candidates.merge(key, estimate, Math::max);
+            threshold = candidates.size() < topK ? 0 : smallestCount();
+        }
+
+        private long smallestCount() {
+            long smallest = Long.MAX_VALUE;
+            for (long count : candidates.values()) {
+                smallest = Math.min(smallest, count);
+            }
+            return smallest;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.hilltop.user.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Log rate limiter
+ * Lets through the first permitsPerInterval messages of every interval and counts the rest, so a flood of identical
+ * errors costs a few counter updates instead of a log line each.
+ */
+public class LogRateLimiter {
+
+    public static final long SUPPRESSED = -1;
+    private final int permitsPerInterval;
+    private final long intervalMillis;
+    private final LongSupplier clock;
+    private final AtomicLong intervalStart;
+    private final AtomicInteger permitsUsed = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogRateLimiter(int permitsPerInterval, long intervalMillis) {
+        this(permitsPerInterval, intervalMillis, System::currentTimeMillis);
+    }
+
+    LogRateLimiter(int permitsPerInterval, long intervalMillis, LongSupplier clock) {
+        this.permitsPerInterval = permitsPerInterval;
+        this.intervalMillis = intervalMillis;
+        this.clock = clock;
+        this.intervalStart = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * This method is used to check if a message may be logged.
+     *
+     * @return number of messages suppressed since the last permitted one, {@link #SUPPRESSED} when this message
+     * should not be logged
+     */
+    public long tryAcquire() {
+        long now = clock.getAsLong();
+        long start = intervalStart.get();
+        if (now - start >= intervalMillis && intervalStart.compareAndSet(start, now))
+            permitsUsed.set(0);
+        if (permitsUsed.incrementAndGet() > permitsPerInterval) {
+            suppressed.incrementAndGet();
+            return SUPPRESSED;
+        }
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,161 @@
+package com.hilltop.user.util;
+
+/**
+ * Request timings
+ * Per-request stage recorder backed by one reusable thread-local slot array. Recording only happens between
+ * {@link #begin()} and {@link #end()} on the request thread, everywhere else {@link #start()} returns 0 without
+ * reading the clock and {@link #stop(Stage, long)} returns straight away.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final Stage[] STAGES = Stage.values();
+    private final long[] stageNanos = new long[STAGES.length];
+    private final int[] stageCounts = new int[STAGES.length];
+    private boolean active;
+    private long beginNanos;
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Timed stages, named as they appear in the Server-Timing header.
+     */
+    public enum Stage {
+        USER_LOOKUP("db-lookup"),
+        USER_SAVE("db-save"),
+        PASSWORD_HASH("bcrypt"),
+        TOKEN("jwt");
+
+        private final String metricName;
+
+        Stage(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    /**
+     * This method is used to start recording for the request handled by the current thread.
+     */
+    public static void begin() {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            timings = new RequestTimings();
+            CURRENT.set(timings);
+        }
+        for (int i = 0; i < STAGES.length; i++) {
+            timings.stageNanos[i] = 0;
+            timings.stageCounts[i] = 0;
+        }
+        timings.beginNanos = System.nanoTime();
+        timings.active = true;
+    }
+
+    /**
+     * This method is used to stop recording on the current thread. The slots are kept for the next request.
+     */
+    public static void end() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null)
+            timings.active = false;
+    }
+
+    /**
+     * This method is used to start timing a stage.
+     *
+     * @return start time to pass to {@link #stop(Stage, long)}, 0 when not recording
+     */
+    public static long start() {
+        RequestTimings timings = CURRENT.get();
+        return timings != null && timings.active ? System.nanoTime() : 0;
+    }
+
+    /**
+     * This method is used to add the time since start to a stage.
+     *
+     * @param stage stage
+     * @param start value returned by {@link #start()}
+     */
+    public static void stop(Stage stage, long start) {
+        if (start == 0)
+            return;
+        RequestTimings timings = CURRENT.get();
+        if (timings == null || !timings.active)
+            return;
+        timings.stageNanos[stage.ordinal()] += System.nanoTime() - start;
+        timings.stageCounts[stage.ordinal()]++;
+    }
+
+    /**
+     * This method is used to check if the current thread is recording.
+     *
+     * @return true when recording
+     */
+    public static boolean isActive() {
+        RequestTimings timings = CURRENT.get();
+        return timings != null && timings.active;
+    }
+
+    /**
+     * This method is used to get the time recorded for a stage.
+     *
+     * @param stage stage
+     * @return nanoseconds, 0 when not recording
+     */
+    public static long getStageNanos(Stage stage) {
+        RequestTimings timings = CURRENT.get();
+        return timings != null && timings.active ? timings.stageNanos[stage.ordinal()] : 0;
+    }
+
+    /**
+     * This method is used to get the time since the request started.
+     *
+     * @return nanoseconds, 0 when not recording
+     */
+    public static long getTotalNanos() {
+        RequestTimings timings = CURRENT.get();
+        return timings != null && timings.active ? System.nanoTime() - timings.beginNanos : 0;
+    }
+
+    /**
+     * This method is used to format the recorded stages as a Server-Timing header value,
+     * e.g. db-lookup;dur=3.1, bcrypt;dur=84.7, total;dur=90.2
+     *
+     * @return header value, null when not recording
+     */
+    public static String toServerTiming() {
+        return format(";dur=", ", ");
+    }
+
+    /**
+     * This method is used to format the recorded stages as key value pairs for logging,
+     * e.g. db-lookup_ms=3.1 bcrypt_ms=84.7 total_ms=90.2
+     *
+     * @return recorded stages, null when not recording
+     */
+    public static String toLogFields() {
+        return format("_ms=", " ");
+    }
+
+    private static String format(String separator, String delimiter) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null || !timings.active)
+            return null;
+        StringBuilder builder = new StringBuilder(128);
+        for (int i = 0; i < STAGES.length; i++) {
+            if (timings.stageCounts[i] > 0)
+                appendMillis(builder.append(STAGES[i].getMetricName()).append(separator), timings.stageNanos[i])
+                        .append(delimiter);
+        }
+        return appendMillis(builder.append("total").append(separator), getTotalNanos()).toString();
+    }
+
+    private static StringBuilder appendMillis(StringBuilder builder, long nanos) {
+        long tenthsOfMillis = nanos / 100_000;
+        return builder.append(tenthsOfMillis / 10).append('.').append(tenthsOfMillis % 10);
+    }
+}
@@ -0,0 +1,100 @@
+package com.hilltop.user.util;
+
+import com.hilltop.user.exception.HillTopUserApplicationException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single flight
+ * Coalesces concurrent calls for the same key: the first caller runs the loader, callers arriving while it is in
+ * flight wait for its result (or its exception) instead of running their own. Results are not cached, a call that
+ * arrives after the loader has finished starts a new flight.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private final long maxWaitMillis;
+
+    /**
+     * @param maxWaitMillis how long a caller waits for the in-flight call of another caller
+     */
+    public SingleFlight(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * This method is used to run the loader, or join the call already in flight for the key.
+     *
+     * @param key    key
+     * @param loader loader
+     * @return loaded value
+     * @throws HillTopUserApplicationException when the in-flight call does not finish within the max wait
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null)
+            return await(existing);
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * This method is used to get the number of calls in flight.
+     *
+     * @return in-flight calls
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * This method is used to get the number of callers that joined the call of another caller.
+     *
+     * @return waiting callers
+     */
+    public int getWaitingCount() {
+        return waitingCount.get();
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        waitingCount.incrementAndGet();
+        try {
+            return flight.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // waiters get the exception of the caller that ran the loader, with its original type.
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new HillTopUserApplicationException("In-flight call failed.", cause);
+        } catch (TimeoutException e) {
+            throw new HillTopUserApplicationException("Timed out waiting for in-flight call.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HillTopUserApplicationException("Interrupted while waiting for in-flight call.", e);
+        } finally {
+            waitingCount.decrementAndGet();
+        }
+    }
+}
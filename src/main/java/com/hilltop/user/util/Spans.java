@@ -0,0 +1,65 @@
+package com.hilltop.user.util;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+import java.util.function.Supplier;
+
+/**
+ * Spans
+ * Runs code in a span of its own, a child of the current span. Exceptions are recorded on the span and rethrown
+ * unchanged. With tracing disabled the tracer is a no-op and this costs next to nothing.
+ */
+public final class Spans {
+
+    private Spans() {
+    }
+
+    /**
+     * This method is used to run code that returns a value in a span.
+     *
+     * @param tracer tracer
+     * @param name   span name
+     * @param body   code to run
+     * @param <T>    value type
+     * @return value returned by the code
+     */
+    public static <T> T call(Tracer tracer, String name, Supplier<T> body) {
+        Span span = tracer.spanBuilder(name).startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return body.get();
+        } catch (RuntimeException | Error e) {
+            fail(span, e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * This method is used to run code in a span.
+     *
+     * @param tracer tracer
+     * @param name   span name
+     * @param body   code to run
+     */
+    public static void run(Tracer tracer, String name, Runnable body) {
+        call(tracer, name, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * This method is used to mark a span as failed.
+     *
+     * @param span  span
+     * @param error error
+     */
+    public static void fail(Span span, Throwable error) {
+        span.recordException(error);
+        span.setStatus(StatusCode.ERROR, error.getClass().getSimpleName());
+    }
+}
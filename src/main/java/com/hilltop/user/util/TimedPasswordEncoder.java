@@ -0,0 +1,41 @@
+package com.hilltop.user.util;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Timed password encoder
+ * Records hashing and matching as the {@link RequestTimings.Stage#PASSWORD_HASH} stage.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = RequestTimings.start();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            RequestTimings.stop(RequestTimings.Stage.PASSWORD_HASH, start);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = RequestTimings.start();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            RequestTimings.stop(RequestTimings.Stage.PASSWORD_HASH, start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
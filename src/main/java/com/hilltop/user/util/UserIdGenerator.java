@@ -0,0 +1,113 @@
+package com.hilltop.user.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * User id generator
+ * Generates time-ordered UUIDv7 ids (48 bit unix millis, 12 bit sequence, 12 bit shard bucket, 50 random bits), so
+ * new rows are appended to the end of the primary key index. The shard bucket is derived from the mobile number, so
+ * an id can be routed to its shard without a lookup. Ids are stored as BINARY(16) and exposed as "uid-" + uuid
+ * string, the same format as the random ids issued before.
+ */
+public final class UserIdGenerator {
+
+    public static final String USER_ID_PREFIX = "uid-";
+    public static final int SHARD_BUCKET_BITS = 12;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int SHARD_BUCKET_SHIFT = 50;
+    private static final long SHARD_BUCKET_MASK = (1L << SHARD_BUCKET_BITS) - 1;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+    private static final long RANDOM_MASK = (1L << SHARD_BUCKET_SHIFT) - 1;
+    private static final SecureRandom secureRandom = new SecureRandom();
+    // unix millis << 12 | sequence of the last generated id
+    private static final AtomicLong lastTimestampAndSequence = new AtomicLong();
+
+    private UserIdGenerator() {
+    }
+
+    /**
+     * This method is used to generate a new id. Ids generated by this node are strictly increasing, also when more
+     * than one id is generated within a millisecond.
+     *
+     * @param shardBucket shard bucket of the user, 0 - 4095
+     * @return time-ordered uuid
+     */
+    public static UUID generate(int shardBucket) {
+        long timestampAndSequence = nextTimestampAndSequence(System.currentTimeMillis());
+        long timestamp = timestampAndSequence >>> SEQUENCE_BITS;
+        long sequence = timestampAndSequence & ((1L << SEQUENCE_BITS) - 1);
+        long mostSigBits = (timestamp << 16) | VERSION_7 | sequence;
+        long leastSigBits = VARIANT_RFC_4122 | ((shardBucket & SHARD_BUCKET_MASK) << SHARD_BUCKET_SHIFT)
+                | (secureRandom.nextLong() & RANDOM_MASK);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * This method is used to get the shard bucket embedded in an id.
+     *
+     * @param id id
+     * @return shard bucket, or -1 for ids issued before time-ordered ids (they carry no bucket).
+     */
+    public static int getShardBucket(UUID id) {
+        if (id.version() != 7)
+            return -1;
+        return (int) ((id.getLeastSignificantBits() >>> SHARD_BUCKET_SHIFT) & SHARD_BUCKET_MASK);
+    }
+
+    /**
+     * This method is used to get the creation time of a time-ordered id.
+     *
+     * @param id id
+     * @return unix millis
+     */
+    public static long getTimestamp(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    /**
+     * This method is used to get the smallest id that can be generated at the given time.
+     *
+     * @param timestamp unix millis
+     * @return id lower bound
+     */
+    public static UUID lowerBound(long timestamp) {
+        return new UUID((timestamp << 16) | VERSION_7, VARIANT_RFC_4122);
+    }
+
+    /**
+     * This method is used to convert an id to the representation shared with clients.
+     *
+     * @param id id
+     * @return external id, e.g. uid-01890a5d-ac96-774b-bcce-b302099a8057
+     */
+    public static String toExternalId(UUID id) {
+        return USER_ID_PREFIX + id;
+    }
+
+    /**
+     * This method is used to parse an external id.
+     *
+     * @param externalId external id
+     * @return id
+     * @throws IllegalArgumentException when the external id is malformed
+     */
+    public static UUID fromExternalId(String externalId) {
+        if (externalId == null || !externalId.startsWith(USER_ID_PREFIX))
+            throw new IllegalArgumentException("Invalid user id: " + externalId);
+        return UUID.fromString(externalId.substring(USER_ID_PREFIX.length()));
+    }
+
+    private static long nextTimestampAndSequence(long currentTimeMillis) {
+        long current = currentTimeMillis << SEQUENCE_BITS;
+        while (true) {
+            long last = lastTimestampAndSequence.get();
+            // a clock step back or an exhausted sequence borrows from the next millisecond
+            long next = Math.max(current, last + 1);
+            if (lastTimestampAndSequence.compareAndSet(last, next))
+                return next;
+        }
+    }
+}
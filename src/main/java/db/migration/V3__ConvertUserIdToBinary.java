@@ -0,0 +1,74 @@
+package db.migration;
+
+import com.hilltop.user.util.UserIdGenerator;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Converts user.id from "uid-" + uuid strings to BINARY(16).
+ * Existing ids keep their uuid, so the external ids clients already hold stay valid.
+ */
+public class V3__ConvertUserIdToBinary extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE user ADD COLUMN binary_id BINARY(16)");
+        }
+        copyIds(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE user DROP PRIMARY KEY");
+            statement.execute("ALTER TABLE user DROP COLUMN id");
+            statement.execute("ALTER TABLE user CHANGE COLUMN binary_id id BINARY(16) NOT NULL");
+            // H2 drops the NOT NULL of a changed column, MySQL treats this as a no-op.
+            statement.execute("ALTER TABLE user MODIFY COLUMN id BINARY(16) NOT NULL");
+            statement.execute("ALTER TABLE user ADD PRIMARY KEY (id)");
+        }
+    }
+
+    private void copyIds(Connection connection) throws SQLException {
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT id FROM user");
+             PreparedStatement update = connection.prepareStatement("UPDATE user SET binary_id = ? WHERE id = ?")) {
+            int pending = 0;
+            while (resultSet.next()) {
+                String id = resultSet.getString(1);
+                update.setBytes(1, toBytes(parse(id)));
+                update.setString(2, id);
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0)
+                update.executeBatch();
+        }
+    }
+
+    private UUID parse(String id) {
+        try {
+            return UserIdGenerator.fromExternalId(id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("User id is not in the uid-<uuid> format: " + id, e);
+        }
+    }
+
+    private byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,54 @@
+package db.migration;
+
+import com.hilltop.user.repository.search.NameKeys;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds user.name_key, the normalised name that name searches run against, and fills it for existing users.
+ * The column stays nullable so nodes of the previous release can keep registering users during the rollout.
+ */
+public class V7__AddUserNameKey extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            // binary collation: keys compare by code point, the order search results of all shards are merged in
+            boolean mySql = connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL");
+            statement.execute("ALTER TABLE user ADD COLUMN name_key VARCHAR(" + NameKeys.MAX_LENGTH + ")"
+                    + (mySql ? " CHARACTER SET utf8mb4 COLLATE utf8mb4_bin" : ""));
+        }
+        copyNameKeys(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX idx_user_name_key ON user (name_key, id)");
+        }
+    }
+
+    private void copyNameKeys(Connection connection) throws SQLException {
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT id, name FROM user");
+             PreparedStatement update = connection.prepareStatement("UPDATE user SET name_key = ? WHERE id = ?")) {
+            int pending = 0;
+            while (resultSet.next()) {
+                update.setString(1, NameKeys.of(resultSet.getString(2)));
+                update.setBytes(2, resultSet.getBytes(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0)
+                update.executeBatch();
+        }
+    }
+}
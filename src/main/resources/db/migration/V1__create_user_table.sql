@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS user
+(
+    id        VARCHAR(40)  NOT NULL,
+    name      VARCHAR(100) NOT NULL,
+    mobile_no VARCHAR(15)  NOT NULL,
+    password  VARCHAR(60)  NOT NULL,
+    user_type VARCHAR(10),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,9 @@
+-- Tables created by hibernate (ddl-auto=update) before flyway was introduced use VARCHAR(255) columns.
+ALTER TABLE user MODIFY COLUMN id VARCHAR(40) NOT NULL;
+ALTER TABLE user MODIFY COLUMN name VARCHAR(100) NOT NULL;
+ALTER TABLE user MODIFY COLUMN mobile_no VARCHAR(15) NOT NULL;
+ALTER TABLE user MODIFY COLUMN password VARCHAR(60) NOT NULL;
+ALTER TABLE user MODIFY COLUMN user_type VARCHAR(10);
+
+CREATE UNIQUE INDEX uk_user_mobile_no ON user (mobile_no);
+CREATE INDEX idx_user_user_type_name ON user (user_type, name);
@@ -0,0 +1,3 @@
+-- Entity version and last change time, used as the ETag and Last-Modified of user profiles.
+ALTER TABLE user ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user ADD COLUMN updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
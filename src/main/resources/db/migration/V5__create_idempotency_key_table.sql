@@ -0,0 +1,12 @@
+-- Responses replayed for retried requests that carry an Idempotency-Key header.
+CREATE TABLE IF NOT EXISTS idempotency_key
+(
+    idempotency_key VARCHAR(200) NOT NULL,
+    status          INT          NOT NULL,
+    content_type    VARCHAR(100),
+    body            BLOB,
+    expires_at      DATETIME(3)  NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_key_expires_at ON idempotency_key (expires_at);
@@ -0,0 +1,13 @@
+-- Last successful sign-in per user and the sign-in audit trail, written in batches by the login event recorder.
+ALTER TABLE user ADD COLUMN last_login_at DATETIME(3);
+
+CREATE TABLE IF NOT EXISTS login_audit
+(
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    mobile_no      VARCHAR(15) NOT NULL,
+    client_address VARCHAR(45),
+    logged_in_at   DATETIME(3) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_login_audit_mobile_no_logged_in_at ON login_audit (mobile_no, logged_in_at);
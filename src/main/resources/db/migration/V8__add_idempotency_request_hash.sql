@@ -0,0 +1,3 @@
+-- Hash of the caller and body of the request a stored response belongs to, a key reused for another request is
+-- rejected instead of replayed. Null for rows stored before.
+ALTER TABLE idempotency_key ADD COLUMN request_hash CHAR(64);
@@ -0,0 +1,62 @@
+package com.hilltop.user.allocation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Allocation budget
+ * Allowed bytes per call for each measured hot path, see src/test/resources/allocation/budget.properties. Measured
+ * values are written to target/allocation/measured.properties, to refresh the budget after an intended change.
+ */
+final class AllocationBudget {
+
+    private static final String RESOURCE = "/allocation/budget.properties";
+    private static final Path MEASURED_FILE = Paths.get("target", "allocation", "measured.properties");
+
+    private final Properties budget;
+    private final Properties measured = new Properties();
+
+    private AllocationBudget(Properties budget) {
+        this.budget = budget;
+    }
+
+    static AllocationBudget load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream inputStream = AllocationBudget.class.getResourceAsStream(RESOURCE)) {
+            if (inputStream == null)
+                throw new IllegalStateException("Missing allocation budget " + RESOURCE);
+            properties.load(inputStream);
+        }
+        return new AllocationBudget(properties);
+    }
+
+    /**
+     * This method is used to record a measurement and get the budget of its hot path.
+     *
+     * @param key          hot path
+     * @param bytesPerCall measured bytes per call
+     * @return allowed bytes per call
+     */
+    long record(String key, long bytesPerCall) {
+        measured.setProperty(key, Long.toString(bytesPerCall));
+        String value = budget.getProperty(key);
+        if (value == null)
+            throw new IllegalStateException("Missing allocation budget value " + key);
+        return Long.parseLong(value);
+    }
+
+    /**
+     * This method is used to write the measured values.
+     */
+    void writeMeasured() throws IOException {
+        Files.createDirectories(MEASURED_FILE.getParent());
+        try (OutputStream outputStream = Files.newOutputStream(MEASURED_FILE)) {
+            measured.store(outputStream, "Bytes allocated per call");
+        }
+    }
+}
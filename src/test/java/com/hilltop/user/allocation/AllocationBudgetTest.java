@@ -0,0 +1,128 @@
+package com.hilltop.user.allocation;
+
+import com.hilltop.user.controller.BaseController;
+import com.hilltop.user.domain.request.LoginRequestDto;
+import com.hilltop.user.domain.response.LoginResponseDto;
+import com.hilltop.user.enumeration.ErrorMessage;
+import com.hilltop.user.enumeration.SuccessMessage;
+import com.hilltop.user.service.JwtTokenService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budget test
+ * Fails when a request hot path allocates more per call than its checked-in budget. Tracing does not sample, so
+ * the allocations do not depend on the trace ids drawn.
+ */
+@SpringBootTest(properties = "user.tracing.sampling-ratio=0")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class AllocationBudgetTest {
+
+    private static final String MOBILE_NO = "0779090909";
+    private static final AllocationMeter METER = new AllocationMeter(5_000, 2_000);
+    private static final AllocationMeter MOCK_MVC_METER = new AllocationMeter(1_000, 200);
+    private static AllocationBudget budget;
+    private final ResponseBuilder responseBuilder = new ResponseBuilder();
+    @Autowired
+    private JwtTokenService jwtTokenService;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void setUpBudget() throws Exception {
+        assumeTrue(AllocationMeter.isSupported(), "Thread allocation counters are not available");
+        budget = AllocationBudget.load();
+    }
+
+    @AfterAll
+    static void writeMeasured() throws Exception {
+        if (budget != null)
+            budget.writeMeasured();
+    }
+
+    /**
+     * Unit tests for JwtTokenService.
+     */
+    @Test
+    void Should_StayWithinBudget_When_TokenIsValidated() throws Exception {
+        String token = jwtTokenService.generateToken(MOBILE_NO);
+        assertWithinBudget("jwt.validate-token", METER.bytesPerCall(() -> jwtTokenService.validateToken(token)));
+    }
+
+    @Test
+    void Should_StayWithinBudget_When_TokenIsGenerated() throws Exception {
+        assertWithinBudget("jwt.generate-token", METER.bytesPerCall(() -> jwtTokenService.generateToken(MOBILE_NO)));
+    }
+
+    /**
+     * Unit tests for BaseController.
+     */
+    @Test
+    void Should_StayWithinBudget_When_SuccessResponseIsBuilt() throws Exception {
+        LoginResponseDto loginResponseDto = new LoginResponseDto("token");
+        assertWithinBudget("base-controller.success-response",
+                METER.bytesPerCall(() -> responseBuilder.success(loginResponseDto)));
+    }
+
+    @Test
+    void Should_StayWithinBudget_When_ErrorResponseIsBuilt() throws Exception {
+        assertWithinBudget("base-controller.error-response", METER.bytesPerCall(responseBuilder::error));
+    }
+
+    /**
+     * Unit tests for LoginRequestDto.
+     */
+    @Test
+    void Should_StayWithinBudget_When_LoginRequestIsValidated() throws Exception {
+        LoginRequestDto loginRequestDto = new LoginRequestDto();
+        loginRequestDto.setMobileNo(MOBILE_NO);
+        loginRequestDto.setPassword("password");
+        assertWithinBudget("login-request.validation", METER.bytesPerCall(() -> {
+            if (!loginRequestDto.isRequiredFieldsAvailable() || !loginRequestDto.isValidMobileNo())
+                throw new IllegalStateException("Valid login request rejected");
+        }));
+    }
+
+    /**
+     * Unit tests for the validate-token request, through the security filter chain.
+     */
+    @Test
+    void Should_StayWithinBudget_When_ValidateTokenIsCalled() throws Exception {
+        String token = jwtTokenService.generateToken(MOBILE_NO);
+        assertWithinBudget("mock-mvc.validate-token", MOCK_MVC_METER.bytesPerCall(() -> {
+            int status = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/auth/validate-token")
+                    .param("token", token)).andReturn().getResponse().getStatus();
+            assertEquals(HttpStatus.OK.value(), status);
+        }));
+    }
+
+    private static void assertWithinBudget(String key, long bytesPerCall) {
+        long allowed = budget.record(key, bytesPerCall);
+        assertTrue(bytesPerCall <= allowed, () -> String.format(
+                "%s allocates %d bytes per call, budget is %d bytes", key, bytesPerCall, allowed));
+    }
+
+    private static class ResponseBuilder extends BaseController {
+
+        Object success(LoginResponseDto loginResponseDto) {
+            return getSuccessResponse(SuccessMessage.SUCCESSFULLY_LOGGED_IN, loginResponseDto, HttpStatus.OK);
+        }
+
+        Object error() {
+            return getBadRequestErrorResponse(ErrorMessage.INVALID_TOKEN, HttpStatus.UNAUTHORIZED);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.hilltop.user.allocation;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Allocation meter
+ * Measures heap bytes allocated by the calling thread per call, with the HotSpot per-thread allocation counter. Calls
+ * are warmed up first, so JIT compilation (and the escape analysis that comes with it) has settled, and the lowest of
+ * several rounds is reported, so a TLAB refill or class initialization in one round does not count.
+ */
+final class AllocationMeter {
+
+    private static final int ROUNDS = 5;
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = getThreadMXBean();
+
+    private final int warmUpCalls;
+    private final int callsPerRound;
+
+    AllocationMeter(int warmUpCalls, int callsPerRound) {
+        this.warmUpCalls = warmUpCalls;
+        this.callsPerRound = callsPerRound;
+    }
+
+    /**
+     * This method is used to check if the JVM counts allocated bytes per thread.
+     *
+     * @return true when allocations can be measured
+     */
+    static boolean isSupported() {
+        return THREAD_MX_BEAN != null && THREAD_MX_BEAN.isThreadAllocatedMemorySupported()
+                && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * This method is used to measure the bytes a call allocates.
+     *
+     * @param call call
+     * @return bytes allocated per call, lowest round
+     */
+    long bytesPerCall(ThrowingRunnable call) throws Exception {
+        for (int i = 0; i < warmUpCalls; i++) {
+            call.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < callsPerRound; i++) {
+                call.run();
+            }
+            long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - before;
+            lowest = Math.min(lowest, allocated / callsPerRound);
+        }
+        return lowest;
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return threadMXBean instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) threadMXBean : null;
+    }
+
+    /**
+     * Call under measurement.
+     */
+    @FunctionalInterface
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,153 @@
+package com.hilltop.user.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.domain.request.LoginRequestDto;
+import com.hilltop.user.domain.response.LoginResponseDto;
+import com.hilltop.user.domain.response.ResponseWrapper;
+import com.hilltop.user.domain.response.UserSearchResponseDto;
+import com.hilltop.user.enumeration.SuccessMessage;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.repository.search.UserSearchPage;
+import com.hilltop.user.service.JwtTokenService;
+import com.hilltop.user.service.TokenKeyProperties;
+import com.hilltop.user.service.TokenKeyRing;
+import com.hilltop.user.util.UserIdGenerator;
+import io.opentelemetry.api.trace.TracerProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Payload encoding benchmark
+ * Compares JSON and CBOR on the bodies internal callers exchange most: encoded size, and time per encode and decode
+ * (after warm-up, best of several rounds, single thread). Responses are decoded into a tree, as a client without our
+ * response classes would. Fails when CBOR is not smaller than JSON. Results are written to
+ * target/benchmark/payload-encoding.txt. Run with: mvn -B test -Pbenchmark
+ */
+class PayloadEncodingBenchmark {
+
+    private static final Path OUTPUT_FILE = Paths.get("target", "benchmark", "payload-encoding.txt");
+    private static final String MOBILE_NO = "0779090909";
+    private static final int WARM_UP_CALLS = 50_000;
+    private static final int ROUNDS = 10;
+    private static final int CALLS_PER_ROUND = 20_000;
+    private static final Map<String, ObjectMapper> MAPPERS = Map.of(
+            "json", Jackson2ObjectMapperBuilder.json().build(),
+            "cbor", Jackson2ObjectMapperBuilder.cbor().build());
+    // keeps the JIT from dropping the measured calls
+    private static int sink;
+
+    @Test
+    void Should_EncodeSmallerWithCbor_When_PayloadsAreCompared() throws Exception {
+        List<String> largerWithCbor = new ArrayList<>();
+        StringBuilder report = new StringBuilder(String.format("%-24s %-6s %8s %12s %12s%n",
+                "payload", "format", "bytes", "encode ns", "decode ns"));
+        for (Map.Entry<String, Payload> payload : getPayloads().entrySet()) {
+            Map<String, Result> results = new LinkedHashMap<>();
+            for (String format : List.of("json", "cbor")) {
+                Result result = measure(MAPPERS.get(format), payload.getValue());
+                results.put(format, result);
+                report.append(String.format("%-24s %-6s %8d %12.0f %12.0f%n", payload.getKey(), format,
+                        result.bytes, result.encodeNanos, result.decodeNanos));
+            }
+            if (results.get("cbor").bytes >= results.get("json").bytes)
+                largerWithCbor.add(payload.getKey());
+        }
+
+        System.out.print(report);
+        Files.createDirectories(OUTPUT_FILE.getParent());
+        Files.writeString(OUTPUT_FILE, report);
+        assertTrue(largerWithCbor.isEmpty(), () -> "CBOR is not smaller than JSON for " + largerWithCbor);
+    }
+
+    private static Result measure(ObjectMapper mapper, Payload payload) throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(payload.value);
+        double encodeNanos = nanosPerCall(() -> mapper.writeValueAsBytes(payload.value));
+        double decodeNanos = nanosPerCall(() -> mapper.readValue(encoded, payload.decodeType));
+        return new Result(encoded.length, encodeNanos, decodeNanos);
+    }
+
+    private static double nanosPerCall(Call call) throws Exception {
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            sink += call.call().hashCode();
+        }
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CALLS_PER_ROUND; i++) {
+                sink += call.call().hashCode();
+            }
+            lowest = Math.min(lowest, System.nanoTime() - start);
+        }
+        return (double) lowest / CALLS_PER_ROUND;
+    }
+
+    private static Map<String, Payload> getPayloads() {
+        TokenKeyProperties tokenKeyProperties = new TokenKeyProperties();
+        tokenKeyProperties.setKey("645267556B58703273357638792F423F4528472B4B6250655368566D59713374");
+        JwtTokenService jwtTokenService = new JwtTokenService(new TokenKeyRing(tokenKeyProperties),
+                TracerProvider.noop().get("benchmark"));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            User user = new User();
+            user.setId(UserIdGenerator.generate(i));
+            user.setName("Emily Brown " + i);
+            user.setMobileNo(String.format("07791%05d", i));
+            user.setUserType(UserType.USER);
+            users.add(user);
+        }
+
+        Map<String, Payload> payloads = new LinkedHashMap<>();
+        payloads.put("sign-in request", new Payload(Map.of("mobileNo", MOBILE_NO, "password", "password"),
+                LoginRequestDto.class));
+        payloads.put("sign-in response", new Payload(new ResponseWrapper(
+                SuccessMessage.SUCCESSFULLY_LOGGED_IN.getMessage(),
+                new LoginResponseDto(jwtTokenService.generateToken(MOBILE_NO))), JsonNode.class));
+        payloads.put("validate-token response", new Payload(new ResponseWrapper(
+                SuccessMessage.VALID_TOKEN.getMessage()), JsonNode.class));
+        payloads.put("search response", new Payload(new ResponseWrapper(SuccessMessage.USERS_FOUND.getMessage(),
+                new UserSearchResponseDto(new UserSearchPage(users, null))), JsonNode.class));
+        return payloads;
+    }
+
+    private interface Call {
+
+        Object call() throws Exception;
+    }
+
+    private static class Payload {
+
+        private final Object value;
+        private final Class<?> decodeType;
+
+        Payload(Object value, Class<?> decodeType) {
+            this.value = value;
+            this.decodeType = decodeType;
+        }
+    }
+
+    private static class Result {
+
+        private final int bytes;
+        private final double encodeNanos;
+        private final double decodeNanos;
+
+        Result(int bytes, double encodeNanos, double decodeNanos) {
+            this.bytes = bytes;
+            this.encodeNanos = encodeNanos;
+            this.decodeNanos = decodeNanos;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.hilltop.user.configuration;
+
+import com.hilltop.user.service.JwtTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Auth configuration test
+ * Runs the security filter chain of the application against H2.
+ */
+@SpringBootTest(properties = "user.support.mobile-nos=" + AuthConfigurationTest.SUPPORT_MOBILE_NO)
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class AuthConfigurationTest {
+
+    static final String SUPPORT_MOBILE_NO = "0779191919";
+    private static final String USER_URI = "/api/v1/user/uid-01890a5d-ac96-774b-bcce-b302099a8057";
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    /**
+     * Unit tests for securityFilterChain() method.
+     */
+    @Test
+    void Should_ReturnUnauthorized_When_ProtectedEndpointIsCalledWithoutToken() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(USER_URI).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnauthorized())
+                .andReturn();
+        assertNull(result.getRequest().getSession(false));
+    }
+
+    @Test
+    void Should_ReachController_When_ProtectedEndpointIsCalledWithValidToken() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(USER_URI)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenService.generateToken("0779090909"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andReturn();
+        assertNull(result.getRequest().getSession(false));
+        assertNull(result.getResponse().getHeader(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void Should_ProtectTrafficEndpoint_When_CalledWithoutToken() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/traffic")).andExpect(status().isUnauthorized());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/traffic")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenService.generateToken("0779090909")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenService.generateToken("0779090909")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/traffic")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenService.generateToken(SUPPORT_MOBILE_NO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.signInMobileNos.total").exists());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void Should_AllowUserSearchToSupportStaffOnly_When_CalledWithToken() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/user/search?name=emi"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/user/search?name=emi")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenService.generateToken("0779090909")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/user/search?name=emi")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenService.generateToken(SUPPORT_MOBILE_NO))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void Should_ReturnUnauthorized_When_SignInMobileNoIsNotRegistered() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/auth/sign-in")
+                        .content("{\"mobileNo\":\"0719400001\",\"password\":\"password\"}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void Should_PermitPublicEndpoints_When_CalledWithoutToken() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/")).andExpect(status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/auth/validate-token?token=123"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(MockMvcRequestBuilders.get(
+                        "/api/v1/user/registrations/uid-01890a5d-ac96-774b-bcce-b302099a8057"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/auth/sign-in")
+                        .content("{\"mobileNo\":\"0779090909\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/user")
+                        .content("{\"mobileNo\":\"0779090909\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,99 @@
+package com.hilltop.user.configuration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.enumeration.ErrorMessage;
+import com.hilltop.user.enumeration.SuccessMessage;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CBOR configuration test
+ * Negotiates request and response bodies of the application against H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class CborConfigurationTest {
+
+    private static final String MOBILE_NO = "0719500001";
+    private static final String PASSWORD = "password";
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByMobileNo(MOBILE_NO).ifPresent(userRepository::delete);
+    }
+
+    /**
+     * Unit tests for cborHttpMessageConverter() method.
+     */
+    @Test
+    void Should_ReadAndWriteCbor_When_ClientSendsAndAcceptsCbor() throws Exception {
+        MvcResult registration = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/user")
+                        .content(cborMapper.writeValueAsBytes(Map.of("name", "User", "mobileNo", MOBILE_NO,
+                                "password", PASSWORD, "userType", UserType.USER)))
+                        .contentType(MediaType.APPLICATION_CBOR).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        assertEquals(SuccessMessage.SUCCESSFULLY_ADDED.getMessage(),
+                readCbor(registration).get("message").asText());
+
+        MvcResult signIn = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/auth/sign-in")
+                        .content(cborMapper.writeValueAsBytes(Map.of("mobileNo", MOBILE_NO, "password", PASSWORD)))
+                        .contentType(MediaType.APPLICATION_CBOR).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        assertFalse(readCbor(signIn).get("data").get("token").asText().isEmpty());
+    }
+
+    @Test
+    void Should_WriteCbor_When_ErrorResponseAcceptsCbor() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/auth/validate-token")
+                        .param("token", "123").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        assertEquals(ErrorMessage.INVALID_TOKEN.getMessage(), readCbor(result).get("message").asText());
+    }
+
+    @Test
+    void Should_WriteJson_When_ClientAcceptsAnyContentType() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/auth/validate-token")
+                        .param("token", "123").accept(MediaType.ALL))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_TOKEN.getMessage()));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/auth/validate-token").param("token", "123"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private JsonNode readCbor(MvcResult result) throws Exception {
+        return cborMapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+}
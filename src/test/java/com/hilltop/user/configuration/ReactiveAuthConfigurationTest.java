@@ -0,0 +1,63 @@
+package com.hilltop.user.configuration;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reactive auth configuration test
+ * Unit tests for {@link  ReactiveAuthConfiguration}
+ */
+class ReactiveAuthConfigurationTest {
+
+    /**
+     * Unit tests for passwordHashScheduler() method.
+     */
+    @Test
+    void Should_QueueSixteenHashesPerThread_When_QueueSizeIsNotConfigured() throws Exception {
+        // the running hash and 16 queued ones
+        assertEquals(17, countAcceptedTasks(new ReactiveAuthConfiguration().passwordHashScheduler(1, 0)));
+    }
+
+    @Test
+    void Should_QueueConfiguredNumberOfHashes_When_QueueSizeIsConfigured() throws Exception {
+        assertEquals(3, countAcceptedTasks(new ReactiveAuthConfiguration().passwordHashScheduler(1, 2)));
+    }
+
+    private static int countAcceptedTasks(Scheduler scheduler) throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            scheduler.schedule(() -> {
+                running.countDown();
+                awaitUninterruptibly(release);
+            });
+            running.await();
+            int accepted = 1;
+            try {
+                for (; accepted < 1000; accepted++) {
+                    scheduler.schedule(() -> {
+                    });
+                }
+            } catch (RejectedExecutionException e) {
+                // expected once the queue is full
+            }
+            return accepted;
+        } finally {
+            release.countDown();
+            scheduler.dispose();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
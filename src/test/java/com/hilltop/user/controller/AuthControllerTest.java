@@ -7,19 +7,30 @@ import com.hilltop.user.enumeration.SuccessMessage;
 import com.hilltop.user.enumeration.UserType;
 import com.hilltop.user.exception.HillTopUserApplicationException;
 import com.hilltop.user.exception.TokenException;
+import com.hilltop.user.repository.login.LoginEventRecorder;
 import com.hilltop.user.service.JwtTokenService;
+import com.hilltop.user.service.TrafficStatisticsService;
 import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -43,12 +54,17 @@ class AuthControllerTest {
     private JwtTokenService jwtTokenService;
     @Mock
     private AuthenticationManager authenticationManager;
+    @Mock
+    private TrafficStatisticsService trafficStatisticsService;
+    @Mock
+    private LoginEventRecorder loginEventRecorder;
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
-        authController = new AuthController(authenticationManager, jwtTokenService);
+        authController = new AuthController(authenticationManager, jwtTokenService, trafficStatisticsService,
+                Optional.of(loginEventRecorder));
         mockMvc = MockMvcBuilders.standaloneSetup(authController).build();
     }
 
@@ -65,6 +81,17 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.message").value(SuccessMessage.SUCCESSFULLY_LOGGED_IN.getMessage()));
     }
 
+    @Test
+    void Should_RecordMobileNoAndClient_When_LoginIsCalled() throws Exception {
+        when(jwtTokenService.generateToken(anyString())).thenReturn("token123");
+        mockMvc.perform(MockMvcRequestBuilders.post(LOGIN_URI)
+                        .content(loginRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        verify(trafficStatisticsService).record(TrafficStatisticsService.Dimension.SIGN_IN_MOBILE_NO, MOBILE_NO);
+        verify(trafficStatisticsService).record(TrafficStatisticsService.Dimension.SIGN_IN_CLIENT, "127.0.0.1");
+    }
+
     @Test
     void Should_ReturnBadRequest_When_CredentialFieldsAreMissing() throws Exception {
         LoginRequestDto requestDto = loginRequestDto;
@@ -77,6 +104,37 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.data").isEmpty());
     }
 
+    @Test
+    void Should_RecordLoginEvent_When_LoginIsSuccessful() throws Exception {
+        when(jwtTokenService.generateToken(anyString())).thenReturn("token123");
+        mockMvc.perform(MockMvcRequestBuilders.post(LOGIN_URI)
+                        .content(loginRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        verify(loginEventRecorder).record(MOBILE_NO, "127.0.0.1");
+    }
+
+    @Test
+    void Should_NotRecordLoginEvent_When_AuthenticationFails() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+        assertThrows(Exception.class, () -> mockMvc.perform(MockMvcRequestBuilders.post(LOGIN_URI)
+                .content(loginRequestDto.toLogJson())
+                .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)));
+        verify(loginEventRecorder, never()).record(anyString(), anyString());
+    }
+
+    @Test
+    void Should_ReturnInternalServerError_When_UserCanNotBeLoaded() throws Exception {
+        when(authenticationManager.authenticate(any())).thenThrow(new InternalAuthenticationServiceException(
+                FAILED, new DataAccessResourceFailureException(FAILED)));
+        mockMvc.perform(MockMvcRequestBuilders.post(LOGIN_URI)
+                        .content(loginRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage()));
+        verify(loginEventRecorder, never()).record(anyString(), anyString());
+    }
+
     @Test
     void Should_ReturnInternalServerError_When_LoginIsFailedDueToInternalErrors() throws Exception {
         doThrow(new HillTopUserApplicationException(FAILED)).when(jwtTokenService).generateToken(anyString());
@@ -99,6 +157,16 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.message").value(SuccessMessage.VALID_TOKEN.getMessage()));
     }
 
+    @Test
+    void Should_RecordTokenAndClient_When_ValidateTokenIsCalled() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(VALIDATE_TOKEN_URI)
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        verify(trafficStatisticsService).recordToken(TrafficStatisticsService.Dimension.VALIDATE_TOKEN_TOKEN, "123");
+        verify(trafficStatisticsService).record(TrafficStatisticsService.Dimension.VALIDATE_TOKEN_CLIENT,
+                "127.0.0.1");
+    }
+
     @Test
     void Should_ReturnUnauthorized_When_TokenIsNotValid() throws Exception {
         doThrow(new TokenException(FAILED, new JwtException("Token Expired")))
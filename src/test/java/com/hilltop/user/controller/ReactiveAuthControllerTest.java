@@ -0,0 +1,167 @@
+package com.hilltop.user.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.ErrorMessage;
+import com.hilltop.user.enumeration.SuccessMessage;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.repository.UserRepository;
+import com.hilltop.user.service.JwtTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Reactive auth controller test
+ * Runs the reactive stack against H2, with R2DBC and JDBC sharing the in-memory database.
+ */
+@SpringBootTest(properties = {
+        "user.reactive.r2dbc.url=r2dbc:h2:mem:///hilltop?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                + "NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "user.reactive.r2dbc.username=sa",
+        "user.reactive.r2dbc.password=",
+        "user.support.mobile-nos=" + ReactiveAuthControllerTest.SUPPORT_MOBILE_NO})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"h2", "reactive"})
+class ReactiveAuthControllerTest {
+
+    static final String SUPPORT_MOBILE_NO = "0719100009";
+    private static final String MOBILE_NO = "0719100001";
+    private static final String PASSWORD = "password";
+    private static final String LOGIN_URI = "/api/v1/auth/sign-in";
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @BeforeEach
+    void setUp() {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("User");
+        userRequestDto.setMobileNo(MOBILE_NO);
+        userRequestDto.setPassword(PASSWORD);
+        userRequestDto.setUserType(UserType.USER);
+        userRepository.save(new User(userRequestDto));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByMobileNo(MOBILE_NO).ifPresent(userRepository::delete);
+    }
+
+    /**
+     * Unit tests for loginUser() method.
+     */
+    @Test
+    void Should_ReturnOk_When_LoginIsSuccessful() {
+        webTestClient.post().uri(LOGIN_URI).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"mobileNo\":\"" + MOBILE_NO + "\",\"password\":\"" + PASSWORD + "\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(SuccessMessage.SUCCESSFULLY_LOGGED_IN.getMessage())
+                .jsonPath("$.data.token").exists();
+    }
+
+    @Test
+    void Should_ReturnCbor_When_LoginBodyIsCbor() throws Exception {
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        byte[] body = webTestClient.post().uri(LOGIN_URI)
+                .contentType(MediaType.APPLICATION_CBOR).accept(MediaType.APPLICATION_CBOR)
+                .bodyValue(cborMapper.writeValueAsBytes(Map.of("mobileNo", MOBILE_NO, "password", PASSWORD)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+        JsonNode response = cborMapper.readTree(body);
+        assertEquals(SuccessMessage.SUCCESSFULLY_LOGGED_IN.getMessage(), response.get("message").asText());
+        assertFalse(response.get("data").get("token").asText().isEmpty());
+    }
+
+    @Test
+    void Should_ReturnUnauthorized_When_PasswordIsWrong() {
+        webTestClient.post().uri(LOGIN_URI).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"mobileNo\":\"" + MOBILE_NO + "\",\"password\":\"wrong\"}")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(ErrorMessage.INVALID_LOGIN.getMessage());
+    }
+
+    @Test
+    void Should_ReturnUnauthorized_When_UserDoesNotExist() {
+        webTestClient.post().uri(LOGIN_URI).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"mobileNo\":\"0719100002\",\"password\":\"" + PASSWORD + "\"}")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(ErrorMessage.INVALID_LOGIN.getMessage());
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_RequiredFieldsAreMissing() {
+        webTestClient.post().uri(LOGIN_URI).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"mobileNo\":\"" + MOBILE_NO + "\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(ErrorMessage.MISSING_REQUIRED_FIELDS.getMessage());
+    }
+
+    /**
+     * Unit tests for validateToken() method.
+     */
+    @Test
+    void Should_ReturnOk_When_TokenIsValid() {
+        webTestClient.get().uri("/api/v1/auth/validate-token?token=" + jwtTokenService.generateToken(MOBILE_NO))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(SuccessMessage.VALID_TOKEN.getMessage());
+    }
+
+    @Test
+    void Should_ReturnUnauthorized_When_TokenIsInvalid() {
+        webTestClient.get().uri("/api/v1/auth/validate-token?token=123")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(ErrorMessage.INVALID_TOKEN.getMessage());
+    }
+
+    /**
+     * Unit tests for securityWebFilterChain() method.
+     */
+    @Test
+    void Should_ProtectTrafficEndpoint_When_CalledWithoutToken() {
+        webTestClient.get().uri("/actuator/traffic").exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/actuator/traffic")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenService.generateToken(MOBILE_NO))
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.get().uri("/actuator/traffic")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenService.generateToken(SUPPORT_MOBILE_NO))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.signInMobileNos.total").exists();
+        webTestClient.get().uri("/actuator/health").exchange().expectStatus().isOk();
+    }
+}
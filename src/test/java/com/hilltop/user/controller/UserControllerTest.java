@@ -1,23 +1,46 @@
 package com.hilltop.user.controller;
 
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.domain.request.MobileNoBatchRequestDto;
 import com.hilltop.user.domain.request.UserRequestDto;
 import com.hilltop.user.enumeration.ErrorMessage;
+import com.hilltop.user.enumeration.RegistrationStatus;
 import com.hilltop.user.enumeration.SuccessMessage;
 import com.hilltop.user.enumeration.UserType;
 import com.hilltop.user.exception.HillTopUserApplicationException;
+import com.hilltop.user.exception.RegistrationQueueFullException;
 import com.hilltop.user.exception.UserExistException;
+import com.hilltop.user.exception.UserNotFoundException;
+import com.hilltop.user.repository.search.UserSearchCursor;
+import com.hilltop.user.repository.search.UserSearchPage;
+import com.hilltop.user.service.TrafficStatisticsService;
 import com.hilltop.user.service.UserService;
+import com.hilltop.user.util.UserIdGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -31,16 +54,22 @@ class UserControllerTest {
     private static final String PASSWORD = "password";
     private static final String FAILED = "Failed.";
     private final String REGISTER_URI = "/api/v1/user";
+    private final String REGISTERED_MOBILE_NOS_URI = "/api/v1/user/registered-mobile-nos";
+    private final String USER_URI = "/api/v1/user/";
+    private final String REGISTRATION_URI = "/api/v1/user/registrations/";
+    private final String SEARCH_URI = "/api/v1/user/search";
     private final UserRequestDto userRequestDto = getUserRequestDto();
     UserController userController;
     @Mock
     private UserService userService;
+    @Mock
+    private TrafficStatisticsService trafficStatisticsService;
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
-        userController = new UserController(userService);
+        userController = new UserController(userService, trafficStatisticsService);
         mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
     }
 
@@ -56,6 +85,16 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.message").value(SuccessMessage.SUCCESSFULLY_ADDED.getMessage()));
     }
 
+    @Test
+    void Should_RecordMobileNoAndClient_When_RegisterUserIsCalled() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(REGISTER_URI)
+                        .content(userRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        verify(trafficStatisticsService).record(TrafficStatisticsService.Dimension.REGISTER_MOBILE_NO, MOBILE_NO);
+        verify(trafficStatisticsService).record(TrafficStatisticsService.Dimension.REGISTER_CLIENT, "127.0.0.1");
+    }
+
     @Test
     void Should_ReturnBadRequest_When_MissingRequiredFields() throws Exception {
         UserRequestDto requestDto = userRequestDto;
@@ -102,6 +141,251 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.data").isEmpty());
     }
 
+    @Test
+    void Should_ReturnAccepted_When_RegistrationIsWrittenBehind() throws Exception {
+        User user = getUser();
+        when(userService.isWriteBehind()).thenReturn(true);
+        when(userService.acceptUser(any())).thenReturn(user.getId());
+        mockMvc.perform(MockMvcRequestBuilders.post(REGISTER_URI)
+                        .content(userRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value(SuccessMessage.SUCCESSFULLY_ACCEPTED.getMessage()))
+                .andExpect(jsonPath("$.data.id").value(user.getExternalId()))
+                .andExpect(jsonPath("$.data.status").value(RegistrationStatus.PENDING.name()));
+        verify(userService, never()).addUser(any());
+    }
+
+    @Test
+    void Should_ReturnServiceUnavailable_When_RegistrationQueueIsFull() throws Exception {
+        when(userService.isWriteBehind()).thenReturn(true);
+        when(userService.acceptUser(any())).thenThrow(new RegistrationQueueFullException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.post(REGISTER_URI)
+                        .content(userRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value(ErrorMessage.SERVICE_OVERLOADED.getMessage()));
+    }
+
+    /**
+     * Unit tests for getRegistrationStatus() method.
+     */
+    @Test
+    void Should_ReturnRegistrationStatus_When_RegistrationIsKnown() throws Exception {
+        User user = getUser();
+        when(userService.getRegistrationStatus(user.getId())).thenReturn(RegistrationStatus.COMPLETED);
+        mockMvc.perform(MockMvcRequestBuilders.get(REGISTRATION_URI + user.getExternalId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(SuccessMessage.REGISTRATION_STATUS.getMessage()))
+                .andExpect(jsonPath("$.data.id").value(user.getExternalId()))
+                .andExpect(jsonPath("$.data.status").value(RegistrationStatus.COMPLETED.name()));
+    }
+
+    @Test
+    void Should_ReturnNotFound_When_RegistrationIsUnknown() throws Exception {
+        when(userService.getRegistrationStatus(any())).thenThrow(new UserNotFoundException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.get(REGISTRATION_URI + getUser().getExternalId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.REGISTRATION_NOT_FOUND.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_RegistrationIdIsInvalid() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(REGISTRATION_URI + "123").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_USER_ID.getMessage()));
+    }
+
+    /**
+     * Unit tests for getRegisteredMobileNos() method.
+     */
+    @Test
+    void Should_ReturnRegisteredMobileNos_When_BatchIsValid() throws Exception {
+        when(userService.getRegisteredMobileNos(any())).thenReturn(List.of(MOBILE_NO));
+        mockMvc.perform(MockMvcRequestBuilders.post(REGISTERED_MOBILE_NOS_URI)
+                        .content(getMobileNoBatchRequestDto(List.of(MOBILE_NO, "0779090908")).toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(SuccessMessage.REGISTERED_MOBILE_NOS.getMessage()))
+                .andExpect(jsonPath("$.data.registeredMobileNos[0]").value(MOBILE_NO));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_BatchIsLargerThanLimit() throws Exception {
+        List<String> mobileNos = Collections.nCopies(MobileNoBatchRequestDto.MAX_MOBILE_NOS + 1, MOBILE_NO);
+        mockMvc.perform(MockMvcRequestBuilders.post(REGISTERED_MOBILE_NOS_URI)
+                        .content(getMobileNoBatchRequestDto(mobileNos).toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.TOO_MANY_MOBILE_NOS.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_BatchHasInvalidMobileNo() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(REGISTERED_MOBILE_NOS_URI)
+                        .content(getMobileNoBatchRequestDto(List.of(MOBILE_NO, "077123*")).toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_MOBILE_NO.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnInternalServerError_When_FailedToGetRegisteredMobileNos() throws Exception {
+        when(userService.getRegisteredMobileNos(any())).thenThrow(new HillTopUserApplicationException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.post(REGISTERED_MOBILE_NOS_URI)
+                        .content(getMobileNoBatchRequestDto(List.of(MOBILE_NO)).toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage()));
+    }
+
+    /**
+     * Unit tests for getUser() method.
+     */
+    @Test
+    void Should_ReturnUserWithValidators_When_UserExists() throws Exception {
+        User user = getUser();
+        when(userService.getUser(user.getId())).thenReturn(user);
+        mockMvc.perform(MockMvcRequestBuilders.get(USER_URI + user.getExternalId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, user.getUpdatedAt().toEpochMilli()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$.message").value(SuccessMessage.USER_FOUND.getMessage()))
+                .andExpect(jsonPath("$.data.id").value(user.getExternalId()))
+                .andExpect(jsonPath("$.data.mobileNo").value(MOBILE_NO))
+                .andExpect(jsonPath("$.data.password").doesNotExist());
+    }
+
+    @Test
+    void Should_ReturnNotModified_When_ETagMatches() throws Exception {
+        User user = getUser();
+        when(userService.getUser(user.getId())).thenReturn(user);
+        mockMvc.perform(MockMvcRequestBuilders.get(USER_URI + user.getExternalId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\"").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_UserIdIsInvalid() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(USER_URI + "123").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_USER_ID.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnNotFound_When_UserDoesntExist() throws Exception {
+        when(userService.getUser(any())).thenThrow(new UserNotFoundException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.get(USER_URI + getUser().getExternalId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.USER_NOT_FOUND.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnInternalServerError_When_FailedToGetUser() throws Exception {
+        when(userService.getUser(any())).thenThrow(new HillTopUserApplicationException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.get(USER_URI + getUser().getExternalId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage()));
+    }
+
+    /**
+     * Unit tests for searchUsers() method.
+     */
+    @Test
+    void Should_ReturnUsersAndNextCursor_When_UsersAreFound() throws Exception {
+        User user = getUser();
+        UserSearchCursor nextCursor = new UserSearchCursor("user", new byte[16]);
+        when(userService.searchUsers("Us", 20, null)).thenReturn(new UserSearchPage(List.of(user), nextCursor));
+        mockMvc.perform(MockMvcRequestBuilders.get(SEARCH_URI).param("name", "Us").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(SuccessMessage.USERS_FOUND.getMessage()))
+                .andExpect(jsonPath("$.data.users[0].id").value(user.getExternalId()))
+                .andExpect(jsonPath("$.data.users[0].name").value("User"))
+                .andExpect(jsonPath("$.data.nextCursor").value(nextCursor.encode()));
+    }
+
+    @Test
+    void Should_PassDecodedCursor_When_NextPageIsRequested() throws Exception {
+        UserSearchCursor cursor = new UserSearchCursor("user", new byte[16]);
+        when(userService.searchUsers(eq("Us"), eq(5), any())).thenReturn(new UserSearchPage(List.of(), null));
+        mockMvc.perform(MockMvcRequestBuilders.get(SEARCH_URI).param("name", "Us").param("size", "5")
+                        .param("cursor", cursor.encode()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.users").isEmpty())
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+        verify(userService).searchUsers(eq("Us"), eq(5),
+                argThat(decoded -> "user".equals(decoded.getNameKey())));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_SearchNameIsMissing() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(SEARCH_URI).param("name", " ").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.MISSING_REQUIRED_FIELDS.getMessage()));
+        verify(userService, never()).searchUsers(any(), anyInt(), any());
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_PageSizeIsTooLarge() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(SEARCH_URI).param("name", "Us").param("size", "101")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_PAGE_SIZE.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_SearchCursorIsInvalid() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(SEARCH_URI).param("name", "Us").param("cursor", "abc")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_SEARCH_CURSOR.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnInternalServerError_When_FailedToSearchUsers() throws Exception {
+        when(userService.searchUsers(any(), anyInt(), isNull())).thenThrow(new HillTopUserApplicationException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.get(SEARCH_URI).param("name", "Us").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage()));
+    }
+
+    /**
+     * This method is used to mock user.
+     *
+     * @return user
+     */
+    private User getUser() {
+        User user = new User();
+        user.setId(UserIdGenerator.generate(1));
+        user.setName("User");
+        user.setMobileNo(MOBILE_NO);
+        user.setUserType(UserType.USER);
+        user.setVersion(3L);
+        user.setUpdatedAt(Instant.parse("2026-01-01T10:00:00Z"));
+        return user;
+    }
+
+    /**
+     * This method is used to mock mobileNoBatchRequestDto.
+     *
+     * @param mobileNos mobileNos
+     * @return mobileNoBatchRequestDto
+     */
+    private MobileNoBatchRequestDto getMobileNoBatchRequestDto(List<String> mobileNos) {
+        MobileNoBatchRequestDto mobileNoBatchRequestDto = new MobileNoBatchRequestDto();
+        mobileNoBatchRequestDto.setMobileNos(mobileNos);
+        return mobileNoBatchRequestDto;
+    }
+
     /**
      * This method is used to mock userRequestDto.
      *
@@ -0,0 +1,139 @@
+package com.hilltop.user.documentation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hilltop.user.configuration.SwaggerConfig;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.AnnotatedBeanDefinitionReader;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * OpenAPI spec generator
+ * Runs in the prepare-package phase and writes the API document, the swagger-ui assets and their gzip variants to
+ * static/api-docs, so production can serve them without springfox scanning the controllers at boot.
+ */
+public final class OpenApiSpecGenerator {
+
+    static final String SPEC_FILE_NAME = "user-api.json";
+    private static final String CONTROLLER_PACKAGE = "com.hilltop.user.controller";
+    private static final String CONTEXT_PATH = "/hill-top-user";
+    private static final String SWAGGER_UI_WEBJAR = "META-INF/resources/webjars/springfox-swagger-ui/";
+    private static final List<String> SWAGGER_UI_ASSETS =
+            List.of("swagger-ui.css", "swagger-ui-bundle.js", "swagger-ui-standalone-preset.js");
+    private static final List<String> COMPRESSIBLE_EXTENSIONS = List.of(".json", ".js", ".css", ".html");
+
+    private OpenApiSpecGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: OpenApiSpecGenerator <output directory>");
+        }
+        generate(Paths.get(args[0]));
+    }
+
+    /**
+     * This method is used to write the spec, the ui assets and their precompressed variants to the given directory.
+     *
+     * @param outputDirectory output directory
+     * @throws Exception when the spec cannot be generated
+     */
+    static void generate(Path outputDirectory) throws Exception {
+        Files.createDirectories(outputDirectory);
+        Files.writeString(outputDirectory.resolve(SPEC_FILE_NAME), renderSpec());
+        for (String asset : SWAGGER_UI_ASSETS) {
+            try (InputStream inputStream = new ClassPathResource(SWAGGER_UI_WEBJAR + asset).getInputStream()) {
+                Files.write(outputDirectory.resolve(asset), inputStream.readAllBytes());
+            }
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(outputDirectory)) {
+            files = stream.filter(OpenApiSpecGenerator::isCompressible).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            gzip(file);
+        }
+    }
+
+    /**
+     * This method is used to render the swagger document of the controllers without starting the application.
+     *
+     * @return swagger document json
+     * @throws Exception when springfox fails to render the document
+     */
+    private static String renderSpec() throws Exception {
+        try (GenericWebApplicationContext context = new GenericWebApplicationContext(new MockServletContext())) {
+            context.getDefaultListableBeanFactory().setAutowireCandidateResolver(new LazyAutowireCandidateResolver());
+            new AnnotatedBeanDefinitionReader(context).register(DocumentationConfiguration.class);
+            context.refresh();
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+            String spec = mockMvc.perform(get("/v2/api-docs"))
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectNode document = (ObjectNode) objectMapper.readTree(spec);
+            // the ui resolves requests against the host it was loaded from.
+            document.remove("host");
+            document.put("basePath", CONTEXT_PATH);
+            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(document);
+        }
+    }
+
+    private static boolean isCompressible(Path file) {
+        String fileName = file.getFileName().toString();
+        return COMPRESSIBLE_EXTENSIONS.stream().anyMatch(fileName::endsWith);
+    }
+
+    private static void gzip(Path file) throws IOException {
+        Path compressed = file.resolveSibling(file.getFileName() + ".gz");
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            Files.copy(file, outputStream);
+        }
+    }
+
+    /**
+     * Controllers and swagger configuration only. Controller dependencies are injected as lazy proxies, because
+     * springfox only reads the request mappings. Servlet only, so the reactive application tests do not pick it up.
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @EnableWebMvc
+    @Import(SwaggerConfig.class)
+    @ComponentScan(basePackages = CONTROLLER_PACKAGE, useDefaultFilters = false,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Controller.class))
+    static class DocumentationConfiguration {
+    }
+
+    private static class LazyAutowireCandidateResolver extends ContextAnnotationAutowireCandidateResolver {
+
+        @Override
+        protected boolean isLazy(DependencyDescriptor descriptor) {
+            return descriptor.getMember().getDeclaringClass().getPackageName().equals(CONTROLLER_PACKAGE);
+        }
+    }
+}
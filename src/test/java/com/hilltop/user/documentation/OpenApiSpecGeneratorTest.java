@@ -0,0 +1,48 @@
+package com.hilltop.user.documentation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OpenAPI spec generator test
+ * Unit tests for {@link  OpenApiSpecGenerator}
+ */
+class OpenApiSpecGeneratorTest {
+
+    @TempDir
+    Path outputDirectory;
+
+    /**
+     * Unit tests for generate() method.
+     */
+    @Test
+    void Should_DocumentControllersAndJwtScheme_When_SpecIsGenerated() throws Exception {
+        OpenApiSpecGenerator.generate(outputDirectory);
+        JsonNode spec = new ObjectMapper().readTree(outputDirectory.resolve(OpenApiSpecGenerator.SPEC_FILE_NAME).toFile());
+        assertEquals("/hill-top-user", spec.path("basePath").asText());
+        assertFalse(spec.has("host"));
+        assertTrue(spec.path("paths").has("/api/v1/auth/sign-in"));
+        assertTrue(spec.path("paths").has("/api/v1/user"));
+        assertEquals("Authorization", spec.path("securityDefinitions").path("JWT").path("name").asText());
+    }
+
+    @Test
+    void Should_WritePrecompressedVariants_When_SpecIsGenerated() throws Exception {
+        OpenApiSpecGenerator.generate(outputDirectory);
+        Path spec = outputDirectory.resolve(OpenApiSpecGenerator.SPEC_FILE_NAME);
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(
+                outputDirectory.resolve(OpenApiSpecGenerator.SPEC_FILE_NAME + ".gz")))) {
+            assertArrayEquals(Files.readAllBytes(spec), inputStream.readAllBytes());
+        }
+        assertTrue(Files.exists(outputDirectory.resolve("swagger-ui-bundle.js.gz")));
+    }
+}
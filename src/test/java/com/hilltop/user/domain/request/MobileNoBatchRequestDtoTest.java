@@ -0,0 +1,58 @@
+package com.hilltop.user.domain.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mobile number batch requestDto test
+ * Unit tests for {@link  MobileNoBatchRequestDto}
+ */
+class MobileNoBatchRequestDtoTest {
+
+    private MobileNoBatchRequestDto mobileNoBatchRequestDto;
+
+    @BeforeEach
+    void setUp() {
+        mobileNoBatchRequestDto = new MobileNoBatchRequestDto();
+        mobileNoBatchRequestDto.setMobileNos(List.of("0779090909", "0779090908"));
+    }
+
+    /**
+     * Unit tests for isRequiredFieldsAvailable() method
+     */
+    @Test
+    void Should_ReturnFalse_When_MobileNosAreEmpty() {
+        assertTrue(mobileNoBatchRequestDto.isRequiredFieldsAvailable());
+        mobileNoBatchRequestDto.setMobileNos(List.of());
+        assertFalse(mobileNoBatchRequestDto.isRequiredFieldsAvailable());
+    }
+
+    /**
+     * Unit tests for isWithinBatchLimit() method
+     */
+    @Test
+    void Should_ReturnFalse_When_MobileNosExceedLimit() {
+        assertTrue(mobileNoBatchRequestDto.isWithinBatchLimit());
+        mobileNoBatchRequestDto.setMobileNos(
+                Collections.nCopies(MobileNoBatchRequestDto.MAX_MOBILE_NOS + 1, "0779090909"));
+        assertFalse(mobileNoBatchRequestDto.isWithinBatchLimit());
+    }
+
+    /**
+     * Unit tests for isValidMobileNos() method
+     */
+    @Test
+    void Should_ReturnFalse_When_AnyMobileNoIsInvalid() {
+        assertTrue(mobileNoBatchRequestDto.isValidMobileNos());
+        mobileNoBatchRequestDto.setMobileNos(Collections.singletonList(null));
+        assertFalse(mobileNoBatchRequestDto.isValidMobileNos());
+        mobileNoBatchRequestDto.setMobileNos(List.of("0779090909", "077123*"));
+        assertFalse(mobileNoBatchRequestDto.isValidMobileNos());
+    }
+}
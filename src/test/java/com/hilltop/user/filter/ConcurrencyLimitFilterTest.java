@@ -0,0 +1,81 @@
+package com.hilltop.user.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.enumeration.ErrorMessage;
+import com.hilltop.user.filter.ConcurrencyLimitProperties.EndpointClass;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency limit filter test
+ * Unit tests for {@link  ConcurrencyLimitFilter}
+ */
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        concurrencyLimitFilter = new ConcurrencyLimitFilter(properties, new ObjectMapper());
+    }
+
+    /**
+     * Unit tests for doFilterInternal() method.
+     */
+    @Test
+    void Should_ShedRequest_When_EndpointClassIsAtItsLimit() throws Exception {
+        concurrencyLimitFilter.getLimiter(EndpointClass.SIGN_IN).tryAcquire();
+        MockFilterChain filterChain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        concurrencyLimitFilter.doFilter(new MockHttpServletRequest("POST", "/api/v1/auth/sign-in"), response,
+                filterChain);
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains(ErrorMessage.SERVICE_OVERLOADED.getMessage()));
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void Should_LimitEndpointClassesSeparately_When_OneIsAtItsLimit() throws Exception {
+        concurrencyLimitFilter.getLimiter(EndpointClass.SIGN_IN).tryAcquire();
+        MockFilterChain filterChain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        concurrencyLimitFilter.doFilter(new MockHttpServletRequest("GET", "/api/v1/auth/validate-token"), response,
+                filterChain);
+        assertEquals(200, response.getStatus());
+        assertNotNull(filterChain.getRequest());
+        assertEquals(0, concurrencyLimitFilter.getLimiter(EndpointClass.VALIDATE_TOKEN).getInFlight());
+    }
+
+    @Test
+    void Should_NotLimitHealthCheck_When_EveryEndpointClassIsAtItsLimit() throws Exception {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            concurrencyLimitFilter.getLimiter(endpointClass).tryAcquire();
+        }
+        MockFilterChain filterChain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        concurrencyLimitFilter.doFilter(new MockHttpServletRequest("GET", "/"), response, filterChain);
+        assertEquals(200, response.getStatus());
+        assertNotNull(filterChain.getRequest());
+    }
+
+    /**
+     * Unit tests for classify() method.
+     */
+    @Test
+    void Should_ClassifyByMethodAndPath_When_RequestIsForApi() {
+        assertEquals(EndpointClass.SIGN_IN, ConcurrencyLimitFilter.classify("POST", "/api/v1/auth/sign-in"));
+        assertEquals(EndpointClass.REGISTER, ConcurrencyLimitFilter.classify("POST", "/api/v1/user"));
+        assertEquals(EndpointClass.VALIDATE_TOKEN,
+                ConcurrencyLimitFilter.classify("GET", "/api/v1/auth/validate-token"));
+        assertEquals(EndpointClass.OTHER, ConcurrencyLimitFilter.classify("GET", "/api/v1/user/uid-1"));
+    }
+}
@@ -0,0 +1,166 @@
+package com.hilltop.user.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.controller.UserController;
+import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.ErrorMessage;
+import com.hilltop.user.enumeration.SuccessMessage;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.exception.HillTopUserApplicationException;
+import com.hilltop.user.repository.idempotency.IdempotencyStore;
+import com.hilltop.user.repository.idempotency.InMemoryIdempotencyStore;
+import com.hilltop.user.service.TrafficStatisticsService;
+import com.hilltop.user.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.MockitoAnnotations.openMocks;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Idempotency filter test
+ * Unit tests for {@link  IdempotencyFilter}
+ */
+class IdempotencyFilterTest {
+
+    private static final String REGISTER_URI = "/api/v1/user";
+    private static final String FAILED = "Failed.";
+    @Mock
+    private UserService userService;
+    @Mock
+    private TrafficStatisticsService trafficStatisticsService;
+    @Mock
+    private IdempotencyStore idempotencyStore;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        IdempotencyFilter idempotencyFilter = new IdempotencyFilter(new InMemoryIdempotencyStore(10),
+                List.of(REGISTER_URI), Duration.ofMinutes(1), 1000, new ObjectMapper());
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService, trafficStatisticsService))
+                .addFilters(idempotencyFilter)
+                .build();
+    }
+
+    /**
+     * Unit tests for doFilterInternal() method.
+     */
+    @Test
+    void Should_ReplayStoredResponse_When_KeyIsRepeated() throws Exception {
+        mockMvc.perform(register("key-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        mockMvc.perform(register("key-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(jsonPath("$.message").value(SuccessMessage.SUCCESSFULLY_ADDED.getMessage()));
+        verify(userService, times(1)).addUser(any());
+    }
+
+    @Test
+    void Should_RunRequestAgain_When_KeyIsDifferentOrMissing() throws Exception {
+        mockMvc.perform(register("key-1")).andExpect(status().isCreated());
+        mockMvc.perform(register("key-2")).andExpect(status().isCreated());
+        mockMvc.perform(register(null)).andExpect(status().isCreated());
+        verify(userService, times(3)).addUser(any());
+    }
+
+    @Test
+    void Should_NotStoreResponse_When_RequestFailsWithServerError() throws Exception {
+        doThrow(new HillTopUserApplicationException(FAILED)).doNothing().when(userService).addUser(any());
+        mockMvc.perform(register("key-1")).andExpect(status().isInternalServerError());
+        mockMvc.perform(register("key-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        verify(userService, times(2)).addUser(any());
+    }
+
+    @Test
+    void Should_ReturnUnprocessableEntity_When_KeyIsReusedWithDifferentBody() throws Exception {
+        mockMvc.perform(register("key-1")).andExpect(status().isCreated());
+        UserRequestDto userRequestDto = getUserRequestDto();
+        userRequestDto.setMobileNo("0779090908");
+        mockMvc.perform(register("key-1").content(userRequestDto.toLogJson()))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED))
+                .andExpect(jsonPath("$.message").value(ErrorMessage.IDEMPOTENCY_KEY_REUSED.getMessage()));
+        verify(userService, times(1)).addUser(any());
+    }
+
+    @Test
+    void Should_ReturnUnprocessableEntity_When_KeyIsReusedByAnotherCaller() throws Exception {
+        mockMvc.perform(register("key-1").principal(() -> "0771111111")).andExpect(status().isCreated());
+        mockMvc.perform(register("key-1").principal(() -> "0772222222"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(register("key-1").principal(() -> "0771111111"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"));
+        verify(userService, times(1)).addUser(any());
+    }
+
+    @Test
+    void Should_RunRequestWithoutStore_When_StoreFails() throws Exception {
+        doThrow(new DataAccessResourceFailureException(FAILED)).when(idempotencyStore).find(any());
+        doThrow(new DataAccessResourceFailureException(FAILED)).when(idempotencyStore).save(any(), any());
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService, trafficStatisticsService))
+                .addFilters(new IdempotencyFilter(idempotencyStore, List.of(REGISTER_URI), Duration.ofMinutes(1), 1000,
+                        new ObjectMapper()))
+                .build();
+        mockMvc.perform(register("key-1"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value(SuccessMessage.SUCCESSFULLY_ADDED.getMessage()));
+        verify(idempotencyStore).save(any(), any());
+        mockMvc.perform(register("key-1")).andExpect(status().isCreated());
+        verify(userService, times(2)).addUser(any());
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_KeyIsTooLong() throws Exception {
+        doNothing().when(userService).addUser(any());
+        mockMvc.perform(register("k".repeat(101)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_IDEMPOTENCY_KEY.getMessage()));
+        verify(userService, times(0)).addUser(any());
+    }
+
+    private MockHttpServletRequestBuilder register(String idempotencyKey) {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(REGISTER_URI)
+                .content(getUserRequestDto().toLogJson())
+                .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON);
+        if (idempotencyKey != null)
+            request.header(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey);
+        return request;
+    }
+
+    /**
+     * This method is used to mock userRequestDto.
+     *
+     * @return userRequestDto
+     */
+    private UserRequestDto getUserRequestDto() {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("User");
+        userRequestDto.setMobileNo("0779090909");
+        userRequestDto.setPassword("password");
+        userRequestDto.setUserType(UserType.USER);
+        return userRequestDto;
+    }
+}
@@ -0,0 +1,86 @@
+package com.hilltop.user.filter;
+
+import com.hilltop.user.service.JwtTokenService;
+import com.hilltop.user.service.TokenKeyProperties;
+import com.hilltop.user.service.TokenKeyRing;
+import io.opentelemetry.api.trace.TracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Jwt authentication filter test
+ * Unit tests for {@link  JwtAuthenticationFilter}
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN_KEY = "645267556B58703273357638792F423F4528472B4B6250655368566D59713374";
+    private static final String MOBILE_NO = "0779090909";
+    private final JwtTokenService jwtTokenService = new JwtTokenService(getTokenKeyRing(), TracerProvider.noop().get("test"));
+    private final AtomicReference<Authentication> authentication = new AtomicReference<>();
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @BeforeEach
+    void setUp() {
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtTokenService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Unit tests for doFilterInternal() method.
+     */
+    @Test
+    void Should_AuthenticateTokenSubject_When_BearerTokenIsValid() throws Exception {
+        filter("Bearer " + jwtTokenService.generateToken(MOBILE_NO));
+        assertNotNull(authentication.get());
+        assertTrue(authentication.get().isAuthenticated());
+        assertEquals(MOBILE_NO, authentication.get().getPrincipal());
+    }
+
+    @Test
+    void Should_ContinueUnauthenticated_When_BearerTokenIsInvalid() throws Exception {
+        filter("Bearer 123");
+        assertNull(authentication.get());
+    }
+
+    @Test
+    void Should_ContinueUnauthenticated_When_AuthorizationIsNotBearer() throws Exception {
+        filter("Basic dXNlcjpwYXNzd29yZA==");
+        assertNull(authentication.get());
+        filter(null);
+        assertNull(authentication.get());
+    }
+
+    private void filter(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/uid-1");
+        if (authorization != null)
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) ->
+                authentication.set(SecurityContextHolder.getContext().getAuthentication()));
+        assertNull(request.getSession(false));
+    }
+
+    /**
+     * This method is used to get a key ring with TOKEN_KEY as default key.
+     *
+     * @return tokenKeyRing
+     */
+    private static TokenKeyRing getTokenKeyRing() {
+        TokenKeyProperties tokenKeyProperties = new TokenKeyProperties();
+        tokenKeyProperties.setKey(TOKEN_KEY);
+        return new TokenKeyRing(tokenKeyProperties);
+    }
+}
@@ -0,0 +1,78 @@
+package com.hilltop.user.filter;
+
+import com.hilltop.user.controller.AuthController;
+import com.hilltop.user.controller.ServerTimingResponseAdvice;
+import com.hilltop.user.service.JwtTokenService;
+import com.hilltop.user.service.TrafficStatisticsService;
+import com.hilltop.user.util.RequestTimings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.MockitoAnnotations.openMocks;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Server timing filter test
+ * Unit tests for {@link  ServerTimingFilter}
+ */
+class ServerTimingFilterTest {
+
+    private static final String VALIDATE_TOKEN_URI = "/api/v1/auth/validate-token?token=123";
+    @Mock
+    private JwtTokenService jwtTokenService;
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private TrafficStatisticsService trafficStatisticsService;
+    private AuthController authController;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        authController = new AuthController(authenticationManager, jwtTokenService, trafficStatisticsService,
+                Optional.empty());
+        doAnswer(invocation -> {
+            RequestTimings.stop(RequestTimings.Stage.TOKEN, RequestTimings.start());
+            return null;
+        }).when(jwtTokenService).validateToken(anyString());
+    }
+
+    /**
+     * Unit tests for doFilterInternal() method.
+     */
+    @Test
+    void Should_AddServerTimingHeader_When_RequestIsTimed() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new ServerTimingResponseAdvice())
+                .addFilters(new ServerTimingFilter(0))
+                .build();
+        mockMvc.perform(MockMvcRequestBuilders.get(VALIDATE_TOKEN_URI).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", containsString("jwt;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+        assertFalse(RequestTimings.isActive());
+    }
+
+    @Test
+    void Should_NotAddServerTimingHeader_When_FilterIsNotRegistered() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new ServerTimingResponseAdvice())
+                .build();
+        mockMvc.perform(MockMvcRequestBuilders.get(VALIDATE_TOKEN_URI).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.hilltop.user.filter;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tracing filter test
+ * Unit tests for {@link  TracingFilter}
+ */
+class TracingFilterTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .setSampler(Sampler.parentBased(Sampler.alwaysOff()))
+            .addSpanProcessor(SimpleSpanProcessor.create(spanExporter)).build();
+    private final TracingFilter tracingFilter = new TracingFilter(tracerProvider.get("test"),
+            W3CTraceContextPropagator.getInstance());
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    /**
+     * Unit tests for doFilterInternal() method.
+     */
+    @Test
+    void Should_ContinueCallerTrace_When_RequestCarriesTraceparent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/uid-1");
+        request.addHeader("traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01");
+        AtomicReference<String> currentTraceId = new AtomicReference<>();
+        tracingFilter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            currentTraceId.set(Span.current().getSpanContext().getTraceId());
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/user/{id}");
+        });
+        SpanData span = spanExporter.getFinishedSpanItems().get(0);
+        assertEquals(TRACE_ID, currentTraceId.get());
+        assertEquals(TRACE_ID, span.getTraceId());
+        assertEquals(PARENT_SPAN_ID, span.getParentSpanId());
+        assertEquals(SpanKind.SERVER, span.getKind());
+        assertEquals("GET /api/v1/user/{id}", span.getName());
+        assertEquals("/api/v1/user/{id}", span.getAttributes().get(TracingFilter.HTTP_ROUTE));
+        assertEquals(200L, span.getAttributes().get(TracingFilter.HTTP_STATUS_CODE));
+    }
+
+    @Test
+    void Should_FollowCallerSamplingDecision_When_CallerDidNotSample() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/uid-1");
+        request.addHeader("traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-00");
+        tracingFilter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+        });
+        assertTrue(spanExporter.getFinishedSpanItems().isEmpty());
+    }
+
+    @Test
+    void Should_MarkSpanAsFailed_When_ResponseIsServerError() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/user");
+        request.addHeader("traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01");
+        tracingFilter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) ->
+                ((HttpServletResponse) servletResponse).setStatus(500));
+        SpanData span = spanExporter.getFinishedSpanItems().get(0);
+        assertEquals("POST", span.getName());
+        assertEquals(StatusCode.ERROR, span.getStatus().getStatusCode());
+    }
+}
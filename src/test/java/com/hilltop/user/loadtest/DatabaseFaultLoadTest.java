@@ -0,0 +1,204 @@
+package com.hilltop.user.loadtest;
+
+import com.hilltop.user.enumeration.ErrorMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Database fault load test
+ * Drives sign-in and registration over http while {@link FaultInjectingDataSourceInterceptor} makes the H2 database
+ * slow or failing, and checks throughput, tail latency and that every failure answers 500 with the generic message.
+ * The circuit breaker is kept open for 1s only, so scenarios recover quickly. Run with: mvn -B verify -Pload-test
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "user.database.resilience.circuit-breaker.open-duration=1s",
+        // every failed request logs a stack trace
+        "logging.level.com.hilltop.user.controller=OFF"})
+@ActiveProfiles({"h2", "load-test"})
+@Import(FaultInjectionConfiguration.class)
+class DatabaseFaultLoadTest {
+
+    private static final Path OUTPUT_DIRECTORY = Paths.get("target", "load-test", "faults");
+    private static final Duration WARM_UP = Duration.ofSeconds(1);
+    private static final Duration DURATION = Duration.ofSeconds(6);
+    private static final Duration RECOVERY_TIMEOUT = Duration.ofSeconds(15);
+    private static final String INTERNAL_SERVER_ERROR = ErrorMessage.INTERNAL_SERVER_ERROR.getMessage();
+    // shared by the test instances, the users of earlier scenarios stay registered
+    private static final AtomicLong MOBILE_NO_SEQUENCE = new AtomicLong(500_000);
+    private final Queue<String> unexpectedResponses = new ConcurrentLinkedQueue<>();
+    @Autowired
+    private DatabaseFaults faults;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @LocalServerPort
+    private int port;
+    private String baseUri;
+
+    @BeforeEach
+    void setUp() {
+        baseUri = "http://localhost:" + port + "/hill-top-user";
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        faults.reset();
+        awaitRecovery();
+    }
+
+    @Test
+    void Should_KeepSignInsWithinReadTimeout_When_LookupsHaveLongTail() throws Exception {
+        List<String> mobileNos = registerUsers(4);
+        faults.inject(StatementType.SELECT_USER_BY_MOBILE_NO, InjectedFault.latency(
+                LatencyDistribution.logNormal(Duration.ofMillis(20), Duration.ofMillis(400))));
+
+        LoadReport report = run("slow-lookups", 4, Collections.singletonMap(Operation.SIGN_IN, 1), mobileNos);
+
+        OperationResult signIn = report.getResults().get(Operation.SIGN_IN);
+        assertTrue(signIn.getCount() > 0);
+        assertEquals(0, signIn.getErrors(), "Sign-ins failed below the read timeout");
+        assertTrue(signIn.getP99Millis() < 2000, () -> "Sign-in p99 " + signIn.getP99Millis() + " ms");
+        assertTrue(report.getThroughputPerSecond(Operation.SIGN_IN) >= 1);
+        assertTrue(unexpectedResponses.isEmpty(), () -> "Unexpected responses: " + unexpectedResponses);
+    }
+
+    @Test
+    void Should_FailSignInsFast_When_LookupsExceedReadTimeout() throws Exception {
+        List<String> mobileNos = registerUsers(8);
+        double circuitRejections = count("user.database.circuit-breaker.rejections");
+        faults.inject(StatementType.SELECT_USER_BY_MOBILE_NO,
+                InjectedFault.latency(LatencyDistribution.fixed(Duration.ofSeconds(10))));
+
+        LoadReport report = run("lookups-timing-out", 8, Collections.singletonMap(Operation.SIGN_IN, 1), mobileNos);
+
+        OperationResult signIn = report.getResults().get(Operation.SIGN_IN);
+        assertEquals(signIn.getCount(), signIn.getErrors());
+        // cut by the 2s read timeout rather than waiting for the 10s statement
+        assertTrue(signIn.getP99Millis() < 3000, () -> "Sign-in p99 " + signIn.getP99Millis() + " ms");
+        // most calls are failed fast by the open circuit
+        double p50Millis = signIn.getHistogram().getValueAtPercentile(50) / 1000.0;
+        assertTrue(p50Millis < 500, () -> "Sign-in p50 " + p50Millis + " ms");
+        assertTrue(count("user.database.circuit-breaker.rejections") > circuitRejections);
+        assertTrue(unexpectedResponses.isEmpty(), () -> "Unexpected responses: " + unexpectedResponses);
+    }
+
+    @Test
+    void Should_Answer500ForFailedRegistrations_When_InsertsFail() throws Exception {
+        faults.inject(StatementType.INSERT_USER, InjectedFault.errors(0.25));
+
+        LoadReport report = run("failing-inserts", 4, Collections.singletonMap(Operation.REGISTER, 1),
+                Collections.emptyList());
+
+        OperationResult register = report.getResults().get(Operation.REGISTER);
+        assertTrue(register.getErrors() > 0);
+        assertTrue(register.getErrors() < register.getCount());
+        assertTrue(unexpectedResponses.isEmpty(), () -> "Unexpected responses: " + unexpectedResponses);
+    }
+
+    @Test
+    void Should_RejectSignInsOverBulkhead_When_ConnectionAcquisitionStalls() throws Exception {
+        List<String> mobileNos = registerUsers(24);
+        double readRejections = count("user.database.bulkhead.rejections", "bulkhead", "read");
+        faults.injectOnConnection(InjectedFault.latency(LatencyDistribution.fixed(Duration.ofMillis(1000))));
+
+        LoadReport report = run("stalled-connections", 24, Collections.singletonMap(Operation.SIGN_IN, 1),
+                mobileNos);
+
+        OperationResult signIn = report.getResults().get(Operation.SIGN_IN);
+        assertTrue(signIn.getErrors() > 0);
+        assertTrue(signIn.getErrors() < signIn.getCount());
+        // every successful sign-in held one of the 7 read slots for the 1s stall
+        double successesPerSecond = (signIn.getCount() - signIn.getErrors()) / (double) DURATION.getSeconds();
+        assertTrue(successesPerSecond <= 7 * 1.2, () -> successesPerSecond + " sign-ins/s passed the read bulkhead");
+        assertTrue(count("user.database.bulkhead.rejections", "bulkhead", "read") > readRejections);
+        assertTrue(unexpectedResponses.isEmpty(), () -> "Unexpected responses: " + unexpectedResponses);
+    }
+
+    private LoadReport run(String scenario, int concurrency, Map<Operation, Integer> mix, List<String> mobileNos)
+            throws Exception {
+        LoadTestSettings settings = LoadTestSettings.of(concurrency, WARM_UP, DURATION, mix);
+        LoadReport report = new LoadGenerator(settings).run(workerId -> {
+            UserApiClient client = new UserApiClient(baseUri);
+            String mobileNo = mobileNos.isEmpty() ? null : mobileNos.get(workerId);
+            return operation -> {
+                switch (operation) {
+                    case REGISTER:
+                        return isExpected(operation, client.register(nextMobileNo()), 201);
+                    case SIGN_IN:
+                        return isExpected(operation, client.signIn(mobileNo), 200);
+                    default:
+                        throw new IllegalArgumentException("Unsupported operation " + operation);
+                }
+            };
+        });
+        System.out.println(scenario + ":");
+        report.write(System.out, OUTPUT_DIRECTORY.resolve(scenario));
+        return report;
+    }
+
+    /**
+     * @return true when the response has the expected status, false when it is the generic 500
+     */
+    private boolean isExpected(Operation operation, HttpResponse<String> response, int expectedStatus) {
+        if (response.statusCode() == expectedStatus)
+            return true;
+        if (response.statusCode() != 500 || !response.body().contains(INTERNAL_SERVER_ERROR))
+            unexpectedResponses.add(operation.getKey() + " " + response.statusCode() + " " + response.body());
+        return false;
+    }
+
+    private List<String> registerUsers(int count) throws Exception {
+        UserApiClient client = new UserApiClient(baseUri);
+        List<String> mobileNos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String mobileNo = nextMobileNo();
+            assertEquals(201, client.register(mobileNo).statusCode());
+            mobileNos.add(mobileNo);
+        }
+        return mobileNos;
+    }
+
+    /**
+     * This method is used to wait until registration and sign-in succeed again, e.g. once the circuit closed.
+     */
+    private void awaitRecovery() throws Exception {
+        UserApiClient client = new UserApiClient(baseUri);
+        long deadline = System.nanoTime() + RECOVERY_TIMEOUT.toNanos();
+        String mobileNo = nextMobileNo();
+        while (client.register(mobileNo).statusCode() != 201 || client.signIn(mobileNo).statusCode() != 200) {
+            if (System.nanoTime() > deadline)
+                fail("Database calls did not recover within " + RECOVERY_TIMEOUT);
+            TimeUnit.MILLISECONDS.sleep(200);
+            mobileNo = nextMobileNo();
+        }
+    }
+
+    private double count(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).counter().count();
+    }
+
+    private String nextMobileNo() {
+        return String.format("07%08d", MOBILE_NO_SEQUENCE.incrementAndGet());
+    }
+}
@@ -0,0 +1,51 @@
+package com.hilltop.user.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Database faults
+ * Faults currently injected by {@link FaultInjectingDataSourceInterceptor}. Changed while requests are running, so a
+ * scenario can switch a fault on and off without restarting the application.
+ */
+class DatabaseFaults {
+
+    private final Map<StatementType, InjectedFault> statementFaults = new ConcurrentHashMap<>();
+    private volatile InjectedFault connectionFault = InjectedFault.NONE;
+
+    /**
+     * This method is used to inject a fault into every execution of a statement type.
+     *
+     * @param type  statement type
+     * @param fault fault
+     */
+    void inject(StatementType type, InjectedFault fault) {
+        statementFaults.put(type, fault);
+    }
+
+    /**
+     * This method is used to inject a fault into every connection acquisition, e.g. an exhausted pool or a slow
+     * network.
+     *
+     * @param fault fault
+     */
+    void injectOnConnection(InjectedFault fault) {
+        connectionFault = fault;
+    }
+
+    /**
+     * This method is used to remove every fault.
+     */
+    void reset() {
+        statementFaults.clear();
+        connectionFault = InjectedFault.NONE;
+    }
+
+    InjectedFault get(StatementType type) {
+        return type == null ? InjectedFault.NONE : statementFaults.getOrDefault(type, InjectedFault.NONE);
+    }
+
+    InjectedFault getConnectionFault() {
+        return connectionFault;
+    }
+}
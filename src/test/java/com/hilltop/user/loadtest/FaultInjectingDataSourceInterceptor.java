@@ -0,0 +1,137 @@
+package com.hilltop.user.loadtest;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fault injecting data source interceptor
+ * Advice for a data source proxy that makes a healthy database behave like a slow or failing one:
+ * <ul>
+ *     <li>connection acquisition waits for the connection fault latency, then may fail like an exhausted pool,</li>
+ *     <li>statement executions wait for the fault latency of their {@link StatementType}, then may fail like a lost
+ *     connection.</li>
+ * </ul>
+ * An injected latency beyond the query timeout of the statement ends after the timeout with a
+ * {@link SQLTimeoutException}, as the MySQL driver cancels the statement, so timeout settings can be checked too.
+ */
+class FaultInjectingDataSourceInterceptor implements MethodInterceptor {
+
+    private static final String CONNECTION_FAILURE_SQL_STATE = "08001";
+    private static final String COMMUNICATION_FAILURE_SQL_STATE = "08S01";
+    private static final String QUERY_CANCELLED_SQL_STATE = "70100";
+    private final DatabaseFaults faults;
+
+    FaultInjectingDataSourceInterceptor(DatabaseFaults faults) {
+        this.faults = faults;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!"getConnection".equals(invocation.getMethod().getName()))
+            return invocation.proceed();
+        InjectedFault fault = faults.getConnectionFault();
+        Random random = ThreadLocalRandom.current();
+        sleep(fault.nextLatencyNanos(random));
+        if (fault.nextIsError(random))
+            throw new SQLTransientConnectionException("Injected connection acquisition failure.",
+                    CONNECTION_FAILURE_SQL_STATE);
+        Object result = invocation.proceed();
+        if (result instanceof Connection)
+            return Proxy.newProxyInstance(FaultInjectingDataSourceInterceptor.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new ConnectionHandler((Connection) result));
+        return result;
+    }
+
+    private static Object invokeDelegate(Object delegate, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void sleep(long nanos) throws SQLException {
+        if (nanos <= 0)
+            return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while injecting latency.", e);
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection delegate;
+
+        private ConnectionHandler(Connection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("equals".equals(method.getName()) && args != null && args.length == 1)
+                return proxy == args[0];
+            if ("hashCode".equals(method.getName()) && args == null)
+                return System.identityHashCode(proxy);
+            Object result = invokeDelegate(delegate, method, args);
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return Proxy.newProxyInstance(FaultInjectingDataSourceInterceptor.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement delegate;
+        private final String preparedSql;
+
+        private StatementHandler(Statement delegate, String preparedSql) {
+            this.delegate = delegate;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("equals".equals(method.getName()) && args != null && args.length == 1)
+                return proxy == args[0];
+            if ("hashCode".equals(method.getName()) && args == null)
+                return System.identityHashCode(proxy);
+            if (!method.getName().startsWith("execute"))
+                return invokeDelegate(delegate, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            StatementType type = StatementType.of(sql);
+            InjectedFault fault = faults.get(type);
+            Random random = ThreadLocalRandom.current();
+            long latencyNanos = fault.nextLatencyNanos(random);
+            int queryTimeoutSeconds = delegate.getQueryTimeout();
+            if (queryTimeoutSeconds > 0 && latencyNanos >= TimeUnit.SECONDS.toNanos(queryTimeoutSeconds)) {
+                sleep(TimeUnit.SECONDS.toNanos(queryTimeoutSeconds));
+                throw new SQLTimeoutException("Statement cancelled after the query timeout of "
+                        + queryTimeoutSeconds + " s.", QUERY_CANCELLED_SQL_STATE);
+            }
+            sleep(latencyNanos);
+            if (fault.nextIsError(random))
+                throw new SQLTransientConnectionException("Injected " + type + " failure.",
+                        COMMUNICATION_FAILURE_SQL_STATE);
+            return invokeDelegate(delegate, method, args);
+        }
+    }
+}
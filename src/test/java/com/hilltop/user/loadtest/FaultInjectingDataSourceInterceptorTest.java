@@ -0,0 +1,139 @@
+package com.hilltop.user.loadtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fault injecting data source interceptor test
+ * Unit tests for {@link FaultInjectingDataSourceInterceptor} and {@link LatencyDistribution}
+ */
+class FaultInjectingDataSourceInterceptorTest {
+
+    private static final String SELECT_BY_MOBILE_NO = "SELECT COUNT(*) FROM user WHERE mobile_no = ?";
+    private static final String SELECT_BY_ID = "SELECT COUNT(*) FROM user WHERE id = ?";
+    private static final String INSERT = "INSERT INTO user (id, mobile_no) VALUES (?, ?)";
+    private final DatabaseFaults faults = new DatabaseFaults();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:faults;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1", "sa", "");
+        ProxyFactory proxyFactory = new ProxyFactory(dataSource);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new FaultInjectingDataSourceInterceptor(faults));
+        jdbcTemplate = new JdbcTemplate((DataSource) proxyFactory.getProxy());
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS user (id INT PRIMARY KEY, mobile_no VARCHAR(15))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        faults.reset();
+        jdbcTemplate.execute("DROP TABLE user");
+    }
+
+    /**
+     * Unit tests for invoke() method.
+     */
+    @Test
+    void Should_DelayOnlyMatchingStatements_When_LatencyIsInjected() {
+        faults.inject(StatementType.SELECT_USER_BY_MOBILE_NO,
+                InjectedFault.latency(LatencyDistribution.fixed(Duration.ofMillis(300))));
+        long start = System.nanoTime();
+        jdbcTemplate.queryForObject(SELECT_BY_MOBILE_NO, Integer.class, "0771234567");
+        assertTrue(elapsedMillis(start) >= 300);
+
+        start = System.nanoTime();
+        jdbcTemplate.queryForObject(SELECT_BY_ID, Integer.class, 1);
+        jdbcTemplate.update(INSERT, 1, "0771234567");
+        assertTrue(elapsedMillis(start) < 300);
+    }
+
+    @Test
+    void Should_CancelStatementAfterQueryTimeout_When_LatencyExceedsIt() {
+        faults.inject(StatementType.SELECT_USER_BY_MOBILE_NO,
+                InjectedFault.latency(LatencyDistribution.fixed(Duration.ofSeconds(30))));
+        jdbcTemplate.setQueryTimeout(1);
+        long start = System.nanoTime();
+        assertThrows(QueryTimeoutException.class,
+                () -> jdbcTemplate.queryForObject(SELECT_BY_MOBILE_NO, Integer.class, "0771234567"));
+        long elapsedMillis = elapsedMillis(start);
+        assertTrue(elapsedMillis >= 1000 && elapsedMillis < 5000, () -> "Cancelled after " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void Should_FailStatement_When_ErrorIsInjected() {
+        faults.inject(StatementType.INSERT_USER, InjectedFault.errors(1));
+        assertThrows(TransientDataAccessResourceException.class, () -> jdbcTemplate.update(INSERT, 2, "0771234568"));
+        assertEquals(0, jdbcTemplate.queryForObject(SELECT_BY_MOBILE_NO, Integer.class, "0771234568"));
+    }
+
+    @Test
+    void Should_StallAndFailConnectionAcquisition_When_ConnectionFaultIsInjected() {
+        faults.injectOnConnection(InjectedFault.latency(LatencyDistribution.fixed(Duration.ofMillis(300)))
+                .withErrorRate(1));
+        long start = System.nanoTime();
+        assertThrows(CannotGetJdbcConnectionException.class,
+                () -> jdbcTemplate.queryForObject(SELECT_BY_ID, Integer.class, 1));
+        assertTrue(elapsedMillis(start) >= 300);
+    }
+
+    @Test
+    void Should_InjectNothing_When_FaultsAreReset() {
+        faults.inject(StatementType.INSERT_USER, InjectedFault.errors(1));
+        faults.injectOnConnection(InjectedFault.errors(1));
+        faults.reset();
+        assertEquals(1, jdbcTemplate.update(INSERT, 3, "0771234569"));
+    }
+
+    /**
+     * Unit tests for of() method.
+     */
+    @Test
+    void Should_MatchUserStatements_When_GeneratedByJpaOrJdbc() {
+        assertEquals(StatementType.SELECT_USER_BY_MOBILE_NO, StatementType.of("select user0_.id as id1_0_, "
+                + "user0_.mobile_no as mobile_n2_0_ from user user0_ where user0_.mobile_no=?"));
+        assertEquals(StatementType.INSERT_USER, StatementType.of("insert into user (created_date, mobile_no, id) "
+                + "values (?, ?, ?)"));
+        assertEquals(StatementType.INSERT_USER, StatementType.of("INSERT INTO user (id, mobile_no) VALUES (?, ?)"));
+        assertNull(StatementType.of("SELECT id, mobile_no FROM user WHERE id > ? AND id < ? ORDER BY id LIMIT ?"));
+        assertNull(StatementType.of("insert into login_audit (user_id) values (?)"));
+        assertNull(StatementType.of(null));
+    }
+
+    /**
+     * Unit tests for logNormal() method.
+     */
+    @Test
+    void Should_MatchMedianAndP99_When_LogNormalLatenciesAreDrawn() {
+        LatencyDistribution distribution = LatencyDistribution.logNormal(Duration.ofMillis(20),
+                Duration.ofMillis(200));
+        Random random = new Random(42);
+        long[] latencies = new long[100_000];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = distribution.nextNanos(random);
+        }
+        Arrays.sort(latencies);
+        assertEquals(20, TimeUnit.NANOSECONDS.toMillis(latencies[latencies.length / 2]), 1);
+        assertEquals(200, TimeUnit.NANOSECONDS.toMillis(latencies[latencies.length * 99 / 100]), 10);
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
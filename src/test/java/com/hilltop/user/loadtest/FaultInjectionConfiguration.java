@@ -0,0 +1,38 @@
+package com.hilltop.user.loadtest;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Fault injection configuration
+ * Import into a test to route the data source through {@link FaultInjectingDataSourceInterceptor}. No fault is
+ * injected until the test asks {@link DatabaseFaults} for one.
+ */
+@TestConfiguration
+class FaultInjectionConfiguration {
+
+    @Bean
+    DatabaseFaults databaseFaults() {
+        return new DatabaseFaults();
+    }
+
+    @Bean
+    static BeanPostProcessor faultInjectingDataSourcePostProcessor(ObjectProvider<DatabaseFaults> databaseFaults) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource))
+                    return bean;
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setProxyTargetClass(true);
+                proxyFactory.addAdvice(new FaultInjectingDataSourceInterceptor(databaseFaults.getObject()));
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.hilltop.user.loadtest;
+
+import java.util.Random;
+
+/**
+ * Injected fault
+ * Latency added to a database call, then a failure with the given probability.
+ */
+final class InjectedFault {
+
+    static final InjectedFault NONE = new InjectedFault(LatencyDistribution.NONE, 0);
+
+    private final LatencyDistribution latency;
+    private final double errorRate;
+
+    private InjectedFault(LatencyDistribution latency, double errorRate) {
+        if (errorRate < 0 || errorRate > 1)
+            throw new IllegalArgumentException("Error rate must be between 0 and 1.");
+        this.latency = latency;
+        this.errorRate = errorRate;
+    }
+
+    static InjectedFault latency(LatencyDistribution latency) {
+        return new InjectedFault(latency, 0);
+    }
+
+    static InjectedFault errors(double errorRate) {
+        return new InjectedFault(LatencyDistribution.NONE, errorRate);
+    }
+
+    InjectedFault withErrorRate(double errorRate) {
+        return new InjectedFault(latency, errorRate);
+    }
+
+    long nextLatencyNanos(Random random) {
+        return latency.nextNanos(random);
+    }
+
+    boolean nextIsError(Random random) {
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+}
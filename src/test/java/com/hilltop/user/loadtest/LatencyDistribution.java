@@ -0,0 +1,51 @@
+package com.hilltop.user.loadtest;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Latency distribution
+ * Source of injected latencies. Database latency is usually log-normal: a stable median and a long tail.
+ */
+interface LatencyDistribution {
+
+    LatencyDistribution NONE = random -> 0;
+    // z-score of the 99th percentile of a standard normal distribution
+    double P99_Z_SCORE = 2.3263;
+
+    /**
+     * This method is used to draw the next latency.
+     *
+     * @param random random
+     * @return latency in nanos
+     */
+    long nextNanos(Random random);
+
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long rangeNanos = max.toNanos() - minNanos;
+        if (rangeNanos < 0)
+            throw new IllegalArgumentException("Max latency must not be less than min latency.");
+        return random -> minNanos + (long) (random.nextDouble() * rangeNanos);
+    }
+
+    /**
+     * This method is used to get a log-normal distribution fitted to a median and a 99th percentile.
+     *
+     * @param median median latency
+     * @param p99    99th percentile latency, not less than the median
+     * @return latency distribution
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        if (p99.compareTo(median) < 0 || median.isZero() || median.isNegative())
+            throw new IllegalArgumentException("p99 latency must not be less than a positive median latency.");
+        double mu = Math.log(median.toNanos());
+        double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / P99_Z_SCORE;
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+}
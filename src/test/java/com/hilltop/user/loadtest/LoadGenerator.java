@@ -0,0 +1,120 @@
+package com.hilltop.user.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator
+ * Runs closed-loop workers that pick operations according to the request mix. Every worker records into its own
+ * histograms, which are merged once the run is over.
+ */
+class LoadGenerator {
+
+    private final LoadTestSettings settings;
+    private volatile boolean measuring;
+    private volatile boolean running;
+
+    LoadGenerator(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Executes a single operation for one worker.
+     */
+    interface OperationExecutor {
+
+        /**
+         * This method is used to execute an operation.
+         *
+         * @param operation operation
+         * @return true when the response was the expected one.
+         */
+        boolean execute(Operation operation) throws Exception;
+    }
+
+    /**
+     * Creates per worker executors.
+     */
+    interface OperationExecutorFactory {
+
+        OperationExecutor create(int workerId) throws Exception;
+    }
+
+    /**
+     * This method is used to run the warm-up and the measured phase.
+     *
+     * @param executorFactory executor factory
+     * @return merged results of the measured phase and its length in nanos.
+     */
+    LoadReport run(OperationExecutorFactory executorFactory) throws Exception {
+        List<OperationExecutor> executors = new ArrayList<>();
+        for (int workerId = 0; workerId < settings.getConcurrency(); workerId++) {
+            executors.add(executorFactory.create(workerId));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(settings.getConcurrency());
+        try {
+            running = true;
+            List<Future<Map<Operation, OperationResult>>> futures = new ArrayList<>();
+            for (OperationExecutor executor : executors) {
+                futures.add(executorService.submit(worker(executor)));
+            }
+            TimeUnit.NANOSECONDS.sleep(settings.getWarmUp().toNanos());
+            measuring = true;
+            long startedAt = System.nanoTime();
+            TimeUnit.NANOSECONDS.sleep(settings.getDuration().toNanos());
+            measuring = false;
+            long elapsedNanos = System.nanoTime() - startedAt;
+            running = false;
+            Map<Operation, OperationResult> results = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, OperationResult>> future : futures) {
+                for (Map.Entry<Operation, OperationResult> entry : future.get().entrySet()) {
+                    results.computeIfAbsent(entry.getKey(), key -> new OperationResult()).add(entry.getValue());
+                }
+            }
+            return new LoadReport(results, elapsedNanos);
+        } finally {
+            running = false;
+            executorService.shutdownNow();
+        }
+    }
+
+    private Callable<Map<Operation, OperationResult>> worker(OperationExecutor executor) {
+        return () -> {
+            Map<Operation, OperationResult> results = new EnumMap<>(Operation.class);
+            for (Operation operation : settings.getMix().keySet()) {
+                results.put(operation, new OperationResult());
+            }
+            while (running) {
+                Operation operation = settings.nextOperation();
+                long startedAt = System.nanoTime();
+                boolean success = execute(executor, operation);
+                long latency = System.nanoTime() - startedAt;
+                if (!measuring)
+                    continue;
+                OperationResult result = results.get(operation);
+                result.recordLatency(latency);
+                if (!success)
+                    result.recordError();
+            }
+            return results;
+        };
+    }
+
+    private boolean execute(OperationExecutor executor, Operation operation) {
+        try {
+            return executor.execute(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.hilltop.user.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Load report
+ */
+class LoadReport {
+
+    private final Map<Operation, OperationResult> results;
+    private final long elapsedNanos;
+
+    LoadReport(Map<Operation, OperationResult> results, long elapsedNanos) {
+        this.results = results;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    Map<Operation, OperationResult> getResults() {
+        return results;
+    }
+
+    double getThroughputPerSecond(Operation operation) {
+        return results.get(operation).getThroughputPerSecond(elapsedNanos);
+    }
+
+    /**
+     * This method is used to print a summary and write the full latency distribution of each operation.
+     *
+     * @param out             summary output
+     * @param outputDirectory directory of the .hgrm files
+     */
+    void write(PrintStream out, Path outputDirectory) throws IOException {
+        Files.createDirectories(outputDirectory);
+        out.printf("%-16s %10s %8s %12s %10s %10s %10s%n",
+                "operation", "count", "errors", "throughput/s", "p50 ms", "p99 ms", "max ms");
+        for (Map.Entry<Operation, OperationResult> entry : results.entrySet()) {
+            OperationResult result = entry.getValue();
+            out.printf("%-16s %10d %8d %12.1f %10.2f %10.2f %10.2f%n", entry.getKey().getKey(), result.getCount(),
+                    result.getErrors(), result.getThroughputPerSecond(elapsedNanos),
+                    result.getHistogram().getValueAtPercentile(50.0) / 1000.0, result.getP99Millis(),
+                    result.getHistogram().getMaxValue() / 1000.0);
+            try (PrintStream histogramOut = new PrintStream(
+                    Files.newOutputStream(outputDirectory.resolve(entry.getKey().getKey() + ".hgrm")))) {
+                result.getHistogram().outputPercentileDistribution(histogramOut, 1000.0);
+            }
+        }
+    }
+
+    /**
+     * This method is used to convert the measured values to the baseline format.
+     *
+     * @return baseline properties
+     */
+    Properties toBaseline() {
+        Properties properties = new Properties();
+        for (Map.Entry<Operation, OperationResult> entry : results.entrySet()) {
+            String key = entry.getKey().getKey();
+            properties.setProperty(key + LoadTestBaseline.P99_MILLIS,
+                    String.format("%.2f", entry.getValue().getP99Millis()));
+            properties.setProperty(key + LoadTestBaseline.THROUGHPUT,
+                    String.format("%.1f", getThroughputPerSecond(entry.getKey())));
+        }
+        return properties;
+    }
+}
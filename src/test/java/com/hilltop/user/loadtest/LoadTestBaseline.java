@@ -0,0 +1,68 @@
+package com.hilltop.user.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Load test baseline
+ * Stored p99 latency and throughput per operation, see src/test/resources/load-test/baseline.properties.
+ */
+class LoadTestBaseline {
+
+    static final String P99_MILLIS = ".p99-millis";
+    static final String THROUGHPUT = ".throughput-per-second";
+    private static final String RESOURCE = "/load-test/baseline.properties";
+
+    private final Properties properties;
+
+    private LoadTestBaseline(Properties properties) {
+        this.properties = properties;
+    }
+
+    static LoadTestBaseline load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream inputStream = LoadTestBaseline.class.getResourceAsStream(RESOURCE)) {
+            if (inputStream == null)
+                throw new IllegalStateException("Missing load test baseline " + RESOURCE);
+            properties.load(inputStream);
+        }
+        return new LoadTestBaseline(properties);
+    }
+
+    /**
+     * This method is used to compare a report against the baseline.
+     *
+     * @param report    load report
+     * @param tolerance allowed relative regression
+     * @return regressions, empty when the report is within the baseline.
+     */
+    List<String> findRegressions(LoadReport report, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<Operation, OperationResult> entry : report.getResults().entrySet()) {
+            String key = entry.getKey().getKey();
+            OperationResult result = entry.getValue();
+            if (result.getErrors() > 0)
+                regressions.add(String.format("%s: %d unexpected responses", key, result.getErrors()));
+            double p99Limit = getRequired(key + P99_MILLIS) * (1 + tolerance);
+            if (result.getP99Millis() > p99Limit)
+                regressions.add(String.format("%s: p99 %.2f ms exceeds %.2f ms", key, result.getP99Millis(), p99Limit));
+            double throughputLimit = getRequired(key + THROUGHPUT) * (1 - tolerance);
+            double throughput = report.getThroughputPerSecond(entry.getKey());
+            if (throughput < throughputLimit)
+                regressions.add(String.format("%s: throughput %.1f/s is below %.1f/s", key, throughput,
+                        throughputLimit));
+        }
+        return regressions;
+    }
+
+    private double getRequired(String key) {
+        String value = properties.getProperty(key);
+        if (value == null)
+            throw new IllegalStateException("Missing load test baseline value " + key);
+        return Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hilltop.user.loadtest;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load test settings
+ * Read from system properties, e.g. -Dloadtest.concurrency=16 -Dloadtest.mix=sign-in:1,validate-token:9
+ */
+@Getter
+final class LoadTestSettings {
+
+    private static final String PREFIX = "loadtest.";
+
+    private final int concurrency;
+    private final Duration warmUp;
+    private final Duration duration;
+    private final Map<Operation, Integer> mix;
+    private final double tolerance;
+    private final boolean recordBaseline;
+    private final int totalWeight;
+
+    private LoadTestSettings(int concurrency, Duration warmUp, Duration duration, Map<Operation, Integer> mix,
+                             double tolerance, boolean recordBaseline) {
+        this.concurrency = concurrency;
+        this.warmUp = warmUp;
+        this.duration = duration;
+        this.mix = mix;
+        this.tolerance = tolerance;
+        this.recordBaseline = recordBaseline;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * This method is used to read settings from system properties.
+     *
+     * @return load test settings
+     */
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger(PREFIX + "concurrency", 8),
+                Duration.ofSeconds(Long.getLong(PREFIX + "warm-up-seconds", 5)),
+                Duration.ofSeconds(Long.getLong(PREFIX + "duration-seconds", 20)),
+                parseMix(System.getProperty(PREFIX + "mix", "register:1,sign-in:3,validate-token:6")),
+                Double.parseDouble(System.getProperty(PREFIX + "tolerance", "0.25")),
+                Boolean.getBoolean(PREFIX + "record-baseline"));
+    }
+
+    /**
+     * This method is used to get settings for a fixed scenario, without a baseline.
+     *
+     * @param concurrency number of workers
+     * @param warmUp      warm-up length
+     * @param duration    measured length
+     * @param mix         operation weights
+     * @return load test settings
+     */
+    static LoadTestSettings of(int concurrency, Duration warmUp, Duration duration, Map<Operation, Integer> mix) {
+        return new LoadTestSettings(concurrency, warmUp, duration, new EnumMap<>(mix), 0, false);
+    }
+
+    /**
+     * This method is used to pick the next operation according to the request mix.
+     *
+     * @return operation
+     */
+    Operation nextOperation() {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            value -= entry.getValue();
+            if (value < 0)
+                return entry.getKey();
+        }
+        throw new IllegalStateException("Request mix is empty.");
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0)
+                weights.put(Operation.fromKey(parts[0].trim()), weight);
+        }
+        if (weights.isEmpty())
+            throw new IllegalArgumentException("Request mix must contain at least one operation.");
+        return weights;
+    }
+}
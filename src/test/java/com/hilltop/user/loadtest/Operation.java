@@ -0,0 +1,28 @@
+package com.hilltop.user.loadtest;
+
+/**
+ * Load test operations
+ */
+enum Operation {
+    REGISTER("register"),
+    SIGN_IN("sign-in"),
+    VALIDATE_TOKEN("validate-token");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key))
+                return operation;
+        }
+        throw new IllegalArgumentException("Unknown load test operation: " + key);
+    }
+}
@@ -0,0 +1,50 @@
+package com.hilltop.user.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operation result
+ * Latencies are recorded in microseconds.
+ */
+class OperationResult {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram histogram = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private long errors;
+
+    void recordLatency(long nanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    void add(OperationResult other) {
+        histogram.add(other.histogram);
+        errors += other.errors;
+    }
+
+    Histogram getHistogram() {
+        return histogram;
+    }
+
+    long getErrors() {
+        return errors;
+    }
+
+    long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    double getP99Millis() {
+        return histogram.getValueAtPercentile(99.0) / 1000.0;
+    }
+
+    double getThroughputPerSecond(long elapsedNanos) {
+        return getCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+}
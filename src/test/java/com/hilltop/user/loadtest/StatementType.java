@@ -0,0 +1,35 @@
+package com.hilltop.user.loadtest;
+
+import java.util.regex.Pattern;
+
+/**
+ * Statement types faults can be injected into
+ * Matched on the SQL text, so both the JPA repository and the JDBC writers are covered.
+ */
+enum StatementType {
+    // findByMobileNo, existsByMobileNo, the registered mobile number lookups
+    SELECT_USER_BY_MOBILE_NO("^\\s*select\\b.*\\bfrom\\s+user\\b.*\\bwhere\\b.*\\bmobile_no\\b"),
+    INSERT_USER("^\\s*insert\\s+into\\s+user\\s*\\(");
+
+    private final Pattern pattern;
+
+    StatementType(String regex) {
+        this.pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    }
+
+    /**
+     * This method is used to get the type of a statement.
+     *
+     * @param sql sql
+     * @return statement type, null when faults can't be injected into the statement
+     */
+    static StatementType of(String sql) {
+        if (sql == null)
+            return null;
+        for (StatementType type : values()) {
+            if (type.pattern.matcher(sql).find())
+                return type;
+        }
+        return null;
+    }
+}
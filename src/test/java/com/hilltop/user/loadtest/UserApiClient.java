@@ -0,0 +1,95 @@
+package com.hilltop.user.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.user.domain.request.LoginRequestDto;
+import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.UserType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * User api client
+ * Blocking http client used by the load test workers.
+ */
+class UserApiClient {
+
+    static final String PASSWORD = "password";
+    private static final String JSON = "application/json";
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUri;
+
+    UserApiClient(String baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * This method is used to register a user.
+     *
+     * @param mobileNo mobileNo
+     * @return http response
+     */
+    HttpResponse<String> register(String mobileNo) throws IOException, InterruptedException {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("Load test user");
+        userRequestDto.setMobileNo(mobileNo);
+        userRequestDto.setPassword(PASSWORD);
+        userRequestDto.setUserType(UserType.USER);
+        return post("/api/v1/user", userRequestDto.toLogJson());
+    }
+
+    /**
+     * This method is used to sign in.
+     *
+     * @param mobileNo mobileNo
+     * @return http response
+     */
+    HttpResponse<String> signIn(String mobileNo) throws IOException, InterruptedException {
+        LoginRequestDto loginRequestDto = new LoginRequestDto();
+        loginRequestDto.setMobileNo(mobileNo);
+        loginRequestDto.setPassword(PASSWORD);
+        return post("/api/v1/auth/sign-in", loginRequestDto.toLogJson());
+    }
+
+    /**
+     * This method is used to sign in and read the token from the response.
+     *
+     * @param mobileNo mobileNo
+     * @return jwt token
+     */
+    String obtainToken(String mobileNo) throws IOException, InterruptedException {
+        HttpResponse<String> response = signIn(mobileNo);
+        if (response.statusCode() != 200)
+            throw new IllegalStateException("Sign in failed with status " + response.statusCode());
+        return objectMapper.readTree(response.body()).path("data").path("token").asText();
+    }
+
+    /**
+     * This method is used to validate a token.
+     *
+     * @param token token
+     * @return http status
+     */
+    int validateToken(String token) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUri + "/api/v1/auth/validate-token?token="
+                                + URLEncoder.encode(token, StandardCharsets.UTF_8)))
+                .header("Accept", JSON).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + path))
+                .header("Content-Type", JSON).header("Accept", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,69 @@
+package com.hilltop.user.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * User api load test
+ * Boots the application on an in-memory H2 database (MySQL mode) and drives registration, sign-in and
+ * validate-token over http. Run with: mvn -B verify -Pload-test
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"h2", "load-test"})
+class UserApiLoadTest {
+
+    private static final Path OUTPUT_DIRECTORY = Paths.get("target", "load-test");
+    private final AtomicLong mobileNoSequence = new AtomicLong();
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void Should_StayWithinBaseline_When_RequestMixIsApplied() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        String baseUri = "http://localhost:" + port + "/hill-top-user";
+
+        LoadReport report = new LoadGenerator(settings).run(workerId -> {
+            UserApiClient client = new UserApiClient(baseUri);
+            String mobileNo = nextMobileNo();
+            if (client.register(mobileNo).statusCode() != 201)
+                throw new IllegalStateException("Failed to register load test user " + mobileNo);
+            String token = client.obtainToken(mobileNo);
+            return operation -> {
+                switch (operation) {
+                    case REGISTER:
+                        return client.register(nextMobileNo()).statusCode() == 201;
+                    case SIGN_IN:
+                        return client.signIn(mobileNo).statusCode() == 200;
+                    case VALIDATE_TOKEN:
+                        return client.validateToken(token) == 200;
+                    default:
+                        throw new IllegalArgumentException("Unsupported operation " + operation);
+                }
+            };
+        });
+
+        report.write(System.out, OUTPUT_DIRECTORY);
+        if (settings.isRecordBaseline()) {
+            try (OutputStream outputStream = Files.newOutputStream(OUTPUT_DIRECTORY.resolve("baseline.properties"))) {
+                report.toBaseline().store(outputStream, "Measured with " + settings.getConcurrency() + " workers");
+            }
+        }
+        List<String> regressions = LoadTestBaseline.load().findRegressions(report, settings.getTolerance());
+        assertTrue(regressions.isEmpty(), () -> "Load test regressions: " + regressions);
+    }
+
+    private String nextMobileNo() {
+        return String.format("07%08d", mobileNoSequence.incrementAndGet());
+    }
+}
@@ -0,0 +1,108 @@
+package com.hilltop.user.repository;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.UserType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * User repository test
+ * Runs the flyway migrations on H2 (MySQL mode) and validates the entity mapping against them.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class UserRepositoryTest {
+
+    private static final String MOBILE_NO = "0779090909";
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Unit tests for findByMobileNo() method.
+     */
+    @Test
+    void Should_FindUser_When_MobileNoIsRegistered() {
+        userRepository.saveAndFlush(new User(getUserRequestDto()));
+        assertTrue(userRepository.findByMobileNo(MOBILE_NO).isPresent());
+    }
+
+    @Test
+    void Should_RejectDuplicate_When_MobileNoIsAlreadyRegistered() {
+        userRepository.saveAndFlush(new User(getUserRequestDto()));
+        User duplicate = new User(getUserRequestDto());
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(duplicate));
+    }
+
+    /**
+     * Unit tests for save() method.
+     */
+    @Test
+    void Should_PersistInsteadOfMerge_When_UserIsNew() {
+        User user = new User(getUserRequestDto());
+        // merge would return a managed copy
+        assertSame(user, userRepository.saveAndFlush(user));
+        assertEquals(0, user.getVersion());
+    }
+
+    @Test
+    void Should_IncrementVersionAndTouchUpdatedAt_When_UserIsUpdated() {
+        User user = userRepository.saveAndFlush(new User(getUserRequestDto()));
+        long version = user.getVersion();
+        Instant updatedAt = user.getUpdatedAt();
+        user.setName("Renamed");
+        User updated = userRepository.saveAndFlush(user);
+        assertEquals(version + 1, updated.getVersion());
+        assertFalse(updated.getUpdatedAt().isBefore(updatedAt));
+    }
+
+    /**
+     * Unit tests for findRegisteredMobileNos() method.
+     */
+    @Test
+    void Should_ReturnOnlyRegisteredMobileNos_When_BatchIsChecked() {
+        userRepository.saveAndFlush(new User(getUserRequestDto()));
+        assertEquals(List.of(MOBILE_NO), userRepository.findRegisteredMobileNos(List.of(MOBILE_NO, "0779090908")));
+    }
+
+    /**
+     * Unit tests for the schema migrations.
+     */
+    @Test
+    void Should_IndexMobileNo_When_MigrationsAreApplied() {
+        Integer indexes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.indexes "
+                + "WHERE table_name = 'user' AND index_name = 'uk_user_mobile_no'", Integer.class);
+        assertEquals(1, indexes);
+    }
+
+    /**
+     * This method is used to mock userRequestDto.
+     *
+     * @return userRequestDto
+     */
+    private UserRequestDto getUserRequestDto() {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("User");
+        userRequestDto.setMobileNo(MOBILE_NO);
+        userRequestDto.setPassword("password");
+        userRequestDto.setUserType(UserType.USER);
+        return userRequestDto;
+    }
+}
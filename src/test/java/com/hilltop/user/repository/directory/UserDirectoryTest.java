@@ -0,0 +1,154 @@
+package com.hilltop.user.repository.directory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * User directory test
+ * Unit tests for {@link UserDirectory} and {@link UserDirectorySnapshot}
+ */
+class UserDirectoryTest {
+
+    private static final String MOBILE_NO = "0779090909";
+    private static final long DATABASE_ID = 42L;
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Unit tests for put() method.
+     */
+    @Test
+    void Should_TellMobileNosApart_When_TheyDifferOnlyInLeadingZeros() {
+        UserDirectory userDirectory = new UserDirectory(16);
+        userDirectory.put("0779090909", null);
+        assertTrue(userDirectory.contains("0779090909"));
+        assertFalse(userDirectory.contains("779090909"));
+        assertFalse(userDirectory.contains("00779090909"));
+    }
+
+    @Test
+    void Should_IgnoreMobileNo_When_ItCantBePacked() {
+        UserDirectory userDirectory = new UserDirectory(16);
+        userDirectory.put("+94779090909", null);
+        userDirectory.put("0123456789012345", null);
+        assertEquals(0, userDirectory.size());
+        assertFalse(userDirectory.contains("+94779090909"));
+    }
+
+    @Test
+    void Should_KeepId_When_MobileNoIsAddedAgainWithoutId() {
+        UserDirectory userDirectory = new UserDirectory(16);
+        UUID id = UUID.randomUUID();
+        userDirectory.put(MOBILE_NO, null);
+        assertNull(userDirectory.getId(MOBILE_NO));
+        userDirectory.put(MOBILE_NO, id);
+        userDirectory.put(MOBILE_NO, null);
+        assertEquals(id, userDirectory.getId(MOBILE_NO));
+        assertEquals(1, userDirectory.size());
+    }
+
+    @Test
+    void Should_KeepEveryEntry_When_DirectoryGrows() {
+        UserDirectory userDirectory = new UserDirectory(16);
+        for (int i = 0; i < 10_000; i++) {
+            userDirectory.put(String.format("07%08d", i), new UUID(i + 1, i));
+        }
+        assertEquals(10_000, userDirectory.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(new UUID(i + 1, i), userDirectory.getId(String.format("07%08d", i)));
+        }
+    }
+
+    /**
+     * Unit tests for UserDirectorySnapshot.write() and read() methods.
+     */
+    @Test
+    void Should_RestoreEntries_When_SnapshotIsRead() throws IOException {
+        UserDirectory userDirectory = new UserDirectory(16);
+        UUID id = UUID.randomUUID();
+        userDirectory.put(MOBILE_NO, id);
+        userDirectory.put("0779090908", null);
+        Path file = tempDir.resolve("directory.snapshot");
+        UserDirectorySnapshot.write(file, userDirectory, 1_700_000_000_000L, DATABASE_ID);
+
+        UserDirectory restored = new UserDirectory(16);
+        assertEquals(1_700_000_000_000L, UserDirectorySnapshot.read(file, restored, DATABASE_ID,
+                storedId -> storedId.equals(id)));
+        assertEquals(2, restored.size());
+        assertEquals(id, restored.getId(MOBILE_NO));
+        assertTrue(restored.contains("0779090908"));
+        assertFalse(Files.exists(tempDir.resolve("directory.snapshot.tmp")));
+    }
+
+    @Test
+    void Should_ReturnMinusOne_When_SnapshotDoesntExist() throws IOException {
+        assertEquals(-1, UserDirectorySnapshot.read(tempDir.resolve("missing.snapshot"), new UserDirectory(16),
+                DATABASE_ID, storedId -> true));
+    }
+
+    @Test
+    void Should_ThrowIOException_When_SnapshotIsCorrupt() throws IOException {
+        UserDirectory userDirectory = new UserDirectory(16);
+        userDirectory.put(MOBILE_NO, UUID.randomUUID());
+        Path file = tempDir.resolve("directory.snapshot");
+        UserDirectorySnapshot.write(file, userDirectory, 1L, DATABASE_ID);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1}), 25);
+        }
+        UserDirectory restored = new UserDirectory(16);
+        assertThrows(IOException.class, () -> UserDirectorySnapshot.read(file, restored, DATABASE_ID,
+                storedId -> true));
+        assertEquals(0, restored.size());
+    }
+
+    @Test
+    void Should_ThrowIOException_When_SnapshotIsTruncated() throws IOException {
+        UserDirectory userDirectory = new UserDirectory(16);
+        userDirectory.put(MOBILE_NO, UUID.randomUUID());
+        Path file = tempDir.resolve("directory.snapshot");
+        UserDirectorySnapshot.write(file, userDirectory, 1L, DATABASE_ID);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> UserDirectorySnapshot.read(file, new UserDirectory(16),
+                DATABASE_ID, storedId -> true));
+    }
+
+    @Test
+    void Should_ThrowIOException_When_SnapshotIsOfAnotherDatabase() throws IOException {
+        UserDirectory userDirectory = new UserDirectory(16);
+        userDirectory.put(MOBILE_NO, UUID.randomUUID());
+        Path file = tempDir.resolve("directory.snapshot");
+        UserDirectorySnapshot.write(file, userDirectory, 1L, DATABASE_ID);
+        UserDirectory restored = new UserDirectory(16);
+        assertThrows(IOException.class, () -> UserDirectorySnapshot.read(file, restored, DATABASE_ID + 1,
+                storedId -> true));
+        assertEquals(0, restored.size());
+    }
+
+    @Test
+    void Should_ThrowIOException_When_LargestIdOfSnapshotIsNotStored() throws IOException {
+        UserDirectory userDirectory = new UserDirectory(16);
+        UUID smallerId = new UUID(1L, 1L);
+        UUID largestId = new UUID(-1L, 1L);
+        userDirectory.put(MOBILE_NO, smallerId);
+        userDirectory.put("0779090908", largestId);
+        Path file = tempDir.resolve("directory.snapshot");
+        UserDirectorySnapshot.write(file, userDirectory, 1L, DATABASE_ID);
+        UserDirectory restored = new UserDirectory(16);
+        assertThrows(IOException.class, () -> UserDirectorySnapshot.read(file, restored, DATABASE_ID,
+                storedId -> !storedId.equals(largestId)));
+        assertEquals(0, restored.size());
+        assertEquals(1L, UserDirectorySnapshot.read(file, restored, DATABASE_ID, largestId::equals));
+    }
+}
@@ -0,0 +1,123 @@
+package com.hilltop.user.repository.directory;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.repository.registration.UserBatchInserter;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import com.hilltop.user.util.UserIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * User directory warmer test
+ * Scans the flyway managed user table on H2 (MySQL mode), outside of a test transaction.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserDirectoryWarmerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @TempDir
+    Path tempDir;
+    private UserDirectoryProperties properties;
+    private UserBatchInserter userBatchInserter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserDirectoryProperties();
+        properties.setSnapshotFile(tempDir.resolve("directory.snapshot").toString());
+        properties.setScanBatchSize(2);
+        userBatchInserter = new UserBatchInserter(jdbcTemplate);
+        userBatchInserter.insert(0, List.of(getUser("0719400001"), getUser("0719400002"), getUser("0719400003")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user WHERE mobile_no LIKE '07194%'");
+    }
+
+    /**
+     * Unit tests for refresh() method.
+     */
+    @Test
+    void Should_ScanEveryUserAndWriteSnapshot_When_ThereIsNoSnapshot() {
+        UserDirectory userDirectory = new UserDirectory(16);
+        UserDirectoryWarmer warmer = getWarmer(userDirectory);
+        warmer.load();
+        warmer.refresh();
+        for (String mobileNo : List.of("0719400001", "0719400002", "0719400003")) {
+            assertNotNull(userDirectory.getId(mobileNo));
+        }
+        assertTrue(Files.exists(tempDir.resolve("directory.snapshot")));
+    }
+
+    @Test
+    void Should_ScanOnlyUsersCreatedSinceSnapshot_When_SnapshotIsLoaded() {
+        getWarmer(new UserDirectory(16)).refresh();
+        User old = getUser("0719400004");
+        old.setId(UserIdGenerator.lowerBound(Instant.parse("2024-01-01T00:00:00Z").toEpochMilli()));
+        userBatchInserter.insert(0, List.of(old, getUser("0719400005")));
+
+        UserDirectory userDirectory = new UserDirectory(16);
+        UserDirectoryWarmer warmer = getWarmer(userDirectory);
+        warmer.load();
+        assertTrue(userDirectory.contains("0719400001"));
+        assertFalse(userDirectory.contains("0719400005"));
+        warmer.refresh();
+        assertTrue(userDirectory.contains("0719400005"));
+        // created before the snapshot time as far as its id tells, left to the database
+        assertFalse(userDirectory.contains("0719400004"));
+    }
+
+    @Test
+    void Should_ScanEveryUser_When_SnapshotIsOfAnotherDatabase() throws Exception {
+        UserDirectory other = new UserDirectory(16);
+        other.put("0719400009", UserIdGenerator.generate(0));
+        UserDirectorySnapshot.write(Path.of(properties.getSnapshotFile()), other, System.currentTimeMillis(), 1L);
+
+        UserDirectory userDirectory = new UserDirectory(16);
+        UserDirectoryWarmer warmer = getWarmer(userDirectory);
+        warmer.load();
+        assertEquals(0, userDirectory.size());
+        warmer.refresh();
+        assertTrue(userDirectory.contains("0719400001"));
+        assertFalse(userDirectory.contains("0719400009"));
+    }
+
+    private UserDirectoryWarmer getWarmer(UserDirectory userDirectory) {
+        return new UserDirectoryWarmer(userDirectory,
+                new UserDirectoryScanner(jdbcTemplate, new ShardLayout(1, 0), properties.getScanBatchSize()),
+                properties);
+    }
+
+    private User getUser(String mobileNo) {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("User");
+        userRequestDto.setMobileNo(mobileNo);
+        userRequestDto.setPassword("password");
+        userRequestDto.setUserType(UserType.USER);
+        User user = new User(userRequestDto);
+        user.setUpdatedAt(Instant.now());
+        return user;
+    }
+}
@@ -0,0 +1,64 @@
+package com.hilltop.user.repository.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * In memory idempotency store test
+ * Unit tests for {@link  InMemoryIdempotencyStore}
+ */
+class InMemoryIdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    /**
+     * Unit tests for find() and save() methods.
+     */
+    @Test
+    void Should_ReturnStoredResponse_When_KeyIsNotExpired() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(10, clock);
+        StoredResponse response = getStoredResponse(201, Duration.ofMinutes(1));
+        store.save("key", response);
+        assertSame(response, store.find("key").orElseThrow());
+        assertTrue(store.find("other").isEmpty());
+    }
+
+    @Test
+    void Should_KeepFirstResponse_When_KeyIsSavedTwice() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(10, clock);
+        store.save("key", getStoredResponse(201, Duration.ofMinutes(1)));
+        store.save("key", getStoredResponse(400, Duration.ofMinutes(1)));
+        assertEquals(201, store.find("key").orElseThrow().getStatus());
+    }
+
+    @Test
+    void Should_DropResponse_When_KeyIsExpired() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(10, clock);
+        store.save("key", getStoredResponse(201, Duration.ZERO));
+        assertTrue(store.find("key").isEmpty());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void Should_EvictLeastRecentlyUsedKey_When_StoreIsFull() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2, clock);
+        store.save("first", getStoredResponse(201, Duration.ofMinutes(1)));
+        store.save("second", getStoredResponse(201, Duration.ofMinutes(1)));
+        store.find("first");
+        store.save("third", getStoredResponse(201, Duration.ofMinutes(1)));
+        assertTrue(store.find("first").isPresent());
+        assertTrue(store.find("second").isEmpty());
+        assertEquals(2, store.size());
+    }
+
+    private StoredResponse getStoredResponse(int status, Duration ttl) {
+        return new StoredResponse(status, "application/json", new byte[]{1}, NOW.plus(ttl), null);
+    }
+}
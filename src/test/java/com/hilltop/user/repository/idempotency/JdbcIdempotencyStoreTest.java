@@ -0,0 +1,81 @@
+package com.hilltop.user.repository.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Jdbc idempotency store test
+ * Runs against the flyway managed idempotency_key table on H2 (MySQL mode).
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class JdbcIdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+    private static final byte[] BODY = "{\"message\":\"Successfully added.\"}".getBytes(StandardCharsets.UTF_8);
+    private static final String HASH = "ab".repeat(32);
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private JdbcIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JdbcIdempotencyStore(jdbcTemplate, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    /**
+     * Unit tests for find() and save() methods.
+     */
+    @Test
+    void Should_ReturnStoredResponse_When_KeyIsNotExpired() {
+        store.save("POST /api/v1/user key",
+                new StoredResponse(201, "application/json", BODY, NOW.plusSeconds(60), HASH));
+        StoredResponse response = store.find("POST /api/v1/user key").orElseThrow();
+        assertEquals(201, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertArrayEquals(BODY, response.getBody());
+        assertEquals(NOW.plusSeconds(60), response.getExpiresAt());
+        assertEquals(HASH, response.getRequestHash());
+    }
+
+    @Test
+    void Should_KeepFirstResponse_When_KeyIsSavedTwice() {
+        store.save("key", new StoredResponse(201, "application/json", BODY, NOW.plusSeconds(60), HASH));
+        store.save("key", new StoredResponse(400, "application/json", BODY, NOW.plusSeconds(60), HASH));
+        assertEquals(201, store.find("key").orElseThrow().getStatus());
+    }
+
+    @Test
+    void Should_ReplaceResponse_When_StoredResponseIsExpired() {
+        store.save("key",
+                new StoredResponse(201, "application/json", BODY, NOW.minus(Duration.ofMinutes(1)), HASH));
+        assertTrue(store.find("key").isEmpty());
+        store.save("key", new StoredResponse(400, "application/json", BODY, NOW.plusSeconds(60), HASH));
+        assertEquals(400, store.find("key").orElseThrow().getStatus());
+    }
+
+    /**
+     * Unit tests for purgeExpired() method.
+     */
+    @Test
+    void Should_DeleteOnlyExpiredRows_When_Purged() {
+        store.save("expired", new StoredResponse(201, null, BODY, NOW.minusSeconds(1), HASH));
+        store.save("live", new StoredResponse(201, null, BODY, NOW.plusSeconds(60), HASH));
+        assertEquals(1, store.purgeExpired());
+        assertTrue(store.find("live").isPresent());
+    }
+}
@@ -0,0 +1,185 @@
+package com.hilltop.user.repository.login;
+
+import com.hilltop.user.repository.resilience.DatabaseUnavailableException;
+import com.hilltop.user.repository.resilience.ResilientRepositoryInterceptor;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login event recorder test
+ * Writes to the flyway managed user and login_audit tables on H2 (MySQL mode), outside of a test transaction.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoginEventRecorderTest {
+
+    private static final String MOBILE_NO = "0719200001";
+    private static final String OTHER_MOBILE_NO = "0719200002";
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        insertUser(MOBILE_NO);
+        insertUser(OTHER_MOBILE_NO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM login_audit WHERE mobile_no LIKE '07192%'");
+        jdbcTemplate.update("DELETE FROM user WHERE mobile_no LIKE '07192%'");
+    }
+
+    /**
+     * Unit tests for record() and flush() methods.
+     */
+    @Test
+    void Should_CoalesceLastLoginAndWriteEveryAuditRow_When_EventsAreFlushed() {
+        LoginEventProperties properties = new LoginEventProperties();
+        properties.setBatchSize(2);
+        LoginEventRecorder recorder = getRecorder(new LoginEventWriter(jdbcTemplate), properties);
+        recorder.record(MOBILE_NO, "10.0.0.1");
+        recorder.record(OTHER_MOBILE_NO, "10.0.0.2");
+        recorder.record(MOBILE_NO, "10.0.0.3");
+        Instant afterLastLogin = Instant.now();
+        recorder.flush();
+
+        assertEquals(2, countAudits(MOBILE_NO));
+        assertEquals(1, countAudits(OTHER_MOBILE_NO));
+        Instant lastLogin = getLastLogin(MOBILE_NO);
+        assertNotNull(lastLogin);
+        // DATETIME(3) rounds to the nearest millisecond
+        assertFalse(lastLogin.isAfter(afterLastLogin.plusMillis(1)));
+        assertEquals(lastLogin, jdbcTemplate.queryForObject("SELECT MAX(logged_in_at) FROM login_audit "
+                + "WHERE mobile_no = ?", Timestamp.class, MOBILE_NO).toInstant());
+        assertNotNull(getLastLogin(OTHER_MOBILE_NO));
+    }
+
+    @Test
+    void Should_KeepLaterLastLogin_When_OlderLoginIsFlushed() {
+        Instant later = Instant.parse("2030-01-01T00:00:00Z");
+        jdbcTemplate.update("UPDATE user SET last_login_at = ? WHERE mobile_no = ?", Timestamp.from(later),
+                MOBILE_NO);
+        LoginEventRecorder recorder = getRecorder(new LoginEventWriter(jdbcTemplate), new LoginEventProperties());
+        recorder.record(MOBILE_NO, "10.0.0.1");
+        recorder.flush();
+        assertEquals(later, getLastLogin(MOBILE_NO));
+        assertEquals(1, countAudits(MOBILE_NO));
+    }
+
+    @Test
+    void Should_DropEvent_When_BufferIsFull() {
+        LoginEventProperties properties = new LoginEventProperties();
+        properties.setBufferCapacity(1);
+        LoginEventRecorder recorder = getRecorder(new LoginEventWriter(jdbcTemplate), properties);
+        recorder.record(MOBILE_NO, "10.0.0.1");
+        recorder.record(OTHER_MOBILE_NO, "10.0.0.2");
+        recorder.flush();
+        assertEquals(1, countAudits(MOBILE_NO));
+        assertEquals(0, countAudits(OTHER_MOBILE_NO));
+        // room again after the flush
+        recorder.record(OTHER_MOBILE_NO, "10.0.0.2");
+        recorder.flush();
+        assertEquals(1, countAudits(OTHER_MOBILE_NO));
+    }
+
+    @Test
+    void Should_WriteAuditRows_When_LastLoginUpdateFails() {
+        LoginEventWriter loginEventWriter = mock(LoginEventWriter.class);
+        doThrow(new DataAccessResourceFailureException("Failed."))
+                .when(loginEventWriter).updateLastLogins(anyInt(), anyMap());
+        LoginEventRecorder recorder = getRecorder(loginEventWriter, new LoginEventProperties());
+        recorder.record(MOBILE_NO, "10.0.0.1");
+        assertDoesNotThrow(recorder::flush);
+        verify(loginEventWriter).insertAudits(anyInt(), anyList());
+    }
+
+    /**
+     * Unit tests for destroy() method.
+     */
+    @Test
+    void Should_SkipRemainingWrites_When_DatabaseIsUnavailable() {
+        ResilientRepositoryInterceptor interceptor = mock(ResilientRepositoryInterceptor.class);
+        when(interceptor.execute(eq(true), any())).thenThrow(new DatabaseUnavailableException("Circuit is open."));
+        LoginEventRecorder recorder = getRecorder(new LoginEventWriter(jdbcTemplate, interceptor),
+                new LoginEventProperties());
+        recorder.record(MOBILE_NO, "10.0.0.1");
+        assertDoesNotThrow(recorder::flush);
+        verify(interceptor, times(1)).execute(eq(true), any());
+        assertEquals(0, countAudits(MOBILE_NO));
+        assertNull(getLastLogin(MOBILE_NO));
+    }
+
+    @Test
+    void Should_WriteBufferedEvents_When_RecorderIsStopped() throws Exception {
+        LoginEventProperties properties = new LoginEventProperties();
+        properties.setFlushIntervalMillis(60_000);
+        LoginEventRecorder recorder = getRecorder(new LoginEventWriter(jdbcTemplate), properties);
+        recorder.afterPropertiesSet();
+        recorder.record(MOBILE_NO, null);
+        recorder.destroy();
+        assertEquals(1, countAudits(MOBILE_NO));
+        assertNotNull(getLastLogin(MOBILE_NO));
+    }
+
+    @Test
+    void Should_NotWrite_When_NothingWasRecorded() {
+        LoginEventWriter loginEventWriter = mock(LoginEventWriter.class);
+        getRecorder(loginEventWriter, new LoginEventProperties()).flush();
+        verify(loginEventWriter, never()).updateLastLogins(anyInt(), anyMap());
+    }
+
+    private LoginEventRecorder getRecorder(LoginEventWriter loginEventWriter, LoginEventProperties properties) {
+        return new LoginEventRecorder(loginEventWriter, new ShardLayout(1, 0), properties);
+    }
+
+    private void insertUser(String mobileNo) {
+        UUID id = UUID.randomUUID();
+        byte[] idBytes = ByteBuffer.allocate(16).putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits()).array();
+        jdbcTemplate.update("INSERT INTO user (id, name, mobile_no, password, user_type, version, updated_at) "
+                + "VALUES (?, 'User', ?, 'password', 'USER', 0, ?)", idBytes, mobileNo, Timestamp.from(Instant.now()));
+    }
+
+    private int countAudits(String mobileNo) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM login_audit WHERE mobile_no = ?",
+                Integer.class, mobileNo);
+        return count == null ? 0 : count;
+    }
+
+    private Instant getLastLogin(String mobileNo) {
+        Timestamp lastLogin = jdbcTemplate.queryForObject("SELECT last_login_at FROM user WHERE mobile_no = ?",
+                Timestamp.class, mobileNo);
+        return lastLogin == null ? null : lastLogin.toInstant();
+    }
+}
@@ -0,0 +1,246 @@
+package com.hilltop.user.repository.registration;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.RegistrationStatus;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.exception.RegistrationQueueFullException;
+import com.hilltop.user.repository.resilience.DatabaseUnavailableException;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Write-behind user queue test
+ * Writes to the flyway managed user table on H2 (MySQL mode). Rows are committed by the writer thread, so tests run
+ * outside of a test transaction and clean up after themselves.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteBehindUserQueueTest {
+
+    private static final String MOBILE_NO_PREFIX = "071900000";
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @TempDir
+    private Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user WHERE mobile_no LIKE ?", MOBILE_NO_PREFIX + "%");
+    }
+
+    /**
+     * Unit tests for enqueue() and destroy() methods.
+     */
+    @Test
+    void Should_WriteQueuedUsers_When_QueueIsStopped() throws Exception {
+        WriteBehindUserQueue queue = getQueue(new UserBatchInserter(jdbcTemplate), getProperties());
+        queue.afterPropertiesSet();
+        List<User> users = List.of(getUser(1), getUser(2), getUser(3));
+        for (User user : users) {
+            assertTrue(queue.reserve(user.getMobileNo()));
+            queue.enqueue(user);
+        }
+        assertFalse(queue.reserve(users.get(0).getMobileNo()));
+        queue.destroy();
+        assertEquals(3, countUsers());
+        for (User user : users) {
+            assertEquals(RegistrationStatus.COMPLETED, queue.getStatus(user.getId()).orElseThrow());
+            assertTrue(queue.reserve(user.getMobileNo()));
+        }
+    }
+
+    @Test
+    void Should_RejectUser_When_QueueIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UserBatchInserter userBatchInserter = mock(UserBatchInserter.class);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(userBatchInserter).insert(anyInt(), any());
+        WriteBehindProperties properties = getProperties();
+        properties.setQueueCapacity(1);
+        WriteBehindUserQueue queue = getQueue(userBatchInserter, properties);
+        queue.afterPropertiesSet();
+        User first = getUser(1);
+        User second = getUser(2);
+        User third = getUser(3);
+        queue.enqueue(first);
+        writing.await();
+        queue.enqueue(second);
+        assertThrows(RegistrationQueueFullException.class, () -> queue.enqueue(third));
+        assertTrue(queue.getStatus(third.getId()).isEmpty());
+        assertEquals(RegistrationStatus.PENDING, queue.getStatus(second.getId()).orElseThrow());
+        release.countDown();
+        queue.destroy();
+        assertEquals(RegistrationStatus.COMPLETED, queue.getStatus(second.getId()).orElseThrow());
+    }
+
+    @Test
+    void Should_DeadLetterBatchAndReleaseMobileNos_When_WriterFailsUnexpectedly() throws Exception {
+        UserBatchInserter userBatchInserter = mock(UserBatchInserter.class);
+        doThrow(new IllegalStateException("Unexpected.")).when(userBatchInserter).insert(anyInt(), any());
+        WriteBehindUserQueue queue = getQueue(userBatchInserter, getProperties());
+        queue.afterPropertiesSet();
+        User user = getUser(1);
+        assertTrue(queue.reserve(user.getMobileNo()));
+        queue.enqueue(user);
+        queue.destroy();
+        assertEquals(RegistrationStatus.FAILED, queue.getStatus(user.getId()).orElseThrow());
+        assertTrue(queue.reserve(user.getMobileNo()));
+        assertTrue(Files.readString(tempDir.resolve("dead-letters.jsonl")).contains(user.getExternalId()));
+    }
+
+    @Test
+    void Should_DeadLetterQueuedUsers_When_WriterDoesntStopInTime() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UserBatchInserter userBatchInserter = mock(UserBatchInserter.class);
+        doAnswer(invocation -> {
+            writing.countDown();
+            while (true) {
+                try {
+                    release.await();
+                    return null;
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        }).when(userBatchInserter).insert(anyInt(), any());
+        WriteBehindProperties properties = getProperties();
+        properties.setShutdownTimeoutMillis(100);
+        WriteBehindUserQueue queue = getQueue(userBatchInserter, properties);
+        queue.afterPropertiesSet();
+        User first = getUser(1);
+        User second = getUser(2);
+        queue.enqueue(first);
+        writing.await();
+        queue.enqueue(second);
+        queue.destroy();
+        assertEquals(0, interrupted.getCount());
+        verify(userBatchInserter, times(1)).insert(anyInt(), any());
+        assertEquals(RegistrationStatus.PENDING, queue.getStatus(first.getId()).orElseThrow());
+        assertEquals(RegistrationStatus.FAILED, queue.getStatus(second.getId()).orElseThrow());
+        release.countDown();
+    }
+
+    @Test
+    void Should_RejectUser_When_QueueIsNotRunning() {
+        WriteBehindUserQueue queue = getQueue(new UserBatchInserter(jdbcTemplate), getProperties());
+        assertThrows(RegistrationQueueFullException.class, () -> queue.enqueue(getUser(1)));
+    }
+
+    /**
+     * Unit tests for flush() method.
+     */
+    @Test
+    void Should_RejectOnlyDuplicate_When_BatchViolatesUniqueMobileNo() {
+        UserBatchInserter userBatchInserter = new UserBatchInserter(jdbcTemplate);
+        WriteBehindUserQueue queue = getQueue(userBatchInserter, getProperties());
+        userBatchInserter.insert(0, List.of(getUser(1)));
+        User duplicate = getUser(1);
+        User other = getUser(2);
+        queue.flush(List.of(duplicate, other));
+        assertEquals(RegistrationStatus.REJECTED, queue.getStatus(duplicate.getId()).orElseThrow());
+        assertEquals(RegistrationStatus.COMPLETED, queue.getStatus(other.getId()).orElseThrow());
+        assertEquals(2, countUsers());
+    }
+
+    @Test
+    void Should_DeadLetterUser_When_WritesKeepFailing() throws Exception {
+        UserBatchInserter userBatchInserter = mock(UserBatchInserter.class);
+        doThrow(new DataAccessResourceFailureException("Connection refused."))
+                .when(userBatchInserter).insert(anyInt(), any());
+        doThrow(new DataAccessResourceFailureException("Connection refused."))
+                .when(userBatchInserter).exists(anyInt(), any());
+        WriteBehindUserQueue queue = getQueue(userBatchInserter, getProperties());
+        User user = getUser(1);
+        queue.flush(List.of(user));
+        assertEquals(RegistrationStatus.FAILED, queue.getStatus(user.getId()).orElseThrow());
+        String deadLetters = Files.readString(tempDir.resolve("dead-letters.jsonl"));
+        assertTrue(deadLetters.contains(user.getExternalId()));
+        assertTrue(deadLetters.contains(user.getPassword()));
+    }
+
+    @Test
+    void Should_DeadLetterBatchWithoutRetries_When_DatabaseIsUnavailable() throws Exception {
+        UserBatchInserter userBatchInserter = mock(UserBatchInserter.class);
+        doThrow(new DatabaseUnavailableException("Database circuit is open."))
+                .when(userBatchInserter).insert(anyInt(), any());
+        WriteBehindUserQueue queue = getQueue(userBatchInserter, getProperties());
+        List<User> users = List.of(getUser(1), getUser(2), getUser(3));
+        queue.flush(users);
+        verify(userBatchInserter, times(1)).insert(anyInt(), any());
+        verify(userBatchInserter, never()).exists(anyInt(), any());
+        String deadLetters = Files.readString(tempDir.resolve("dead-letters.jsonl"));
+        for (User user : users) {
+            assertEquals(RegistrationStatus.FAILED, queue.getStatus(user.getId()).orElseThrow());
+            assertTrue(deadLetters.contains(user.getExternalId()));
+        }
+    }
+
+    private WriteBehindUserQueue getQueue(UserBatchInserter userBatchInserter, WriteBehindProperties properties) {
+        return new WriteBehindUserQueue(userBatchInserter, new ShardLayout(1, 0), properties);
+    }
+
+    private WriteBehindProperties getProperties() {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setMaxAttempts(2);
+        properties.setRetryBackoffMillis(1);
+        properties.setDeadLetterFile(tempDir.resolve("dead-letters.jsonl").toString());
+        return properties;
+    }
+
+    private Integer countUsers() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE mobile_no LIKE ?", Integer.class,
+                MOBILE_NO_PREFIX + "%");
+    }
+
+    /**
+     * This method is used to mock user.
+     *
+     * @param number last digit of the mobile number
+     * @return user
+     */
+    private User getUser(int number) {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("User");
+        userRequestDto.setMobileNo(MOBILE_NO_PREFIX + number);
+        userRequestDto.setPassword("password");
+        userRequestDto.setUserType(UserType.USER);
+        User user = new User(userRequestDto);
+        user.setUpdatedAt(Instant.now());
+        return user;
+    }
+}
@@ -0,0 +1,164 @@
+package com.hilltop.user.repository.resilience;
+
+import com.hilltop.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+/**
+ * Resilient repository interceptor test
+ * Unit tests for {@link  ResilientRepositoryInterceptor}
+ */
+class ResilientRepositoryInterceptorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DatabaseResilienceProperties properties = new DatabaseResilienceProperties();
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private ResilientRepositoryInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        properties.getRead().setMaxConcurrentCalls(1);
+        properties.getRead().setMaxWait(Duration.ZERO);
+        properties.getRead().setTimeout(Duration.ofMillis(1500));
+        properties.getCircuitBreaker().setSlidingWindowSize(2);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(2);
+        interceptor = new ResilientRepositoryInterceptor(properties, transactionManager, meterRegistry);
+    }
+
+    /**
+     * Unit tests for invoke() method.
+     */
+    @Test
+    void Should_RunCallInTransactionWithTimeout_When_CallIsRead() throws Throwable {
+        MethodInvocation invocation = getInvocation("findByMobileNo");
+        when(invocation.proceed()).thenReturn(Optional.empty());
+        assertEquals(Optional.empty(), interceptor.invoke(invocation));
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(2, definition.getValue().getTimeout());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void Should_UseWriteTimeout_When_CallIsSave() throws Throwable {
+        interceptor.invoke(getInvocation("save"));
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(5, definition.getValue().getTimeout());
+        assertFalse(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void Should_RejectRead_When_ReadBulkheadIsFull() throws Throwable {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MethodInvocation slowInvocation = getInvocation("findByMobileNo");
+        when(slowInvocation.proceed()).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> slowCall = executor.submit(() -> {
+                try {
+                    return interceptor.invoke(slowInvocation);
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            });
+            running.await();
+            assertThrows(DatabaseUnavailableException.class, () -> interceptor.invoke(getInvocation("findById")));
+            // writes have a bulkhead of their own
+            assertDoesNotThrow(() -> interceptor.invoke(getInvocation("save")));
+            release.countDown();
+            slowCall.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, meterRegistry.get("user.database.bulkhead.rejections").tag("bulkhead", "read")
+                .counter().count());
+        assertEquals(0, meterRegistry.get("user.database.bulkhead.concurrent-calls").tag("bulkhead", "read")
+                .gauge().value());
+    }
+
+    @Test
+    void Should_FailFast_When_DatabaseKeepsFailing() throws Throwable {
+        MethodInvocation invocation = getInvocation("findByMobileNo");
+        when(invocation.proceed()).thenThrow(new QueryTimeoutException("Timed out."));
+        assertThrows(QueryTimeoutException.class, () -> interceptor.invoke(invocation));
+        assertThrows(QueryTimeoutException.class, () -> interceptor.invoke(invocation));
+
+        MethodInvocation rejectedInvocation = getInvocation("findByMobileNo");
+        assertThrows(DatabaseUnavailableException.class, () -> interceptor.invoke(rejectedInvocation));
+        verify(rejectedInvocation, never()).proceed();
+        assertEquals(1, meterRegistry.get("user.database.circuit-breaker.rejections").counter().count());
+        assertEquals(1, meterRegistry.get("user.database.circuit-breaker.state").gauge().value());
+        assertEquals(1, meterRegistry.get("user.database.circuit-breaker.transitions")
+                .tag("from", "CLOSED").tag("to", "OPEN").counter().count());
+    }
+
+    @Test
+    void Should_NotCountFailure_When_CallViolatesConstraint() throws Throwable {
+        MethodInvocation invocation = getInvocation("save");
+        when(invocation.proceed()).thenThrow(new DataIntegrityViolationException("Duplicate."));
+        for (int i = 0; i < 3; i++) {
+            assertThrows(DataIntegrityViolationException.class, () -> interceptor.invoke(invocation));
+        }
+        verify(invocation, times(3)).proceed();
+        assertEquals(0, meterRegistry.get("user.database.circuit-breaker.state").gauge().value());
+    }
+
+    /**
+     * Unit tests for execute() method.
+     */
+    @Test
+    void Should_FailGuardedCallFast_When_RepositoryCallsOpenedCircuit() throws Throwable {
+        MethodInvocation invocation = getInvocation("save");
+        when(invocation.proceed()).thenThrow(new QueryTimeoutException("Timed out."));
+        assertThrows(QueryTimeoutException.class, () -> interceptor.invoke(invocation));
+        assertThrows(QueryTimeoutException.class, () -> interceptor.invoke(invocation));
+
+        assertThrows(DatabaseUnavailableException.class, () -> interceptor.execute(true, () -> {
+            fail("Called the database while the circuit is open.");
+            return null;
+        }));
+        assertEquals(1, meterRegistry.get("user.database.circuit-breaker.rejections").counter().count());
+    }
+
+    private static MethodInvocation getInvocation(String methodName) throws NoSuchMethodException {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        Class<?> parameterType = methodName.equals("findByMobileNo") ? String.class : Object.class;
+        when(invocation.getMethod()).thenReturn(UserRepository.class.getMethod(methodName, parameterType));
+        return invocation;
+    }
+}
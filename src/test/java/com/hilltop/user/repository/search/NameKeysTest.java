@@ -0,0 +1,41 @@
+package com.hilltop.user.repository.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Name keys test
+ * Unit tests for {@link  NameKeys}
+ */
+class NameKeysTest {
+
+    /**
+     * Unit tests for of() method.
+     */
+    @Test
+    void Should_RemoveCaseAccentsAndRepeatedSpaces_When_NameIsNormalised() {
+        // keys are persisted in user.name_key, the normalisation must never change.
+        assertEquals("emile zola", NameKeys.of("  ÉMILE \t Zola "));
+        assertEquals("fiona", NameKeys.of("ﬁona"));
+        assertEquals("", NameKeys.of("́ "));
+    }
+
+    @Test
+    void Should_NotSplitSurrogatePair_When_KeyIsTruncated() {
+        String key = NameKeys.of("a".repeat(NameKeys.MAX_LENGTH - 1) + "𠀀");
+        assertEquals(NameKeys.MAX_LENGTH - 1, key.length());
+    }
+
+    /**
+     * Unit tests for compare() method.
+     */
+    @Test
+    void Should_CompareByCodePoint_When_KeysContainSupplementaryCharacters() {
+        // U+20000 sorts after U+FF21 by code point, before it in UTF-16
+        assertTrue(NameKeys.compare("𠀀", "ａ") > 0);
+        assertTrue(NameKeys.compare("ab", "abc") < 0);
+        assertEquals(0, NameKeys.compare("abc", "abc"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.hilltop.user.repository.search;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.repository.registration.UserBatchInserter;
+import com.hilltop.user.repository.sharding.ShardLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * User search repository test
+ * Searches the flyway managed user table on H2 (MySQL mode), outside of a test transaction.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSearchRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private UserSearchRepository userSearchRepository;
+
+    @BeforeEach
+    void setUp() {
+        userSearchRepository = new UserSearchRepository(jdbcTemplate, new ShardLayout(1, 0));
+        List<User> users = new ArrayList<>();
+        users.add(getUser("Émile  Zola", "0719300001"));
+        users.add(getUser("emily Brown", "0719300002"));
+        users.add(getUser("Emma Stone", "0719300003"));
+        users.add(getUser("Noah Emerson", "0719300004"));
+        users.add(getUser("Em_ily", "0719300005"));
+        new UserBatchInserter(jdbcTemplate).insert(0, users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user WHERE mobile_no LIKE '07193%'");
+    }
+
+    /**
+     * Unit tests for findByNamePrefix() method.
+     */
+    @Test
+    void Should_FindUsersInNameKeyOrder_When_NamePrefixMatches() {
+        UserSearchPage page = userSearchRepository.findByNamePrefix("EM", 10, null);
+        assertEquals(List.of("Em_ily", "Émile  Zola", "emily Brown", "Emma Stone"), getNames(page));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void Should_IgnoreCaseAccentsAndRepeatedSpaces_When_NamePrefixIsNormalised() {
+        assertEquals(List.of("Émile  Zola"), getNames(userSearchRepository.findByNamePrefix(" EMILE   z", 10, null)));
+    }
+
+    @Test
+    void Should_MatchWildcardsLiterally_When_NamePrefixContainsThem() {
+        assertEquals(List.of("Em_ily"), getNames(userSearchRepository.findByNamePrefix("em_", 10, null)));
+        assertTrue(userSearchRepository.findByNamePrefix("%", 10, null).getUsers().isEmpty());
+    }
+
+    @Test
+    void Should_ContinueAfterCursor_When_NextPageIsRequested() {
+        UserSearchPage first = userSearchRepository.findByNamePrefix("em", 3, null);
+        assertEquals(List.of("Em_ily", "Émile  Zola", "emily Brown"), getNames(first));
+        assertNotNull(first.getNextCursor());
+
+        UserSearchCursor cursor = UserSearchCursor.decode(first.getNextCursor().encode());
+        UserSearchPage second = userSearchRepository.findByNamePrefix("em", 3, cursor);
+        assertEquals(List.of("Emma Stone"), getNames(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void Should_ReturnUserOnce_When_FoundOnSeveralShards() {
+        // sharding is disabled, so each of the two shards is the same database
+        UserSearchRepository shardedSearchRepository = new UserSearchRepository(jdbcTemplate, new ShardLayout(2, 0));
+        UserSearchPage first = shardedSearchRepository.findByNamePrefix("em", 2, null);
+        assertEquals(List.of("Em_ily", "Émile  Zola"), getNames(first));
+        UserSearchPage second = shardedSearchRepository.findByNamePrefix("em", 2, first.getNextCursor());
+        assertEquals(List.of("emily Brown", "Emma Stone"), getNames(second));
+    }
+
+    @Test
+    void Should_DeriveNameKey_When_UserIsCreated() {
+        UserSearchPage page = userSearchRepository.findByNamePrefix("noah", 10, null);
+        assertEquals(1, page.getUsers().size());
+        User user = page.getUsers().get(0);
+        assertEquals("0719300004", user.getMobileNo());
+        assertEquals(UserType.USER, user.getUserType());
+    }
+
+    private User getUser(String name, String mobileNo) {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName(name);
+        userRequestDto.setMobileNo(mobileNo);
+        userRequestDto.setPassword("password");
+        userRequestDto.setUserType(UserType.USER);
+        User user = new User(userRequestDto);
+        user.setUpdatedAt(Instant.now());
+        return user;
+    }
+
+    private List<String> getNames(UserSearchPage page) {
+        return page.getUsers().stream().map(User::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,35 @@
+package com.hilltop.user.repository.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shard keys test
+ * Unit tests for {@link  ShardKeys}
+ */
+class ShardKeysTest {
+
+    /**
+     * Unit tests for bucketOf() method.
+     */
+    @Test
+    void Should_ReturnStableBucket_When_MobileNoIsHashed() {
+        // buckets are persisted in user ids, the hash must never change.
+        assertEquals(ShardKeys.bucketOf("0779090909"), ShardKeys.bucketOf(new String("0779090909")));
+        assertEquals(2687, ShardKeys.bucketOf("0779090909"));
+    }
+
+    @Test
+    void Should_SpreadSequentialMobileNos_When_Bucketed() {
+        ShardLayout shardLayout = new ShardLayout(4, 0);
+        int[] counts = new int[4];
+        for (int i = 0; i < 40_000; i++) {
+            counts[shardLayout.shardOf(String.format("07%08d", i))]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 9_000 && count < 11_000, "Uneven shard: " + count);
+        }
+    }
+}
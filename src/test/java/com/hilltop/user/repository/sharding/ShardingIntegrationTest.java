@@ -0,0 +1,229 @@
+package com.hilltop.user.repository.sharding;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.repository.UserRepository;
+import com.hilltop.user.repository.resilience.ResilientRepositoryInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sharding integration test
+ * Three H2 shards, resharding from two shards in progress.
+ */
+@SpringBootTest(properties = {
+        "user.sharding.enabled=true",
+        "user.sharding.previous-shard-count=2",
+        "user.sharding.shards[0].url=jdbc:h2:mem:shard0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "user.sharding.shards[1].url=jdbc:h2:mem:shard1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "user.sharding.shards[2].url=jdbc:h2:mem:shard2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("h2")
+class ShardingIntegrationTest {
+
+    private static final int USERS = 30;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+    @Autowired
+    private ShardLayout shardLayout;
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @BeforeEach
+    void setUp() {
+        for (DataSource shard : shardRoutingDataSource.getShards()) {
+            new JdbcTemplate(shard).update("DELETE FROM user");
+        }
+    }
+
+    @Test
+    void Should_SelectShardBeforeGuardedTransaction_When_RepositoryIsCalled() {
+        Advisor[] advisors = ((Advised) userRepository).getAdvisors();
+        assertTrue(advisors[0].getAdvice() instanceof ShardingRepositoryInterceptor);
+        assertTrue(advisors[1].getAdvice() instanceof ResilientRepositoryInterceptor);
+    }
+
+    @Test
+    void Should_StoreUsersOnTheirShard_When_UsersAreSaved() {
+        List<User> users = saveUsers();
+        for (User user : users) {
+            int shard = shardLayout.shardOf(user.getMobileNo());
+            assertEquals(1, countByMobileNo(shard, user.getMobileNo()));
+            assertEquals(shard, shardLayout.shardOfBucket(ShardKeys.bucketOf(user.getId())));
+        }
+        assertTrue(countRows(0) > 0 && countRows(1) > 0 && countRows(2) > 0);
+    }
+
+    @Test
+    void Should_FindUsersByMobileNoAndId_When_UsersAreSharded() {
+        for (User user : saveUsers()) {
+            assertEquals(user.getId(), userRepository.findByMobileNo(user.getMobileNo()).orElseThrow().getId());
+            assertTrue(userRepository.findById(user.getId()).isPresent());
+        }
+        assertFalse(userRepository.findById(UUID.randomUUID()).isPresent());
+    }
+
+    @Test
+    void Should_FanOut_When_QueryHasNoShardKey() {
+        saveUsers();
+        assertEquals(USERS, userRepository.count());
+        assertEquals(USERS, userRepository.findAll().size());
+    }
+
+    @Test
+    void Should_MergePagesInSortOrder_When_PagedQueryFansOut() {
+        List<String> mobileNos = saveUsers().stream().map(User::getMobileNo).sorted().collect(Collectors.toList());
+        List<String> paged = new ArrayList<>();
+        Pageable pageable = PageRequest.of(0, 7, Sort.by("mobileNo"));
+        Page<User> page;
+        do {
+            page = userRepository.findAll(pageable);
+            assertEquals(USERS, page.getTotalElements());
+            page.forEach(user -> paged.add(user.getMobileNo()));
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        assertEquals(mobileNos, paged);
+        assertEquals(5, page.getTotalPages());
+
+        Collections.reverse(mobileNos);
+        assertEquals(mobileNos, userRepository.findAll(Sort.by(Sort.Direction.DESC, "mobileNo")).stream()
+                .map(User::getMobileNo).collect(Collectors.toList()));
+    }
+
+    @Test
+    void Should_RejectRepository_When_QueryIsStreamed() {
+        ShardingRepositoryInterceptor interceptor = new ShardingRepositoryInterceptor(shardLayout);
+        try {
+            assertThrows(IllegalStateException.class, () -> interceptor.checkSupported(StreamingRepository.class));
+            interceptor.checkSupported(UserRepository.class);
+        } finally {
+            interceptor.destroy();
+        }
+    }
+
+    @Test
+    void Should_FindRegisteredMobileNosOnEveryShard_When_BatchSpansShards() {
+        List<String> mobileNos = new ArrayList<>();
+        for (User user : saveUsers()) {
+            mobileNos.add(user.getMobileNo());
+        }
+        String notMovedYet = findMobileNoMovedByResharding();
+        ShardContext.runOn(shardLayout.previousShardOfBucket(ShardKeys.bucketOf(notMovedYet)),
+                () -> userRepository.save(new User(getUserRequestDto(notMovedYet))));
+        mobileNos.add("0799999999");
+        mobileNos.add(notMovedYet);
+
+        List<String> registered = userRepository.findRegisteredMobileNos(mobileNos);
+        assertEquals(USERS + 1, registered.size());
+        assertTrue(registered.contains(notMovedYet));
+        assertFalse(registered.contains("0799999999"));
+    }
+
+    @Test
+    void Should_ReadPreviousShardAndMoveRow_When_RowIsNotRebalancedYet() {
+        String mobileNo = findMobileNoMovedByResharding();
+        User user = new User(getUserRequestDto(mobileNo));
+        int previousShard = shardLayout.previousShardOfBucket(ShardKeys.bucketOf(mobileNo));
+        ShardContext.runOn(previousShard, () -> userRepository.save(user));
+
+        assertTrue(userRepository.findByMobileNo(mobileNo).isPresent());
+        assertEquals(1, shardRebalancer.rebalance());
+        assertEquals(0, countByMobileNo(previousShard, mobileNo));
+        assertEquals(1, countByMobileNo(shardLayout.shardOf(mobileNo), mobileNo));
+        assertEquals(0, shardRebalancer.rebalance());
+    }
+
+    @Test
+    void Should_CopyRowAgain_When_RowChangesWhileItIsMoved() {
+        String mobileNo = findMobileNoMovedByResharding();
+        User user = new User(getUserRequestDto(mobileNo));
+        int previousShard = shardLayout.previousShardOfBucket(ShardKeys.bucketOf(mobileNo));
+        ShardContext.runOn(previousShard, () -> userRepository.save(user));
+        JdbcTemplate source = new JdbcTemplate(shardRoutingDataSource.getShards().get(previousShard));
+        JdbcTemplate target = new JdbcTemplate(shardRoutingDataSource.getShards().get(shardLayout.shardOf(mobileNo)));
+        Map<String, Object> readByRebalancer = source.queryForMap("SELECT * FROM user WHERE mobile_no = ?", mobileNo);
+        // updated on the source shard after the rebalancer read the row
+        source.update("UPDATE user SET name = 'Renamed', version = version + 1 WHERE mobile_no = ?", mobileNo);
+
+        shardRebalancer.move(readByRebalancer, source, target);
+        assertEquals(0, countByMobileNo(previousShard, mobileNo));
+        Map<String, Object> moved = target.queryForMap("SELECT name, version FROM user WHERE mobile_no = ?",
+                mobileNo);
+        assertEquals("Renamed", moved.get("name"));
+        assertEquals(1L, ((Number) moved.get("version")).longValue());
+    }
+
+    private List<User> saveUsers() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(new User(getUserRequestDto(String.format("07%08d", i)))));
+        }
+        return users;
+    }
+
+    private String findMobileNoMovedByResharding() {
+        for (int i = 0; ; i++) {
+            String mobileNo = String.format("07%08d", i);
+            int bucket = ShardKeys.bucketOf(mobileNo);
+            if (shardLayout.shardOfBucket(bucket) != shardLayout.previousShardOfBucket(bucket))
+                return mobileNo;
+        }
+    }
+
+    private int countRows(int shard) {
+        return shardJdbcTemplate(shard).queryForObject("SELECT COUNT(*) FROM user", Integer.class);
+    }
+
+    private int countByMobileNo(int shard, String mobileNo) {
+        return shardJdbcTemplate(shard).queryForObject("SELECT COUNT(*) FROM user WHERE mobile_no = ?",
+                Integer.class, mobileNo);
+    }
+
+    private JdbcTemplate shardJdbcTemplate(int shard) {
+        return new JdbcTemplate(shardRoutingDataSource.getShards().get(shard));
+    }
+
+    /**
+     * This method is used to mock userRequestDto.
+     *
+     * @return userRequestDto
+     */
+    private UserRequestDto getUserRequestDto(String mobileNo) {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("User");
+        userRequestDto.setMobileNo(mobileNo);
+        userRequestDto.setPassword("password");
+        userRequestDto.setUserType(UserType.USER);
+        return userRequestDto;
+    }
+
+    interface StreamingRepository extends Repository<User, UUID> {
+
+        Stream<User> findAllByName(String name);
+    }
+}
@@ -0,0 +1,100 @@
+package com.hilltop.user.repository.tracing;
+
+import com.hilltop.user.util.Spans;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tracing data source interceptor test
+ * Unit tests for {@link  TracingDataSourceInterceptor}
+ */
+class TracingDataSourceInterceptorTest {
+
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(spanExporter)).build();
+    private final Tracer tracer = tracerProvider.get("test");
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:tracing;DB_CLOSE_DELAY=-1", "sa", "");
+        ProxyFactory proxyFactory = new ProxyFactory(dataSource);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TracingDataSourceInterceptor(tracer));
+        jdbcTemplate = new JdbcTemplate((DataSource) proxyFactory.getProxy());
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS item (id INT PRIMARY KEY)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE item");
+        tracerProvider.close();
+    }
+
+    /**
+     * Unit tests for invoke() method.
+     */
+    @Test
+    void Should_TraceStatements_When_RunInsideSpan() {
+        Spans.run(tracer, "UserService.addUser", () -> {
+            jdbcTemplate.update("INSERT INTO item (id) VALUES (?)", 1);
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item WHERE id = ?", Integer.class, 1));
+        });
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        assertEquals(3, spans.size());
+        SpanData insert = spans.get(0);
+        SpanData select = spans.get(1);
+        SpanData service = spans.get(2);
+        assertEquals("INSERT", insert.getName());
+        assertEquals(SpanKind.CLIENT, insert.getKind());
+        assertEquals("INSERT INTO item (id) VALUES (?)",
+                insert.getAttributes().get(TracingDataSourceInterceptor.DB_STATEMENT));
+        assertEquals("SELECT", select.getName());
+        assertEquals(service.getSpanId(), insert.getParentSpanId());
+        assertEquals(service.getSpanId(), select.getParentSpanId());
+    }
+
+    @Test
+    void Should_NotTraceStatements_When_RunOutsideSpan() {
+        jdbcTemplate.update("INSERT INTO item (id) VALUES (?)", 2);
+        assertTrue(spanExporter.getFinishedSpanItems().isEmpty());
+    }
+
+    @Test
+    void Should_RecordFailure_When_StatementFails() {
+        jdbcTemplate.update("INSERT INTO item (id) VALUES (?)", 3);
+        assertThrows(RuntimeException.class, () -> Spans.run(tracer, "UserService.addUser",
+                () -> jdbcTemplate.update("INSERT INTO item (id) VALUES (?)", 3)));
+        SpanData insert = spanExporter.getFinishedSpanItems().get(0);
+        assertEquals("INSERT", insert.getName());
+        assertEquals(StatusCode.ERROR, insert.getStatus().getStatusCode());
+    }
+
+    /**
+     * Unit tests for getOperation() method.
+     */
+    @Test
+    void Should_ReturnFirstKeyword_When_SqlIsGiven() {
+        assertEquals("SELECT", TracingDataSourceInterceptor.getOperation("\n  select 1"));
+        assertEquals("JDBC", TracingDataSourceInterceptor.getOperation(null));
+        assertEquals("JDBC", TracingDataSourceInterceptor.getOperation("?"));
+    }
+}
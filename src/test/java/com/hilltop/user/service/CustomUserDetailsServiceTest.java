@@ -0,0 +1,130 @@
+package com.hilltop.user.service;
+
+import com.hilltop.user.domain.entity.User;
+import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.UserType;
+import com.hilltop.user.repository.UserRepository;
+import com.hilltop.user.repository.directory.UserDirectory;
+import com.hilltop.user.util.SingleFlight;
+import io.opentelemetry.api.trace.TracerProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+/**
+ * Custom user details service test
+ * Unit tests for {@link  CustomUserDetailsService}
+ */
+class CustomUserDetailsServiceTest {
+
+    private static final String MOBILE_NO = "0779090909";
+    private static final String OTHER_MOBILE_NO = "0779090908";
+    private final User user = getUser(MOBILE_NO);
+    private final User otherUser = getUser(OTHER_MOBILE_NO);
+    private final UserDirectory userDirectory = new UserDirectory(16);
+    @Mock
+    private UserRepository userRepository;
+    private CustomUserDetailsService customUserDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        customUserDetailsService = getCustomUserDetailsService(Optional.of(userDirectory));
+    }
+
+    /**
+     * Unit tests for loadUserByUsername() method.
+     */
+    @Test
+    void Should_FindUserByPrimaryKey_When_DirectoryKnowsId() {
+        userDirectory.put(MOBILE_NO, user.getId());
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername(MOBILE_NO);
+        assertEquals(MOBILE_NO, userDetails.getUsername());
+        verify(userRepository, never()).findByMobileNo(any());
+    }
+
+    @Test
+    void Should_FindUserByMobileNo_When_UserOfDirectoryIdHasOtherMobileNo() {
+        userDirectory.put(MOBILE_NO, otherUser.getId());
+        when(userRepository.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
+        when(userRepository.findByMobileNo(MOBILE_NO)).thenReturn(Optional.of(user));
+
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername(MOBILE_NO);
+        assertEquals(MOBILE_NO, userDetails.getUsername());
+        assertEquals(user.getPassword(), userDetails.getPassword());
+        assertEquals(user.getId(), userDirectory.getId(MOBILE_NO));
+    }
+
+    @Test
+    void Should_FindUserByMobileNo_When_UserOfDirectoryIdIsGone() {
+        userDirectory.put(MOBILE_NO, otherUser.getId());
+        when(userRepository.findById(otherUser.getId())).thenReturn(Optional.empty());
+        when(userRepository.findByMobileNo(MOBILE_NO)).thenReturn(Optional.of(user));
+
+        assertEquals(user.getPassword(), customUserDetailsService.loadUserByUsername(MOBILE_NO).getPassword());
+        assertEquals(user.getId(), userDirectory.getId(MOBILE_NO));
+    }
+
+    @Test
+    void Should_FindUserByMobileNoAndRememberId_When_DirectoryDoesntKnowMobileNo() {
+        when(userRepository.findByMobileNo(MOBILE_NO)).thenReturn(Optional.of(user));
+
+        assertEquals(MOBILE_NO, customUserDetailsService.loadUserByUsername(MOBILE_NO).getUsername());
+        verify(userRepository, never()).findById(any());
+        assertEquals(user.getId(), userDirectory.getId(MOBILE_NO));
+    }
+
+    @Test
+    void Should_FindUserByMobileNo_When_DirectoryIsDisabled() {
+        customUserDetailsService = getCustomUserDetailsService(Optional.empty());
+        when(userRepository.findByMobileNo(MOBILE_NO)).thenReturn(Optional.of(user));
+
+        assertEquals(MOBILE_NO, customUserDetailsService.loadUserByUsername(MOBILE_NO).getUsername());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void Should_ThrowUsernameNotFoundException_When_MobileNoIsNotRegistered() {
+        when(userRepository.findByMobileNo(MOBILE_NO)).thenReturn(Optional.empty());
+        assertThrows(UsernameNotFoundException.class, () -> customUserDetailsService.loadUserByUsername(MOBILE_NO));
+    }
+
+    private CustomUserDetailsService getCustomUserDetailsService(Optional<UserDirectory> optionalUserDirectory) {
+        CustomUserDetailsService service = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "userLookupSingleFlight", new SingleFlight<>(1000));
+        ReflectionTestUtils.setField(service, "tracer", TracerProvider.noop().get("test"));
+        ReflectionTestUtils.setField(service, "userDirectory", optionalUserDirectory);
+        return service;
+    }
+
+    /**
+     * This method is used to mock user.
+     *
+     * @param mobileNo mobileNo
+     * @return user
+     */
+    private User getUser(String mobileNo) {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("User");
+        userRequestDto.setMobileNo(mobileNo);
+        userRequestDto.setPassword("password-" + mobileNo);
+        userRequestDto.setUserType(UserType.USER);
+        return new User(userRequestDto);
+    }
+}
@@ -0,0 +1,150 @@
+package com.hilltop.user.service;
+
+import com.hilltop.user.exception.TokenException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.opentelemetry.api.trace.TracerProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Jwt token service test
+ * Unit tests for {@link  JwtTokenService}
+ */
+class JwtTokenServiceTest {
+
+    private static final String TOKEN_KEY = "645267556B58703273357638792F423F4528472B4B6250655368566D59713374";
+    private static final String KEY_1 = "Yk1vZ3NQb2ZYcmJ2Q1lqN3RGd2FIcU5kU2tMZ1pXZUU=";
+    private static final String KEY_2 = "Uk5rT2pUd2VoQ3ZMbUZ4YmRaWXBzR3FKaVV5QWtNdEg=";
+    private static final String MOBILE_NO = "0779090909";
+    private JwtTokenService jwtTokenService;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenService = new JwtTokenService(getTokenKeyRing(), TracerProvider.noop().get("test"));
+    }
+
+    /**
+     * Unit tests for validateToken() method.
+     */
+    @Test
+    void Should_AcceptToken_When_TokenWasGeneratedByService() {
+        String token = jwtTokenService.generateToken(MOBILE_NO);
+        assertTrue(JwtTokenService.isWellFormed(token));
+        assertDoesNotThrow(() -> jwtTokenService.validateToken(token));
+    }
+
+    @Test
+    void Should_RejectWithoutParsing_When_TokenIsGarbage() {
+        TokenException exception = assertThrows(TokenException.class, () -> jwtTokenService.validateToken("123"));
+        assertSame(TokenException.malformedToken(), exception);
+        assertNull(exception.getCause());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void Should_RejectWithCause_When_SignatureDoesNotMatch() {
+        String token = jwtTokenService.generateToken(MOBILE_NO);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BA" : "AA");
+        TokenException exception = assertThrows(TokenException.class, () -> jwtTokenService.validateToken(tampered));
+        assertNotNull(exception.getCause());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    /**
+     * Unit tests for parseToken() method.
+     */
+    @Test
+    void Should_ReturnSubject_When_TokenIsValid() {
+        assertEquals(MOBILE_NO, jwtTokenService.parseToken(jwtTokenService.generateToken(MOBILE_NO)).getSubject());
+    }
+
+    @Test
+    void Should_SetKeyIdHeader_When_TokenIsGenerated() {
+        String token = jwtTokenService.generateToken(MOBILE_NO);
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+                StandardCharsets.UTF_8);
+        assertTrue(header.contains("\"kid\":\"" + TokenKeyRing.DEFAULT_KEY_ID + "\""), header);
+    }
+
+    @Test
+    void Should_AcceptToken_When_TokenHasNoKeyId() {
+        // tokens issued before key rotation are verified with the default key
+        String token = Jwts.builder().setSubject(MOBILE_NO)
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(TOKEN_KEY)), SignatureAlgorithm.HS256).compact();
+        assertEquals(MOBILE_NO, jwtTokenService.parseToken(token).getSubject());
+    }
+
+    @Test
+    void Should_AcceptTokenOfPreviousKey_When_ActiveKeyChanges(@TempDir Path directory) throws Exception {
+        Path keyFile = directory.resolve("token-keys.properties");
+        Files.writeString(keyFile, "active-key-id=k1\nkeys.k1=" + KEY_1 + "\n");
+        TokenKeyProperties tokenKeyProperties = new TokenKeyProperties();
+        tokenKeyProperties.setKeyFile(keyFile.toString());
+        TokenKeyRing tokenKeyRing = new TokenKeyRing(tokenKeyProperties);
+        JwtTokenService rotatingTokenService = new JwtTokenService(tokenKeyRing, TracerProvider.noop().get("test"));
+        String oldToken = rotatingTokenService.generateToken(MOBILE_NO);
+
+        Files.writeString(keyFile, "active-key-id=k2\nkeys.k1=" + KEY_1 + "\nkeys.k2=" + KEY_2 + "\n");
+        Files.setLastModifiedTime(keyFile, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        assertTrue(tokenKeyRing.reload());
+        String newToken = rotatingTokenService.generateToken(MOBILE_NO);
+
+        assertEquals("k2", Jwts.parserBuilder().setSigningKey(tokenKeyRing.getKey("k2")).build()
+                .parseClaimsJws(newToken).getHeader().getKeyId());
+        assertEquals(MOBILE_NO, rotatingTokenService.parseToken(oldToken).getSubject());
+        assertEquals(MOBILE_NO, rotatingTokenService.parseToken(newToken).getSubject());
+    }
+
+    @Test
+    void Should_RejectToken_When_KeyIdIsUnknown() {
+        String token = Jwts.builder().setHeaderParam(JwsHeader.KEY_ID, "unknown").setSubject(MOBILE_NO)
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(TOKEN_KEY)), SignatureAlgorithm.HS256).compact();
+        TokenException exception = assertThrows(TokenException.class, () -> jwtTokenService.validateToken(token));
+        assertNotNull(exception.getCause());
+    }
+
+    /**
+     * Unit tests for isWellFormed() method.
+     */
+    @Test
+    void Should_RejectStructure_When_TokenIsNotAnHs256Jwt() {
+        String token = jwtTokenService.generateToken(MOBILE_NO);
+        String[] segments = token.split("\\.");
+        String noneHeader = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        assertFalse(JwtTokenService.isWellFormed(""));
+        assertFalse(JwtTokenService.isWellFormed(segments[0] + "." + segments[1]));
+        assertFalse(JwtTokenService.isWellFormed(token + ".x"));
+        assertFalse(JwtTokenService.isWellFormed(token.replace('.', '=')));
+        assertFalse(JwtTokenService.isWellFormed(token + "A"));
+        assertFalse(JwtTokenService.isWellFormed(segments[0] + ".." + segments[2]));
+        assertFalse(JwtTokenService.isWellFormed(noneHeader + "." + segments[1] + "." + segments[2]));
+        assertFalse(JwtTokenService.isWellFormed(segments[0] + "." + "a".repeat(4096) + "." + segments[2]));
+    }
+
+    /**
+     * This method is used to get a key ring with TOKEN_KEY as default key.
+     *
+     * @return tokenKeyRing
+     */
+    private static TokenKeyRing getTokenKeyRing() {
+        TokenKeyProperties tokenKeyProperties = new TokenKeyProperties();
+        tokenKeyProperties.setKey(TOKEN_KEY);
+        return new TokenKeyRing(tokenKeyProperties);
+    }
+}
@@ -0,0 +1,118 @@
+package com.hilltop.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Token key ring test
+ * Unit tests for {@link  TokenKeyRing}
+ */
+class TokenKeyRingTest {
+
+    private static final String KEY_1 = "Yk1vZ3NQb2ZYcmJ2Q1lqN3RGd2FIcU5kU2tMZ1pXZUU=";
+    private static final String KEY_2 = "Uk5rT2pUd2VoQ3ZMbUZ4YmRaWXBzR3FKaVV5QWtNdEg=";
+    private static final long RETENTION_MILLIS = 1000;
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final AtomicLong keyFileModifiedMillis = new AtomicLong(1_000_000);
+    @TempDir
+    Path directory;
+    private Path keyFile;
+    private TokenKeyProperties tokenKeyProperties;
+
+    @BeforeEach
+    void setUp() {
+        keyFile = directory.resolve("token-keys.properties");
+        tokenKeyProperties = new TokenKeyProperties();
+        tokenKeyProperties.setKeyFile(keyFile.toString());
+    }
+
+    /**
+     * Unit tests for getActiveKey() and getKey() methods.
+     */
+    @Test
+    void Should_SignWithDefaultKey_When_NoKeyFileIsSet() {
+        TokenKeyProperties defaultKeyProperties = new TokenKeyProperties();
+        defaultKeyProperties.setKey(KEY_1);
+        TokenKeyRing tokenKeyRing = new TokenKeyRing(defaultKeyProperties);
+        assertEquals(TokenKeyRing.DEFAULT_KEY_ID, tokenKeyRing.getActiveKey().getId());
+        assertSame(tokenKeyRing.getActiveKey().getKey(), tokenKeyRing.getKey(null));
+        assertNull(tokenKeyRing.getKey("k1"));
+    }
+
+    @Test
+    void Should_FailFast_When_ActiveKeyIsNotConfigured() throws IOException {
+        writeKeyFile("active-key-id=k2\nkeys.k1=" + KEY_1 + "\n");
+        assertThrows(IllegalStateException.class, this::getTokenKeyRing);
+    }
+
+    @Test
+    void Should_FailFast_When_KeyIsTooShort() throws IOException {
+        writeKeyFile("active-key-id=k1\nkeys.k1=c2hvcnQ=\n");
+        IllegalStateException exception = assertThrows(IllegalStateException.class, this::getTokenKeyRing);
+        assertFalse(exception.getCause().getMessage().contains("c2hvcnQ="));
+    }
+
+    /**
+     * Unit tests for reload() method.
+     */
+    @Test
+    void Should_SwitchActiveKey_When_KeyFileChanges() throws IOException {
+        writeKeyFile("active-key-id=k1\nkeys.k1=" + KEY_1 + "\nkeys.k2=" + KEY_2 + "\n");
+        TokenKeyRing tokenKeyRing = getTokenKeyRing();
+        assertEquals("k1", tokenKeyRing.getActiveKey().getId());
+        assertFalse(tokenKeyRing.reload());
+
+        writeKeyFile("active-key-id=k2\nkeys.k1=" + KEY_1 + "\nkeys.k2=" + KEY_2 + "\n");
+        assertTrue(tokenKeyRing.reload());
+        assertEquals("k2", tokenKeyRing.getActiveKey().getId());
+        assertNotNull(tokenKeyRing.getKey("k1"));
+    }
+
+    @Test
+    void Should_KeepRemovedKeyUntilItsTokensExpire_When_KeyIsRemoved() throws IOException {
+        writeKeyFile("active-key-id=k1\nkeys.k1=" + KEY_1 + "\n");
+        TokenKeyRing tokenKeyRing = getTokenKeyRing();
+
+        writeKeyFile("active-key-id=k2\nkeys.k2=" + KEY_2 + "\n");
+        assertTrue(tokenKeyRing.reload());
+        assertNotNull(tokenKeyRing.getKey("k1"));
+
+        now.addAndGet(RETENTION_MILLIS - 1);
+        assertFalse(tokenKeyRing.reload());
+        assertNotNull(tokenKeyRing.getKey("k1"));
+
+        now.incrementAndGet();
+        assertTrue(tokenKeyRing.reload());
+        assertNull(tokenKeyRing.getKey("k1"));
+        assertNotNull(tokenKeyRing.getKey("k2"));
+    }
+
+    @Test
+    void Should_KeepCurrentKeys_When_KeyFileIsInvalid() throws IOException {
+        writeKeyFile("active-key-id=k1\nkeys.k1=" + KEY_1 + "\n");
+        TokenKeyRing tokenKeyRing = getTokenKeyRing();
+
+        writeKeyFile("active-key-id=k3\nkeys.k1=" + KEY_1 + "\n");
+        assertFalse(tokenKeyRing.reload());
+        assertEquals("k1", tokenKeyRing.getActiveKey().getId());
+    }
+
+    private TokenKeyRing getTokenKeyRing() {
+        return new TokenKeyRing(tokenKeyProperties, RETENTION_MILLIS, now::get);
+    }
+
+    private void writeKeyFile(String content) throws IOException {
+        Files.writeString(keyFile, content);
+        // file systems with coarse timestamps would not see a rewrite within the same second
+        Files.setLastModifiedTime(keyFile, FileTime.fromMillis(keyFileModifiedMillis.addAndGet(1000)));
+    }
+}
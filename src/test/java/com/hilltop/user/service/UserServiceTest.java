@@ -2,19 +2,35 @@ package com.hilltop.user.service;
 
 import com.hilltop.user.domain.entity.User;
 import com.hilltop.user.domain.request.UserRequestDto;
+import com.hilltop.user.enumeration.RegistrationStatus;
 import com.hilltop.user.enumeration.UserType;
 import com.hilltop.user.exception.HillTopUserApplicationException;
+import com.hilltop.user.exception.RegistrationQueueFullException;
 import com.hilltop.user.exception.UserExistException;
+import com.hilltop.user.exception.UserNotFoundException;
 import com.hilltop.user.repository.UserRepository;
+import com.hilltop.user.repository.directory.UserDirectory;
+import com.hilltop.user.repository.registration.WriteBehindUserQueue;
+import com.hilltop.user.repository.search.UserSearchPage;
+import com.hilltop.user.repository.search.UserSearchRepository;
+import com.hilltop.user.util.SingleFlight;
+import io.opentelemetry.api.trace.TracerProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.openMocks;
 
@@ -31,12 +47,17 @@ class UserServiceTest {
     private final User user = getUser();
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserSearchRepository userSearchRepository;
+    @Mock
+    private WriteBehindUserQueue writeBehindUserQueue;
     private UserService userService;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
-        userService = new UserService(userRepository);
+        userService = new UserService(userRepository, userSearchRepository, new SingleFlight<>(1000), TracerProvider.noop().get("test"),
+                Optional.empty(), Optional.empty());
     }
 
     /**
@@ -57,6 +78,81 @@ class UserServiceTest {
         assertEquals("Failed to save user info in database.", exception.getMessage());
     }
 
+    @Test
+    void Should_ThrowUserExistException_When_ConcurrentRegistrationSavedMobileNoFirst() {
+        when(userRepository.findByMobileNo(MOBILE_NO)).thenReturn(Optional.empty());
+        when(userRepository.save(any())).thenThrow(new DataIntegrityViolationException(FAILED));
+        assertThrows(UserExistException.class, () -> userService.addUser(userRequestDto));
+    }
+
+    /**
+     * Unit tests for acceptUser() method.
+     */
+    @Test
+    void Should_QueueUser_When_MobileNoIsFree() {
+        UserService writeBehindUserService = getWriteBehindUserService();
+        when(writeBehindUserQueue.reserve(MOBILE_NO)).thenReturn(true);
+        when(userRepository.findByMobileNo(MOBILE_NO)).thenReturn(Optional.empty());
+        UUID id = writeBehindUserService.acceptUser(userRequestDto);
+        verify(writeBehindUserQueue).enqueue(argThat(queued -> queued.getId().equals(id)
+                && !PASSWORD.equals(queued.getPassword())));
+        verify(writeBehindUserQueue, never()).release(any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void Should_ThrowUserExistException_When_MobileNoIsReserved() {
+        UserService writeBehindUserService = getWriteBehindUserService();
+        when(writeBehindUserQueue.reserve(MOBILE_NO)).thenReturn(false);
+        assertThrows(UserExistException.class, () -> writeBehindUserService.acceptUser(userRequestDto));
+        verify(writeBehindUserQueue, never()).enqueue(any());
+        verify(userRepository, never()).findByMobileNo(any());
+    }
+
+    @Test
+    void Should_ReleaseMobileNo_When_MobileNoIsRegistered() {
+        UserService writeBehindUserService = getWriteBehindUserService();
+        when(writeBehindUserQueue.reserve(MOBILE_NO)).thenReturn(true);
+        when(userRepository.findByMobileNo(MOBILE_NO)).thenReturn(Optional.of(user));
+        assertThrows(UserExistException.class, () -> writeBehindUserService.acceptUser(userRequestDto));
+        verify(writeBehindUserQueue).release(MOBILE_NO);
+    }
+
+    @Test
+    void Should_ReleaseMobileNo_When_QueueIsFull() {
+        UserService writeBehindUserService = getWriteBehindUserService();
+        when(writeBehindUserQueue.reserve(MOBILE_NO)).thenReturn(true);
+        when(userRepository.findByMobileNo(MOBILE_NO)).thenReturn(Optional.empty());
+        doThrow(new RegistrationQueueFullException(FAILED)).when(writeBehindUserQueue).enqueue(any());
+        assertThrows(RegistrationQueueFullException.class, () -> writeBehindUserService.acceptUser(userRequestDto));
+        verify(writeBehindUserQueue).release(MOBILE_NO);
+    }
+
+    /**
+     * Unit tests for getRegistrationStatus() method.
+     */
+    @Test
+    void Should_ReturnQueueStatus_When_RegistrationIsTrackedByQueue() {
+        UUID id = UUID.randomUUID();
+        when(writeBehindUserQueue.getStatus(id)).thenReturn(Optional.of(RegistrationStatus.PENDING));
+        assertEquals(RegistrationStatus.PENDING, getWriteBehindUserService().getRegistrationStatus(id));
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    void Should_ReturnCompleted_When_UserIsInDatabase() {
+        UUID id = UUID.randomUUID();
+        when(writeBehindUserQueue.getStatus(id)).thenReturn(Optional.empty());
+        when(userRepository.existsById(id)).thenReturn(true);
+        assertEquals(RegistrationStatus.COMPLETED, getWriteBehindUserService().getRegistrationStatus(id));
+    }
+
+    @Test
+    void Should_ThrowUserNotFoundException_When_RegistrationIsUnknown() {
+        when(userRepository.existsById(any())).thenReturn(false);
+        assertThrows(UserNotFoundException.class, () -> userService.getRegistrationStatus(UUID.randomUUID()));
+    }
+
     /**
      * unit tests for checkMobileNoExist() method.
      */
@@ -77,6 +173,130 @@ class UserServiceTest {
         assertEquals("Failed to get user by mobileNo from database.", exception.getMessage());
     }
 
+    @Test
+    void Should_NotQueryDatabase_When_MobileNoIsInUserDirectory() {
+        UserDirectory userDirectory = new UserDirectory(16);
+        userDirectory.put(MOBILE_NO, null);
+        UserService directoryUserService = getDirectoryUserService(userDirectory);
+        assertThrows(UserExistException.class, () -> directoryUserService.checkMobileNoExist(MOBILE_NO));
+        verify(userRepository, never()).findByMobileNo(any());
+    }
+
+    @Test
+    void Should_AddUserToUserDirectory_When_UserIsSaved() {
+        UserDirectory userDirectory = new UserDirectory(16);
+        getDirectoryUserService(userDirectory).addUser(userRequestDto);
+        assertTrue(userDirectory.contains(MOBILE_NO));
+        assertNotNull(userDirectory.getId(MOBILE_NO));
+    }
+
+    /**
+     * unit tests for getUser() method.
+     */
+    @Test
+    void Should_ReturnUser_When_UserExists() {
+        UUID id = UUID.randomUUID();
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        assertSame(user, userService.getUser(id));
+    }
+
+    @Test
+    void Should_ThrowUserNotFoundException_When_UserDoesntExist() {
+        when(userRepository.findById(any())).thenReturn(Optional.empty());
+        assertThrows(UserNotFoundException.class, () -> userService.getUser(UUID.randomUUID()));
+    }
+
+    @Test
+    void Should_ThrowHillTopUserApplicationException_When_FailedToGetUserById() {
+        when(userRepository.findById(any())).thenThrow(new DataAccessException(FAILED) {
+        });
+        HillTopUserApplicationException exception = assertThrows(HillTopUserApplicationException.class,
+                () -> userService.getUser(UUID.randomUUID()));
+        assertEquals("Failed to get user by id from database.", exception.getMessage());
+    }
+
+    /**
+     * unit tests for getRegisteredMobileNos() method.
+     */
+    @Test
+    void Should_ReturnRegisteredMobileNosInRequestOrder_When_BatchHasDuplicates() {
+        when(userRepository.findRegisteredMobileNos(any())).thenReturn(List.of("0779090903", MOBILE_NO));
+        assertEquals(List.of(MOBILE_NO, "0779090903"), userService.getRegisteredMobileNos(
+                List.of(MOBILE_NO, "0779090902", MOBILE_NO, "0779090903")));
+        verify(userRepository, times(1)).findRegisteredMobileNos(any());
+    }
+
+    @Test
+    void Should_QueryInChunks_When_BatchIsLargerThanChunkSize() {
+        List<String> mobileNos = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            mobileNos.add(String.format("07%08d", i));
+        }
+        when(userRepository.findRegisteredMobileNos(any())).thenReturn(List.of());
+        assertTrue(userService.getRegisteredMobileNos(mobileNos).isEmpty());
+        verify(userRepository, times(3)).findRegisteredMobileNos(any());
+    }
+
+    @Test
+    void Should_QueryOnlyUnknownMobileNos_When_UserDirectoryIsEnabled() {
+        UserDirectory userDirectory = new UserDirectory(16);
+        userDirectory.put(MOBILE_NO, null);
+        when(userRepository.findRegisteredMobileNos(List.of("0779090903"))).thenReturn(List.of("0779090903"));
+        UserService directoryUserService = getDirectoryUserService(userDirectory);
+        assertEquals(List.of(MOBILE_NO, "0779090903"),
+                directoryUserService.getRegisteredMobileNos(List.of(MOBILE_NO, "0779090903")));
+        assertTrue(userDirectory.contains("0779090903"));
+    }
+
+    @Test
+    void Should_ThrowHillTopUserApplicationException_When_FailedToGetRegisteredMobileNos() {
+        when(userRepository.findRegisteredMobileNos(any())).thenThrow(new DataAccessException(FAILED) {
+        });
+        HillTopUserApplicationException exception = assertThrows(HillTopUserApplicationException.class,
+                () -> userService.getRegisteredMobileNos(List.of(MOBILE_NO)));
+        assertEquals("Failed to get registered mobile numbers from database.", exception.getMessage());
+    }
+
+    /**
+     * Unit tests for searchUsers() method.
+     */
+    @Test
+    void Should_ReturnPageOfSearchRepository_When_UsersAreSearched() {
+        UserSearchPage page = new UserSearchPage(List.of(user), null);
+        when(userSearchRepository.findByNamePrefix("Us", 20, null)).thenReturn(page);
+        assertSame(page, userService.searchUsers("Us", 20, null));
+    }
+
+    @Test
+    void Should_ThrowHillTopUserApplicationException_When_FailedToSearchUsers() {
+        when(userSearchRepository.findByNamePrefix(any(), anyInt(), any())).thenThrow(new DataAccessException(FAILED) {
+        });
+        HillTopUserApplicationException exception = assertThrows(HillTopUserApplicationException.class,
+                () -> userService.searchUsers("Us", 20, null));
+        assertEquals("Failed to search users by name in database.", exception.getMessage());
+    }
+
+    /**
+     * This method is used to get a user service with write-behind registration.
+     *
+     * @return userService
+     */
+    private UserService getWriteBehindUserService() {
+        return new UserService(userRepository, userSearchRepository, new SingleFlight<>(1000), TracerProvider.noop().get("test"),
+                Optional.of(writeBehindUserQueue), Optional.empty());
+    }
+
+    /**
+     * This method is used to get a user service with a user directory.
+     *
+     * @param userDirectory userDirectory
+     * @return userService
+     */
+    private UserService getDirectoryUserService(UserDirectory userDirectory) {
+        return new UserService(userRepository, userSearchRepository, new SingleFlight<>(1000), TracerProvider.noop().get("test"),
+                Optional.empty(), Optional.of(userDirectory));
+    }
+
     /**
      * This method is used to mock userRequestDto.
      *
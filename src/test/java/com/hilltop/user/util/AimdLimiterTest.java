@@ -0,0 +1,71 @@
+package com.hilltop.user.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aimd limiter test
+ * Unit tests for {@link  AimdLimiter}
+ */
+class AimdLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /**
+     * Unit tests for tryAcquire() method.
+     */
+    @Test
+    void Should_RejectRequest_When_LimitIsReached() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, 0.5, 100);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    /**
+     * Unit tests for release() method.
+     */
+    @Test
+    void Should_HalveLimit_When_RequestIsSlowOrFailed() {
+        AimdLimiter limiter = new AimdLimiter(8, 1, 10, 0.5, 100);
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals(4, limiter.getLimit());
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void Should_NotGoBelowMinLimit_When_RequestsKeepBeingSlow() {
+        AimdLimiter limiter = new AimdLimiter(4, 2, 10, 0.5, 100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, false);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void Should_GrowLimitByOne_When_FastRequestsUseHalfOfIt() {
+        AimdLimiter limiter = new AimdLimiter(4, 1, 5, 0.5, 100);
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+        assertEquals(4, limiter.getLimit());
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+        assertEquals(5, limiter.getLimit());
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+        assertEquals(5, limiter.getLimit());
+    }
+}
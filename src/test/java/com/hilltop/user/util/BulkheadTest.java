@@ -0,0 +1,64 @@
+package com.hilltop.user.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulkhead test
+ * Unit tests for {@link  Bulkhead}
+ */
+class BulkheadTest {
+
+    /**
+     * Unit tests for tryAcquire() method.
+     */
+    @Test
+    void Should_RejectCall_When_BulkheadIsFull() {
+        Bulkhead bulkhead = new Bulkhead(2, 0);
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(2, bulkhead.getConcurrentCalls());
+    }
+
+    @Test
+    void Should_WaitForMaxWait_When_BulkheadIsFull() {
+        Bulkhead bulkhead = new Bulkhead(1, 50);
+        assertTrue(bulkhead.tryAcquire());
+        long start = System.nanoTime();
+        assertFalse(bulkhead.tryAcquire());
+        assertTrue(System.nanoTime() - start >= 40_000_000L);
+    }
+
+    @Test
+    void Should_RejectCall_When_ThreadIsInterrupted() {
+        Bulkhead bulkhead = new Bulkhead(1, 1000);
+        assertTrue(bulkhead.tryAcquire());
+        Thread.currentThread().interrupt();
+        try {
+            assertFalse(bulkhead.tryAcquire());
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Unit tests for release() method.
+     */
+    @Test
+    void Should_AdmitCall_When_SlotIsReleased() {
+        Bulkhead bulkhead = new Bulkhead(1, 0);
+        assertTrue(bulkhead.tryAcquire());
+        bulkhead.release();
+        assertEquals(0, bulkhead.getConcurrentCalls());
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    void Should_ThrowIllegalArgumentException_When_SettingsAreInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new Bulkhead(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Bulkhead(1, -1));
+    }
+}
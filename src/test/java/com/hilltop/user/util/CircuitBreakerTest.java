@@ -0,0 +1,127 @@
+package com.hilltop.user.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Circuit breaker test
+ * Unit tests for {@link  CircuitBreaker}
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final List<String> transitions = new ArrayList<>();
+
+    /**
+     * Unit tests for onFailure() method.
+     */
+    @Test
+    void Should_Open_When_FailureRateReachesThreshold() {
+        CircuitBreaker circuitBreaker = getCircuitBreaker();
+        for (int i = 0; i < 2; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onSuccess();
+        }
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(List.of("CLOSED>OPEN"), transitions);
+    }
+
+    @Test
+    void Should_StayClosed_When_FewerThanMinimumCallsAreRecorded() {
+        CircuitBreaker circuitBreaker = getCircuitBreaker();
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.tryAcquirePermission();
+            circuitBreaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void Should_ForgetOldCalls_When_WindowSlides() {
+        CircuitBreaker circuitBreaker = getCircuitBreaker();
+        // window of 4: F F S S, then S S pushes the failures out
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    /**
+     * Unit tests for tryAcquirePermission() method.
+     */
+    @Test
+    void Should_LetTrialCallsThrough_When_OpenDurationHasPassed() {
+        CircuitBreaker circuitBreaker = getOpenCircuitBreaker();
+        now.addAndGet(5_000);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void Should_Close_When_TrialCallsSucceed() {
+        CircuitBreaker circuitBreaker = getOpenCircuitBreaker();
+        now.addAndGet(5_000);
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(List.of("CLOSED>OPEN", "OPEN>HALF_OPEN", "HALF_OPEN>CLOSED"), transitions);
+        // the window starts empty again
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void Should_OpenAgain_When_TrialCallFails() {
+        CircuitBreaker circuitBreaker = getOpenCircuitBreaker();
+        now.addAndGet(5_000);
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        now.addAndGet(4_999);
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void Should_ThrowIllegalArgumentException_When_SettingsAreInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CircuitBreaker(101, 4, 4, 5_000, 2, (from, to) -> {
+                }));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CircuitBreaker(50, 4, 5, 5_000, 2, (from, to) -> {
+                }));
+    }
+
+    private CircuitBreaker getCircuitBreaker() {
+        return new CircuitBreaker(50, 4, 4, 5_000, 2, (from, to) -> transitions.add(from + ">" + to), now::get);
+    }
+
+    private CircuitBreaker getOpenCircuitBreaker() {
+        CircuitBreaker circuitBreaker = getCircuitBreaker();
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,75 @@
+package com.hilltop.user.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Count min sketch test
+ * Unit tests for {@link  CountMinSketch}
+ */
+class CountMinSketchTest {
+
+    /**
+     * Unit tests for add() method.
+     */
+    @Test
+    void Should_NeverUndercount_When_ManyKeysShareTheSketch() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j <= i % 5; j++) {
+                sketch.add("077" + i);
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(sketch.estimate("077" + i) >= i % 5 + 1);
+        }
+    }
+
+    @Test
+    void Should_ReturnExactCount_When_KeysDoNotCollide() {
+        CountMinSketch sketch = new CountMinSketch(4, 2048);
+        for (int i = 0; i < 500; i++) {
+            sketch.add("0779090909");
+        }
+        assertEquals(1, sketch.add("0779090908"));
+        assertEquals(501, sketch.add("0779090909"));
+        assertEquals(0, sketch.estimate("0779090907"));
+    }
+
+    @Test
+    void Should_NotCountOtherKey_When_KeysHaveSameStringHash() {
+        assertEquals("Aa0779090909".hashCode(), "BB0779090909".hashCode());
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        for (int i = 0; i < 100; i++) {
+            sketch.add("Aa0779090909");
+        }
+        assertEquals(0, sketch.estimate("BB0779090909"));
+    }
+
+    /**
+     * Unit tests for hash() method.
+     */
+    @Test
+    void Should_ReturnDifferentHashes_When_SeedsDiffer() {
+        assertEquals(CountMinSketch.hash("0779090909", 1), CountMinSketch.hash("0779090909", 1));
+        assertNotEquals(CountMinSketch.hash("0779090909", 1), CountMinSketch.hash("0779090909", 2));
+        assertNotEquals(CountMinSketch.hash("0779090909", 1), CountMinSketch.hash("0779090909\0", 1));
+    }
+
+    /**
+     * Unit tests for clear() method.
+     */
+    @Test
+    void Should_ResetEstimates_When_Cleared() {
+        CountMinSketch sketch = new CountMinSketch(2, 16);
+        sketch.add("0779090909");
+        sketch.clear();
+        assertEquals(0, sketch.estimate("0779090909"));
+    }
+
+    @Test
+    void Should_ThrowIllegalArgumentException_When_SizeIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 16));
+    }
+}
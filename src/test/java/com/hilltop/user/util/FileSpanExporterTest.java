@@ -0,0 +1,65 @@
+package com.hilltop.user.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * File span exporter test
+ * Unit tests for {@link  FileSpanExporter}
+ */
+class FileSpanExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Unit tests for export() method.
+     */
+    @Test
+    void Should_AppendOneJsonLinePerSpan_When_SpansAreExported() throws Exception {
+        Path file = tempDir.resolve("logs/spans.jsonl");
+        try (SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new FileSpanExporter(file))).build()) {
+            Tracer tracer = tracerProvider.get("test");
+            Span parent = tracer.spanBuilder("GET /api/v1/user/{id}").startSpan();
+            Spans.run(tracer, "UserService.getUser", () -> {
+            });
+            tracer.spanBuilder("SELECT").setParent(io.opentelemetry.context.Context.root().with(parent))
+                    .setAttribute("db.statement", "select * from user").startSpan().end();
+            parent.end();
+        }
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode root = objectMapper.readTree(lines.get(2));
+        JsonNode child = objectMapper.readTree(lines.get(1));
+        assertEquals("GET /api/v1/user/{id}", root.get("name").asText());
+        assertTrue(root.get("parentSpanId").isNull());
+        assertEquals(root.get("spanId").asText(), child.get("parentSpanId").asText());
+        assertEquals("select * from user", child.get("attributes").get("db.statement").asText());
+        assertTrue(root.get("durationMicros").asLong() >= 0);
+        assertEquals("UNSET", root.get("status").asText());
+    }
+
+    /**
+     * Unit tests for shutdown() method.
+     */
+    @Test
+    void Should_RejectExport_When_ShutDown() throws Exception {
+        FileSpanExporter fileSpanExporter = new FileSpanExporter(tempDir.resolve("spans.jsonl"));
+        assertTrue(fileSpanExporter.shutdown().isSuccess());
+        assertFalse(fileSpanExporter.export(List.of()).isSuccess());
+    }
+}
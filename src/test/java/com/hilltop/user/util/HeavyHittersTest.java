@@ -0,0 +1,100 @@
+package com.hilltop.user.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heavy hitters test
+ * Unit tests for {@link  HeavyHitters}
+ */
+class HeavyHittersTest {
+
+    private final AtomicLong clock = new AtomicLong(60_000);
+
+    /**
+     * Unit tests for getTop() method.
+     */
+    @Test
+    void Should_ReturnMostFrequentKeys_When_TrafficIsSkewed() {
+        HeavyHitters heavyHitters = new HeavyHitters(60_000, 6, 4, 1024, 3, clock::get);
+        for (int i = 0; i < 2000; i++) {
+            heavyHitters.record("cold-" + i);
+            if (i % 2 == 0)
+                heavyHitters.record("0779090909");
+            if (i % 4 == 0)
+                heavyHitters.record("0779090908");
+            if (i % 8 == 0)
+                heavyHitters.record("0779090907");
+        }
+        List<HeavyHitters.KeyCount> top = heavyHitters.getTop();
+        assertEquals(3, top.size());
+        assertEquals("0779090909", top.get(0).getKey());
+        assertEquals("0779090908", top.get(1).getKey());
+        assertEquals("0779090907", top.get(2).getKey());
+        assertTrue(top.get(0).getCount() >= 1000);
+        assertEquals(2000 + 1000 + 500 + 250, heavyHitters.getTotal());
+    }
+
+    @Test
+    void Should_SumSlots_When_KeyIsSeenAcrossTheWindow() {
+        HeavyHitters heavyHitters = new HeavyHitters(60_000, 6, 4, 1024, 3, clock::get);
+        heavyHitters.record("0779090909");
+        clock.addAndGet(10_000);
+        heavyHitters.record("0779090909");
+        List<HeavyHitters.KeyCount> top = heavyHitters.getTop();
+        assertEquals(1, top.size());
+        assertEquals(2, top.get(0).getCount());
+    }
+
+    @Test
+    void Should_ForgetKeys_When_WindowHasMovedPast() {
+        HeavyHitters heavyHitters = new HeavyHitters(60_000, 6, 4, 1024, 3, clock::get);
+        heavyHitters.record("0779090909");
+        clock.addAndGet(60_000);
+        assertTrue(heavyHitters.getTop().isEmpty());
+        assertEquals(0, heavyHitters.getTotal());
+        heavyHitters.record("0779090908");
+        List<HeavyHitters.KeyCount> top = heavyHitters.getTop();
+        assertEquals(1, top.size());
+        assertEquals("0779090908", top.get(0).getKey());
+        assertEquals(1, top.get(0).getCount());
+    }
+
+    /**
+     * Unit tests for record() method.
+     */
+    @Test
+    void Should_CountEveryKey_When_RecordedConcurrently() throws Exception {
+        HeavyHitters heavyHitters = new HeavyHitters(60_000, 6, 4, 1024, 5, clock::get);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                executorService.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        heavyHitters.record(i % 10 == 0 ? "0779090909" : "cold-" + i);
+                    }
+                });
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(80_000, heavyHitters.getTotal());
+        HeavyHitters.KeyCount hottest = heavyHitters.getTop().get(0);
+        assertEquals("0779090909", hottest.getKey());
+        assertTrue(hottest.getCount() >= 8000);
+    }
+
+    @Test
+    void Should_ThrowIllegalArgumentException_When_SettingsAreInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters(60_000, 0, 4, 1024, 3));
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters(60_000, 6, 4, 1024, 0));
+    }
+}
@@ -0,0 +1,40 @@
+package com.hilltop.user.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Log rate limiter test
+ * Unit tests for {@link  LogRateLimiter}
+ */
+class LogRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    /**
+     * Unit tests for tryAcquire() method.
+     */
+    @Test
+    void Should_SuppressMessages_When_PermitsOfIntervalAreUsed() {
+        LogRateLimiter logRateLimiter = new LogRateLimiter(2, 1000, now::get);
+        assertEquals(0, logRateLimiter.tryAcquire());
+        assertEquals(0, logRateLimiter.tryAcquire());
+        assertEquals(LogRateLimiter.SUPPRESSED, logRateLimiter.tryAcquire());
+        assertEquals(LogRateLimiter.SUPPRESSED, logRateLimiter.tryAcquire());
+    }
+
+    @Test
+    void Should_ReportSuppressedCount_When_NextIntervalStarts() {
+        LogRateLimiter logRateLimiter = new LogRateLimiter(1, 1000, now::get);
+        assertEquals(0, logRateLimiter.tryAcquire());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(LogRateLimiter.SUPPRESSED, logRateLimiter.tryAcquire());
+        }
+        now.addAndGet(1000);
+        assertEquals(5, logRateLimiter.tryAcquire());
+        assertEquals(LogRateLimiter.SUPPRESSED, logRateLimiter.tryAcquire());
+    }
+}
@@ -0,0 +1,65 @@
+package com.hilltop.user.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Request timings test
+ * Unit tests for {@link  RequestTimings}
+ */
+class RequestTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.end();
+    }
+
+    /**
+     * Unit tests for start() and stop() methods.
+     */
+    @Test
+    void Should_NotRecord_When_RequestIsNotTimed() {
+        long start = RequestTimings.start();
+        RequestTimings.stop(RequestTimings.Stage.USER_LOOKUP, start);
+        assertEquals(0, start);
+        assertFalse(RequestTimings.isActive());
+        assertEquals(0, RequestTimings.getStageNanos(RequestTimings.Stage.USER_LOOKUP));
+        assertNull(RequestTimings.toServerTiming());
+    }
+
+    @Test
+    void Should_AddUpStageTime_When_StageRunsMoreThanOnce() throws Exception {
+        RequestTimings.begin();
+        for (int i = 0; i < 2; i++) {
+            long start = RequestTimings.start();
+            Thread.sleep(5);
+            RequestTimings.stop(RequestTimings.Stage.USER_LOOKUP, start);
+        }
+        assertTrue(RequestTimings.getStageNanos(RequestTimings.Stage.USER_LOOKUP) >= 10_000_000);
+        assertTrue(RequestTimings.getTotalNanos() >= RequestTimings.getStageNanos(RequestTimings.Stage.USER_LOOKUP));
+    }
+
+    @Test
+    void Should_ResetStages_When_NextRequestBegins() {
+        RequestTimings.begin();
+        RequestTimings.stop(RequestTimings.Stage.TOKEN, RequestTimings.start());
+        RequestTimings.end();
+        RequestTimings.begin();
+        assertEquals(0, RequestTimings.getStageNanos(RequestTimings.Stage.TOKEN));
+        assertFalse(RequestTimings.toServerTiming().contains("jwt"));
+    }
+
+    /**
+     * Unit tests for toServerTiming() and toLogFields() methods.
+     */
+    @Test
+    void Should_ListRecordedStagesAndTotal_When_Formatted() {
+        RequestTimings.begin();
+        RequestTimings.stop(RequestTimings.Stage.PASSWORD_HASH, RequestTimings.start());
+        RequestTimings.stop(RequestTimings.Stage.TOKEN, RequestTimings.start());
+        assertTrue(RequestTimings.toServerTiming().matches("bcrypt;dur=\\d+\\.\\d, jwt;dur=\\d+\\.\\d, total;dur=\\d+\\.\\d"));
+        assertTrue(RequestTimings.toLogFields().matches("bcrypt_ms=\\d+\\.\\d jwt_ms=\\d+\\.\\d total_ms=\\d+\\.\\d"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.hilltop.user.util;
+
+import com.hilltop.user.exception.HillTopUserApplicationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Single flight test
+ * Unit tests for {@link  SingleFlight}
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+    private final ExecutorService executorService = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Unit tests for execute() method.
+     */
+    @Test
+    void Should_RunLoaderOnce_When_CallsForSameKeyOverlap() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(5000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = submitCallers(() -> singleFlight.execute("0779090909", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "user";
+        }));
+        awaitFollowers(singleFlight, started);
+        release.countDown();
+        for (Future<String> result : results) {
+            assertEquals("user", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void Should_PropagateLoaderException_When_CallsForSameKeyOverlap() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(5000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+        List<Future<String>> results = submitCallers(() -> singleFlight.execute("0779090909", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        awaitFollowers(singleFlight, started);
+        release.countDown();
+        for (Future<String> result : results) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, exception.getCause());
+        }
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void Should_ThrowHillTopUserApplicationException_When_InFlightCallExceedsMaxWait() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executorService.submit(() -> singleFlight.execute("0779090909", () -> {
+            started.countDown();
+            await(release);
+            return "user";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertThrows(HillTopUserApplicationException.class,
+                () -> singleFlight.execute("0779090909", () -> "other"));
+        release.countDown();
+        assertEquals("user", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void Should_RunLoaderAgain_When_PreviousCallHasFinished() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(5000);
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals(1, singleFlight.execute("0779090909", loads::incrementAndGet));
+        assertEquals(2, singleFlight.execute("0779090909", loads::incrementAndGet));
+        assertEquals(1, singleFlight.execute("0779090908", () -> 1));
+    }
+
+    private List<Future<String>> submitCallers(Callable<String> caller) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executorService.submit(caller));
+        }
+        return results;
+    }
+
+    /**
+     * This method is used to wait until a caller runs the loader and every other caller joined its flight.
+     */
+    private void awaitFollowers(SingleFlight<?, ?> singleFlight, CountDownLatch started) throws InterruptedException {
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getWaitingCount() < CALLERS - 1) {
+            assertTrue(System.nanoTime() < deadline, "Callers did not join the flight.");
+            Thread.yield();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.hilltop.user.util;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Spans test
+ * Unit tests for {@link  Spans}
+ */
+class SpansTest {
+
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(spanExporter)).build();
+    private final Tracer tracer = tracerProvider.get("test");
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    /**
+     * Unit tests for call() method.
+     */
+    @Test
+    void Should_NestSpans_When_CalledInsideAnotherSpan() {
+        String value = Spans.call(tracer, "outer",
+                () -> Spans.call(tracer, "inner", () -> Span.current().getSpanContext().getSpanId()));
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        assertEquals(2, spans.size());
+        SpanData inner = spans.get(0);
+        SpanData outer = spans.get(1);
+        assertEquals("inner", inner.getName());
+        assertEquals(value, inner.getSpanId());
+        assertEquals(outer.getSpanId(), inner.getParentSpanId());
+        assertEquals(outer.getTraceId(), inner.getTraceId());
+        assertTrue(outer.getEndEpochNanos() >= inner.getEndEpochNanos());
+    }
+
+    @Test
+    void Should_RecordAndRethrowException_When_CodeFails() {
+        IllegalStateException failure = new IllegalStateException("database down");
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> Spans.run(tracer, "failing",
+                () -> {
+                    throw failure;
+                }));
+        assertSame(failure, thrown);
+        SpanData span = spanExporter.getFinishedSpanItems().get(0);
+        assertEquals(StatusCode.ERROR, span.getStatus().getStatusCode());
+        assertEquals(1, span.getEvents().size());
+        assertFalse(Span.current().getSpanContext().isValid());
+    }
+}
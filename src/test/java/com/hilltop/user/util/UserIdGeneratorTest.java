@@ -0,0 +1,72 @@
+package com.hilltop.user.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * User id generator test
+ * Unit tests for {@link  UserIdGenerator}
+ */
+class UserIdGeneratorTest {
+
+    private static final int BUCKET = 1234;
+
+    /**
+     * Unit tests for generate() method.
+     */
+    @Test
+    void Should_GenerateIncreasingIds_When_CalledRepeatedly() {
+        UUID previous = UserIdGenerator.generate(BUCKET);
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = UserIdGenerator.generate(BUCKET);
+            assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(), next.getMostSignificantBits()) < 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void Should_GenerateVersion7Ids_When_Called() {
+        long before = System.currentTimeMillis();
+        UUID id = UserIdGenerator.generate(BUCKET);
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(UserIdGenerator.getTimestamp(id) >= before);
+        assertTrue(Long.compareUnsigned(UserIdGenerator.lowerBound(before).getMostSignificantBits(),
+                id.getMostSignificantBits()) <= 0);
+    }
+
+    /**
+     * Unit tests for getShardBucket() method.
+     */
+    @Test
+    void Should_ReturnEmbeddedBucket_When_IdIsTimeOrdered() {
+        assertEquals(BUCKET, UserIdGenerator.getShardBucket(UserIdGenerator.generate(BUCKET)));
+        assertEquals(4095, UserIdGenerator.getShardBucket(UserIdGenerator.generate(4095)));
+    }
+
+    @Test
+    void Should_ReturnNoBucket_When_IdIsLegacyRandomUuid() {
+        assertEquals(-1, UserIdGenerator.getShardBucket(UUID.randomUUID()));
+    }
+
+    /**
+     * Unit tests for toExternalId() and fromExternalId() methods.
+     */
+    @Test
+    void Should_KeepUidFormat_When_IdIsExternalised() {
+        UUID id = UserIdGenerator.generate(BUCKET);
+        String externalId = UserIdGenerator.toExternalId(id);
+        assertEquals(40, externalId.length());
+        assertTrue(externalId.startsWith("uid-"));
+        assertEquals(id, UserIdGenerator.fromExternalId(externalId));
+    }
+
+    @Test
+    void Should_ThrowIllegalArgumentException_When_ExternalIdIsMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> UserIdGenerator.fromExternalId("123"));
+        assertThrows(IllegalArgumentException.class, () -> UserIdGenerator.fromExternalId("uid-123"));
+    }
+}
@@ -0,0 +1,37 @@
+package db.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Convert user id to binary migration test
+ * Unit tests for {@link  V3__ConvertUserIdToBinary}
+ */
+class V3__ConvertUserIdToBinaryTest {
+
+    private static final UUID LEGACY_ID = UUID.fromString("3f0e2b4c-8d1a-4c6e-9b7f-2a5d8c9e0f11");
+
+    @Test
+    void Should_KeepUuidOfLegacyIds_When_IdsAreConverted() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        Flyway.configure().dataSource(dataSource).target("2").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO user (id, name, mobile_no, password, user_type) VALUES (?, ?, ?, ?, ?)",
+                "uid-" + LEGACY_ID, "User", "0779090909", "password", "USER");
+
+        Flyway.configure().dataSource(dataSource).target("3").load().migrate();
+
+        byte[] id = jdbcTemplate.queryForObject("SELECT id FROM user WHERE mobile_no = '0779090909'", byte[].class);
+        ByteBuffer buffer = ByteBuffer.wrap(id);
+        assertEquals(LEGACY_ID, new UUID(buffer.getLong(), buffer.getLong()));
+    }
+}